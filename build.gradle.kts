@@ -4,6 +4,7 @@ plugins {
     id("java")
     id("org.springframework.boot") version "3.2.0" apply false
     id("io.spring.dependency-management") version "1.1.4" apply false
+    id("org.hibernate.orm") version "6.4.1.Final" apply false
     // id("com.diffplug.spotless") version "6.25.0"  // Temporarily disabled for Gradle 9 compatibility
 }
 
@@ -10,11 +10,15 @@ CREATE TABLE trails (
   duration_minutes INTEGER,
   max_slope DECIMAL(5, 2),
   avg_slope DECIMAL(5, 2),
-  terrain TEXT[],
+  terrain_mask INTEGER NOT NULL DEFAULT 0, -- bit per Terrain constant, e.g. forest = 1, alpine_meadow = 2
   difficulty VARCHAR(20),
-  hazards TEXT[],
+  hazard_mask INTEGER NOT NULL DEFAULT 0, -- bit per Hazard constant, e.g. exposure = 1
   source VARCHAR(100),
   geometry TEXT,
+  geometry_twkb BYTEA, -- compact TWKB encoding read by the service (1e-7°, decimetre elevation)
+  geometry_overview_twkb BYTEA, -- Douglas-Peucker simplifications (80 m, 12 m, 3 m)
+  geometry_regional_twkb BYTEA,
+  geometry_detail_twkb BYTEA,
   created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
   updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -35,7 +39,7 @@ CREATE TABLE weather_cache (
 CREATE INDEX idx_weather_cache_location_date ON weather_cache(latitude, longitude, start_date);
 
 -- Seed data: sample trails
-INSERT INTO trails (id, name, description, distance, elevation_gain, elevation_loss, duration_minutes, max_slope, avg_slope, terrain, difficulty, hazards, source, created_at, updated_at) VALUES
-('550e8400-e29b-41d4-a716-446655440001'::uuid, 'Omu Peak Loop', 'Classic route via alpine meadows and exposed ridge', 12.5, 450, 450, 240, 35.2, 12.1, ARRAY['forest', 'alpine_meadow', 'exposed_ridge'], 'MEDIUM', ARRAY['exposure', 'weather_dependent'], 'openstreetmap', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('550e8400-e29b-41d4-a716-446655440002'::uuid, 'Sphinx Ridge Scramble', 'Technical scramble with rock climbing sections', 8.3, 680, 680, 320, 65.0, 35.5, ARRAY['scramble', 'exposed_ridge', 'rock'], 'ROCK_CLIMBING', ARRAY['exposure', 'loose_rock', 'high_altitude'], 'openstreetmap', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('550e8400-e29b-41d4-a716-446655440003'::uuid, 'Bulea Lake Forest Walk', 'Easy forested walk with lake views', 6.8, 150, 150, 120, 12.0, 4.5, ARRAY['forest', 'lake'], 'EASY', ARRAY[]::text[], 'openstreetmap', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+INSERT INTO trails (id, name, description, distance, elevation_gain, elevation_loss, duration_minutes, max_slope, avg_slope, terrain_mask, difficulty, hazard_mask, source, created_at, updated_at) VALUES
+('550e8400-e29b-41d4-a716-446655440001'::uuid, 'Omu Peak Loop', 'Classic route via alpine meadows and exposed ridge', 12.5, 450, 450, 240, 35.2, 12.1, 7, 'MEDIUM', 9, 'openstreetmap', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('550e8400-e29b-41d4-a716-446655440002'::uuid, 'Sphinx Ridge Scramble', 'Technical scramble with rock climbing sections', 8.3, 680, 680, 320, 65.0, 35.5, 28, 'ROCK_CLIMBING', 69, 'openstreetmap', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('550e8400-e29b-41d4-a716-446655440003'::uuid, 'Bulea Lake Forest Walk', 'Easy forested walk with lake views', 6.8, 150, 150, 120, 12.0, 4.5, 257, 'EASY', 0, 'openstreetmap', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
@@ -31,12 +31,16 @@ CREATE TABLE trails (
   max_slope DECIMAL(5, 2),
   avg_slope DECIMAL(5, 2),
   max_elevation INTEGER,
-  terrain TEXT[],
+  terrain_mask INTEGER NOT NULL DEFAULT 0, -- bit per Terrain constant, e.g. forest = 1, alpine_meadow = 2
   difficulty VARCHAR(20),
-  hazards TEXT[],
+  hazard_mask INTEGER NOT NULL DEFAULT 0, -- bit per Hazard constant, e.g. exposure = 1
   source VARCHAR(100),
   marking_id BIGINT REFERENCES trail_markings(id),
   geometry GEOMETRY(LineString, 4326),
+  geometry_twkb BYTEA, -- compact TWKB encoding read by the service (1e-7°, decimetre elevation)
+  geometry_overview_twkb BYTEA, -- Douglas-Peucker simplifications (80 m, 12 m, 3 m)
+  geometry_regional_twkb BYTEA,
+  geometry_detail_twkb BYTEA,
   created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
   updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -46,6 +50,25 @@ CREATE INDEX idx_trail_difficulty ON trails(difficulty);
 CREATE INDEX idx_trail_source ON trails(source);
 CREATE INDEX idx_trail_geometry ON trails USING GIST(geometry);
 CREATE INDEX idx_trail_marking_id ON trails(marking_id);
+-- Covers GET /trails/filter, so its facet counts can be index-only scans
+CREATE INDEX idx_trail_filter ON trails(difficulty, distance, elevation_gain, duration_minutes, max_slope, terrain_mask, hazard_mask);
+
+-- ===== TRAIL SEARCH =====
+-- Diacritic-insensitive full-text and trigram search (also created at startup by TrailSearchIndexInitializer)
+CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE OR REPLACE FUNCTION trail_unaccent(text) RETURNS text AS
+  $$ SELECT public.unaccent('public.unaccent'::regdictionary, $1) $$
+  LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT;
+
+CREATE INDEX idx_trails_search_tsv ON trails USING GIN (
+  (setweight(to_tsvector('simple', trail_unaccent(coalesce(name, ''))), 'A')
+   || setweight(to_tsvector('simple', trail_unaccent(coalesce(ref, ''))), 'A')
+   || setweight(to_tsvector('simple', trail_unaccent(coalesce(description, ''))), 'C')));
+CREATE INDEX idx_trails_name_trgm ON trails USING GIN (trail_unaccent(lower(name)) gin_trgm_ops);
+CREATE INDEX idx_trails_ref_trgm ON trails USING GIN (trail_unaccent(lower(ref)) gin_trgm_ops);
+CREATE INDEX idx_trails_description_trgm ON trails USING GIN (trail_unaccent(lower(description)) gin_trgm_ops);
 
 -- ===== WAYPOINTS TABLE =====
 -- Individual waypoints along trails (peaks, shelters, junctions, etc.)
@@ -111,7 +134,7 @@ INSERT INTO trail_markings (osmc_symbol, color, shape, hex_color, description) V
 ('orange:orange_rectangle', 'ORANGE', 'RECTANGLE', '#FFA500', 'Orange rectangle - alternate route');
 
 -- ===== SEED DATA: TRAILS =====
-INSERT INTO trails (id, name, description, distance, elevation_gain, elevation_loss, duration_minutes, max_slope, avg_slope, terrain, difficulty, hazards, source, created_at, updated_at) VALUES
-('550e8400-e29b-41d4-a716-446655440001'::uuid, 'Omu Peak Loop', 'Classic route via alpine meadows and exposed ridge', 12.5, 450, 450, 240, 35.2, 12.1, ARRAY['forest', 'alpine_meadow', 'exposed_ridge'], 'MEDIUM', ARRAY['exposure', 'weather_dependent'], 'openstreetmap', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('550e8400-e29b-41d4-a716-446655440002'::uuid, 'Sphinx Ridge Scramble', 'Technical scramble with rock climbing sections', 8.3, 680, 680, 320, 65.0, 35.5, ARRAY['scramble', 'exposed_ridge', 'rock'], 'HARD', ARRAY['exposure', 'loose_rock', 'high_altitude'], 'openstreetmap', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('550e8400-e29b-41d4-a716-446655440003'::uuid, 'Bulea Lake Forest Walk', 'Easy forested walk with lake views', 6.8, 150, 150, 120, 12.0, 4.5, ARRAY['forest', 'lake'], 'EASY', ARRAY[]::text[], 'openstreetmap', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+INSERT INTO trails (id, name, description, distance, elevation_gain, elevation_loss, duration_minutes, max_slope, avg_slope, terrain_mask, difficulty, hazard_mask, source, created_at, updated_at) VALUES
+('550e8400-e29b-41d4-a716-446655440001'::uuid, 'Omu Peak Loop', 'Classic route via alpine meadows and exposed ridge', 12.5, 450, 450, 240, 35.2, 12.1, 7, 'MEDIUM', 9, 'openstreetmap', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('550e8400-e29b-41d4-a716-446655440002'::uuid, 'Sphinx Ridge Scramble', 'Technical scramble with rock climbing sections', 8.3, 680, 680, 320, 65.0, 35.5, 28, 'HARD', 69, 'openstreetmap', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('550e8400-e29b-41d4-a716-446655440003'::uuid, 'Bulea Lake Forest Walk', 'Easy forested walk with lake views', 6.8, 150, 150, 120, 12.0, 4.5, 257, 'EASY', 0, 'openstreetmap', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
@@ -0,0 +1,66 @@
+-- Moves trail terrain and hazards into the terrain_mask / hazard_mask columns read by the
+-- trail service, from the trail_terrain / trail_hazards collection tables of earlier service
+-- versions or the TEXT[] columns of older init.sql schemas, then drops the old storage.
+--
+-- Bit n of a mask is the n-th constant of the Terrain / Hazard enums (see EnumSetMaskConverter);
+-- names that are not a known constant are dropped. Safe to run more than once.
+--
+--   psql trailequip < infra/db/migrate-terrain-hazard-masks.sql
+
+BEGIN;
+
+ALTER TABLE trails ADD COLUMN IF NOT EXISTS terrain_mask INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE trails ADD COLUMN IF NOT EXISTS hazard_mask INTEGER NOT NULL DEFAULT 0;
+
+DO $$
+DECLARE
+  -- Enum declaration order; append only
+  terrain_names TEXT[] := ARRAY['forest', 'alpine_meadow', 'exposed_ridge', 'scramble', 'rock', 'water_crossing',
+                                'loose_rock', 'paved', 'lake', 'via_ferrata', 'technical_climbing'];
+  hazard_names TEXT[] := ARRAY['exposure', 'steep_terrain', 'high_altitude', 'weather_dependent', 'bears',
+                               'limited_water_sources', 'loose_rock', 'steep_descent', 'gorges', 'water_crossing'];
+BEGIN
+  IF to_regclass('trail_terrain') IS NOT NULL THEN
+    UPDATE trails t SET terrain_mask = t.terrain_mask | m.mask
+    FROM (SELECT c.trail_id, bit_or(1 << (array_position(terrain_names, lower(trim(c.terrain))) - 1)) AS mask
+          FROM trail_terrain c
+          WHERE array_position(terrain_names, lower(trim(c.terrain))) IS NOT NULL
+          GROUP BY c.trail_id) m
+    WHERE m.trail_id = t.id;
+    DROP TABLE trail_terrain;
+  END IF;
+
+  IF to_regclass('trail_hazards') IS NOT NULL THEN
+    UPDATE trails t SET hazard_mask = t.hazard_mask | m.mask
+    FROM (SELECT c.trail_id, bit_or(1 << (array_position(hazard_names, lower(trim(c.hazards))) - 1)) AS mask
+          FROM trail_hazards c
+          WHERE array_position(hazard_names, lower(trim(c.hazards))) IS NOT NULL
+          GROUP BY c.trail_id) m
+    WHERE m.trail_id = t.id;
+    DROP TABLE trail_hazards;
+  END IF;
+
+  IF EXISTS (SELECT 1 FROM information_schema.columns
+             WHERE table_schema = current_schema() AND table_name = 'trails' AND column_name = 'terrain') THEN
+    UPDATE trails t SET terrain_mask = t.terrain_mask | m.mask
+    FROM (SELECT s.id, bit_or(1 << (array_position(terrain_names, lower(trim(n))) - 1)) AS mask
+          FROM trails s, unnest(s.terrain) AS n
+          WHERE array_position(terrain_names, lower(trim(n))) IS NOT NULL
+          GROUP BY s.id) m
+    WHERE m.id = t.id;
+    ALTER TABLE trails DROP COLUMN terrain;
+  END IF;
+
+  IF EXISTS (SELECT 1 FROM information_schema.columns
+             WHERE table_schema = current_schema() AND table_name = 'trails' AND column_name = 'hazards') THEN
+    UPDATE trails t SET hazard_mask = t.hazard_mask | m.mask
+    FROM (SELECT s.id, bit_or(1 << (array_position(hazard_names, lower(trim(n))) - 1)) AS mask
+          FROM trails s, unnest(s.hazards) AS n
+          WHERE array_position(hazard_names, lower(trim(n))) IS NOT NULL
+          GROUP BY s.id) m
+    WHERE m.id = t.id;
+    ALTER TABLE trails DROP COLUMN hazards;
+  END IF;
+END $$;
+
+COMMIT;
@@ -2,18 +2,56 @@ plugins {
     id("java")
     id("org.springframework.boot")
     id("io.spring.dependency-management")
+    id("org.hibernate.orm")
 }
 
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.postgresql:postgresql:42.7.1")
     implementation("org.hibernate.orm:hibernate-spatial:6.4.1.Final")
+    implementation("org.hibernate.orm:hibernate-jcache")
+    implementation("org.hibernate.orm:hibernate-micrometer")
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("com.github.ben-manes.caffeine:jcache")
     implementation("org.locationtech.jts:jts-core:1.19.0")
+    implementation("com.google.flatbuffers:flatbuffers-java:23.5.26")
+    implementation("com.fasterxml.jackson.module:jackson-module-blackbird")
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.0.4")
 
     testImplementation("org.testcontainers:postgresql:1.19.3")
 }
 
+// JMH benchmarks live in src/jmh and run against the main classes:
+// ./gradlew :trail-service:jmh -Pjmh.includes=JsonSerialization
+val jmh by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations["jmhImplementation"].extendsFrom(configurations.implementation.get())
+configurations["jmhRuntimeOnly"].extendsFrom(configurations.runtimeOnly.get())
+
+dependencies {
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs the JMH benchmarks in src/jmh"
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    args(providers.gradleProperty("jmh.includes").getOrElse(".*"))
+}
+
+// Bytecode enhancement, so the @Basic(fetch = LAZY) TWKB columns on Trail are loaded only
+// when read instead of with every trail
+hibernate {
+    enhancement {
+        enableLazyInitialization.set(true)
+    }
+}
+
 springBoot {
     mainClass.set("com.trailequip.trail.TrailServiceApplication")
 }
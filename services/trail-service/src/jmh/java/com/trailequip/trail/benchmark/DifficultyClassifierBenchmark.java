@@ -0,0 +1,59 @@
+package com.trailequip.trail.benchmark;
+
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.service.DifficultyClassifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Time to reclassify the whole catalog with DifficultyClassifier.classifyAll.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DifficultyClassifierBenchmark {
+
+    private static final List<List<String>> TERRAIN = List.of(
+            List.of("forest", "lake"),
+            List.of("forest", "alpine_meadow", "exposed_ridge"),
+            List.of("alpine_meadow", "loose_rock"),
+            List.of("scramble", "exposed_ridge", "rock"));
+
+    @Param({"50000"})
+    int trails;
+
+    private DifficultyClassifier classifier;
+    private List<Trail> catalog;
+
+    @Setup
+    public void setUp() {
+        classifier = new DifficultyClassifier();
+        catalog = new ArrayList<>(trails);
+        for (int i = 0; i < trails; i++) {
+            catalog.add(new Trail(
+                    "Trail " + i,
+                    null,
+                    2.0 + i % 45,
+                    100 + i % 3200,
+                    100 + i % 3200,
+                    60 + i % 600,
+                    5.0 + i % 60,
+                    2.0 + i % 25,
+                    TERRAIN.get(i % TERRAIN.size()),
+                    null,
+                    List.of(),
+                    "openstreetmap"));
+        }
+    }
+
+    @Benchmark
+    public List<Difficulty> classifyAll() {
+        return classifier.classifyAll(catalog);
+    }
+}
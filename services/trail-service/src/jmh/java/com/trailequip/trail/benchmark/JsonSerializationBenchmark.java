@@ -0,0 +1,138 @@
+package com.trailequip.trail.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.trailequip.trail.adapter.dto.TrailDto;
+import com.trailequip.trail.adapter.dto.TrailMarkingDto;
+import com.trailequip.trail.adapter.dto.WaypointDto;
+import com.trailequip.trail.application.service.TrailExportService;
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.GeometryLevel;
+import com.trailequip.trail.domain.model.QuantizedCoordinates;
+import com.trailequip.trail.domain.model.Trail;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Serialization throughput of trail list responses and trail geometry.
+ *
+ * The list benchmarks serialize the TrailDto list GET /api/v1/trails returns: "reflection"
+ * is the ObjectMapper as configured before Blackbird, "blackbird" adds the generated
+ * accessors. Geometry is only served by the GeoJSON export, so "trailGeoJSON" measures
+ * TrailExportService writing a trail's full line.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"200"})
+    int trails;
+
+    @Param({"2000"})
+    int vertices;
+
+    private ObjectMapper reflection;
+    private ObjectMapper blackbird;
+    private List<TrailDto> dtos;
+    private TrailExportService exportService;
+    private Trail trail;
+
+    @Setup
+    public void setUp() {
+        reflection = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        blackbird = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .addModule(new BlackbirdModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        dtos = new ArrayList<>(trails);
+        for (int i = 0; i < trails; i++) {
+            dtos.add(trail(i));
+        }
+
+        QuantizedCoordinates.Builder builder = QuantizedCoordinates.builder(vertices);
+        for (int i = 0; i < vertices; i++) {
+            builder.add(25.4 + i * 1e-4, 45.3 + i * 5e-5, 1500 + i % 300);
+        }
+        exportService = new TrailExportService(blackbird);
+        trail = new Trail();
+        trail.setId(UUID.randomUUID());
+        trail.setName("Trail 0");
+        trail.setDistance(8.5);
+        trail.setDifficulty(Difficulty.MEDIUM);
+        trail.setSource("openstreetmap");
+        trail.setCoordinates(builder.build());
+    }
+
+    @Benchmark
+    public byte[] trailListReflection() throws Exception {
+        return reflection.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] trailListBlackbird() throws Exception {
+        return blackbird.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public String trailGeoJSON() throws Exception {
+        return exportService.exportAsGeoJSON(trail, GeometryLevel.FULL, 6);
+    }
+
+    private static TrailDto trail(int i) {
+        List<WaypointDto> waypoints = new ArrayList<>();
+        for (int w = 0; w < 8; w++) {
+            waypoints.add(WaypointDto.builder()
+                    .id(UUID.randomUUID())
+                    .sequenceOrder(w)
+                    .latitude(45.4 + w * 0.01)
+                    .longitude(25.5 + w * 0.01)
+                    .elevation(1800 + w * 40)
+                    .name("Waypoint " + w)
+                    .type("JUNCTION")
+                    .build());
+        }
+        return TrailDto.builder()
+                .id(UUID.randomUUID())
+                .osmId(10_000_000L + i)
+                .name("Trail " + i)
+                .description("Ridge route with exposed sections and a long descent through the forest")
+                .ref("0" + i % 10 + "MN0" + i % 7)
+                .distance(8.5 + i % 12)
+                .elevationGain(400 + i)
+                .elevationLoss(380 + i)
+                .durationMinutes(180 + i % 120)
+                .maxSlope(32.5)
+                .avgSlope(11.2)
+                .maxElevation(2505)
+                .terrain(List.of("forest", "alpine_meadow", "exposed_ridge"))
+                .difficulty(Difficulty.values()[i % Difficulty.values().length])
+                .hazards(List.of("exposure"))
+                .source("openstreetmap")
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .marking(TrailMarkingDto.builder()
+                        .osmcSymbol("red:white:red_stripe")
+                        .color("RED")
+                        .shape("STRIPE")
+                        .hexColor("#FF0000")
+                        .build())
+                .waypoints(waypoints)
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.trailequip.trail.benchmark;
+
+import com.trailequip.trail.TrailServiceApplication;
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.Hazard;
+import com.trailequip.trail.domain.model.Terrain;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailFacets;
+import com.trailequip.trail.domain.model.TrailFilter;
+import com.trailequip.trail.domain.model.TrailSort;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.infrastructure.catalog.TrailCatalog;
+import com.trailequip.trail.infrastructure.tiles.GeoBounds;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * One GET /trails/filter request (facet counts plus the first page, sorted by elevation
+ * gain) answered by the in-memory TrailCatalog and by the JPA repository, and the cost of
+ * rebuilding the catalog after a write.
+ *
+ * The "catalog" benchmarks use a synthetic catalog. The "jpa" ones boot the service against
+ * the configured database (docker-compose Postgres with trails loaded) and compare with a
+ * catalog of the same rows, so run them only with the database up:
+ * ./gradlew :trail-service:jmh -Pjmh.includes='TrailCatalogBenchmark.catalog'
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrailCatalogBenchmark {
+
+    private static final TrailFilter FILTER = new TrailFilter(
+            5.0,
+            20.0,
+            null,
+            1500,
+            null,
+            null,
+            null,
+            null,
+            Set.of(Difficulty.MEDIUM, Difficulty.HARD),
+            Set.of(Terrain.FOREST),
+            Set.of(Terrain.SCRAMBLE),
+            null,
+            Set.of(Hazard.BEARS),
+            null);
+    private static final TrailSort SORT = new TrailSort(TrailSort.Field.ELEVATION_GAIN, true);
+    private static final int PAGE_SIZE = 20;
+
+    @State(Scope.Benchmark)
+    public static class Synthetic {
+
+        @Param({"50000"})
+        int trails;
+
+        List<TrailCatalog.Entry> entries;
+        TrailCatalog catalog;
+
+        @Setup
+        public void setUp() {
+            Difficulty[] difficulties = Difficulty.values();
+            entries = new ArrayList<>(trails);
+            for (int i = 0; i < trails; i++) {
+                double lon = 20.0 + (i % 900) / 100.0;
+                double lat = 43.7 + (i % 480) / 100.0;
+                entries.add(new TrailCatalog.Entry(
+                        UUID.randomUUID(),
+                        "Trail " + Integer.toString(i * 7919 % trails, 36),
+                        i % 10 == 0 ? "manual" : "openstreetmap",
+                        2.0 + i % 45,
+                        i % 50 == 0 ? null : 100 + i % 3200,
+                        60 + i % 600,
+                        5.0 + i % 60,
+                        difficulties[i % difficulties.length],
+                        (1 << (i % 5)) | (i % 3 == 0 ? Terrain.FOREST.bit() : 0),
+                        i % 7 == 0 ? Hazard.BEARS.bit() : 0,
+                        new GeoBounds(lon, lat, lon + 0.05, lat + 0.03)));
+            }
+            catalog = TrailCatalog.build(entries);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Database {
+
+        ConfigurableApplicationContext context;
+        TrailRepository trailRepository;
+        TrailCatalog catalog;
+
+        @Setup
+        public void setUp() {
+            context = new SpringApplicationBuilder(TrailServiceApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties("app.catalog.enabled=false")
+                    .run();
+            trailRepository = context.getBean(TrailRepository.class);
+            List<TrailCatalog.Entry> entries = new ArrayList<>();
+            for (Trail trail : trailRepository.findAll()) {
+                entries.add(TrailCatalog.Entry.of(trail));
+            }
+            catalog = TrailCatalog.build(entries);
+        }
+
+        @TearDown
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public void catalogFilter(Synthetic state, Blackhole blackhole) {
+        filter(state.catalog, blackhole);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public TrailCatalog catalogRebuild(Synthetic state) {
+        return TrailCatalog.build(state.entries);
+    }
+
+    @Benchmark
+    public void jpaFilter(Database state, Blackhole blackhole) {
+        TrailFacets facets = state.trailRepository.countFacets(FILTER);
+        blackhole.consume(facets);
+        blackhole.consume(state.trailRepository.findIdsByFilter(FILTER, SORT, 0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public void jpaRowsCatalogFilter(Database state, Blackhole blackhole) {
+        filter(state.catalog, blackhole);
+    }
+
+    private static void filter(TrailCatalog catalog, Blackhole blackhole) {
+        blackhole.consume(catalog.filter(FILTER, SORT, 0, PAGE_SIZE));
+    }
+}
@@ -1,5 +1,7 @@
 package com.trailequip.trail;
 
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
@@ -16,4 +18,10 @@ public class TrailServiceApplication {
     public RestTemplate restTemplate() {
         return new RestTemplate();
     }
+
+    // Generated property accessors instead of reflection for every bean Jackson serializes
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.trailequip.trail.domain.model.Difficulty;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -50,32 +51,68 @@ public class TrailDto {
      * Convert from domain Trail to DTO.
      */
     public static TrailDto fromDomain(com.trailequip.trail.domain.model.Trail trail) {
+        return fromDomain(trail, TrailFields.ALL);
+    }
+
+    /**
+     * Convert from domain Trail to DTO with only the selected fields set.
+     * Collections and associations that are not selected are never touched, so lazy
+     * ones stay unloaded.
+     */
+    public static TrailDto fromDomain(com.trailequip.trail.domain.model.Trail trail, TrailFields fields) {
+        TrailDtoBuilder dto = TrailDto.builder().id(trail.getId());
+        if (fields.includes("osmId")) dto.osmId(trail.getOsmId());
+        if (fields.includes("name")) dto.name(trail.getName());
+        if (fields.includes("description")) dto.description(trail.getDescription());
+        if (fields.includes("ref")) dto.ref(trail.getRef());
+        if (fields.includes("distance")) dto.distance(trail.getDistance());
+        if (fields.includes("elevationGain")) dto.elevationGain(trail.getElevationGain());
+        if (fields.includes("elevationLoss")) dto.elevationLoss(trail.getElevationLoss());
+        if (fields.includes("durationMinutes")) dto.durationMinutes(trail.getDurationMinutes());
+        if (fields.includes("maxSlope")) dto.maxSlope(trail.getMaxSlope());
+        if (fields.includes("avgSlope")) dto.avgSlope(trail.getAvgSlope());
+        if (fields.includes("maxElevation")) dto.maxElevation(trail.getMaxElevation());
+        if (fields.includes("terrain")) dto.terrain(trail.getTerrain());
+        if (fields.includes("difficulty")) dto.difficulty(trail.getDifficulty());
+        if (fields.includes("hazards")) dto.hazards(trail.getHazards());
+        if (fields.includes("source")) dto.source(trail.getSource());
+        if (fields.includes("createdAt")) dto.createdAt(trail.getCreatedAt());
+        if (fields.includes("updatedAt")) dto.updatedAt(trail.getUpdatedAt());
+        if (fields.includes("marking") && trail.getMarking() != null) {
+            dto.marking(TrailMarkingDto.fromDomain(trail.getMarking()));
+        }
+        if (fields.includes("waypoints") && trail.getWaypoints() != null) {
+            dto.waypoints(trail.getWaypoints().stream().map(WaypointDto::fromDomain).toList());
+        }
+        return dto.build();
+    }
+
+    public static List<TrailDto> fromDomain(
+            List<com.trailequip.trail.domain.model.Trail> trails, TrailFields fields) {
+        return trails.stream().map(trail -> fromDomain(trail, fields)).toList();
+    }
+
+    /**
+     * Convert from a column projection keyed by field name (see {@link TrailFields#COLUMNS}).
+     */
+    public static TrailDto fromColumns(Map<String, Object> columns) {
         return TrailDto.builder()
-                .id(trail.getId())
-                .osmId(trail.getOsmId())
-                .name(trail.getName())
-                .description(trail.getDescription())
-                .ref(trail.getRef())
-                .distance(trail.getDistance())
-                .elevationGain(trail.getElevationGain())
-                .elevationLoss(trail.getElevationLoss())
-                .durationMinutes(trail.getDurationMinutes())
-                .maxSlope(trail.getMaxSlope())
-                .avgSlope(trail.getAvgSlope())
-                .maxElevation(trail.getMaxElevation())
-                .terrain(trail.getTerrain())
-                .difficulty(trail.getDifficulty())
-                .hazards(trail.getHazards())
-                .source(trail.getSource())
-                .createdAt(trail.getCreatedAt())
-                .updatedAt(trail.getUpdatedAt())
-                .marking(trail.getMarking() != null ? TrailMarkingDto.fromDomain(trail.getMarking()) : null)
-                .waypoints(
-                        trail.getWaypoints() != null
-                                ? trail.getWaypoints().stream()
-                                        .map(WaypointDto::fromDomain)
-                                        .toList()
-                                : null)
+                .id((UUID) columns.get("id"))
+                .osmId((Long) columns.get("osmId"))
+                .name((String) columns.get("name"))
+                .description((String) columns.get("description"))
+                .ref((String) columns.get("ref"))
+                .distance((Double) columns.get("distance"))
+                .elevationGain((Integer) columns.get("elevationGain"))
+                .elevationLoss((Integer) columns.get("elevationLoss"))
+                .durationMinutes((Integer) columns.get("durationMinutes"))
+                .maxSlope((Double) columns.get("maxSlope"))
+                .avgSlope((Double) columns.get("avgSlope"))
+                .maxElevation((Integer) columns.get("maxElevation"))
+                .difficulty((Difficulty) columns.get("difficulty"))
+                .source((String) columns.get("source"))
+                .createdAt((Instant) columns.get("createdAt"))
+                .updatedAt((Instant) columns.get("updatedAt"))
                 .build();
     }
 }
@@ -0,0 +1,111 @@
+package com.trailequip.trail.adapter.dto;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sparse fieldset for trail responses, parsed from a {@code fields=name,distance,difficulty}
+ * request parameter. The id is always included.
+ *
+ * When every requested field is a plain column the list endpoints read just those columns
+ * instead of loading entities, so geometry, waypoints and the marking are never fetched.
+ */
+public final class TrailFields {
+
+    /** Fields stored as columns of the trails table, named as in TrailDto. */
+    public static final List<String> COLUMNS = List.of(
+            "id",
+            "osmId",
+            "name",
+            "description",
+            "ref",
+            "distance",
+            "elevationGain",
+            "elevationLoss",
+            "durationMinutes",
+            "maxSlope",
+            "avgSlope",
+            "maxElevation",
+            "difficulty",
+            "source",
+            "createdAt",
+            "updatedAt");
+
+    /** Fields read through the entity: associations, and terrain and hazards decoded from their bitmasks. */
+    public static final List<String> ASSOCIATIONS = List.of("terrain", "hazards", "marking", "waypoints");
+
+    public static final TrailFields ALL = new TrailFields(null);
+
+    private final Set<String> names; // null means every field
+
+    private TrailFields(Set<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * Parse a comma-separated field list; null or blank selects every field.
+     *
+     * @throws IllegalArgumentException for a field TrailDto does not have
+     */
+    public static TrailFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+
+        Set<String> names = new LinkedHashSet<>();
+        names.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!COLUMNS.contains(name) && !ASSOCIATIONS.contains(name)) {
+                throw new IllegalArgumentException("Unknown trail field: " + name);
+            }
+            names.add(name);
+        }
+        return new TrailFields(Collections.unmodifiableSet(names));
+    }
+
+    public static boolean isValid(String fields) {
+        if (fields == null) {
+            return true;
+        }
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!name.isEmpty() && !COLUMNS.contains(name) && !ASSOCIATIONS.contains(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean includes(String name) {
+        return names == null || names.contains(name);
+    }
+
+    public boolean isAll() {
+        return names == null;
+    }
+
+    /**
+     * Whether the selection can be served from table columns alone.
+     */
+    public boolean isColumnsOnly() {
+        return names != null && COLUMNS.containsAll(names);
+    }
+
+    /**
+     * Selected field names; every column and association when all fields are selected.
+     */
+    public Set<String> getNames() {
+        if (names != null) {
+            return names;
+        }
+        Set<String> all = new LinkedHashSet<>(COLUMNS);
+        all.addAll(ASSOCIATIONS);
+        return all;
+    }
+}
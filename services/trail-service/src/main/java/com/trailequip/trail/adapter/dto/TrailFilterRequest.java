@@ -0,0 +1,114 @@
+package com.trailequip.trail.adapter.dto;
+
+import com.trailequip.trail.application.service.TrailFilterService;
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.Hazard;
+import com.trailequip.trail.domain.model.Terrain;
+import com.trailequip.trail.domain.model.TrailFilter;
+import com.trailequip.trail.domain.model.TrailSort;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Query parameters of GET /trails/filter. Lists are comma-separated or repeated, e.g.
+ * {@code difficulty=EASY,MEDIUM&excludeTerrain=exposed_ridge&terrain=water_crossing}.
+ * The sort is one attribute, prefixed with "-" for descending, e.g. {@code sort=-elevationGain}.
+ */
+@Data
+@NoArgsConstructor
+public class TrailFilterRequest {
+
+    private Double minDistance;
+    private Double maxDistance;
+    private Integer minElevationGain;
+    private Integer maxElevationGain;
+    private Integer minDuration;
+    private Integer maxDuration;
+    private Double minSlope;
+    private Double maxSlope;
+
+    private List<String> difficulty;
+    private List<String> terrain;
+    private List<String> excludeTerrain;
+    private List<String> hazards;
+    private List<String> excludeHazards;
+    private String source;
+
+    private String sort;
+    private int page = 0;
+    private int size = TrailFilterService.DEFAULT_PAGE_SIZE;
+    private String fields;
+
+    /**
+     * Whether every difficulty, terrain, hazard, sort and field name is known.
+     */
+    public boolean isValid() {
+        return TrailFields.isValid(fields)
+                && TrailSort.parse(sort) != null
+                && parse(difficulty, TrailFilterRequest::difficultyOf, Difficulty.class) != null
+                && parse(terrain, Terrain::fromName, Terrain.class) != null
+                && parse(excludeTerrain, Terrain::fromName, Terrain.class) != null
+                && parse(hazards, Hazard::fromName, Hazard.class) != null
+                && parse(excludeHazards, Hazard::fromName, Hazard.class) != null;
+    }
+
+    /**
+     * Filter criteria; call {@link #isValid()} first.
+     */
+    public TrailFilter toFilter() {
+        return new TrailFilter(
+                minDistance,
+                maxDistance,
+                minElevationGain,
+                maxElevationGain,
+                minDuration,
+                maxDuration,
+                minSlope,
+                maxSlope,
+                parse(difficulty, TrailFilterRequest::difficultyOf, Difficulty.class),
+                parse(terrain, Terrain::fromName, Terrain.class),
+                parse(excludeTerrain, Terrain::fromName, Terrain.class),
+                parse(hazards, Hazard::fromName, Hazard.class),
+                parse(excludeHazards, Hazard::fromName, Hazard.class),
+                source);
+    }
+
+    /**
+     * Order of the page; call {@link #isValid()} first.
+     */
+    public TrailSort toSort() {
+        return TrailSort.parse(sort);
+    }
+
+    // Null when a name is unknown; blank entries ("a,,b") are skipped
+    private static <E extends Enum<E>> Set<E> parse(List<String> names, Function<String, E> lookup, Class<E> type) {
+        Set<E> values = EnumSet.noneOf(type);
+        if (names == null) {
+            return values;
+        }
+        for (String name : names) {
+            if (name == null || name.isBlank()) {
+                continue;
+            }
+            E value = lookup.apply(name);
+            if (value == null) {
+                return null;
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+    private static Difficulty difficultyOf(String name) {
+        try {
+            return Difficulty.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.trailequip.trail.adapter.dto;
+
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.TrailFacets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response of GET /trails/filter: one page of trails and the facet counts of the filter.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrailFilterResultDto {
+
+    private long total;
+    private int page;
+    private int size;
+    private List<TrailDto> trails;
+    private Facets facets;
+
+    /**
+     * Trails per difficulty (ignoring the difficulty selection) and matching trails per
+     * terrain, keyed by terrain name.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Facets {
+        private Map<Difficulty, Long> difficulty;
+        private Map<String, Long> terrain;
+
+        public static Facets fromDomain(TrailFacets facets) {
+            Map<String, Long> terrain = new LinkedHashMap<>();
+            facets.terrain().forEach((type, count) -> terrain.put(type.getName(), count));
+            return new Facets(new LinkedHashMap<>(facets.difficulty()), terrain);
+        }
+    }
+}
@@ -1,22 +1,34 @@
 package com.trailequip.trail.adapter.rest;
 
+import com.trailequip.trail.adapter.dto.TrailDto;
+import com.trailequip.trail.adapter.dto.TrailFields;
 import com.trailequip.trail.application.service.OSMIngestionService;
-import com.trailequip.trail.application.service.TrailExportService;
-import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.application.service.TrailExportCache;
+import com.trailequip.trail.application.service.TrailFlatGeobufCatalog;
+import com.trailequip.trail.application.service.TrailSearchService;
+import com.trailequip.trail.application.service.TrailStreamingExportService;
+import com.trailequip.trail.domain.model.GeometryLevel;
 import com.trailequip.trail.domain.model.Trail;
 import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.domain.service.FixedDecimalFormatter;
+import com.trailequip.trail.infrastructure.flatgeobuf.FlatGeobufWriter;
+import com.trailequip.trail.infrastructure.tiles.GeoBounds;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST API endpoints for OSM trail integration and export.
@@ -30,7 +42,10 @@ import org.springframework.web.bind.annotation.*;
 public class OSMTrailController {
 
     private final OSMIngestionService osmIngestionService;
-    private final TrailExportService trailExportService;
+    private final TrailExportCache trailExportCache;
+    private final TrailFlatGeobufCatalog trailFlatGeobufCatalog;
+    private final TrailSearchService trailSearchService;
+    private final TrailStreamingExportService trailStreamingExportService;
     private final TrailRepository trailRepository;
 
     // ===== INGESTION ENDPOINTS =====
@@ -70,11 +85,11 @@ public class OSMTrailController {
      */
     @PostMapping("/ingest/{osmRelationId}")
     @Operation(summary = "Ingest single trail by OSM relation ID")
-    public ResponseEntity<Trail> ingestTrailById(@PathVariable Long osmRelationId) {
+    public ResponseEntity<TrailDto> ingestTrailById(@PathVariable Long osmRelationId) {
         log.info("Ingesting trail by OSM ID: {}", osmRelationId);
         try {
             Trail trail = osmIngestionService.ingestTrailById(osmRelationId);
-            return ResponseEntity.status(HttpStatus.CREATED).body(trail);
+            return ResponseEntity.status(HttpStatus.CREATED).body(TrailDto.fromDomain(trail));
         } catch (Exception e) {
             log.error("Failed to ingest trail: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
@@ -102,124 +117,230 @@ public class OSMTrailController {
 
     /**
      * Export trail as GeoJSON.
-     * GET /api/v1/osm/trails/{id}/geojson
+     * GET /api/v1/osm/trails/{id}/geojson?zoom=11
      * For mapping in Leaflet, MapBox, etc.
+     * Optional zoom (map zoom level) or tolerance (metres) selects a simplified geometry.
+     * Optional precision (0-7, default 6) sets the decimals written per coordinate.
+     * Served from the export cache with a strong ETag; gzip when the client accepts it.
      */
     @GetMapping("/{id}/geojson")
     @Operation(summary = "Export trail as GeoJSON")
-    public ResponseEntity<String> exportTrailAsGeoJSON(@PathVariable UUID id) {
-        Optional<Trail> trail = trailRepository.findById(id);
-
-        if (trail.isEmpty()) {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<byte[]> exportTrailAsGeoJSON(
+            @PathVariable UUID id,
+            @RequestParam(required = false) Integer zoom,
+            @RequestParam(required = false) Double tolerance,
+            @RequestParam(defaultValue = "" + FixedDecimalFormatter.DEFAULT_PRECISION) int precision,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (!isValidResolution(zoom, tolerance) || !FixedDecimalFormatter.isValidPrecision(precision)) {
+            return ResponseEntity.badRequest().build();
         }
 
-        try {
-            String geoJson = trailExportService.exportAsGeoJSON(trail.get());
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"trail-" + id + ".geojson\"")
-                    .body(geoJson);
-        } catch (Exception e) {
-            log.error("Failed to export trail as GeoJSON: {}", e.getMessage());
-            return ResponseEntity.internalServerError().build();
-        }
+        return exportTrail(
+                id,
+                TrailExportCache.Format.GEOJSON,
+                GeometryLevel.resolve(zoom, tolerance),
+                precision,
+                ifNoneMatch,
+                acceptEncoding);
     }
 
     /**
      * Export trail as GPX 1.1 format.
-     * GET /api/v1/osm/trails/{id}/gpx
+     * GET /api/v1/osm/trails/{id}/gpx?precision=6
      * For GPS devices and mapping apps.
+     * Served from the export cache with a strong ETag; gzip when the client accepts it.
      */
     @GetMapping("/{id}/gpx")
     @Operation(summary = "Export trail as GPX 1.1")
-    public ResponseEntity<String> exportTrailAsGPX(@PathVariable UUID id) {
-        Optional<Trail> trail = trailRepository.findById(id);
+    public ResponseEntity<byte[]> exportTrailAsGPX(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "" + FixedDecimalFormatter.DEFAULT_PRECISION) int precision,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (!FixedDecimalFormatter.isValidPrecision(precision)) {
+            return ResponseEntity.badRequest().build();
+        }
 
-        if (trail.isEmpty()) {
-            return ResponseEntity.notFound().build();
+        return exportTrail(
+                id, TrailExportCache.Format.GPX, GeometryLevel.FULL, precision, ifNoneMatch, acceptEncoding);
+    }
+
+    /**
+     * Export trails as a ZIP with one GPX file per trail, for loading onto GPS devices.
+     * GET /api/v1/osm/trails/all/gpx.zip?difficulty=HARD&south=45.3&west=25.4&north=45.5&east=25.6
+     * All filters are optional; the region (all four bounds) keeps trails that cross it.
+     * Streamed from a database cursor, entry by entry.
+     */
+    @GetMapping("/all/gpx.zip")
+    @Operation(summary = "Export trails as a ZIP of GPX files")
+    public ResponseEntity<StreamingResponseBody> exportTrailsAsGPXArchive(
+            @RequestParam(required = false) String difficulty,
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) Double south,
+            @RequestParam(required = false) Double west,
+            @RequestParam(required = false) Double north,
+            @RequestParam(required = false) Double east,
+            @RequestParam(defaultValue = "" + FixedDecimalFormatter.DEFAULT_PRECISION) int precision) {
+        if (!FixedDecimalFormatter.isValidPrecision(precision)) {
+            return ResponseEntity.badRequest().build();
         }
 
-        try {
-            String gpx = trailExportService.exportAsGPX(trail.get());
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_XML)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"trail-" + id + ".gpx\"")
-                    .body(gpx);
-        } catch (Exception e) {
-            log.error("Failed to export trail as GPX: {}", e.getMessage());
-            return ResponseEntity.internalServerError().build();
+        boolean anyBound = south != null || west != null || north != null || east != null;
+        GeoBounds region = null;
+        if (anyBound) {
+            if (!isValidRegion(south, west, north, east)) {
+                return ResponseEntity.badRequest().build();
+            }
+            region = new GeoBounds(west, south, east, north);
         }
+
+        GeoBounds filterRegion = region;
+        StreamingResponseBody body = out -> {
+            try {
+                trailStreamingExportService.writeGPXArchive(difficulty, source, filterRegion, precision, out);
+            } catch (IOException | RuntimeException e) {
+                // Headers are already sent; the client sees a truncated archive
+                log.error("Failed to stream trails as GPX archive: {}", e.getMessage());
+                throw e;
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"trails-gpx.zip\"")
+                .body(body);
     }
 
     /**
      * Export all trails as GeoJSON FeatureCollection.
-     * GET /api/v1/osm/trails/all/geojson?difficulty=HARD&source=openstreetmap
+     * GET /api/v1/osm/trails/all/geojson?difficulty=HARD&source=openstreetmap&zoom=9
+     * Optional zoom or tolerance (metres) selects simplified geometries for overview maps.
+     * Streamed from a database cursor, so the whole collection is never held in memory.
      */
     @GetMapping("/all/geojson")
     @Operation(summary = "Export all trails as GeoJSON FeatureCollection")
-    public ResponseEntity<String> exportAllTrailsAsGeoJSON(
-            @RequestParam(required = false) String difficulty, @RequestParam(required = false) String source) {
+    public ResponseEntity<StreamingResponseBody> exportAllTrailsAsGeoJSON(
+            @RequestParam(required = false) String difficulty,
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) Integer zoom,
+            @RequestParam(required = false) Double tolerance,
+            @RequestParam(defaultValue = "" + FixedDecimalFormatter.DEFAULT_PRECISION) int precision) {
+        if (!isValidResolution(zoom, tolerance) || !FixedDecimalFormatter.isValidPrecision(precision)) {
+            return ResponseEntity.badRequest().build();
+        }
 
-        try {
-            List<Trail> trails;
-
-            if (difficulty != null) {
-                try {
-                    Difficulty difficultyEnum = Difficulty.valueOf(difficulty.toUpperCase());
-                    trails = trailRepository.findByDifficulty(difficultyEnum);
-                } catch (IllegalArgumentException e) {
-                    trails = List.of();
-                }
-            } else if (source != null) {
-                trails = trailRepository.findBySource(source);
-            } else {
-                trails = trailRepository.findAll();
+        GeometryLevel level = GeometryLevel.resolve(zoom, tolerance);
+        StreamingResponseBody body = out -> {
+            try {
+                trailStreamingExportService.writeGeoJSONCollection(difficulty, source, level, precision, out);
+            } catch (IOException | RuntimeException e) {
+                // Headers are already sent; the client sees a truncated document
+                log.error("Failed to stream trails as GeoJSON: {}", e.getMessage());
+                throw e;
             }
+        };
 
-            String geoJson = trailExportService.exportAsGeoJSONCollection(trails);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"trails.geojson\"")
+                .body(body);
+    }
+
+    /**
+     * Export trails as FlatGeobuf with a packed Hilbert R-tree index, for GIS tools.
+     * GET /api/v1/osm/trails/all/fgb
+     * Without filters the whole catalog is served from a prebuilt file that supports
+     * Range requests, so clients can read the index and fetch only the features in a bbox.
+     * With difficulty or source filters the file is generated and streamed per request.
+     */
+    @GetMapping("/all/fgb")
+    @Operation(summary = "Export trails as FlatGeobuf")
+    public ResponseEntity<?> exportTrailsAsFlatGeobuf(
+            @RequestParam(required = false) String difficulty, @RequestParam(required = false) String source) {
+        MediaType mediaType = MediaType.parseMediaType(FlatGeobufWriter.MEDIA_TYPE);
+        String disposition = "attachment; filename=\"trails.fgb\"";
+
+        if (difficulty == null && source == null) {
+            TrailFlatGeobufCatalog.Snapshot catalog;
+            try {
+                catalog = trailFlatGeobufCatalog.current();
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to build FlatGeobuf catalog: {}", e.getMessage());
+                return ResponseEntity.internalServerError().build();
+            }
             return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"trails.geojson\"")
-                    .body(geoJson);
-        } catch (Exception e) {
-            log.error("Failed to export trails as GeoJSON: {}", e.getMessage());
-            return ResponseEntity.internalServerError().build();
+                    .contentType(mediaType)
+                    .eTag(catalog.etag())
+                    .lastModified(catalog.builtAt())
+                    .header(HttpHeaders.CONTENT_DISPOSITION, disposition)
+                    .body(new FileSystemResource(catalog.file()));
         }
+
+        StreamingResponseBody body = out -> {
+            try {
+                trailStreamingExportService.writeFlatGeobuf(difficulty, source, out);
+            } catch (IOException | RuntimeException e) {
+                // Headers are already sent; the client sees a truncated file
+                log.error("Failed to stream trails as FlatGeobuf: {}", e.getMessage());
+                throw e;
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition)
+                .body(body);
     }
 
     // ===== SEARCH & FILTER ENDPOINTS =====
 
     /**
-     * Search trails by name.
-     * GET /api/v1/osm/trails/search?q=Bucegi
+     * Search trails by name, ref and description, ranked by relevance.
+     * Matching is diacritic-insensitive ("Varful Omu" finds "Vârful Omu").
+     * GET /api/v1/osm/trails/search?q=Bucegi&page=0&size=20&fields=name,ref
+     * Total match count is returned in the X-Total-Count header.
      */
     @GetMapping("/search")
-    @Operation(summary = "Search trails by name")
-    public ResponseEntity<List<Trail>> searchTrails(@RequestParam String q) {
-        if (q == null || q.trim().isEmpty()) {
+    @Operation(summary = "Search trails by name, ref or description")
+    public ResponseEntity<List<TrailDto>> searchTrails(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + TrailSearchService.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(required = false) String fields) {
+        if (q == null || q.trim().isEmpty() || !TrailFields.isValid(fields)) {
             return ResponseEntity.badRequest().build();
         }
 
-        // This would require a full-text search implementation in the repository
-        // For now, return filtered results
-        List<Trail> trails = trailRepository.findAll().stream()
-                .filter(t -> t.getName().toLowerCase().contains(q.toLowerCase()))
-                .toList();
+        Page<Trail> results = trailSearchService.search(q, page, size);
 
-        return ResponseEntity.ok(trails);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(results.getTotalElements()))
+                .body(TrailDto.fromDomain(results.getContent(), TrailFields.parse(fields)));
     }
 
     /**
      * Get trails by data source.
-     * GET /api/v1/osm/trails/source/{source}
+     * GET /api/v1/osm/trails/source/{source}?fields=name,distance
      * Examples: "openstreetmap", "muntii-nostri.ro"
+     * Column-only field selections are read without loading trail entities.
      */
     @GetMapping("/source/{source}")
     @Operation(summary = "Get trails by data source")
-    public ResponseEntity<List<Trail>> getTrailsBySource(@PathVariable String source) {
+    public ResponseEntity<List<TrailDto>> getTrailsBySource(
+            @PathVariable String source, @RequestParam(required = false) String fields) {
+        if (!TrailFields.isValid(fields)) {
+            return ResponseEntity.badRequest().build();
+        }
+        TrailFields selected = TrailFields.parse(fields);
+        if (selected.isColumnsOnly()) {
+            return ResponseEntity.ok(trailRepository.findAttributes(selected.getNames(), null, source).stream()
+                    .map(TrailDto::fromColumns)
+                    .toList());
+        }
+
         List<Trail> trails = trailRepository.findBySource(source);
-        return ResponseEntity.ok(trails);
+        return ResponseEntity.ok(TrailDto.fromDomain(trails, selected));
     }
 
     /**
@@ -228,9 +349,14 @@ public class OSMTrailController {
      */
     @GetMapping("/osm-id/{osmId}")
     @Operation(summary = "Get trail by OSM relation ID")
-    public ResponseEntity<Trail> getTrailByOsmId(@PathVariable Long osmId) {
+    public ResponseEntity<TrailDto> getTrailByOsmId(
+            @PathVariable Long osmId, @RequestParam(required = false) String fields) {
+        if (!TrailFields.isValid(fields)) {
+            return ResponseEntity.badRequest().build();
+        }
+        TrailFields selected = TrailFields.parse(fields);
         Optional<Trail> trail = trailRepository.findByOsmId(osmId);
-        return trail.map(ResponseEntity::ok)
+        return trail.map(t -> ResponseEntity.ok(TrailDto.fromDomain(t, selected)))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -249,6 +375,107 @@ public class OSMTrailController {
         return ResponseEntity.ok(status);
     }
 
+    private ResponseEntity<byte[]> exportTrail(
+            UUID id,
+            TrailExportCache.Format format,
+            GeometryLevel level,
+            int precision,
+            String ifNoneMatch,
+            String acceptEncoding) {
+        Optional<Trail> trail = trailRepository.findById(id);
+
+        if (trail.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        TrailExportCache.Artifact artifact;
+        try {
+            artifact = trailExportCache.get(trail.get(), format, level, precision);
+        } catch (Exception e) {
+            log.error("Failed to export trail as {}: {}", format, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+
+        boolean gzip = artifact.hasGzip() && acceptsGzip(acceptEncoding);
+        String etag = gzip ? artifact.gzipEtag() : artifact.etag();
+
+        if (matchesETag(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .header(
+                        HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"trail-" + id + "." + format.getExtension() + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? artifact.gzip() : artifact.identity());
+    }
+
+    /**
+     * If-None-Match uses weak comparison, so W/ prefixes are ignored.
+     */
+    private boolean matchesETag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                for (int i = 1; i < parts.length; i++) {
+                    if (parts[i].trim().matches("q=0(\\.0*)?")) {
+                        return false; // explicitly refused
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isValidRegion(Double south, Double west, Double north, Double east) {
+        return south != null
+                && west != null
+                && north != null
+                && east != null
+                && south >= -90
+                && north <= 90
+                && south <= north
+                && west >= -180
+                && east <= 180
+                && west <= east;
+    }
+
+    private boolean isValidResolution(Integer zoom, Double tolerance) {
+        return (zoom == null || (zoom >= 0 && zoom <= 24)) && (tolerance == null || tolerance >= 0);
+    }
+
     /**
      * Health status response object.
      */
@@ -0,0 +1,73 @@
+package com.trailequip.trail.adapter.rest;
+
+import com.trailequip.trail.application.service.TrailReclassificationService;
+import com.trailequip.trail.application.service.TrailReclassificationService.JobStatus;
+import com.trailequip.trail.application.service.TrailSnapshotService;
+import com.trailequip.trail.infrastructure.snapshot.TrailSnapshot;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Catalog maintenance jobs.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/admin/trails")
+@Tag(name = "Trail Admin", description = "Catalog maintenance jobs")
+@RequiredArgsConstructor
+public class TrailAdminController {
+
+    private final TrailReclassificationService trailReclassificationService;
+    private final TrailSnapshotService trailSnapshotService;
+
+    /**
+     * Recompute difficulty, terrain and hazards of stored trails with the current rules.
+     * POST /api/v1/admin/trails/reclassify?source=openstreetmap&dryRun=true
+     */
+    @PostMapping("/reclassify")
+    @Operation(summary = "Start reclassifying stored trails with the current rules")
+    public ResponseEntity<JobStatus> startReclassification(
+            @RequestParam(required = false) String source, @RequestParam(defaultValue = "false") boolean dryRun) {
+        Optional<JobStatus> started = trailReclassificationService.start(source, dryRun);
+        if (started.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(trailReclassificationService.getStatus().orElse(null));
+        }
+        return ResponseEntity.accepted().body(started.get());
+    }
+
+    /**
+     * Progress of the running reclassification, or the summary of the last one.
+     * GET /api/v1/admin/trails/reclassify
+     */
+    @GetMapping("/reclassify")
+    @Operation(summary = "Get reclassification progress and diff summary")
+    public ResponseEntity<JobStatus> getReclassificationStatus() {
+        return trailReclassificationService
+                .getStatus()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Write the snapshot file served by read-only edge instances.
+     * POST /api/v1/admin/trails/snapshot
+     */
+    @PostMapping("/snapshot")
+    @Operation(summary = "Write the trail snapshot for read-only edge instances")
+    public ResponseEntity<TrailSnapshot.Metadata> writeSnapshot() {
+        try {
+            return ResponseEntity.ok(trailSnapshotService.writeSnapshot());
+        } catch (IOException e) {
+            log.error("Failed to write trail snapshot: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
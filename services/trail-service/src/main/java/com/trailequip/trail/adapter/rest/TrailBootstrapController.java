@@ -0,0 +1,81 @@
+package com.trailequip.trail.adapter.rest;
+
+import com.trailequip.trail.application.service.TrailBootstrapService;
+import com.trailequip.trail.application.service.TrailBootstrapService.ImportResult;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Bulk export and import of the trail tables, for bootstrapping a database from another
+ * instance. Not available in edge mode, which has no database.
+ */
+@Slf4j
+@RestController
+@Profile("!edge")
+@RequestMapping("/api/v1/admin/trails/bootstrap")
+@Tag(name = "Trail Admin", description = "Catalog maintenance jobs")
+@RequiredArgsConstructor
+public class TrailBootstrapController {
+
+    private final TrailBootstrapService trailBootstrapService;
+
+    /**
+     * Export trails, waypoints, segments and markings as a ZIP of binary COPY data.
+     * GET /api/v1/admin/trails/bootstrap
+     */
+    @GetMapping
+    @Operation(summary = "Export the trail tables in Postgres binary COPY format")
+    public ResponseEntity<StreamingResponseBody> exportTables() {
+        StreamingResponseBody body = out -> {
+            try {
+                trailBootstrapService.exportArchive(out);
+            } catch (IOException | RuntimeException e) {
+                // Headers are already sent; the client sees a truncated archive
+                log.error("Failed to export trail tables: {}", e.getMessage());
+                throw e;
+            } catch (SQLException e) {
+                log.error("Failed to export trail tables: {}", e.getMessage());
+                throw new IOException(e);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"trails-bootstrap.zip\"")
+                .body(body);
+    }
+
+    /**
+     * Replace the trail tables with an exported archive, sent as the request body.
+     * POST /api/v1/admin/trails/bootstrap?replace=true
+     * Without replace the tables must be empty.
+     */
+    @PostMapping
+    @Operation(summary = "Import the trail tables from a binary COPY export")
+    public ResponseEntity<ImportResult> importTables(
+            InputStream body, @RequestParam(defaultValue = "false") boolean replace) {
+        try {
+            return ResponseEntity.ok(trailBootstrapService.importArchive(body, replace));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Rejected trail table import: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (SQLException e) {
+            log.error("Failed to import trail tables: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
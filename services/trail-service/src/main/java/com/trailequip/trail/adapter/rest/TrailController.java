@@ -1,13 +1,24 @@
 package com.trailequip.trail.adapter.rest;
 
+import com.trailequip.trail.adapter.dto.TrailDto;
+import com.trailequip.trail.adapter.dto.TrailFields;
+import com.trailequip.trail.adapter.dto.TrailFilterRequest;
+import com.trailequip.trail.adapter.dto.TrailFilterResultDto;
 import com.trailequip.trail.application.service.TrailApplicationService;
+import com.trailequip.trail.application.service.TrailAutocompleteService;
+import com.trailequip.trail.application.service.TrailBulkService;
+import com.trailequip.trail.application.service.TrailFilterService;
+import com.trailequip.trail.application.service.TrailTileService;
 import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.infrastructure.search.AutocompleteIndex;
+import com.trailequip.trail.infrastructure.tiles.MvtTileBuilder;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,55 +32,176 @@ import org.springframework.web.bind.annotation.*;
 public class TrailController {
 
     private final TrailApplicationService trailApplicationService;
+    private final TrailAutocompleteService trailAutocompleteService;
+    private final TrailTileService trailTileService;
+    private final TrailBulkService trailBulkService;
+    private final TrailFilterService trailFilterService;
 
-    public TrailController(TrailApplicationService trailApplicationService) {
+    public TrailController(
+            TrailApplicationService trailApplicationService,
+            TrailAutocompleteService trailAutocompleteService,
+            TrailTileService trailTileService,
+            TrailBulkService trailBulkService,
+            TrailFilterService trailFilterService) {
         this.trailApplicationService = trailApplicationService;
+        this.trailAutocompleteService = trailAutocompleteService;
+        this.trailTileService = trailTileService;
+        this.trailBulkService = trailBulkService;
+        this.trailFilterService = trailFilterService;
     }
 
     @GetMapping
-    @Operation(summary = "List all trails")
-    public ResponseEntity<List<Trail>> getAllTrails(@RequestParam(required = false) String difficulty) {
-        if (difficulty != null) {
-            List<Trail> trails = trailApplicationService.getTrailsByDifficulty(difficulty);
-            return ResponseEntity.ok(trails);
+    @Operation(summary = "List all trails, optionally only some fields (fields=name,distance)")
+    public ResponseEntity<List<TrailDto>> getAllTrails(
+            @RequestParam(required = false) String difficulty, @RequestParam(required = false) String fields) {
+        if (!TrailFields.isValid(fields)) {
+            return ResponseEntity.badRequest().build();
         }
-        List<Trail> trails = trailApplicationService.getAllTrails();
-        return ResponseEntity.ok(trails);
+        TrailFields selected = TrailFields.parse(fields);
+        if (selected.isColumnsOnly()) {
+            return ResponseEntity.ok(columns(selected, difficulty));
+        }
+
+        List<Trail> trails = difficulty != null
+                ? trailApplicationService.getTrailsByDifficulty(difficulty)
+                : trailApplicationService.getAllTrails();
+        return ResponseEntity.ok(TrailDto.fromDomain(trails, selected));
+    }
+
+    @GetMapping("/filter")
+    @Operation(summary = "Filter and sort trails by ranges, difficulties, terrain and hazards, with facet counts")
+    public ResponseEntity<TrailFilterResultDto> filterTrails(@ModelAttribute TrailFilterRequest request) {
+        if (!request.isValid()) {
+            return ResponseEntity.badRequest().build();
+        }
+        TrailFilterService.Result result = trailFilterService.filter(
+                request.toFilter(), request.toSort(), request.getPage(), request.getSize());
+
+        return ResponseEntity.ok(TrailFilterResultDto.builder()
+                .total(result.facets().total())
+                .page(result.page())
+                .size(result.size())
+                .trails(page(result.ids(), TrailFields.parse(request.getFields())))
+                .facets(TrailFilterResultDto.Facets.fromDomain(result.facets()))
+                .build());
+    }
+
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Autocomplete trail names, refs, peaks and huts")
+    public ResponseEntity<List<AutocompleteIndex.Suggestion>> autocomplete(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "" + TrailAutocompleteService.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(trailAutocompleteService.complete(q, limit));
+    }
+
+    @GetMapping(value = "/tiles/{z}/{x}/{y}.mvt", produces = MvtTileBuilder.CONTENT_TYPE)
+    @Operation(summary = "Trails as a Mapbox Vector Tile (layer \"trails\")")
+    public ResponseEntity<byte[]> getTile(@PathVariable int z, @PathVariable int x, @PathVariable int y) {
+        if (!trailTileService.isValidTile(z, x, y)) {
+            return ResponseEntity.badRequest().build();
+        }
+        byte[] tile = trailTileService.getTile(z, x, y);
+        if (tile.length == 0) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(MvtTileBuilder.CONTENT_TYPE))
+                .body(tile);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get trail by ID")
-    public ResponseEntity<Trail> getTrail(@PathVariable UUID id) {
+    public ResponseEntity<TrailDto> getTrail(@PathVariable UUID id, @RequestParam(required = false) String fields) {
+        if (!TrailFields.isValid(fields)) {
+            return ResponseEntity.badRequest().build();
+        }
+        TrailFields selected = TrailFields.parse(fields);
         Optional<Trail> trail = trailApplicationService.getTrail(id);
-        return trail.map(ResponseEntity::ok)
+        return trail.map(t -> ResponseEntity.ok(TrailDto.fromDomain(t, selected)))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Get several trails by id in one request, in request order")
+    public ResponseEntity<List<TrailDto>> getTrailsBatch(
+            @RequestBody List<UUID> ids, @RequestParam(required = false) String fields) {
+        if (ids == null
+                || ids.size() > TrailApplicationService.MAX_BATCH_SIZE
+                || ids.contains(null)
+                || !TrailFields.isValid(fields)) {
+            return ResponseEntity.badRequest().build();
+        }
+        TrailFields selected = TrailFields.parse(fields);
+        if (selected.isColumnsOnly()) {
+            return ResponseEntity.ok(trailApplicationService.getTrailAttributes(selected.getNames(), ids).stream()
+                    .map(TrailDto::fromColumns)
+                    .toList());
+        }
+        return ResponseEntity.ok(TrailDto.fromDomain(trailApplicationService.getTrails(ids), selected));
+    }
+
     @PostMapping
     @Operation(summary = "Create new trail")
-    public ResponseEntity<Trail> createTrail(@RequestBody Trail trail) {
+    public ResponseEntity<TrailDto> createTrail(@RequestBody Trail trail) {
+        if (!isValidTrail(trail)) {
+            return ResponseEntity.badRequest().build();
+        }
         Trail created = trailApplicationService.createTrail(trail);
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        return ResponseEntity.status(HttpStatus.CREATED).body(TrailDto.fromDomain(created));
+    }
+
+    @PostMapping("/bulk")
+    @Operation(summary = "Create several trails, reporting the outcome of each")
+    public ResponseEntity<TrailBulkService.BulkResult> createTrails(@RequestBody List<Trail> trails) {
+        if (!isValidBulk(trails)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(trailBulkService.createTrails(trails));
+    }
+
+    @PutMapping("/bulk")
+    @Operation(summary = "Update several trails by id, reporting the outcome of each")
+    public ResponseEntity<TrailBulkService.BulkResult> updateTrails(@RequestBody List<Trail> trails) {
+        if (!isValidBulk(trails)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(trailBulkService.updateTrails(trails));
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update trail")
-    public ResponseEntity<Trail> updateTrail(@PathVariable UUID id, @RequestBody Trail trail) {
+    public ResponseEntity<TrailDto> updateTrail(@PathVariable UUID id, @RequestBody Trail trail) {
+        if (!isValidTrail(trail)) {
+            return ResponseEntity.badRequest().build();
+        }
         trail.setId(id);
         Trail updated = trailApplicationService.updateTrail(trail);
-        return ResponseEntity.ok(updated);
+        return ResponseEntity.ok(TrailDto.fromDomain(updated));
     }
 
     @PostMapping("/suggest")
     @Operation(summary = "Suggest trails in area")
-    public ResponseEntity<List<Trail>> suggestTrails(
+    public ResponseEntity<List<TrailDto>> suggestTrails(
             @RequestParam double centerLat,
             @RequestParam double centerLon,
             @RequestParam(defaultValue = "5") double radiusKm,
-            @RequestParam(required = false) String difficulty) {
+            @RequestParam(required = false) String difficulty,
+            @RequestParam(required = false) String fields) {
+        if (!TrailFields.isValid(fields)) {
+            return ResponseEntity.badRequest().build();
+        }
+        TrailFields selected = TrailFields.parse(fields);
+        if (selected.isColumnsOnly()) {
+            return ResponseEntity.ok(trailApplicationService
+                    .getTrailAttributesInArea(selected.getNames(), centerLat, centerLon, radiusKm, difficulty)
+                    .stream()
+                    .map(TrailDto::fromColumns)
+                    .toList());
+        }
+
         List<Trail> suggestions =
                 trailApplicationService.suggestTrailsInArea(centerLat, centerLon, radiusKm, difficulty);
-        return ResponseEntity.ok(suggestions);
+        return ResponseEntity.ok(TrailDto.fromDomain(suggestions, selected));
     }
 
     @DeleteMapping("/{id}")
@@ -78,4 +210,34 @@ public class TrailController {
         trailApplicationService.deleteTrail(id);
         return ResponseEntity.noContent().build();
     }
+
+    private boolean isValidBulk(List<Trail> trails) {
+        return trails != null
+                && !trails.isEmpty()
+                && trails.size() <= TrailBulkService.MAX_BULK_SIZE
+                && trails.stream().allMatch(TrailController::isValidTrail);
+    }
+
+    // Unknown terrain or hazard names are rejected, as in TrailFilterRequest; ingestion drops them
+    private static boolean isValidTrail(Trail trail) {
+        return trail != null && !trail.hasUnknownClassificationNames();
+    }
+
+    private List<TrailDto> page(List<UUID> ids, TrailFields fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        if (fields.isColumnsOnly()) {
+            return trailApplicationService.getTrailAttributes(fields.getNames(), ids).stream()
+                    .map(TrailDto::fromColumns)
+                    .toList();
+        }
+        return TrailDto.fromDomain(trailApplicationService.getTrails(ids), fields);
+    }
+
+    private List<TrailDto> columns(TrailFields fields, String difficulty) {
+        return trailApplicationService.getTrailAttributes(fields.getNames(), difficulty, null).stream()
+                .map(TrailDto::fromColumns)
+                .toList();
+    }
 }
@@ -2,8 +2,10 @@ package com.trailequip.trail.application.service;
 
 import com.trailequip.trail.domain.model.Trail;
 import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.domain.service.TwkbCodec;
 import com.trailequip.trail.infrastructure.overpass.OverpassApiClient;
 import com.trailequip.trail.infrastructure.overpass.OverpassRelation;
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
@@ -71,6 +73,10 @@ public class OSMIngestionService {
             // Persist to database
             List<Trail> saved = persistTrails(trails, result);
             log.info("Persisted {} trails to database", saved.size());
+            log.info(
+                    "Geometry storage: {} bytes TWKB vs {} bytes WKB",
+                    result.getEncodedGeometryBytes(),
+                    result.getWkbGeometryBytes());
 
             result.setSuccess(true);
         } catch (Exception e) {
@@ -229,7 +235,7 @@ public class OSMIngestionService {
             throw new ValidationException("Trail distance must be positive");
         }
 
-        if (trail.getGeometry() == null || trail.getGeometry().isEmpty()) {
+        if (trail.getCoordinates() == null || trail.getCoordinates().isEmpty()) {
             throw new ValidationException("Trail geometry is required");
         }
 
@@ -248,6 +254,7 @@ public class OSMIngestionService {
 
         for (Trail trail : trails) {
             try {
+                result.addGeometryBytes(TwkbCodec.wkbSize(trail.getCoordinates()), trail.getEncodedGeometry());
                 // Check if trail already exists by OSM ID
                 if (trail.getOsmId() != null) {
                     Optional<Trail> existing = trailRepository.findByOsmId(trail.getOsmId());
@@ -287,12 +294,13 @@ public class OSMIngestionService {
         existing.setMaxSlope(newTrail.getMaxSlope());
         existing.setAvgSlope(newTrail.getAvgSlope());
         existing.setMaxElevation(newTrail.getMaxElevation());
-        existing.setGeometry(newTrail.getGeometry());
+        existing.setCoordinates(newTrail.getCoordinates());
         existing.setDifficulty(newTrail.getDifficulty());
-        existing.setTerrain(newTrail.getTerrain());
-        existing.setHazards(newTrail.getHazards());
+        existing.setTerrainSet(newTrail.getTerrainSet());
+        existing.setHazardSet(newTrail.getHazardSet());
         existing.setMarking(newTrail.getMarking());
         existing.setRef(newTrail.getRef());
+        existing.setUpdatedAt(Instant.now());
     }
 
     /**
@@ -315,6 +323,8 @@ public class OSMIngestionService {
         private int created;
         private int updated;
         private int failed;
+        private long wkbGeometryBytes;
+        private long encodedGeometryBytes;
         private String errorMessage;
 
         public void incrementFailed() {
@@ -329,6 +339,11 @@ public class OSMIngestionService {
             this.updated++;
         }
 
+        public void addGeometryBytes(int wkbBytes, byte[] encoded) {
+            this.wkbGeometryBytes += wkbBytes;
+            this.encodedGeometryBytes += encoded != null ? encoded.length : 0;
+        }
+
         // Getters and setters
         public boolean isSuccess() {
             return success;
@@ -394,6 +409,14 @@ public class OSMIngestionService {
             this.failed = failed;
         }
 
+        public long getWkbGeometryBytes() {
+            return wkbGeometryBytes;
+        }
+
+        public long getEncodedGeometryBytes() {
+            return encodedGeometryBytes;
+        }
+
         public String getErrorMessage() {
             return errorMessage;
         }
@@ -411,7 +434,9 @@ public class OSMIngestionService {
                     + deduplicated + ", created="
                     + created + ", updated="
                     + updated + ", failed="
-                    + failed + '}';
+                    + failed + ", wkbGeometryBytes="
+                    + wkbGeometryBytes + ", encodedGeometryBytes="
+                    + encodedGeometryBytes + '}';
         }
     }
 
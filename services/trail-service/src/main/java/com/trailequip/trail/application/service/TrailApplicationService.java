@@ -2,29 +2,61 @@ package com.trailequip.trail.application.service;
 
 import com.trailequip.trail.domain.model.Difficulty;
 import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailFilter;
+import com.trailequip.trail.domain.model.TrailSort;
+import com.trailequip.trail.domain.model.TrailSummary;
+import com.trailequip.trail.domain.model.TrailVersion;
 import com.trailequip.trail.domain.repository.TrailRepository;
 import com.trailequip.trail.domain.service.DifficultyClassifier;
+import com.trailequip.trail.infrastructure.catalog.TrailCatalog;
+import com.trailequip.trail.infrastructure.tiles.GeoBounds;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class TrailApplicationService {
 
+    public static final int MAX_BATCH_SIZE = 500;
+
+    private static final double KM_PER_DEGREE_LATITUDE = 111.32;
+
     private final TrailRepository trailRepository;
     private final DifficultyClassifier difficultyClassifier;
+    private final TrailMarkingRegistry markingRegistry;
+    private final TrailCatalogService trailCatalogService;
+    private final TrailGeometryService trailGeometryService;
 
-    public TrailApplicationService(TrailRepository trailRepository, DifficultyClassifier difficultyClassifier) {
+    public TrailApplicationService(
+            TrailRepository trailRepository,
+            DifficultyClassifier difficultyClassifier,
+            TrailMarkingRegistry markingRegistry,
+            TrailCatalogService trailCatalogService,
+            TrailGeometryService trailGeometryService) {
         this.trailRepository = trailRepository;
         this.difficultyClassifier = difficultyClassifier;
+        this.markingRegistry = markingRegistry;
+        this.trailCatalogService = trailCatalogService;
+        this.trailGeometryService = trailGeometryService;
     }
 
+    @Transactional
     public Trail createTrail(Trail trail) {
         if (trail.getDifficulty() == null) {
             trail.setDifficulty(difficultyClassifier.classify(trail));
         }
+        if (trail.getMarking() != null) {
+            trail.setMarking(markingRegistry.resolve(trail.getMarking().getOsmcSymbol()));
+        }
         return trailRepository.save(trail);
     }
 
@@ -32,6 +64,36 @@ public class TrailApplicationService {
         return trailRepository.findById(id);
     }
 
+    /**
+     * Trails with the given ids in one query, in request order. Unknown ids are skipped
+     * and repeated ids returned once.
+     */
+    public List<Trail> getTrails(List<UUID> ids) {
+        Collection<UUID> unique = new LinkedHashSet<>(ids);
+        Map<UUID, Trail> byId = new HashMap<>();
+        for (Trail trail : trailRepository.findAllWithDetailsByIdIn(unique)) {
+            byId.put(trail.getId(), trail);
+        }
+        return unique.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Basic attributes of the trails with the given ids, read as columns, in request order.
+     * The attributes must include "id". Served from the trail catalog when it holds them all.
+     */
+    public List<Map<String, Object>> getTrailAttributes(Collection<String> attributes, List<UUID> ids) {
+        Collection<UUID> unique = new LinkedHashSet<>(ids);
+        Optional<TrailCatalog> catalog = catalogFor(attributes);
+        if (catalog.isPresent()) {
+            return catalog.get().findAttributes(attributes, unique);
+        }
+        Map<Object, Map<String, Object>> byId = new HashMap<>();
+        for (Map<String, Object> row : trailRepository.findAttributesByIds(attributes, unique)) {
+            byId.put(row.get("id"), row);
+        }
+        return unique.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
     public List<Trail> getAllTrails() {
         return trailRepository.findAll();
     }
@@ -48,42 +110,134 @@ public class TrailApplicationService {
         }
     }
 
-    public List<Trail> suggestTrailsInArea(double centerLat, double centerLon, double radiusKm, String difficulty) {
-        // Note: Geographic filtering with centerLat/centerLon/radiusKm requires PostGIS
-        // For now, only filtering by difficulty is implemented
-        if (difficulty == null || difficulty.isEmpty()) {
-            return trailRepository.findAll();
+    /**
+     * Only the given basic attributes of trails matching the optional filters, read as
+     * columns without loading entities. An unknown difficulty matches no trails.
+     */
+    public List<Map<String, Object>> getTrailAttributes(
+            Collection<String> attributes, String difficulty, String source) {
+        Difficulty difficultyEnum = null;
+        if (difficulty != null && !difficulty.isEmpty()) {
+            try {
+                difficultyEnum = Difficulty.valueOf(difficulty.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return List.of();
+            }
         }
-        try {
-            Difficulty difficultyEnum = Difficulty.valueOf(difficulty.toUpperCase());
-            return trailRepository.findTrailsInArea(difficultyEnum);
-        } catch (IllegalArgumentException e) {
-            return List.of();
+        Optional<TrailCatalog> catalog = catalogFor(attributes);
+        if (catalog.isPresent()) {
+            TrailFilter filter = new TrailFilter(
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    difficultyEnum != null ? Set.of(difficultyEnum) : null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    source);
+            List<UUID> ids = catalog.get().findIds(filter, TrailSort.DEFAULT, 0, Integer.MAX_VALUE);
+            return catalog.get().findAttributes(attributes, ids);
         }
+        return trailRepository.findAttributes(attributes, difficultyEnum, source);
+    }
+
+    /**
+     * Trails whose bounding box comes within the radius of the center, ordered by name.
+     */
+    public List<Trail> suggestTrailsInArea(double centerLat, double centerLon, double radiusKm, String difficulty) {
+        return findIdsInArea(centerLat, centerLon, radiusKm, difficulty)
+                .map(this::getTrails)
+                .orElse(List.of());
     }
 
+    /**
+     * Basic attributes of the trails suggested for an area, read as columns, ordered by name.
+     */
+    public List<Map<String, Object>> getTrailAttributesInArea(
+            Collection<String> attributes, double centerLat, double centerLon, double radiusKm, String difficulty) {
+        return findIdsInArea(centerLat, centerLon, radiusKm, difficulty)
+                .map(ids -> getTrailAttributes(attributes, ids))
+                .orElse(List.of());
+    }
+
+    // Empty for an unknown difficulty
+    private Optional<List<UUID>> findIdsInArea(double centerLat, double centerLon, double radiusKm, String difficulty) {
+        Difficulty difficultyEnum = null;
+        if (difficulty != null && !difficulty.isEmpty()) {
+            try {
+                difficultyEnum = Difficulty.valueOf(difficulty.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+        double latDelta = radiusKm / KM_PER_DEGREE_LATITUDE;
+        double lonDelta = radiusKm / (KM_PER_DEGREE_LATITUDE * Math.max(Math.cos(Math.toRadians(centerLat)), 0.01));
+        GeoBounds area =
+                new GeoBounds(centerLon - lonDelta, centerLat - latDelta, centerLon + lonDelta, centerLat + latDelta);
+        Optional<TrailCatalog> catalog = trailCatalogService.current();
+        return Optional.of((catalog.isPresent() ? catalog.get() : areaCatalog(difficultyEnum))
+                .findIdsIntersecting(area, difficultyEnum));
+    }
+
+    // Without the trail catalog, the area is matched the same way against a catalog of the
+    // trails at this level, built from their summaries and stored bounds
+    private TrailCatalog areaCatalog(Difficulty level) {
+        List<TrailSummary> trails = trailRepository.findAllSummaries().stream()
+                .filter(trail -> level == null || trail.difficulty() == level)
+                .toList();
+        Map<UUID, GeoBounds> bounds = trailGeometryService.getBounds(trails.stream()
+                .map(trail -> new TrailVersion(trail.id(), trail.updatedAt()))
+                .toList());
+        return TrailCatalog.build(trails.stream()
+                .map(trail -> TrailCatalog.Entry.of(trail, bounds.get(trail.id())))
+                .toList());
+    }
+
+    private Optional<TrailCatalog> catalogFor(Collection<String> attributes) {
+        return TrailCatalog.covers(attributes) ? trailCatalogService.current() : Optional.empty();
+    }
+
+    // Load, modify and save in one transaction so the second-level cache entry is
+    // replaced atomically on commit instead of racing a concurrent reader
+    @Transactional
     public Trail updateTrail(Trail trail) {
         Optional<Trail> existing = trailRepository.findById(trail.getId());
         if (existing.isPresent()) {
             Trail toUpdate = existing.get();
-            if (trail.getName() != null) toUpdate.setName(trail.getName());
-            if (trail.getDescription() != null) toUpdate.setDescription(trail.getDescription());
-            if (trail.getDifficulty() != null) toUpdate.setDifficulty(trail.getDifficulty());
-            if (trail.getDistance() != null && trail.getDistance() > 0) toUpdate.setDistance(trail.getDistance());
-            if (trail.getElevationGain() != null) toUpdate.setElevationGain(trail.getElevationGain());
-            if (trail.getElevationLoss() != null) toUpdate.setElevationLoss(trail.getElevationLoss());
-            if (trail.getMaxSlope() != null && trail.getMaxSlope() >= 0) toUpdate.setMaxSlope(trail.getMaxSlope());
-            if (trail.getDurationMinutes() != null) toUpdate.setDurationMinutes(trail.getDurationMinutes());
-            if (trail.getAvgSlope() != null) toUpdate.setAvgSlope(trail.getAvgSlope());
-            if (trail.getTerrain() != null) toUpdate.setTerrain(trail.getTerrain());
-            if (trail.getHazards() != null) toUpdate.setHazards(trail.getHazards());
-            if (trail.getMarking() != null) toUpdate.setMarking(trail.getMarking());
-            toUpdate.setUpdatedAt(Instant.now());
+            applyChanges(toUpdate, trail, markingRegistry);
             return trailRepository.save(toUpdate);
         }
         return trailRepository.save(trail);
     }
 
+    /**
+     * Copy the non-null fields of a partial trail onto a loaded one. Shared by single and
+     * bulk updates so both patch the same fields.
+     */
+    static void applyChanges(Trail toUpdate, Trail trail, TrailMarkingRegistry markingRegistry) {
+        if (trail.getName() != null) toUpdate.setName(trail.getName());
+        if (trail.getDescription() != null) toUpdate.setDescription(trail.getDescription());
+        if (trail.getDifficulty() != null) toUpdate.setDifficulty(trail.getDifficulty());
+        if (trail.getDistance() != null && trail.getDistance() > 0) toUpdate.setDistance(trail.getDistance());
+        if (trail.getElevationGain() != null) toUpdate.setElevationGain(trail.getElevationGain());
+        if (trail.getElevationLoss() != null) toUpdate.setElevationLoss(trail.getElevationLoss());
+        if (trail.getMaxSlope() != null && trail.getMaxSlope() >= 0) toUpdate.setMaxSlope(trail.getMaxSlope());
+        if (trail.getDurationMinutes() != null) toUpdate.setDurationMinutes(trail.getDurationMinutes());
+        if (trail.getAvgSlope() != null) toUpdate.setAvgSlope(trail.getAvgSlope());
+        if (trail.getTerrainSet() != null) toUpdate.setTerrainSet(trail.getTerrainSet());
+        if (trail.getHazardSet() != null) toUpdate.setHazardSet(trail.getHazardSet());
+        if (trail.getMarking() != null)
+            toUpdate.setMarking(markingRegistry.resolve(trail.getMarking().getOsmcSymbol()));
+        toUpdate.setUpdatedAt(Instant.now());
+    }
+
+    @Transactional
     public void deleteTrail(UUID id) {
         trailRepository.deleteById(id);
     }
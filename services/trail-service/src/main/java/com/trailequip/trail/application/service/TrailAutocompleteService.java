@@ -0,0 +1,184 @@
+package com.trailequip.trail.application.service;
+
+import com.trailequip.trail.domain.event.TrailCatalogReplacedEvent;
+import com.trailequip.trail.domain.event.TrailChangedEvent;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.Waypoint;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.domain.service.DiacriticFolder;
+import com.trailequip.trail.infrastructure.search.AutocompleteIndex;
+import jakarta.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Search-as-you-type over trail names, refs and waypoint names.
+ *
+ * Serves completions from an immutable {@link AutocompleteIndex} held in memory, so no
+ * database query runs per keystroke. The index is built at startup and rebuilt in the
+ * background after committed trail writes; bursts of writes (e.g. ingestion) coalesce
+ * into a single rebuild. Reads never block on a rebuild.
+ */
+@Slf4j
+@Service
+public class TrailAutocompleteService {
+
+    public static final int DEFAULT_LIMIT = 8;
+
+    private static final int TRAIL_WEIGHT = 1000;
+    private static final int REF_WEIGHT = 800;
+    private static final int LANDMARK_WEIGHT = 600; // peaks and shelters
+    private static final int WAYPOINT_WEIGHT = 400;
+
+    // Names generated by TrailNormalizer ("Waypoint 3") carry no search value
+    private static final Pattern GENERATED_WAYPOINT_NAME = Pattern.compile("^Waypoint \\d+$");
+
+    private final TrailRepository trailRepository;
+    private final Map<UUID, List<AutocompleteIndex.Term>> termsByTrail = new ConcurrentHashMap<>();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "autocomplete-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile AutocompleteIndex index = AutocompleteIndex.empty();
+
+    public TrailAutocompleteService(TrailRepository trailRepository) {
+        this.trailRepository = trailRepository;
+    }
+
+    /**
+     * Load all trails and build the initial index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        try {
+            long start = System.currentTimeMillis();
+            for (Trail trail : trailRepository.findAll()) {
+                termsByTrail.put(trail.getId(), extractTerms(trail));
+            }
+            rebuild();
+            log.info(
+                    "Built autocomplete index: {} suggestions from {} trails in {} ms",
+                    index.size(),
+                    termsByTrail.size(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("Failed to build autocomplete index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Build the index again once the trail tables were replaced.
+     */
+    @EventListener(TrailCatalogReplacedEvent.class)
+    public void reload() {
+        termsByTrail.clear();
+        buildIndex();
+    }
+
+    /**
+     * Apply a committed trail change and schedule a rebuild.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrailChanged(TrailChangedEvent event) {
+        if (event.type() == TrailChangedEvent.ChangeType.DELETED) {
+            termsByTrail.remove(event.trailId());
+        } else {
+            termsByTrail.put(event.trailId(), extractTerms(event.trail()));
+        }
+        scheduleRebuild();
+    }
+
+    /**
+     * Top completions for a typed prefix, diacritic-insensitive.
+     */
+    public List<AutocompleteIndex.Suggestion> complete(String prefix, int limit) {
+        return index.complete(prefix, limit);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                rebuildPending.set(false);
+                try {
+                    rebuild();
+                } catch (Exception e) {
+                    log.warn("Failed to rebuild autocomplete index: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    private synchronized void rebuild() {
+        List<AutocompleteIndex.Term> terms = new ArrayList<>();
+        // The same peak or hut appears on many trails: merge by name, popularity raises its weight
+        Map<String, AutocompleteIndex.Term> waypoints = new HashMap<>();
+
+        for (List<AutocompleteIndex.Term> trailTerms : termsByTrail.values()) {
+            for (AutocompleteIndex.Term term : trailTerms) {
+                if ("TRAIL".equals(term.type()) || "REF".equals(term.type())) {
+                    terms.add(term);
+                } else {
+                    waypoints.merge(
+                            term.type() + ':' + DiacriticFolder.fold(term.text()),
+                            term,
+                            (a, b) -> new AutocompleteIndex.Term(a.text(), a.type(), a.trailId(), a.weight() + 1));
+                }
+            }
+        }
+        terms.addAll(waypoints.values());
+
+        index = AutocompleteIndex.build(terms);
+    }
+
+    private List<AutocompleteIndex.Term> extractTerms(Trail trail) {
+        List<AutocompleteIndex.Term> terms = new ArrayList<>();
+        UUID trailId = trail.getId();
+
+        if (trail.getName() != null) {
+            terms.add(new AutocompleteIndex.Term(trail.getName(), "TRAIL", trailId, TRAIL_WEIGHT));
+        }
+        if (trail.getRef() != null && !trail.getRef().isBlank()) {
+            terms.add(new AutocompleteIndex.Term(trail.getRef(), "REF", trailId, REF_WEIGHT));
+        }
+
+        if (trail.getWaypoints() != null) {
+            for (Waypoint waypoint : trail.getWaypoints()) {
+                if (isSearchable(waypoint)) {
+                    Waypoint.WaypointType type = waypoint.getType();
+                    int weight = type == Waypoint.WaypointType.PEAK || type == Waypoint.WaypointType.SHELTER
+                            ? LANDMARK_WEIGHT
+                            : WAYPOINT_WEIGHT;
+                    terms.add(new AutocompleteIndex.Term(waypoint.getName(), type.name(), trailId, weight));
+                }
+            }
+        }
+
+        return terms;
+    }
+
+    private boolean isSearchable(Waypoint waypoint) {
+        Waypoint.WaypointType type = waypoint.getType();
+        return waypoint.getName() != null
+                && type != null
+                && type != Waypoint.WaypointType.START
+                && type != Waypoint.WaypointType.END
+                && !GENERATED_WAYPOINT_NAME.matcher(waypoint.getName()).matches();
+    }
+}
@@ -0,0 +1,205 @@
+package com.trailequip.trail.application.service;
+
+import com.trailequip.trail.domain.event.TrailCatalogReplacedEvent;
+import com.trailequip.trail.infrastructure.bootstrap.CopyArchive;
+import com.trailequip.trail.infrastructure.bootstrap.PostgresTableCopier;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+/**
+ * Exports and imports the trail tables as a {@link CopyArchive}, to bootstrap a database
+ * from another instance in seconds rather than re-ingesting from OSM.
+ *
+ * An import runs in a single transaction: the tables are truncated, secondary indexes and
+ * foreign keys dropped, the rows loaded with binary COPY, and the indexes and keys added
+ * back, so a failure at any step leaves the previous catalog in place. Once committed, the
+ * second-level cache is emptied and in-memory read models rebuild from the new rows.
+ *
+ * Not used in edge mode, which has no database.
+ */
+@Slf4j
+@Service
+@Profile("!edge")
+public class TrailBootstrapService {
+
+    /**
+     * Tables in load order: referenced tables before the tables referring to them.
+     */
+    static final List<String> TABLES = List.of("trail_markings", "trails", "trail_waypoints", "trail_segments");
+
+    /**
+     * Outcome of an import.
+     */
+    public record ImportResult(Map<String, Long> rows, int indexesRebuilt, long durationMs) {}
+
+    private final DataSource dataSource;
+    private final PostgresTableCopier copier;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maintenanceWorkMemMb;
+
+    public TrailBootstrapService(
+            DataSource dataSource,
+            PostgresTableCopier copier,
+            EntityManagerFactory entityManagerFactory,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.bootstrap.maintenance-work-mem-mb:512}") int maintenanceWorkMemMb) {
+        this.dataSource = dataSource;
+        this.copier = copier;
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+        this.maintenanceWorkMemMb = maintenanceWorkMemMb;
+    }
+
+    /**
+     * Write all trail tables as one consistent snapshot.
+     *
+     * @return the manifest written
+     */
+    public CopyArchive.Manifest exportArchive(OutputStream out) throws IOException, SQLException {
+        long start = System.currentTimeMillis();
+        try (Connection conn = dataSource.getConnection()) {
+            // One snapshot for all tables, so the archive never refers to a row it lacks
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            conn.setReadOnly(true);
+            try {
+                List<CopyArchive.Table> tables = new ArrayList<>();
+                for (String table : TABLES) {
+                    tables.add(new CopyArchive.Table(table, copier.columns(conn, table), copier.count(conn, table)));
+                }
+                CopyArchive.Manifest manifest =
+                        new CopyArchive.Manifest(CopyArchive.FORMAT_VERSION, Instant.now(), tables);
+
+                try (CopyArchive.Writer writer = CopyArchive.write(out, manifest)) {
+                    for (CopyArchive.Table table : tables) {
+                        try (OutputStream data = writer.table(table.name())) {
+                            copier.copyOut(conn, table, data);
+                        }
+                    }
+                    writer.finish();
+                }
+                conn.commit();
+                log.info(
+                        "Exported {} trails in binary COPY format in {} ms",
+                        manifest.rows("trails"),
+                        System.currentTimeMillis() - start);
+                return manifest;
+            } catch (IOException | SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Load an archive written by {@link #exportArchive}.
+     *
+     * @param replace whether trails already stored may be replaced; without it the
+     *     tables must be empty
+     * @throws IOException when the stream is no readable archive
+     * @throws IllegalArgumentException when the archive does not match the current schema
+     * @throws IllegalStateException when trails are stored and replace is false
+     */
+    public ImportResult importArchive(InputStream in, boolean replace) throws IOException, SQLException {
+        long start = System.currentTimeMillis();
+        Map<String, Long> rows = new LinkedHashMap<>();
+        int indexes;
+
+        try (CopyArchive.Reader reader = CopyArchive.read(in);
+                Connection conn = dataSource.getConnection()) {
+            CopyArchive.Manifest manifest = reader.manifest();
+            conn.setAutoCommit(false);
+            try {
+                checkSchema(conn, manifest);
+                if (!replace) {
+                    for (String table : TABLES) {
+                        if (copier.count(conn, table) > 0) {
+                            throw new IllegalStateException("Table " + table + " is not empty");
+                        }
+                    }
+                }
+
+                copier.setMaintenanceWorkMem(conn, maintenanceWorkMemMb);
+                copier.truncate(conn, TABLES);
+                List<String> restoreIndexes = new ArrayList<>();
+                List<String> restoreForeignKeys = new ArrayList<>();
+                for (String table : TABLES) {
+                    restoreForeignKeys.addAll(copier.dropForeignKeys(conn, table));
+                    restoreIndexes.addAll(copier.dropIndexes(conn, table));
+                }
+
+                for (CopyArchive.Table table : manifest.tables()) {
+                    long loaded = copier.copyIn(conn, table, reader.table(table));
+                    if (loaded != table.rows()) {
+                        throw new IOException("Archive holds " + loaded + " rows of " + table.name()
+                                + " but its manifest lists " + table.rows());
+                    }
+                    copier.resetSequences(conn, table);
+                    rows.put(table.name(), loaded);
+                }
+
+                for (String sql : restoreIndexes) {
+                    copier.execute(conn, sql);
+                }
+                for (String sql : restoreForeignKeys) {
+                    copier.execute(conn, sql);
+                }
+                for (String table : TABLES) {
+                    copier.analyze(conn, table);
+                }
+                conn.commit();
+                indexes = restoreIndexes.size();
+            } catch (IOException | SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+
+        long loadedMs = System.currentTimeMillis() - start;
+        log.info(
+                "Imported {} trails in binary COPY format in {} ms, {} indexes rebuilt",
+                rows.get("trails"),
+                loadedMs,
+                indexes);
+
+        // Rows changed underneath Hibernate and the TrailChangedEvent listeners
+        entityManagerFactory.getCache().evictAll();
+        eventPublisher.publishEvent(new TrailCatalogReplacedEvent(rows.get("trails")));
+        return new ImportResult(rows, indexes, loadedMs);
+    }
+
+    /**
+     * Binary COPY data only loads into columns of the same types. Their order may differ,
+     * as COPY names the archive's columns.
+     */
+    private void checkSchema(Connection conn, CopyArchive.Manifest manifest) throws SQLException {
+        List<String> tables = manifest.tables().stream().map(CopyArchive.Table::name).toList();
+        if (!tables.equals(TABLES)) {
+            throw new IllegalArgumentException("Archive holds tables " + tables + ", expected " + TABLES);
+        }
+        for (CopyArchive.Table table : manifest.tables()) {
+            List<CopyArchive.Column> current = copier.columns(conn, table.name());
+            if (!Set.copyOf(current).equals(Set.copyOf(table.columns()))) {
+                throw new IllegalArgumentException("Archive columns of " + table.name() + " " + table.columns()
+                        + " do not match the database " + current);
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.trailequip.trail.application.service;
+
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.domain.service.DifficultyClassifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bulk create and update of curated trails, e.g. a spreadsheet export of several hundred rows.
+ *
+ * Items are validated in parallel, trails without a difficulty are classified in one batch,
+ * and the valid items are written in chunks. Each chunk is its own transaction, flushed as
+ * JDBC batches (see hibernate.jdbc.batch_size), so a constraint violation rolls back and
+ * fails only the items of its chunk. Results are reported per item, by request index.
+ */
+@Slf4j
+@Service
+public class TrailBulkService {
+
+    public static final int MAX_BULK_SIZE = 1000;
+
+    private final TrailRepository trailRepository;
+    private final DifficultyClassifier difficultyClassifier;
+    private final TrailMarkingRegistry markingRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public TrailBulkService(
+            TrailRepository trailRepository,
+            DifficultyClassifier difficultyClassifier,
+            TrailMarkingRegistry markingRegistry,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.bulk.chunk-size:200}") int chunkSize) {
+        this.trailRepository = trailRepository;
+        this.difficultyClassifier = difficultyClassifier;
+        this.markingRegistry = markingRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Create new trails. Ids in the request are ignored.
+     */
+    public BulkResult createTrails(List<Trail> trails) {
+        ItemResult[] results = new ItemResult[trails.size()];
+        List<Integer> valid = validate(trails, results, TrailBulkService::validateForCreate);
+
+        List<Trail> unclassified = new ArrayList<>();
+        for (int index : valid) {
+            Trail trail = trails.get(index);
+            trail.setId(null);
+            if (trail.getDifficulty() == null) {
+                unclassified.add(trail);
+            }
+            if (trail.getMarking() != null) {
+                trail.setMarking(markingRegistry.resolve(trail.getMarking().getOsmcSymbol()));
+            }
+        }
+        List<Difficulty> difficulties = difficultyClassifier.classifyAll(unclassified);
+        for (int i = 0; i < unclassified.size(); i++) {
+            unclassified.get(i).setDifficulty(difficulties.get(i));
+        }
+
+        for (List<Integer> chunk : chunks(valid)) {
+            List<Trail> batch = chunk.stream().map(trails::get).toList();
+            try {
+                transactionTemplate.executeWithoutResult(status -> trailRepository.saveAll(batch));
+                for (int index : chunk) {
+                    results[index] = ItemResult.succeeded(index, trails.get(index).getId(), Status.CREATED);
+                }
+            } catch (RuntimeException e) {
+                failChunk(chunk, results, e);
+            }
+        }
+        return BulkResult.of(results);
+    }
+
+    /**
+     * Apply partial updates to existing trails, with the same field rules as a single update.
+     * Each chunk loads its trails with one query and writes the changes on commit.
+     */
+    public BulkResult updateTrails(List<Trail> changes) {
+        ItemResult[] results = new ItemResult[changes.size()];
+        List<Integer> valid = validate(changes, results, TrailBulkService::validateForUpdate);
+
+        // The same trail twice in one request would be last-write-wins inside a chunk
+        Set<UUID> seen = new HashSet<>();
+        valid.removeIf(index -> {
+            if (seen.add(changes.get(index).getId())) {
+                return false;
+            }
+            results[index] = ItemResult.failed(index, changes.get(index).getId(), "Duplicate id in request");
+            return true;
+        });
+
+        for (List<Integer> chunk : chunks(valid)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> updateChunk(chunk, changes, results));
+            } catch (RuntimeException e) {
+                failChunk(chunk, results, e);
+            }
+        }
+        return BulkResult.of(results);
+    }
+
+    private void updateChunk(List<Integer> chunk, List<Trail> changes, ItemResult[] results) {
+        List<UUID> ids = chunk.stream().map(index -> changes.get(index).getId()).toList();
+        Map<UUID, Trail> existing = new HashMap<>();
+        for (Trail trail : trailRepository.findAllById(ids)) {
+            existing.put(trail.getId(), trail);
+        }
+
+        // Managed entities: dirty checking turns these into batched updates on commit
+        for (int index : chunk) {
+            Trail change = changes.get(index);
+            Trail toUpdate = existing.get(change.getId());
+            if (toUpdate == null) {
+                results[index] = ItemResult.failed(index, change.getId(), "Trail not found");
+                continue;
+            }
+            TrailApplicationService.applyChanges(toUpdate, change, markingRegistry);
+            results[index] = ItemResult.succeeded(index, change.getId(), Status.UPDATED);
+        }
+    }
+
+    private static List<Integer> validate(List<Trail> trails, ItemResult[] results, Validator validator) {
+        // Independent per item, so the checks run on the common pool; toArray keeps request order
+        String[] errors = IntStream.range(0, trails.size())
+                .parallel()
+                .mapToObj(index -> validator.validate(trails.get(index)))
+                .toArray(String[]::new);
+
+        List<Integer> valid = new ArrayList<>(trails.size());
+        for (int index = 0; index < errors.length; index++) {
+            if (errors[index] == null) {
+                valid.add(index);
+            } else {
+                results[index] = ItemResult.failed(index, trails.get(index).getId(), errors[index]);
+            }
+        }
+        return valid;
+    }
+
+    static String validateForCreate(Trail trail) {
+        if (trail.getName() == null || trail.getName().isBlank()) {
+            return "Trail name is required";
+        }
+        if (trail.getDistance() == null || trail.getDistance() <= 0) {
+            return "Trail distance must be positive";
+        }
+        return validateMetrics(trail);
+    }
+
+    static String validateForUpdate(Trail trail) {
+        if (trail.getId() == null) {
+            return "Trail id is required";
+        }
+        if (trail.getName() != null && trail.getName().isBlank()) {
+            return "Trail name must not be blank";
+        }
+        if (trail.getDistance() != null && trail.getDistance() <= 0) {
+            return "Trail distance must be positive";
+        }
+        return validateMetrics(trail);
+    }
+
+    private static String validateMetrics(Trail trail) {
+        if (trail.getElevationGain() != null && trail.getElevationGain() < 0) {
+            return "Elevation gain must not be negative";
+        }
+        if (trail.getElevationLoss() != null && trail.getElevationLoss() < 0) {
+            return "Elevation loss must not be negative";
+        }
+        if (trail.getDurationMinutes() != null && trail.getDurationMinutes() < 0) {
+            return "Duration must not be negative";
+        }
+        if (trail.getMaxSlope() != null && trail.getMaxSlope() < 0) {
+            return "Max slope must not be negative";
+        }
+        if (trail.getAvgSlope() != null && trail.getAvgSlope() < 0) {
+            return "Average slope must not be negative";
+        }
+        return null;
+    }
+
+    private List<List<Integer>> chunks(List<Integer> indexes) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int start = 0; start < indexes.size(); start += chunkSize) {
+            chunks.add(indexes.subList(start, Math.min(start + chunkSize, indexes.size())));
+        }
+        return chunks;
+    }
+
+    private static void failChunk(List<Integer> chunk, ItemResult[] results, RuntimeException e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        log.warn("Bulk chunk of {} trails rolled back: {}", chunk.size(), cause.getMessage());
+        for (int index : chunk) {
+            ItemResult result = results[index];
+            if (result == null) {
+                results[index] = ItemResult.failed(index, null, "Chunk rolled back: " + cause.getMessage());
+            } else if (result.status() != Status.FAILED) {
+                results[index] = ItemResult.failed(index, result.id(), "Chunk rolled back: " + cause.getMessage());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Validator {
+        String validate(Trail trail);
+    }
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        FAILED
+    }
+
+    /**
+     * Outcome of one request item; id is null for trails that were not created.
+     */
+    public record ItemResult(int index, UUID id, Status status, String error) {
+
+        static ItemResult succeeded(int index, UUID id, Status status) {
+            return new ItemResult(index, id, status, null);
+        }
+
+        static ItemResult failed(int index, UUID id, String error) {
+            return new ItemResult(index, id, Status.FAILED, error);
+        }
+    }
+
+    public record BulkResult(int succeeded, int failed, List<ItemResult> items) {
+
+        static BulkResult of(ItemResult[] results) {
+            int failed = (int) Arrays.stream(results)
+                    .filter(result -> result.status() == Status.FAILED)
+                    .count();
+            return new BulkResult(results.length - failed, failed, List.of(results));
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.trailequip.trail.application.service;
+
+import com.trailequip.trail.domain.event.TrailCatalogReplacedEvent;
+import com.trailequip.trail.domain.event.TrailChangedEvent;
+import com.trailequip.trail.domain.model.TrailSummary;
+import com.trailequip.trail.domain.model.TrailVersion;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.infrastructure.catalog.TrailCatalog;
+import com.trailequip.trail.infrastructure.tiles.GeoBounds;
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps a {@link TrailCatalog} snapshot of every trail in memory for the filter, list and
+ * area endpoints.
+ *
+ * The snapshot is built at startup and replaced copy-on-write after committed trail writes:
+ * a background thread builds a new one and swaps it in, so readers never block and never see
+ * a half-applied change. Bursts of writes coalesce into a single rebuild. Reads may trail a
+ * commit by the rebuild time (tens of milliseconds for 50k trails).
+ *
+ * Trails are loaded as column projections; bounding boxes come from TrailGeometryService,
+ * which loads first. Until the first snapshot is built, or with app.catalog.enabled=false,
+ * {@link #current()} is empty and callers query the database instead. A failed load is
+ * retried with doubling delays, from app.catalog.retry-delay-ms up to {@link #MAX_RETRY_DELAY_MS}.
+ */
+@Slf4j
+@Service
+public class TrailCatalogService {
+
+    static final long MAX_RETRY_DELAY_MS = 300_000;
+
+    private final TrailRepository trailRepository;
+    private final TrailGeometryService trailGeometryService;
+    private final boolean enabled;
+    private final long retryDelayMs;
+    private final Map<UUID, TrailCatalog.Entry> entries = new ConcurrentHashMap<>();
+    // Trails deleted during a load, so rows read before the delete are not added back
+    private final Set<UUID> deletedWhileLoading = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    // Runs rebuilds and load retries
+    private final ScheduledExecutorService rebuildExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "trail-catalog-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean loading;
+    private volatile boolean loaded;
+    private long nextRetryDelayMs;
+    private volatile TrailCatalog catalog; // null until loaded
+
+    public TrailCatalogService(
+            TrailRepository trailRepository,
+            TrailGeometryService trailGeometryService,
+            @Value("${app.catalog.enabled:true}") boolean enabled,
+            @Value("${app.catalog.retry-delay-ms:1000}") long retryDelayMs) {
+        this.trailRepository = trailRepository;
+        this.trailGeometryService = trailGeometryService;
+        this.enabled = enabled;
+        this.retryDelayMs = retryDelayMs;
+        this.nextRetryDelayMs = retryDelayMs;
+    }
+
+    /**
+     * Load all trails and build the first snapshot; on failure, schedule another attempt.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(TrailGeometryService.LOAD_ORDER + 1)
+    public synchronized void load() {
+        if (!enabled) {
+            return;
+        }
+        loading = true;
+        try {
+            long start = System.currentTimeMillis();
+            List<TrailSummary> trails = trailRepository.findAllSummaries();
+            Map<UUID, GeoBounds> bounds = trailGeometryService.getBounds(trails.stream()
+                    .map(trail -> new TrailVersion(trail.id(), trail.updatedAt()))
+                    .toList());
+            for (TrailSummary trail : trails) {
+                TrailCatalog.Entry entry = TrailCatalog.Entry.of(trail, bounds.get(trail.id()));
+                // A change committed while loading is newer than the row read here
+                entries.compute(
+                        trail.id(),
+                        (id, current) -> current != null || deletedWhileLoading.contains(id) ? current : entry);
+            }
+            // Changes applied before this point are in the first snapshot, later ones rebuild it
+            loaded = true;
+            nextRetryDelayMs = retryDelayMs;
+            rebuild();
+            log.info("Built trail catalog of {} trails in {} ms", catalog.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            catalog = null;
+            // The retry reads every row again, including changes applied meanwhile
+            entries.clear();
+            log.error(
+                    "Failed to build trail catalog, serving from the database; retrying in {} ms",
+                    nextRetryDelayMs,
+                    e);
+            scheduleRetry();
+        } finally {
+            loading = false;
+            deletedWhileLoading.clear();
+        }
+    }
+
+    /**
+     * Build the catalog again once the trail tables were replaced. The previous snapshot
+     * is served until the new one is built.
+     */
+    @EventListener(TrailCatalogReplacedEvent.class)
+    @Order(TrailGeometryService.LOAD_ORDER + 1)
+    public synchronized void reload() {
+        if (!enabled) {
+            return;
+        }
+        loaded = false;
+        entries.clear();
+        load();
+    }
+
+    /**
+     * Apply a committed trail change and schedule a rebuild.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrailChanged(TrailChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        // Per-key compute, so a load cannot add a row between the delete and its tombstone
+        if (event.type() == TrailChangedEvent.ChangeType.DELETED) {
+            entries.compute(event.trailId(), (id, current) -> {
+                if (loading) {
+                    deletedWhileLoading.add(id);
+                }
+                return null;
+            });
+        } else {
+            TrailCatalog.Entry entry = TrailCatalog.Entry.of(event.trail());
+            entries.compute(event.trailId(), (id, current) -> {
+                deletedWhileLoading.remove(id);
+                return entry;
+            });
+        }
+        if (loaded) {
+            scheduleRebuild();
+        }
+    }
+
+    /**
+     * The latest snapshot; empty while none has been built.
+     */
+    public Optional<TrailCatalog> current() {
+        return Optional.ofNullable(catalog);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                rebuildPending.set(false);
+                try {
+                    rebuild();
+                } catch (Exception e) {
+                    log.warn("Failed to rebuild trail catalog: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    private void scheduleRetry() {
+        if (rebuildExecutor.isShutdown()) {
+            return;
+        }
+        long delay = nextRetryDelayMs;
+        nextRetryDelayMs = Math.min(delay * 2, MAX_RETRY_DELAY_MS);
+        rebuildExecutor.schedule(this::retryLoad, delay, TimeUnit.MILLISECONDS);
+    }
+
+    // A load or reload that succeeded in the meantime makes the retry a no-op
+    private synchronized void retryLoad() {
+        if (!loaded) {
+            load();
+        }
+    }
+
+    private synchronized void rebuild() {
+        catalog = TrailCatalog.build(entries.values());
+    }
+}
@@ -0,0 +1,84 @@
+package com.trailequip.trail.application.service;
+
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailLineLevels;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Walks the export cursor a batch of trails at a time, for exports that write waypoints.
+ *
+ * The export query leaves waypoints unloaded. While a batch is attached, the first trail
+ * whose waypoints are read loads those of the whole batch in one select; the batch is
+ * detached once written, so memory stays bounded by one batch.
+ */
+final class TrailExportBatches {
+
+    static final int BATCH_SIZE = Integer.parseInt(TrailRepository.EXPORT_FETCH_SIZE);
+
+    @FunctionalInterface
+    interface TrailWriter {
+        void write(Trail trail) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface TrailLinesWriter {
+        void write(Trail trail, TrailLineLevels lines) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface BatchWriter {
+        void write(List<Trail> batch) throws IOException;
+    }
+
+    private TrailExportBatches() {}
+
+    static void forEach(Stream<Trail> trails, TrailRepository trailRepository, TrailWriter writer)
+            throws IOException {
+        forEachBatch(trails, trailRepository, batch -> {
+            for (Trail trail : batch) {
+                writer.write(trail);
+            }
+        });
+    }
+
+    /**
+     * As {@link #forEach}, for exports that write every stored geometry level: the levels of
+     * a batch are read in one select, since the line columns are lazy on Trail. Lines are
+     * null for a trail deleted since the cursor read it.
+     */
+    static void forEachWithLines(Stream<Trail> trails, TrailRepository trailRepository, TrailLinesWriter writer)
+            throws IOException {
+        forEachBatch(trails, trailRepository, batch -> {
+            List<UUID> ids = batch.stream().map(Trail::getId).toList();
+            Map<UUID, TrailLineLevels> lines = new HashMap<>(batch.size() * 4 / 3 + 1);
+            for (TrailLineLevels line : trailRepository.findLineLevelsByIdIn(ids)) {
+                lines.put(line.id(), line);
+            }
+            for (Trail trail : batch) {
+                writer.write(trail, lines.get(trail.getId()));
+            }
+        });
+    }
+
+    private static void forEachBatch(Stream<Trail> trails, TrailRepository trailRepository, BatchWriter writer)
+            throws IOException {
+        List<Trail> batch = new ArrayList<>(BATCH_SIZE);
+        Iterator<Trail> iterator = trails.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            if (batch.size() == BATCH_SIZE || !iterator.hasNext()) {
+                writer.write(batch);
+                batch.forEach(trailRepository::detach);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.trailequip.trail.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.trailequip.trail.domain.event.TrailCatalogReplacedEvent;
+import com.trailequip.trail.domain.event.TrailChangedEvent;
+import com.trailequip.trail.domain.model.GeometryLevel;
+import com.trailequip.trail.domain.model.Trail;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Rendered single-trail exports, kept as bytes together with a gzip copy and a strong ETag.
+ *
+ * Entries are keyed by trail id and updatedAt plus the export options, so a changed trail
+ * can never be served from an old entry; committed changes also drop the trail's entries
+ * right away to free the memory. The cache is bounded by total bytes.
+ */
+@Slf4j
+@Service
+public class TrailExportCache {
+
+    /**
+     * Cached export formats with their media types and file extensions.
+     */
+    public enum Format {
+        GEOJSON("application/json", "geojson"),
+        GPX("application/xml", "gpx");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Rendered export. {@code gzip} is null when compression would not make it smaller.
+     */
+    public record Artifact(byte[] identity, byte[] gzip, String etag, String gzipEtag) {
+
+        public boolean hasGzip() {
+            return gzip != null;
+        }
+
+        int weight() {
+            return identity.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    record Key(UUID trailId, Instant updatedAt, Format format, GeometryLevel level, int precision) {}
+
+    private final TrailExportService trailExportService;
+    private final Cache<Key, Artifact> cache;
+
+    public TrailExportCache(
+            TrailExportService trailExportService,
+            @Value("${app.export.cache-max-bytes:67108864}") long maxBytes) {
+        this.trailExportService = trailExportService;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Artifact artifact) -> artifact.weight())
+                .build();
+    }
+
+    /**
+     * Cached export of the trail, rendering it on a miss. GPX ignores the geometry level.
+     */
+    public Artifact get(Trail trail, Format format, GeometryLevel level, int precision) {
+        GeometryLevel keyLevel = format == Format.GPX ? GeometryLevel.FULL : level;
+        Instant version = trail.getUpdatedAt() != null ? trail.getUpdatedAt() : trail.getCreatedAt();
+        Key key = new Key(trail.getId(), version, format, keyLevel, precision);
+        return cache.get(key, k -> render(trail, k));
+    }
+
+    /**
+     * Drop all cached exports of a trail once a change to it has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrailChanged(TrailChangedEvent event) {
+        cache.asMap().keySet().removeIf(key -> key.trailId().equals(event.trailId()));
+    }
+
+    /**
+     * Drop every cached export once the trail tables were replaced.
+     */
+    @EventListener(TrailCatalogReplacedEvent.class)
+    public void onCatalogReplaced() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private Artifact render(Trail trail, Key key) {
+        try {
+            byte[] identity = switch (key.format()) {
+                case GEOJSON -> trailExportService
+                        .exportAsGeoJSON(trail, key.level(), key.precision())
+                        .getBytes(StandardCharsets.UTF_8);
+                case GPX -> {
+                    ByteArrayOutputStream gpx = new ByteArrayOutputStream();
+                    trailExportService.writeGPX(trail, key.precision(), gpx);
+                    yield gpx.toByteArray();
+                }
+            };
+            byte[] gzip = gzip(identity);
+            if (gzip.length >= identity.length) {
+                gzip = null;
+            }
+
+            String etag = etag(identity);
+            log.debug("Rendered {} export of trail {} ({} bytes)", key.format(), key.trailId(), identity.length);
+            return new Artifact(identity, gzip, etag, gzip != null ? etag(gzip) : null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Strong ETag from the content itself, so a re-rendered export with identical bytes
+     * keeps its ETag and any difference (GPX timestamps included) changes it.
+     */
+    private static String etag(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,15 +1,27 @@
 package com.trailequip.trail.application.service;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.trailequip.trail.domain.model.GeometryLevel;
+import com.trailequip.trail.domain.model.QuantizedCoordinates;
 import com.trailequip.trail.domain.model.Trail;
 import com.trailequip.trail.domain.model.Waypoint;
+import com.trailequip.trail.domain.service.FixedDecimalFormatter;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
-import org.locationtech.jts.geom.Coordinate;
-import org.locationtech.jts.geom.LineString;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 /**
@@ -17,20 +29,52 @@ import org.springframework.stereotype.Service;
  * Used for map visualization and GPS device compatibility.
  */
 @Service
-@RequiredArgsConstructor
 public class TrailExportService {
 
+    private static final String GPX_NAMESPACE = "http://www.topografix.com/GPX/1/1";
+    private static final String GPX_SCHEMA = "http://www.topografix.com/GPX/1/1/gpx.xsd";
+    private static final String XSI_NAMESPACE = "http://www.w3.org/2001/XMLSchema-instance";
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
+    // Fraction digits of the stored grid (see QuantizedCoordinates)
+    private static final int COORDINATE_DIGITS = 7;
+    private static final int ELEVATION_DIGITS = 1;
+
     private final ObjectMapper objectMapper;
+    private final TrailGeometryService trailGeometryService;
+
+    @Autowired
+    public TrailExportService(ObjectMapper objectMapper, TrailGeometryService trailGeometryService) {
+        this.objectMapper = objectMapper;
+        this.trailGeometryService = trailGeometryService;
+    }
+
+    /**
+     * Export service that decodes geometry from each trail.
+     */
+    public TrailExportService(ObjectMapper objectMapper) {
+        this(objectMapper, TrailGeometryService.detached());
+    }
 
     /**
      * Export trail as GeoJSON Feature.
      * Format suitable for Leaflet, MapBox, and other web mapping libraries.
      */
     public String exportAsGeoJSON(Trail trail) throws Exception {
-        ObjectNode feature = objectMapper.createObjectNode();
-        feature.put("type", "Feature");
+        return exportAsGeoJSON(trail, GeometryLevel.FULL);
+    }
+
+    /**
+     * Export trail as GeoJSON Feature with geometry at the given resolution.
+     */
+    public String exportAsGeoJSON(Trail trail, GeometryLevel level) throws Exception {
+        return exportAsGeoJSON(trail, level, FixedDecimalFormatter.DEFAULT_PRECISION);
+    }
 
-        // Add properties
+    /**
+     * Export trail as GeoJSON Feature with coordinates rounded to {@code precision} decimals.
+     */
+    public String exportAsGeoJSON(Trail trail, GeometryLevel level, int precision) throws IOException {
         ObjectNode properties = objectMapper.createObjectNode();
         properties.put("id", trail.getId().toString());
         properties.put("name", trail.getName());
@@ -63,66 +107,89 @@ public class TrailExportService {
             trail.getHazards().forEach(hazardsArray::add);
         }
 
-        feature.set("properties", properties);
-
-        // Add geometry
-        feature.set("geometry", buildGeoJSONGeometry(trail.getGeometry()));
-
-        return objectMapper.writeValueAsString(feature);
+        // Properties are a small tree; the geometry is streamed next to them
+        StringWriter json = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+            generator.writeStartObject();
+            generator.writeStringField("type", "Feature");
+            generator.writeFieldName("properties");
+            objectMapper.writeTree(generator, properties);
+            char[] digits = new char[FixedDecimalFormatter.BUFFER_SIZE];
+            writeGeometry(generator, trailGeometryService.getCoordinates(trail, level), precision, digits);
+            generator.writeEndObject();
+        }
+        return json.toString();
     }
 
     /**
      * Export multiple trails as GeoJSON FeatureCollection.
      */
     public String exportAsGeoJSONCollection(List<Trail> trails) throws Exception {
-        ObjectNode collection = objectMapper.createObjectNode();
-        collection.put("type", "FeatureCollection");
-
-        ArrayNode features = collection.putArray("features");
-
-        for (Trail trail : trails) {
-            ObjectNode feature = objectMapper.createObjectNode();
-            feature.put("type", "Feature");
-
-            // Properties
-            ObjectNode properties = objectMapper.createObjectNode();
-            properties.put("id", trail.getId().toString());
-            properties.put("name", trail.getName());
-            properties.put("distance", trail.getDistance());
-            properties.put("difficulty", trail.getDifficulty().name());
-            properties.put("source", trail.getSource());
-
-            feature.set("properties", properties);
-            feature.set("geometry", buildGeoJSONGeometry(trail.getGeometry()));
+        return exportAsGeoJSONCollection(trails, GeometryLevel.FULL);
+    }
 
-            features.add(feature);
+    /**
+     * Export multiple trails as GeoJSON FeatureCollection with geometry at the given resolution.
+     * Overview levels keep a few percent of the vertices, for maps showing many trails at once.
+     */
+    public String exportAsGeoJSONCollection(List<Trail> trails, GeometryLevel level) throws Exception {
+        StringWriter json = new StringWriter();
+        try (GeoJSONCollectionWriter writer = new GeoJSONCollectionWriter(
+                objectMapper.getFactory().createGenerator(json),
+                trailGeometryService,
+                level,
+                FixedDecimalFormatter.DEFAULT_PRECISION)) {
+            for (Trail trail : trails) {
+                writer.write(trail);
+            }
+            writer.finish();
         }
+        return json.toString();
+    }
 
-        return objectMapper.writeValueAsString(collection);
+    /**
+     * Open a GeoJSON FeatureCollection that is written to the stream one feature at a time.
+     * Nothing is buffered beyond the generator's output buffer; the stream is not closed.
+     */
+    public GeoJSONCollectionWriter openGeoJSONCollection(OutputStream out, GeometryLevel level, int precision)
+            throws IOException {
+        return new GeoJSONCollectionWriter(
+                objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8),
+                trailGeometryService,
+                level,
+                precision);
     }
 
     /**
-     * Build GeoJSON geometry object from LineString.
+     * Write a GeoJSON LineString geometry field. Coordinates go from the integer grid
+     * through the shared digit buffer straight into the generator, without a Double or
+     * String per value.
      */
-    private ObjectNode buildGeoJSONGeometry(LineString geometry) {
-        ObjectNode geoJson = objectMapper.createObjectNode();
-        geoJson.put("type", "LineString");
-
-        ArrayNode coordinates = geoJson.putArray("coordinates");
-
-        if (geometry != null) {
-            for (Coordinate coord : geometry.getCoordinates()) {
-                ArrayNode coordArray = objectMapper.createArrayNode();
-                coordArray.add(coord.getX()); // longitude
-                coordArray.add(coord.getY()); // latitude
-                if (!Double.isNaN(coord.getZ())) {
-                    coordArray.add(coord.getZ()); // elevation
+    private static void writeGeometry(JsonGenerator generator, QuantizedCoordinates line, int precision, char[] digits)
+            throws IOException {
+        generator.writeObjectFieldStart("geometry");
+        generator.writeStringField("type", "LineString");
+        generator.writeArrayFieldStart("coordinates");
+        if (line != null) {
+            for (int i = 0; i < line.size(); i++) {
+                generator.writeStartArray();
+                writeNumber(generator, line.lonE7(i), COORDINATE_DIGITS, precision, digits); // longitude
+                writeNumber(generator, line.latE7(i), COORDINATE_DIGITS, precision, digits); // latitude
+                if (line.hasElevation(i)) {
+                    // elevation, always at the decimetre grid
+                    writeNumber(generator, line.elevationDm(i), ELEVATION_DIGITS, ELEVATION_DIGITS, digits);
                 }
-                coordinates.add(coordArray);
+                generator.writeEndArray();
             }
         }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
 
-        return geoJson;
+    private static void writeNumber(JsonGenerator generator, long value, int scale, int precision, char[] digits)
+            throws IOException {
+        int length = FixedDecimalFormatter.format(value, scale, precision, digits, 0);
+        generator.writeNumber(digits, 0, length);
     }
 
     /**
@@ -130,192 +197,283 @@ public class TrailExportService {
      * Format suitable for GPS devices and mapping applications.
      * See: https://www.topografix.com/GPX/1/1/
      */
-    public String exportAsGPX(Trail trail) {
-        StringBuilder gpx = new StringBuilder();
-
-        // GPX header
-        gpx.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-        gpx.append("<gpx version=\"1.1\" creator=\"TrailEquip\" ");
-        gpx.append("xmlns=\"http://www.topografix.com/GPX/1/1\" ");
-        gpx.append("xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" ");
-        gpx.append(
-                "xsi:schemaLocation=\"http://www.topografix.com/GPX/1/1 http://www.topografix.com/GPX/1/1/gpx.xsd\">\n");
-
-        // Metadata
-        gpx.append("<metadata>\n");
-        gpx.append("  <name>").append(escapeXml(trail.getName())).append("</name>\n");
-
-        if (trail.getDescription() != null) {
-            gpx.append("  <desc>").append(escapeXml(trail.getDescription())).append("</desc>\n");
-        }
+    public String exportAsGPX(Trail trail) throws IOException {
+        ByteArrayOutputStream gpx = new ByteArrayOutputStream();
+        writeGPX(trail, FixedDecimalFormatter.DEFAULT_PRECISION, gpx);
+        return gpx.toString(StandardCharsets.UTF_8);
+    }
 
-        gpx.append("  <author>\n");
-        gpx.append("    <name>TrailEquip</name>\n");
-        gpx.append("    <link href=\"https://trailequip.com\"/>\n");
-        gpx.append("  </author>\n");
-        gpx.append("  <time>").append(Instant.now().toString()).append("</time>\n");
-        gpx.append("</metadata>\n");
+    /**
+     * Export multiple trails as GPX.
+     * Each trail becomes a separate track in the GPX file.
+     */
+    public String exportAsGPXCollection(List<Trail> trails) throws IOException {
+        ByteArrayOutputStream gpx = new ByteArrayOutputStream();
+        writeGPXCollection(trails, FixedDecimalFormatter.DEFAULT_PRECISION, gpx);
+        return gpx.toString(StandardCharsets.UTF_8);
+    }
 
-        // Add track
-        gpx.append("<trk>\n");
-        gpx.append("  <name>").append(escapeXml(trail.getName())).append("</name>\n");
+    /**
+     * Stream a trail as a GPX 1.1 document: metadata, one track and the trail's waypoints.
+     * Coordinates are rounded to {@code precision} decimals. The output stream is flushed
+     * but not closed, so several documents can go into one ZIP.
+     */
+    public void writeGPX(Trail trail, int precision, OutputStream out) throws IOException {
+        try {
+            XMLStreamWriter xml = startGPX(out);
+            char[] digits = new char[FixedDecimalFormatter.BUFFER_SIZE];
+
+            xml.writeStartElement("metadata");
+            writeTextElement(xml, "name", trail.getName());
+            if (trail.getDescription() != null) {
+                writeTextElement(xml, "desc", trail.getDescription());
+            }
+            // The trail's own version, so re-rendering unchanged data gives the same bytes and ETag
+            writeAuthorAndTime(xml, trail.getUpdatedAt() != null ? trail.getUpdatedAt() : trail.getCreatedAt());
+            xml.writeEndElement();
+
+            xml.writeStartElement("trk");
+            writeTextElement(xml, "name", trail.getName());
+            if (trail.getDescription() != null) {
+                writeTextElement(xml, "desc", trail.getDescription());
+            }
 
-        if (trail.getDescription() != null) {
-            gpx.append("  <desc>").append(escapeXml(trail.getDescription())).append("</desc>\n");
-        }
+            // Extensions with trail metadata
+            xml.writeStartElement("extensions");
+            writeTextElement(xml, "difficulty", trail.getDifficulty().name());
+            writeTextElement(xml, "distance", String.valueOf(trail.getDistance()));
+            if (trail.getElevationGain() != null) {
+                writeTextElement(xml, "elevationGain", trail.getElevationGain().toString());
+            }
+            if (trail.getElevationLoss() != null) {
+                writeTextElement(xml, "elevationLoss", trail.getElevationLoss().toString());
+            }
+            if (trail.getDurationMinutes() != null) {
+                writeTextElement(xml, "duration", trail.getDurationMinutes().toString());
+            }
+            writeTextElement(xml, "source", String.valueOf(trail.getSource()));
+            xml.writeEndElement();
 
-        // Extensions with trail metadata
-        gpx.append("  <extensions>\n");
-        gpx.append("    <difficulty>").append(trail.getDifficulty().name()).append("</difficulty>\n");
-        gpx.append("    <distance>").append(trail.getDistance()).append("</distance>\n");
+            writeTrackSegment(xml, trailGeometryService.getCoordinates(trail, GeometryLevel.FULL), precision, digits);
+            xml.writeEndElement();
 
-        if (trail.getElevationGain() != null) {
-            gpx.append("    <elevationGain>").append(trail.getElevationGain()).append("</elevationGain>\n");
-        }
+            if (trail.getWaypoints() != null) {
+                for (Waypoint waypoint : trail.getWaypoints()) {
+                    writeWaypoint(xml, waypoint, precision, digits);
+                }
+            }
 
-        if (trail.getElevationLoss() != null) {
-            gpx.append("    <elevationLoss>").append(trail.getElevationLoss()).append("</elevationLoss>\n");
+            endGPX(xml);
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write GPX for trail " + trail.getId(), e);
         }
+    }
 
-        if (trail.getDurationMinutes() != null) {
-            gpx.append("    <duration>").append(trail.getDurationMinutes()).append("</duration>\n");
+    /**
+     * Stream several trails as one GPX document with a track per trail.
+     */
+    public void writeGPXCollection(Iterable<Trail> trails, int precision, OutputStream out) throws IOException {
+        try {
+            XMLStreamWriter xml = startGPX(out);
+            char[] digits = new char[FixedDecimalFormatter.BUFFER_SIZE];
+
+            xml.writeStartElement("metadata");
+            writeTextElement(xml, "name", "TrailEquip Collection");
+            writeTextElement(xml, "desc", "Multiple hiking trails");
+            writeAuthorAndTime(xml, Instant.now());
+            xml.writeEndElement();
+
+            for (Trail trail : trails) {
+                xml.writeStartElement("trk");
+                writeTextElement(xml, "name", trail.getName());
+                writeTrackSegment(
+                        xml, trailGeometryService.getCoordinates(trail, GeometryLevel.FULL), precision, digits);
+                xml.writeEndElement();
+            }
+
+            endGPX(xml);
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write GPX collection", e);
         }
+    }
 
-        gpx.append("    <source>").append(trail.getSource()).append("</source>\n");
-        gpx.append("  </extensions>\n");
+    private XMLStreamWriter startGPX(OutputStream out) throws XMLStreamException {
+        XMLStreamWriter xml = XML_OUTPUT_FACTORY.createXMLStreamWriter(out, "UTF-8");
+        xml.writeStartDocument("UTF-8", "1.0");
+        xml.writeCharacters("\n");
+        xml.writeStartElement("gpx");
+        xml.writeAttribute("version", "1.1");
+        xml.writeAttribute("creator", "TrailEquip");
+        xml.writeDefaultNamespace(GPX_NAMESPACE);
+        xml.writeNamespace("xsi", XSI_NAMESPACE);
+        xml.writeAttribute("xsi", XSI_NAMESPACE, "schemaLocation", GPX_NAMESPACE + " " + GPX_SCHEMA);
+        return xml;
+    }
 
-        // Track segment with waypoints
-        gpx.append("  <trkseg>\n");
+    private void endGPX(XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeEndElement();
+        xml.writeEndDocument();
+        xml.flush();
+        xml.close(); // releases the writer only; the underlying stream stays open
+    }
 
-        LineString geometry = trail.getGeometry();
-        if (geometry != null && !geometry.isEmpty()) {
-            for (Coordinate coord : geometry.getCoordinates()) {
-                gpx.append("    <trkpt lat=\"")
-                        .append(coord.getY())
-                        .append("\" lon=\"")
-                        .append(coord.getX())
-                        .append("\">\n");
+    /**
+     * Author block and, when known, the metadata time.
+     */
+    private void writeAuthorAndTime(XMLStreamWriter xml, Instant time) throws XMLStreamException {
+        xml.writeStartElement("author");
+        writeTextElement(xml, "name", "TrailEquip");
+        xml.writeEmptyElement("link");
+        xml.writeAttribute("href", "https://trailequip.com");
+        xml.writeEndElement();
+        if (time != null) {
+            writeTextElement(xml, "time", time.toString());
+        }
+    }
 
-                if (!Double.isNaN(coord.getZ())) {
-                    gpx.append("      <ele>").append(coord.getZ()).append("</ele>\n");
+    /**
+     * Write GPX track points read straight from the packed coordinate arrays.
+     */
+    private void writeTrackSegment(XMLStreamWriter xml, QuantizedCoordinates line, int precision, char[] digits)
+            throws XMLStreamException {
+        xml.writeStartElement("trkseg");
+        if (line != null) {
+            for (int i = 0; i < line.size(); i++) {
+                xml.writeStartElement("trkpt");
+                // XMLStreamWriter only takes attribute values as Strings
+                int length = FixedDecimalFormatter.format(line.latE7(i), COORDINATE_DIGITS, precision, digits, 0);
+                xml.writeAttribute("lat", new String(digits, 0, length));
+                length = FixedDecimalFormatter.format(line.lonE7(i), COORDINATE_DIGITS, precision, digits, 0);
+                xml.writeAttribute("lon", new String(digits, 0, length));
+                if (line.hasElevation(i)) {
+                    xml.writeStartElement("ele");
+                    length = FixedDecimalFormatter.format(
+                            line.elevationDm(i), ELEVATION_DIGITS, ELEVATION_DIGITS, digits, 0);
+                    xml.writeCharacters(digits, 0, length);
+                    xml.writeEndElement();
                 }
-
-                gpx.append("    </trkpt>\n");
+                xml.writeEndElement();
             }
         }
+        xml.writeEndElement();
+    }
 
-        gpx.append("  </trkseg>\n");
-        gpx.append("</trk>\n");
-
-        // Add waypoints
-        if (trail.getWaypoints() != null && !trail.getWaypoints().isEmpty()) {
-            for (Waypoint waypoint : trail.getWaypoints()) {
-                gpx.append("<wpt lat=\"")
-                        .append(waypoint.getLatitude())
-                        .append("\" lon=\"")
-                        .append(waypoint.getLongitude())
-                        .append("\">\n");
-
-                if (waypoint.getElevation() != null) {
-                    gpx.append("  <ele>").append(waypoint.getElevation()).append("</ele>\n");
-                }
+    private void writeWaypoint(XMLStreamWriter xml, Waypoint waypoint, int precision, char[] digits)
+            throws XMLStreamException {
+        xml.writeStartElement("wpt");
+        int length = FixedDecimalFormatter.format(waypoint.getLatitude(), precision, digits, 0);
+        xml.writeAttribute("lat", new String(digits, 0, length));
+        length = FixedDecimalFormatter.format(waypoint.getLongitude(), precision, digits, 0);
+        xml.writeAttribute("lon", new String(digits, 0, length));
+        if (waypoint.getElevation() != null) {
+            writeTextElement(xml, "ele", waypoint.getElevation().toString());
+        }
+        if (waypoint.getName() != null) {
+            writeTextElement(xml, "name", waypoint.getName());
+        }
+        if (waypoint.getType() != null) {
+            writeTextElement(xml, "type", waypoint.getType().name());
+        }
+        if (waypoint.getDescription() != null) {
+            writeTextElement(xml, "desc", waypoint.getDescription());
+        }
+        xml.writeEndElement();
+    }
 
-                if (waypoint.getName() != null) {
-                    gpx.append("  <name>").append(escapeXml(waypoint.getName())).append("</name>\n");
-                }
+    private void writeTextElement(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        xml.writeStartElement(name);
+        writeEscapedText(xml, text);
+        xml.writeEndElement();
+    }
 
-                if (waypoint.getType() != null) {
-                    gpx.append("  <type>").append(waypoint.getType().name()).append("</type>\n");
-                }
+    /**
+     * Write text in one pass. The writer escapes &amp;, &lt; and &gt; itself; quotes and
+     * apostrophes are written as entity references.
+     */
+    private void writeEscapedText(XMLStreamWriter xml, String text) throws XMLStreamException {
+        if (text == null) {
+            return;
+        }
 
-                if (waypoint.getDescription() != null) {
-                    gpx.append("  <desc>")
-                            .append(escapeXml(waypoint.getDescription()))
-                            .append("</desc>\n");
+        int runStart = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\'') {
+                if (i > runStart) {
+                    xml.writeCharacters(text.substring(runStart, i));
                 }
-
-                gpx.append("</wpt>\n");
+                xml.writeEntityRef(c == '"' ? "quot" : "apos");
+                runStart = i + 1;
             }
         }
-
-        // GPX closing tag
-        gpx.append("</gpx>\n");
-
-        return gpx.toString();
+        if (runStart == 0) {
+            xml.writeCharacters(text);
+        } else if (runStart < text.length()) {
+            xml.writeCharacters(text.substring(runStart));
+        }
     }
 
     /**
-     * Export multiple trails as GPX.
-     * Each trail becomes a separate track in the GPX file.
+     * Streams a GeoJSON FeatureCollection. Call {@link #finish()} after the last trail;
+     * closing without it leaves the document unterminated, so a failed export is not
+     * mistaken for a complete one.
      */
-    public String exportAsGPXCollection(List<Trail> trails) {
-        StringBuilder gpx = new StringBuilder();
-
-        // GPX header
-        gpx.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-        gpx.append("<gpx version=\"1.1\" creator=\"TrailEquip\" ");
-        gpx.append("xmlns=\"http://www.topografix.com/GPX/1/1\" ");
-        gpx.append("xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" ");
-        gpx.append(
-                "xsi:schemaLocation=\"http://www.topografix.com/GPX/1/1 http://www.topografix.com/GPX/1/1/gpx.xsd\">\n");
-
-        // Metadata
-        gpx.append("<metadata>\n");
-        gpx.append("  <name>TrailEquip Collection</name>\n");
-        gpx.append("  <desc>Multiple hiking trails</desc>\n");
-        gpx.append("  <author>\n");
-        gpx.append("    <name>TrailEquip</name>\n");
-        gpx.append("    <link href=\"https://trailequip.com\"/>\n");
-        gpx.append("  </author>\n");
-        gpx.append("  <time>").append(Instant.now().toString()).append("</time>\n");
-        gpx.append("</metadata>\n");
-
-        // Add all trails as tracks
-        for (Trail trail : trails) {
-            gpx.append("<trk>\n");
-            gpx.append("  <name>").append(escapeXml(trail.getName())).append("</name>\n");
-
-            gpx.append("  <trkseg>\n");
-
-            LineString geometry = trail.getGeometry();
-            if (geometry != null && !geometry.isEmpty()) {
-                for (Coordinate coord : geometry.getCoordinates()) {
-                    gpx.append("    <trkpt lat=\"")
-                            .append(coord.getY())
-                            .append("\" lon=\"")
-                            .append(coord.getX())
-                            .append("\">\n");
-
-                    if (!Double.isNaN(coord.getZ())) {
-                        gpx.append("      <ele>").append(coord.getZ()).append("</ele>\n");
-                    }
-
-                    gpx.append("    </trkpt>\n");
-                }
-            }
-
-            gpx.append("  </trkseg>\n");
-            gpx.append("</trk>\n");
+    public static final class GeoJSONCollectionWriter implements Closeable {
+        private final JsonGenerator generator;
+        private final TrailGeometryService trailGeometryService;
+        private final GeometryLevel level;
+        private final int precision;
+        private final char[] digits = new char[FixedDecimalFormatter.BUFFER_SIZE];
+        private int count;
+
+        private GeoJSONCollectionWriter(
+                JsonGenerator generator, TrailGeometryService trailGeometryService, GeometryLevel level, int precision)
+                throws IOException {
+            this.generator = generator;
+            this.trailGeometryService = trailGeometryService;
+            this.level = level;
+            this.precision = precision;
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            generator.writeStartObject();
+            generator.writeStringField("type", "FeatureCollection");
+            generator.writeArrayFieldStart("features");
         }
 
-        // GPX closing tag
-        gpx.append("</gpx>\n");
+        public void write(Trail trail) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("type", "Feature");
 
-        return gpx.toString();
-    }
+            generator.writeObjectFieldStart("properties");
+            generator.writeStringField("id", trail.getId().toString());
+            generator.writeStringField("name", trail.getName());
+            generator.writeNumberField("distance", trail.getDistance());
+            generator.writeStringField("difficulty", trail.getDifficulty().name());
+            generator.writeStringField("source", trail.getSource());
+            generator.writeEndObject();
 
-    /**
-     * Escape XML special characters.
-     */
-    private String escapeXml(String text) {
-        if (text == null) {
-            return "";
+            writeGeometry(generator, trailGeometryService.getCoordinates(trail, level), precision, digits);
+
+            generator.writeEndObject();
+            count++;
+        }
+
+        /**
+         * Number of features written so far.
+         */
+        public int getCount() {
+            return count;
         }
 
-        return text.replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\"", "&quot;")
-                .replace("'", "&apos;");
+        public void finish() throws IOException {
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
     }
 }
@@ -0,0 +1,62 @@
+package com.trailequip.trail.application.service;
+
+import com.trailequip.trail.domain.model.TrailFacets;
+import com.trailequip.trail.domain.model.TrailFilter;
+import com.trailequip.trail.domain.model.TrailSort;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.infrastructure.catalog.TrailCatalog;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Faceted trail filter: ranges on distance, elevation gain, duration and slope, difficulty
+ * sets, and terrain and hazards to include or exclude, with counts per difficulty and terrain.
+ *
+ * Answered from the in-memory {@link TrailCatalog} in one pass once it is built; until then,
+ * or with the catalog disabled, two queries per request, one for the counts and one for the page.
+ */
+@Service
+@RequiredArgsConstructor
+public class TrailFilterService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final TrailRepository trailRepository;
+    private final TrailCatalogService trailCatalogService;
+
+    /**
+     * Filter trails.
+     *
+     * @param filter criteria
+     * @param sort order of the page
+     * @param page zero-based page index
+     * @param size page size (clamped to MAX_PAGE_SIZE)
+     * @return ids of the page and facet counts of the whole filter
+     */
+    @Transactional(readOnly = true)
+    public Result filter(TrailFilter filter, TrailSort sort, int page, int size) {
+        int pageIndex = Math.max(page, 0);
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        long offset = (long) pageIndex * pageSize;
+
+        Optional<TrailCatalog> catalog = trailCatalogService.current();
+        if (catalog.isPresent()) {
+            TrailCatalog.Result result =
+                    catalog.get().filter(filter, sort, (int) Math.min(offset, Integer.MAX_VALUE), pageSize);
+            return new Result(result.ids(), result.facets(), pageIndex, pageSize);
+        }
+
+        TrailFacets facets = trailRepository.countFacets(filter);
+        List<UUID> ids = offset < facets.total()
+                ? trailRepository.findIdsByFilter(filter, sort, (int) offset, pageSize)
+                : List.of();
+        return new Result(ids, facets, pageIndex, pageSize);
+    }
+
+    public record Result(List<UUID> ids, TrailFacets facets, int page, int size) {}
+}
@@ -0,0 +1,114 @@
+package com.trailequip.trail.application.service;
+
+import com.trailequip.trail.domain.event.TrailCatalogReplacedEvent;
+import com.trailequip.trail.domain.event.TrailChangedEvent;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * The whole trail catalog as a FlatGeobuf file on disk, so it can be served with HTTP
+ * range requests: a client reads the header and index, then fetches only the features
+ * inside its bbox.
+ *
+ * The file is rebuilt on the first request after a committed trail change and replaced
+ * atomically. Each build gets its own ETag, which clients should check across the range
+ * requests of one read.
+ */
+@Slf4j
+@Service
+public class TrailFlatGeobufCatalog {
+
+    /**
+     * A built catalog file.
+     */
+    public record Snapshot(Path file, String etag, Instant builtAt, int features) {}
+
+    private final TrailStreamingExportService trailStreamingExportService;
+    private final Path directory;
+    private final AtomicLong version = new AtomicLong();
+    private Snapshot snapshot;
+    private long snapshotVersion = -1;
+
+    public TrailFlatGeobufCatalog(
+            TrailStreamingExportService trailStreamingExportService,
+            @Value("${app.export.flatgeobuf-dir:${java.io.tmpdir}/trailequip-export}") String directory) {
+        this.trailStreamingExportService = trailStreamingExportService;
+        this.directory = Path.of(directory);
+    }
+
+    /**
+     * Current catalog file, building it first if trails changed since the last build.
+     */
+    public synchronized Snapshot current() throws IOException {
+        long requested = version.get();
+        if (snapshot != null && snapshotVersion == requested && Files.exists(snapshot.file())) {
+            return snapshot;
+        }
+
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "trails", ".fgb.tmp");
+        int features;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+            features = trailStreamingExportService.writeFlatGeobuf(null, null, out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Instant builtAt = Instant.now();
+        Path file = directory.resolve("trails-" + builtAt.toEpochMilli() + ".fgb");
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        deleteOtherSnapshots(file);
+
+        snapshot = new Snapshot(file, "\"fgb-" + builtAt.toEpochMilli() + "\"", builtAt, features);
+        snapshotVersion = requested;
+        log.info("Built FlatGeobuf catalog with {} trails ({} bytes)", features, Files.size(file));
+        return snapshot;
+    }
+
+    /**
+     * Mark the catalog stale once a trail change has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrailChanged(TrailChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Mark the catalog stale once the trail tables were replaced.
+     */
+    @EventListener(TrailCatalogReplacedEvent.class)
+    public void onCatalogReplaced() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Drop earlier builds, including those left by a previous run. Downloads already
+     * reading an old file keep their open handle.
+     */
+    private void deleteOtherSnapshots(Path current) {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().endsWith(".fgb"))
+                    .filter(path -> !path.equals(current))
+                    .forEach(path -> {
+                        try {
+                            Files.deleteIfExists(path);
+                        } catch (IOException e) {
+                            log.warn("Failed to delete old FlatGeobuf catalog {}: {}", path, e.getMessage());
+                        }
+                    });
+        } catch (IOException e) {
+            log.warn("Failed to list FlatGeobuf catalog directory {}: {}", directory, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.trailequip.trail.application.service;
+
+import com.trailequip.trail.domain.event.TrailCatalogReplacedEvent;
+import com.trailequip.trail.domain.event.TrailChangedEvent;
+import com.trailequip.trail.domain.model.GeometryLevel;
+import com.trailequip.trail.domain.model.QuantizedCoordinates;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailLine;
+import com.trailequip.trail.domain.model.TrailLineLevels;
+import com.trailequip.trail.domain.model.TrailVersion;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.domain.service.TwkbCodec;
+import com.trailequip.trail.infrastructure.geometry.OffHeapGeometryStore;
+import com.trailequip.trail.infrastructure.tiles.GeoBounds;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Trail geometry for tiles, exports and bounds checks, served from an
+ * {@link OffHeapGeometryStore} instead of decoding each trail's stored TWKB.
+ *
+ * At startup the store is filled from the snapshot file when one is configured and
+ * present, then from the database for trails the snapshot lacks or has at an older
+ * updatedAt. Committed changes are applied as they happen, and the snapshot is written
+ * again on shutdown.
+ *
+ * A line is served from the store only when it was stored at the updatedAt of the trail
+ * being rendered; otherwise, before loading, or with app.geometry.off-heap.enabled=false,
+ * it is decoded from the trail as before.
+ */
+@Slf4j
+@Service
+public class TrailGeometryService {
+
+    /** Listener order of the loads, ahead of services that read bounds from the store. */
+    public static final int LOAD_ORDER = 0;
+
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    private final TrailRepository trailRepository;
+    private final boolean enabled;
+    private final Path snapshotFile; // null when none is configured
+    private final OffHeapGeometryStore store;
+    private volatile boolean loaded;
+
+    @Autowired
+    public TrailGeometryService(
+            TrailRepository trailRepository,
+            @Value("${app.geometry.off-heap.enabled:true}") boolean enabled,
+            @Value("${app.geometry.snapshot-file:}") String snapshotFile,
+            @Value("${app.geometry.arena-size-mb:64}") int arenaSizeMb) {
+        this.trailRepository = trailRepository;
+        this.enabled = enabled;
+        this.snapshotFile = snapshotFile == null || snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        this.store = new OffHeapGeometryStore(arenaSizeMb << 20);
+    }
+
+    /**
+     * Service without a store that decodes every line from its trail.
+     * Used for offline exports and unit tests.
+     */
+    public static TrailGeometryService detached() {
+        return new TrailGeometryService(null, false, null, 1);
+    }
+
+    /**
+     * Fill the store from the snapshot file and the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(LOAD_ORDER)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            Set<UUID> fromSnapshot = readSnapshot();
+            int fromDatabase = loadChangedTrails(fromSnapshot);
+            loaded = true;
+            log.info(
+                    "Loaded geometry of {} trails off-heap ({} from the database, {} MB) in {} ms",
+                    store.size(),
+                    fromDatabase,
+                    store.usedBytes() >> 20,
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("Failed to load trail geometry off-heap, decoding it per request: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reload every line from the database once the trail tables were replaced. Until it
+     * is done lines are decoded per request.
+     */
+    @EventListener(TrailCatalogReplacedEvent.class)
+    @Order(LOAD_ORDER)
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            loaded = false;
+            store.clear();
+            loadChangedTrails(Set.of());
+            loaded = true;
+            log.info(
+                    "Reloaded geometry of {} trails off-heap in {} ms",
+                    store.size(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("Failed to reload trail geometry off-heap, decoding it per request: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apply a committed trail change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrailChanged(TrailChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.type() == TrailChangedEvent.ChangeType.DELETED) {
+            store.remove(event.trailId());
+        } else {
+            store.put(event.trail());
+        }
+    }
+
+    /**
+     * The trail's line at a level: a view of off-heap memory when the store has this
+     * version of the trail, otherwise decoded from the trail.
+     */
+    public QuantizedCoordinates getCoordinates(Trail trail, GeometryLevel level) {
+        OffHeapGeometryStore.Entry entry = find(trail);
+        return entry != null ? entry.coordinates(level) : trail.getCoordinates(level);
+    }
+
+    /**
+     * Bounds of the trail's full line, or null when it has none.
+     */
+    public GeoBounds getBounds(Trail trail) {
+        OffHeapGeometryStore.Entry entry = find(trail);
+        return entry != null ? entry.bounds() : GeoBounds.of(trail.getCoordinates());
+    }
+
+    /**
+     * Bounds of the full lines of these trail versions by id, leaving out trails without
+     * a line. Taken from the store where it has the version; the others are decoded from
+     * their stored line, which is all that is read of them.
+     */
+    public Map<UUID, GeoBounds> getBounds(Collection<TrailVersion> versions) {
+        Map<UUID, GeoBounds> bounds = new HashMap<>(versions.size() * 4 / 3 + 1);
+        List<UUID> missing = new ArrayList<>();
+        for (TrailVersion version : versions) {
+            OffHeapGeometryStore.Entry entry = loaded ? store.find(version.id(), version.updatedAt()) : null;
+            if (entry == null) {
+                missing.add(version.id());
+            } else if (entry.bounds() != null) {
+                bounds.put(version.id(), entry.bounds());
+            }
+        }
+        for (int from = 0; from < missing.size(); from += LOAD_BATCH_SIZE) {
+            List<UUID> batch = missing.subList(from, Math.min(from + LOAD_BATCH_SIZE, missing.size()));
+            for (TrailLine line : trailRepository.findLinesByIdIn(batch)) {
+                if (line.encodedGeometry() != null) {
+                    GeoBounds lineBounds = GeoBounds.of(TwkbCodec.decodeQuantized(line.encodedGeometry()));
+                    if (lineBounds != null) {
+                        bounds.put(line.id(), lineBounds);
+                    }
+                }
+            }
+        }
+        return bounds;
+    }
+
+    @PreDestroy
+    public void writeSnapshot() {
+        if (!loaded || snapshotFile == null) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            store.writeSnapshot(snapshotFile);
+            log.info(
+                    "Wrote geometry snapshot of {} trails to {} in {} ms",
+                    store.size(),
+                    snapshotFile,
+                    System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            log.warn("Failed to write geometry snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    private OffHeapGeometryStore.Entry find(Trail trail) {
+        return loaded && trail.getId() != null ? store.find(trail.getId(), trail.getUpdatedAt()) : null;
+    }
+
+    private Set<UUID> readSnapshot() {
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return Set.of();
+        }
+        try {
+            return store.readSnapshot(snapshotFile);
+        } catch (IOException e) {
+            log.warn(
+                    "Failed to read geometry snapshot {}, loading from the database: {}", snapshotFile, e.getMessage());
+            return Set.of();
+        }
+    }
+
+    /**
+     * Store trails that are missing or stale and drop snapshot trails deleted since it was
+     * written. Only ids and updatedAt are read for trails the snapshot has right.
+     *
+     * @return number of trails read from the database
+     */
+    private int loadChangedTrails(Set<UUID> fromSnapshot) {
+        Set<UUID> existing = new HashSet<>();
+        List<UUID> changed = new ArrayList<>();
+        for (TrailVersion version : trailRepository.findAllVersions()) {
+            existing.add(version.id());
+            if (store.find(version.id(), version.updatedAt()) == null) {
+                changed.add(version.id());
+            }
+        }
+        for (UUID id : fromSnapshot) {
+            if (!existing.contains(id)) {
+                store.remove(id);
+            }
+        }
+        for (int from = 0; from < changed.size(); from += LOAD_BATCH_SIZE) {
+            List<UUID> batch = changed.subList(from, Math.min(from + LOAD_BATCH_SIZE, changed.size()));
+            for (TrailLineLevels lines : trailRepository.findLineLevelsByIdIn(batch)) {
+                store.put(linesOf(lines));
+            }
+        }
+        return changed.size();
+    }
+
+    // A detached trail holding only the stored levels, as snapshot trails are built
+    private static Trail linesOf(TrailLineLevels lines) {
+        Trail trail = new Trail();
+        trail.setId(lines.id());
+        trail.setUpdatedAt(lines.updatedAt());
+        trail.setEncodedGeometry(lines.full(), lines.overview(), lines.regional(), lines.detail());
+        return trail;
+    }
+}
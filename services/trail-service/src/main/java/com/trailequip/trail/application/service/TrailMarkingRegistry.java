@@ -0,0 +1,129 @@
+package com.trailequip.trail.application.service;
+
+import com.trailequip.trail.domain.event.TrailCatalogReplacedEvent;
+import com.trailequip.trail.domain.model.TrailMarking;
+import com.trailequip.trail.domain.repository.TrailMarkingRepository;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Interning registry for OSMC trail markings.
+ *
+ * Many trails share the same symbol ("red:red_stripe"), and trail_markings.osmcSymbol is unique,
+ * so every trail must point at the one persisted row for its symbol. All markings are loaded once
+ * into a concurrent map; unknown symbols are inserted exactly once in their own transaction and
+ * then served from memory, so ingestion performs no per-trail marking inserts.
+ */
+@Slf4j
+@Service
+public class TrailMarkingRegistry {
+
+    private final TrailMarkingRepository markingRepository;
+    private final TransactionTemplate requiresNew;
+    private final ConcurrentMap<String, TrailMarking> markings = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @Autowired
+    public TrailMarkingRegistry(
+            TrailMarkingRepository markingRepository, PlatformTransactionManager transactionManager) {
+        this.markingRepository = markingRepository;
+        if (transactionManager != null) {
+            // New markings must survive a rollback of the ingestion transaction that created them,
+            // otherwise the map would hold ids of rows that no longer exist
+            this.requiresNew = new TransactionTemplate(transactionManager);
+            this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        } else {
+            this.requiresNew = null;
+        }
+    }
+
+    /**
+     * Registry that interns markings in memory without persisting them.
+     * Used for offline normalization and unit tests.
+     */
+    public static TrailMarkingRegistry detached() {
+        return new TrailMarkingRegistry(null, null);
+    }
+
+    /**
+     * Resolve an OSMC symbol to its single shared marking, creating it on first use.
+     * Null or blank symbols resolve to the "none:none" marking.
+     */
+    public TrailMarking resolve(String osmcSymbol) {
+        String symbol = osmcSymbol == null || osmcSymbol.trim().isEmpty()
+                ? TrailMarking.NO_MARKING
+                : osmcSymbol.trim();
+
+        ensureLoaded();
+        TrailMarking marking = markings.get(symbol);
+        if (marking != null) {
+            return marking;
+        }
+
+        // Slow path only for symbols never seen before; serialized so each is inserted once
+        synchronized (this) {
+            ensureLoaded(); // the map may have been reset since the check above
+            marking = markings.get(symbol);
+            if (marking == null) {
+                marking = create(symbol);
+                markings.put(symbol, marking);
+            }
+            return marking;
+        }
+    }
+
+    /**
+     * Forget all markings once the trail tables were replaced: the loaded rows may have
+     * other ids, or none, for the symbols held here. They are read again on next use.
+     */
+    @EventListener(TrailCatalogReplacedEvent.class)
+    public synchronized void reload() {
+        markings.clear();
+        loaded = false;
+    }
+
+    /**
+     * Number of interned markings.
+     */
+    public int size() {
+        return markings.size();
+    }
+
+    private void ensureLoaded() {
+        if (loaded || markingRepository == null) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                for (TrailMarking marking : markingRepository.findAll()) {
+                    markings.putIfAbsent(marking.getOsmcSymbol(), marking);
+                }
+                loaded = true;
+                log.info("Loaded {} trail markings into registry", markings.size());
+            }
+        }
+    }
+
+    private TrailMarking create(String symbol) {
+        TrailMarking marking = TrailMarking.fromOsmcSymbol(symbol);
+        if (markingRepository == null) {
+            return marking;
+        }
+
+        try {
+            return requiresNew.execute(status -> markingRepository.save(marking));
+        } catch (DataIntegrityViolationException e) {
+            // Inserted concurrently by another instance: use its row
+            log.debug("Trail marking {} created concurrently, reloading", symbol);
+            return markingRepository.findByOsmcSymbol(symbol).orElseThrow(() -> e);
+        }
+    }
+}
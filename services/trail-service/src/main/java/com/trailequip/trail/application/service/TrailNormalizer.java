@@ -1,13 +1,12 @@
 package com.trailequip.trail.application.service;
 
 import com.trailequip.trail.domain.model.*;
+import com.trailequip.trail.domain.service.DifficultyClassifier;
+import com.trailequip.trail.domain.service.TrailFeatureRules;
 import com.trailequip.trail.infrastructure.overpass.OverpassRelation;
 import java.util.*;
-import java.util.regex.Pattern;
 import org.locationtech.jts.geom.Coordinate;
-import org.locationtech.jts.geom.GeometryFactory;
-import org.locationtech.jts.geom.LineString;
-import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 /**
@@ -17,10 +16,21 @@ import org.springframework.stereotype.Service;
 @Service
 public class TrailNormalizer {
 
-    private static final GeometryFactory geometryFactory =
-            new GeometryFactory(new PrecisionModel(PrecisionModel.FIXED), 4326);
+    private final TrailMarkingRegistry markingRegistry;
+    private final DifficultyClassifier difficultyClassifier;
 
-    private static final Pattern OSMC_PATTERN = Pattern.compile("^(\\w+):(\\w+)(?:_(\\w+))?(?:_(\\w+))?$");
+    /**
+     * Normalizer that infers difficulty with the default thresholds.
+     */
+    public TrailNormalizer(TrailMarkingRegistry markingRegistry) {
+        this(markingRegistry, new DifficultyClassifier());
+    }
+
+    @Autowired
+    public TrailNormalizer(TrailMarkingRegistry markingRegistry, DifficultyClassifier difficultyClassifier) {
+        this.markingRegistry = markingRegistry;
+        this.difficultyClassifier = difficultyClassifier;
+    }
 
     /**
      * Normalize Overpass relation to Trail domain object.
@@ -36,7 +46,7 @@ public class TrailNormalizer {
                 relation.getRef(),
                 relation.calculateDistance(),
                 inferDifficulty(relation),
-                parseTrailMarking(relation.getOsmcSymbol()));
+                markingRegistry.resolve(relation.getOsmcSymbol()));
 
         // Set calculated statistics
         trail.setDescription(relation.getDescription());
@@ -53,13 +63,13 @@ public class TrailNormalizer {
         trail.setSource("openstreetmap");
 
         // Set terrain classification
-        trail.setTerrain(classifyTerrain(relation));
+        trail.setTerrainSet(classifyTerrain(relation));
 
         // Set hazards based on difficulty and characteristics
-        trail.setHazards(identifyHazards(relation));
+        trail.setHazardSet(identifyHazards(relation));
 
-        // Build geometry
-        trail.setGeometry(buildLineString(relation.getCoordinates()));
+        // Build geometry on the 1e-7° grid
+        trail.setCoordinates(quantizeCoordinates(relation.getCoordinates()));
 
         // Create waypoints from coordinates
         List<Waypoint> waypoints = extractWaypoints(relation, trail);
@@ -87,7 +97,7 @@ public class TrailNormalizer {
         Integer elevationGain = relation.calculateElevationGain();
         Double maxSlope = relation.calculateMaxSlope();
 
-        return Difficulty.inferFromMetrics(elevationGain, maxSlope);
+        return difficultyClassifier.classifyMetrics(elevationGain, maxSlope);
     }
 
     /**
@@ -109,134 +119,19 @@ public class TrailNormalizer {
         };
     }
 
-    /**
-     * Parse OSMC trail marking from OSM tag.
-     * Format: "background:foreground_symbol"
-     * Example: "blue:blue_stripe", "red:red_triangle:white_rectangle"
-     */
-    private TrailMarking parseTrailMarking(String osmcSymbol) {
-        if (osmcSymbol == null || osmcSymbol.trim().isEmpty()) {
-            return new TrailMarking("none:none", TrailMarking.MarkingColor.WHITE, TrailMarking.MarkingShape.NONE);
-        }
-
-        try {
-            String[] parts = osmcSymbol.split(":");
-            if (parts.length < 2) {
-                return new TrailMarking(osmcSymbol, TrailMarking.MarkingColor.WHITE, TrailMarking.MarkingShape.NONE);
-            }
-
-            String backgroundStr = parts[0].toLowerCase();
-            String foregroundStr = parts[1].toLowerCase();
-
-            TrailMarking.MarkingColor color = parseMarkingColor(backgroundStr);
-            TrailMarking.MarkingShape shape = parseMarkingShape(foregroundStr);
-
-            return new TrailMarking(osmcSymbol, color, shape);
-        } catch (Exception e) {
-            // Return default marking if parsing fails
-            return new TrailMarking(osmcSymbol, TrailMarking.MarkingColor.WHITE, TrailMarking.MarkingShape.NONE);
-        }
-    }
-
-    /**
-     * Parse color from OSMC symbol component.
-     */
-    private TrailMarking.MarkingColor parseMarkingColor(String colorStr) {
-        return switch (colorStr) {
-            case "blue" -> TrailMarking.MarkingColor.BLUE;
-            case "red" -> TrailMarking.MarkingColor.RED;
-            case "yellow" -> TrailMarking.MarkingColor.YELLOW;
-            case "green" -> TrailMarking.MarkingColor.GREEN;
-            case "white" -> TrailMarking.MarkingColor.WHITE;
-            case "orange" -> TrailMarking.MarkingColor.ORANGE;
-            case "black" -> TrailMarking.MarkingColor.BLACK;
-            case "purple", "violet" -> TrailMarking.MarkingColor.PURPLE;
-            default -> TrailMarking.MarkingColor.WHITE;
-        };
-    }
-
-    /**
-     * Parse shape from OSMC symbol component.
-     */
-    private TrailMarking.MarkingShape parseMarkingShape(String shapeStr) {
-        return switch (shapeStr) {
-            case "stripe", "bar" -> TrailMarking.MarkingShape.STRIPE;
-            case "triangle", "pyramid" -> TrailMarking.MarkingShape.TRIANGLE;
-            case "cross", "plus", "x" -> TrailMarking.MarkingShape.CROSS;
-            case "dot", "circle", "point" -> TrailMarking.MarkingShape.DOT;
-            case "rectangle", "square", "box" -> TrailMarking.MarkingShape.RECTANGLE;
-            case "arch", "arch_down" -> TrailMarking.MarkingShape.ARCH;
-            case "none", "blank" -> TrailMarking.MarkingShape.NONE;
-            default -> TrailMarking.MarkingShape.NONE;
-        };
-    }
-
     /**
      * Classify terrain types from OSM way tags or route characteristics.
      */
-    private List<String> classifyTerrain(OverpassRelation relation) {
-        Set<String> terrain = new HashSet<>();
-
-        // Default classifications based on elevation and location
-        if (relation.getMaxElevation() > 2000) {
-            terrain.add("alpine_meadow");
-        }
-
-        // Check for scrambling/rock based on slope
-        if (relation.calculateMaxSlope() > 30) {
-            terrain.add("scramble");
-        }
-
-        if (relation.calculateMaxSlope() > 40) {
-            terrain.add("rock");
-        }
-
-        // Default forest for lower elevation
-        if (relation.getMaxElevation() < 1500) {
-            terrain.add("forest");
-        }
-
-        // High altitude usually has exposed ridges
-        if (relation.getMaxElevation() > 2200) {
-            terrain.add("exposed_ridge");
-        }
-
-        return new ArrayList<>(terrain);
+    private Set<Terrain> classifyTerrain(OverpassRelation relation) {
+        return TrailFeatureRules.terrain(relation.getMaxElevation(), relation.calculateMaxSlope());
     }
 
     /**
      * Identify hazards based on trail characteristics and difficulty.
      */
-    private List<String> identifyHazards(OverpassRelation relation) {
-        Set<String> hazards = new HashSet<>();
-
-        Difficulty difficulty = inferDifficulty(relation);
-        double maxSlope = relation.calculateMaxSlope();
-
-        // Add hazards based on difficulty
-        if (difficulty == Difficulty.HARD || difficulty == Difficulty.ALPINE || difficulty == Difficulty.SCRAMBLING) {
-            hazards.add("exposure");
-        }
-
-        if (maxSlope > 25) {
-            hazards.add("steep_terrain");
-        }
-
-        if (relation.getMaxElevation() > 2300) {
-            hazards.add("high_altitude");
-        }
-
-        if (difficulty == Difficulty.ALPINE || difficulty == Difficulty.SCRAMBLING) {
-            hazards.add("weather_dependent");
-        }
-
-        // Bucegi-specific hazards
-        if (relation.getName() != null && relation.getName().toLowerCase().contains("bucegi")) {
-            hazards.add("bears");
-            hazards.add("limited_water_sources");
-        }
-
-        return new ArrayList<>(hazards);
+    private Set<Hazard> identifyHazards(OverpassRelation relation) {
+        return TrailFeatureRules.hazards(
+                relation.getName(), inferDifficulty(relation), relation.calculateMaxSlope(), relation.getMaxElevation());
     }
 
     /**
@@ -259,19 +154,19 @@ public class TrailNormalizer {
     }
 
     /**
-     * Build LineString geometry from coordinates.
+     * Quantize trail coordinates into packed integer arrays.
      */
-    private LineString buildLineString(List<Coordinate> coordinates) {
+    private QuantizedCoordinates quantizeCoordinates(List<Coordinate> coordinates) {
         if (coordinates == null || coordinates.isEmpty()) {
-            return geometryFactory.createLineString(new Coordinate[0]);
+            return QuantizedCoordinates.empty();
         }
 
         // Ensure coordinates have elevation data
-        Coordinate[] coords = coordinates.stream()
-                .map(c -> new Coordinate(c.x, c.y, Double.isNaN(c.z) ? 0 : c.z))
-                .toArray(Coordinate[]::new);
-
-        return geometryFactory.createLineString(coords);
+        QuantizedCoordinates.Builder builder = QuantizedCoordinates.builder(coordinates.size());
+        for (Coordinate c : coordinates) {
+            builder.add(c.x, c.y, Double.isNaN(c.z) ? 0 : c.z);
+        }
+        return builder.build();
     }
 
     /**
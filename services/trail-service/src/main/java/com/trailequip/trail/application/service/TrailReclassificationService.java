@@ -0,0 +1,288 @@
+package com.trailequip.trail.application.service;
+
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.Hazard;
+import com.trailequip.trail.domain.model.Terrain;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailMetrics;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.domain.service.DifficultyClassifier;
+import com.trailequip.trail.domain.service.TrailFeatureRules;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Re-applies the current classification rules to every stored trail, e.g. after tuning
+ * app.difficulty.* thresholds, without re-ingesting from Overpass.
+ *
+ * Trails are streamed as {@link TrailMetrics} columns, terrain and hazard bitmasks included,
+ * through a database cursor and handled in chunks: each chunk is reclassified in parallel, and
+ * only trails whose classification changed are loaded and written back, in a transaction of
+ * their own. Memory use is bounded by the chunk size, not the catalog size.
+ *
+ * OSM trails get difficulty from their metrics and terrain and hazards re-derived, as at
+ * ingestion. Other sources keep their curated terrain and hazards; only difficulty is
+ * recomputed, from metrics and terrain. One job runs at a time, in the background.
+ */
+@Slf4j
+@Service
+public class TrailReclassificationService {
+
+    public static final String OSM_SOURCE = "openstreetmap";
+
+    private final TrailRepository trailRepository;
+    private final DifficultyClassifier difficultyClassifier;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final int chunkSize;
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "trail-reclassification");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Job current;
+
+    public TrailReclassificationService(
+            TrailRepository trailRepository,
+            DifficultyClassifier difficultyClassifier,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.reclassification.chunk-size:500}") int chunkSize) {
+        this.trailRepository = trailRepository;
+        this.difficultyClassifier = difficultyClassifier;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        // Writes commit chunk by chunk while the read transaction keeps the cursor open
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Start a job in the background.
+     *
+     * @param source only trails from this source; null for all
+     * @param dryRun count the changes without writing them
+     * @return the started job, or empty while another job is running
+     */
+    public synchronized Optional<JobStatus> start(String source, boolean dryRun) {
+        if (current != null && current.state == State.RUNNING) {
+            return Optional.empty();
+        }
+        Job job = new Job(source, dryRun);
+        current = job;
+        jobExecutor.execute(() -> run(job));
+        return Optional.of(job.status());
+    }
+
+    /**
+     * Progress of the running job, or the result of the last one.
+     */
+    public Optional<JobStatus> getStatus() {
+        Job job = current;
+        return job != null ? Optional.of(job.status()) : Optional.empty();
+    }
+
+    /**
+     * Run a job on the calling thread.
+     */
+    public JobStatus reclassify(String source, boolean dryRun) {
+        Job job = new Job(source, dryRun);
+        run(job);
+        return job.status();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    private void run(Job job) {
+        long start = System.currentTimeMillis();
+        try {
+            job.total = trailRepository.countMetrics(job.source);
+            readTransaction.executeWithoutResult(status -> {
+                try (Stream<TrailMetrics> rows = trailRepository.streamMetrics(job.source)) {
+                    List<TrailMetrics> chunk = new ArrayList<>(chunkSize);
+                    rows.forEach(row -> {
+                        chunk.add(row);
+                        if (chunk.size() == chunkSize) {
+                            processChunk(chunk, job);
+                            chunk.clear();
+                        }
+                    });
+                    if (!chunk.isEmpty()) {
+                        processChunk(chunk, job);
+                    }
+                }
+            });
+            job.finish(State.COMPLETED, null);
+            log.info(
+                    "Reclassified {} trails in {} ms: {} changed{}",
+                    job.processed,
+                    System.currentTimeMillis() - start,
+                    job.changed,
+                    job.dryRun ? " (dry run)" : "");
+        } catch (RuntimeException e) {
+            log.error("Trail reclassification failed after {} trails: {}", job.processed, e.getMessage(), e);
+            job.finish(State.FAILED, e.getMessage());
+        }
+    }
+
+    private void processChunk(List<TrailMetrics> chunk, Job job) {
+        // Rules are pure functions of the row, so the chunk is classified on the common pool
+        List<Change> changes = chunk.parallelStream()
+                .map(this::reclassifyRow)
+                .filter(Objects::nonNull)
+                .toList();
+
+        if (!job.dryRun && !changes.isEmpty()) {
+            writeTransaction.executeWithoutResult(status -> apply(changes));
+        }
+        job.record(chunk.size(), changes);
+    }
+
+    /**
+     * The new classification of a row, or null when nothing changed.
+     */
+    Change reclassifyRow(TrailMetrics row) {
+        Difficulty difficulty;
+        Set<Terrain> newTerrain = null;
+        Set<Hazard> newHazards = null;
+        if (OSM_SOURCE.equals(row.source())) {
+            difficulty = difficultyClassifier.classifyMetrics(row.elevationGain(), row.maxSlope());
+            Set<Terrain> derivedTerrain = TrailFeatureRules.terrain(row.maxElevation(), row.maxSlope());
+            Set<Hazard> derivedHazards =
+                    TrailFeatureRules.hazards(row.name(), difficulty, row.maxSlope(), row.maxElevation());
+            newTerrain = derivedTerrain.equals(row.terrain()) ? null : derivedTerrain;
+            newHazards = derivedHazards.equals(row.hazards()) ? null : derivedHazards;
+        } else {
+            difficulty = difficultyClassifier.classify(row);
+        }
+
+        Difficulty newDifficulty = difficulty == row.difficulty() ? null : difficulty;
+        if (newDifficulty == null && newTerrain == null && newHazards == null) {
+            return null;
+        }
+        return new Change(row.id(), row.difficulty(), newDifficulty, newTerrain, newHazards);
+    }
+
+    private void apply(List<Change> changes) {
+        Map<UUID, Change> byId = new HashMap<>();
+        for (Change change : changes) {
+            byId.put(change.id(), change);
+        }
+        // Loaded and written through JPA so caches and listeners see the update on commit
+        for (Trail trail : trailRepository.findAllById(byId.keySet())) {
+            Change change = byId.get(trail.getId());
+            if (change.difficulty() != null) trail.setDifficulty(change.difficulty());
+            if (change.terrain() != null) trail.setTerrainSet(change.terrain());
+            if (change.hazards() != null) trail.setHazardSet(change.hazards());
+            trail.setUpdatedAt(Instant.now());
+        }
+    }
+
+    /**
+     * Changed classification of one trail; null fields are unchanged.
+     */
+    record Change(UUID id, Difficulty previous, Difficulty difficulty, Set<Terrain> terrain, Set<Hazard> hazards) {}
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    /**
+     * Progress and diff summary. Transitions count difficulty changes as "HARD->MEDIUM".
+     */
+    public record JobStatus(
+            State state,
+            String source,
+            boolean dryRun,
+            Instant startedAt,
+            Instant finishedAt,
+            long total,
+            long processed,
+            long changed,
+            long difficultyChanged,
+            long terrainChanged,
+            long hazardsChanged,
+            Map<String, Long> difficultyTransitions,
+            String error) {}
+
+    private static final class Job {
+        private final String source;
+        private final boolean dryRun;
+        private final Instant startedAt = Instant.now();
+        private final Map<String, Long> transitions = new TreeMap<>();
+        private volatile State state = State.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+        private volatile long total;
+        private long processed;
+        private long changed;
+        private long difficultyChanged;
+        private long terrainChanged;
+        private long hazardsChanged;
+
+        Job(String source, boolean dryRun) {
+            this.source = source;
+            this.dryRun = dryRun;
+        }
+
+        synchronized void record(int rows, List<Change> changes) {
+            processed += rows;
+            changed += changes.size();
+            for (Change change : changes) {
+                if (change.difficulty() != null) {
+                    difficultyChanged++;
+                    transitions.merge(change.previous() + "->" + change.difficulty(), 1L, Long::sum);
+                }
+                if (change.terrain() != null) terrainChanged++;
+                if (change.hazards() != null) hazardsChanged++;
+            }
+        }
+
+        synchronized void finish(State state, String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.state = state;
+        }
+
+        synchronized JobStatus status() {
+            return new JobStatus(
+                    state,
+                    source,
+                    dryRun,
+                    startedAt,
+                    finishedAt,
+                    total,
+                    processed,
+                    changed,
+                    difficultyChanged,
+                    terrainChanged,
+                    hazardsChanged,
+                    new TreeMap<>(transitions),
+                    error);
+        }
+    }
+}
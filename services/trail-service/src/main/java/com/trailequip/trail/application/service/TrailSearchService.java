@@ -0,0 +1,50 @@
+package com.trailequip.trail.application.service;
+
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.domain.service.DiacriticFolder;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Ranked trail search backed by Postgres full-text and trigram indexes.
+ * Queries are diacritic-folded so "Varful Omu" matches "Vârful Omu".
+ */
+@Service
+@RequiredArgsConstructor
+public class TrailSearchService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final TrailRepository trailRepository;
+
+    /**
+     * Search trails by name, ref and description, ordered by relevance.
+     *
+     * @param query free-text query
+     * @param page zero-based page index
+     * @param size page size (clamped to MAX_PAGE_SIZE)
+     * @return page of matching trails, best matches first
+     */
+    public Page<Trail> search(String query, int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+
+        List<String> tokens = DiacriticFolder.tokenize(query);
+        if (tokens.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        // Tokens are letters/digits only, so they are safe inside to_tsquery and LIKE
+        String term = String.join(" ", tokens);
+        String tsQuery = tokens.stream().map(token -> token + ":*").collect(Collectors.joining(" & "));
+        String likePattern = "%" + term + "%";
+
+        return trailRepository.searchRanked(tsQuery, term, likePattern, pageable);
+    }
+}
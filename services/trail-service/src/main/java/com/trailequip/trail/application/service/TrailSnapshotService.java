@@ -0,0 +1,64 @@
+package com.trailequip.trail.application.service;
+
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailMarking;
+import com.trailequip.trail.domain.repository.TrailMarkingRepository;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.infrastructure.snapshot.TrailSnapshot;
+import com.trailequip.trail.infrastructure.snapshot.TrailSnapshotWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes the trail catalog to the snapshot file that read-only edge instances serve
+ * (see EdgeModeConfiguration).
+ *
+ * Trails are read through the export cursor a batch at a time and detached once written,
+ * so memory use stays flat however large the catalog is. The previous snapshot stays in place until the
+ * new one is complete.
+ */
+@Slf4j
+@Service
+public class TrailSnapshotService {
+
+    private final TrailRepository trailRepository;
+    private final TrailMarkingRepository trailMarkingRepository;
+    private final Path snapshotFile;
+
+    public TrailSnapshotService(
+            TrailRepository trailRepository,
+            TrailMarkingRepository trailMarkingRepository,
+            @Value("${app.snapshot.file:trails.snapshot}") String snapshotFile) {
+        this.trailRepository = trailRepository;
+        this.trailMarkingRepository = trailMarkingRepository;
+        this.snapshotFile = Path.of(snapshotFile);
+    }
+
+    /**
+     * Write every trail with its waypoints and marking, and every marking.
+     */
+    @Transactional(readOnly = true)
+    public TrailSnapshot.Metadata writeSnapshot() throws IOException {
+        long start = System.currentTimeMillis();
+        try (TrailSnapshotWriter writer = TrailSnapshotWriter.open(snapshotFile);
+                Stream<Trail> trails = trailRepository.streamForExport(null, null)) {
+            for (TrailMarking marking : trailMarkingRepository.findAll()) {
+                writer.writeMarking(marking);
+            }
+            TrailExportBatches.forEachWithLines(trails, trailRepository, writer::writeTrail);
+            TrailSnapshot.Metadata metadata = writer.finish();
+            log.info(
+                    "Wrote trail snapshot of {} trails ({} MB) to {} in {} ms",
+                    metadata.trails(),
+                    metadata.bytes() >> 20,
+                    snapshotFile,
+                    System.currentTimeMillis() - start);
+            return metadata;
+        }
+    }
+}
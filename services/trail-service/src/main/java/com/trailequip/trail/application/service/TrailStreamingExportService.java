@@ -0,0 +1,161 @@
+package com.trailequip.trail.application.service;
+
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.GeometryLevel;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.infrastructure.flatgeobuf.FlatGeobufWriter;
+import com.trailequip.trail.infrastructure.flatgeobuf.FlatGeobufWriter.Column;
+import com.trailequip.trail.infrastructure.flatgeobuf.FlatGeobufWriter.ColumnType;
+import com.trailequip.trail.infrastructure.tiles.GeoBounds;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Bulk exports written straight to the response stream.
+ *
+ * Trails are read through a database cursor and detached once written, so memory use
+ * stays flat however many trails match; waypoints are only loaded for GPX, a batch of
+ * trails at a time. Runs in its own read-only transaction because the cursor lives only
+ * as long as the transaction.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TrailStreamingExportService {
+
+    public static final String FLATGEOBUF_LAYER = "trails";
+
+    private static final List<Column> FLATGEOBUF_COLUMNS = List.of(
+            new Column("id", ColumnType.STRING),
+            new Column("name", ColumnType.STRING),
+            new Column("ref", ColumnType.STRING),
+            new Column("difficulty", ColumnType.STRING),
+            new Column("distance", ColumnType.DOUBLE),
+            new Column("elevationGain", ColumnType.INT),
+            new Column("elevationLoss", ColumnType.INT),
+            new Column("maxSlope", ColumnType.DOUBLE),
+            new Column("source", ColumnType.STRING),
+            new Column("osmId", ColumnType.LONG));
+
+    private final TrailRepository trailRepository;
+    private final TrailExportService trailExportService;
+    private final TrailGeometryService trailGeometryService;
+
+    /**
+     * Stream trails matching the filters as a GeoJSON FeatureCollection.
+     * Both filters are optional; an unknown difficulty matches no trails.
+     *
+     * @return number of features written
+     */
+    @Transactional(readOnly = true)
+    public int writeGeoJSONCollection(
+            String difficulty, String source, GeometryLevel level, int precision, OutputStream out)
+            throws IOException {
+        try (Stream<Trail> trails = openTrails(difficulty, source);
+                TrailExportService.GeoJSONCollectionWriter writer =
+                        trailExportService.openGeoJSONCollection(out, level, precision)) {
+            Iterator<Trail> iterator = trails.iterator();
+            while (iterator.hasNext()) {
+                Trail trail = iterator.next();
+                writer.write(trail);
+                trailRepository.detach(trail);
+            }
+            writer.finish();
+            log.debug("Streamed {} trails as GeoJSON", writer.getCount());
+            return writer.getCount();
+        }
+    }
+
+    /**
+     * Stream trails matching the filters as a ZIP archive with one GPX file per trail.
+     * A non-null region keeps only trails whose bounds intersect it.
+     *
+     * @return number of GPX files written
+     */
+    @Transactional(readOnly = true)
+    public int writeGPXArchive(String difficulty, String source, GeoBounds region, int precision, OutputStream out)
+            throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        AtomicInteger count = new AtomicInteger();
+        // GPX includes waypoints, so trails are written in batches that share one waypoint select
+        try (Stream<Trail> trails = openTrails(difficulty, source)) {
+            TrailExportBatches.forEach(trails, trailRepository, trail -> {
+                if (region == null || crosses(trailGeometryService.getBounds(trail), region)) {
+                    zip.putNextEntry(new ZipEntry("trail-" + trail.getId() + ".gpx"));
+                    trailExportService.writeGPX(trail, precision, zip);
+                    zip.closeEntry();
+                    count.incrementAndGet();
+                }
+            });
+        }
+        zip.finish(); // writes the central directory; the response stream stays open
+        log.debug("Streamed {} trails as GPX archive", count);
+        return count.get();
+    }
+
+    /**
+     * Write trails matching the filters as a FlatGeobuf file with a spatial index.
+     * Features are spilled to a temporary file while the cursor is read, because the
+     * index in front of them needs every feature's size first.
+     *
+     * @return number of features written
+     */
+    @Transactional(readOnly = true)
+    public int writeFlatGeobuf(String difficulty, String source, OutputStream out) throws IOException {
+        try (FlatGeobufWriter writer = new FlatGeobufWriter(FLATGEOBUF_LAYER, FLATGEOBUF_COLUMNS, null)) {
+            try (Stream<Trail> trails = openTrails(difficulty, source)) {
+                Iterator<Trail> iterator = trails.iterator();
+                while (iterator.hasNext()) {
+                    Trail trail = iterator.next();
+                    writer.add(
+                            trailGeometryService.getCoordinates(trail, GeometryLevel.FULL), flatGeobufValues(trail));
+                    trailRepository.detach(trail);
+                }
+            }
+            writer.writeTo(out);
+            log.debug("Wrote {} trails as FlatGeobuf", writer.getCount());
+            return writer.getCount();
+        }
+    }
+
+    private static Object[] flatGeobufValues(Trail trail) {
+        return new Object[] {
+            trail.getId().toString(),
+            trail.getName(),
+            trail.getRef(),
+            trail.getDifficulty() != null ? trail.getDifficulty().name() : null,
+            trail.getDistance(),
+            trail.getElevationGain(),
+            trail.getElevationLoss(),
+            trail.getMaxSlope(),
+            trail.getSource(),
+            trail.getOsmId()
+        };
+    }
+
+    private static boolean crosses(GeoBounds bounds, GeoBounds region) {
+        return bounds != null && region.intersects(bounds);
+    }
+
+    private Stream<Trail> openTrails(String difficulty, String source) {
+        if (difficulty == null) {
+            return trailRepository.streamForExport(null, source);
+        }
+        try {
+            return trailRepository.streamForExport(Difficulty.valueOf(difficulty.toUpperCase()), source);
+        } catch (IllegalArgumentException e) {
+            return Stream.empty();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.trailequip.trail.application.service;
+
+import com.trailequip.trail.domain.event.TrailCatalogReplacedEvent;
+import com.trailequip.trail.domain.event.TrailChangedEvent;
+import com.trailequip.trail.domain.model.GeometryLevel;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailMarking;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.infrastructure.tiles.GeoBounds;
+import com.trailequip.trail.infrastructure.tiles.MvtTileBuilder;
+import com.trailequip.trail.infrastructure.tiles.TileCache;
+import com.trailequip.trail.infrastructure.tiles.TileKey;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Serves trails as Mapbox Vector Tiles for the planner map.
+ *
+ * Trail bounds are kept in memory so a tile request loads only the trails that touch
+ * it. Geometry comes from the simplification level matching the tile zoom, read through
+ * {@link TrailGeometryService} so it is not decoded per tile. Rendered
+ * tiles go through {@link TileCache}; committed trail changes evict only the tiles
+ * covering the trail's old and new bounds.
+ */
+@Slf4j
+@Service
+public class TrailTileService {
+
+    public static final String LAYER_NAME = "trails";
+
+    private static final double TILE_BUFFER = (double) MvtTileBuilder.BUFFER / MvtTileBuilder.EXTENT;
+
+    private final TrailRepository trailRepository;
+    private final TrailGeometryService trailGeometryService;
+    private final TileCache tileCache;
+    private final int maxZoom;
+    private final Map<UUID, GeoBounds> boundsByTrail = new ConcurrentHashMap<>();
+
+    public TrailTileService(
+            TrailRepository trailRepository,
+            TrailGeometryService trailGeometryService,
+            TileCache tileCache,
+            @Value("${app.tiles.max-zoom:16}") int maxZoom) {
+        this.trailRepository = trailRepository;
+        this.trailGeometryService = trailGeometryService;
+        this.tileCache = tileCache;
+        this.maxZoom = Math.min(maxZoom, TileKey.MAX_ZOOM);
+    }
+
+    /**
+     * Load trail bounds. Tiles cached on disk by a previous run may predate changes
+     * made while the service was down, so the disk tier starts empty.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadBounds() {
+        try {
+            for (Trail trail : trailRepository.findAll()) {
+                GeoBounds bounds = trailGeometryService.getBounds(trail);
+                if (bounds != null) {
+                    boundsByTrail.put(trail.getId(), bounds);
+                }
+            }
+            tileCache.clear();
+            log.info("Loaded tile bounds for {} trails", boundsByTrail.size());
+        } catch (Exception e) {
+            log.warn("Failed to load trail bounds for tiles: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Load bounds again once the trail tables were replaced, dropping every cached tile.
+     */
+    @EventListener(TrailCatalogReplacedEvent.class)
+    public void reload() {
+        boundsByTrail.clear();
+        loadBounds();
+    }
+
+    public int getMaxZoom() {
+        return maxZoom;
+    }
+
+    public boolean isValidTile(int z, int x, int y) {
+        return z <= maxZoom && TileKey.isValid(z, x, y);
+    }
+
+    /**
+     * Encoded MVT for a tile; zero bytes when no trail crosses it.
+     */
+    public byte[] getTile(int z, int x, int y) {
+        TileKey key = new TileKey(z, x, y);
+        byte[] cached = tileCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = tileCache.generation();
+        byte[] tile = render(key);
+        tileCache.put(key, tile, generation);
+        return tile;
+    }
+
+    /**
+     * Evict tiles covering the trail before and after a committed change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrailChanged(TrailChangedEvent event) {
+        GeoBounds current = event.type() == TrailChangedEvent.ChangeType.DELETED
+                ? null
+                : trailGeometryService.getBounds(event.trail());
+
+        GeoBounds previous;
+        if (current != null) {
+            previous = boundsByTrail.put(event.trailId(), current);
+        } else {
+            previous = boundsByTrail.remove(event.trailId());
+        }
+        tileCache.invalidate(GeoBounds.union(previous, current));
+    }
+
+    private byte[] render(TileKey key) {
+        GeoBounds tileBounds = GeoBounds.of(key, TILE_BUFFER);
+        List<UUID> ids = new ArrayList<>();
+        boundsByTrail.forEach((id, bounds) -> {
+            if (bounds.intersects(tileBounds)) {
+                ids.add(id);
+            }
+        });
+        if (ids.isEmpty()) {
+            return new byte[0];
+        }
+
+        GeometryLevel level = GeometryLevel.forZoom(key.z());
+        MvtTileBuilder builder = new MvtTileBuilder(key, LAYER_NAME);
+        for (Trail trail : trailRepository.findAllById(ids)) {
+            builder.addLine(trailGeometryService.getCoordinates(trail, level), attributes(trail));
+        }
+        return builder.build();
+    }
+
+    private Map<String, Object> attributes(Trail trail) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("id", trail.getId().toString());
+        attributes.put("name", trail.getName());
+        attributes.put("ref", trail.getRef());
+        attributes.put("difficulty", trail.getDifficulty() != null ? trail.getDifficulty().name() : null);
+        attributes.put("distance", trail.getDistance());
+        if (trail.getMarking() != null) {
+            attributes.put("marking", trail.getMarking().getOsmcSymbol());
+            attributes.put("color", trail.getMarking().getHexColor());
+            TrailMarking.MarkingShape shape = trail.getMarking().getShape();
+            attributes.put("shape", shape != null ? shape.name() : null);
+        }
+        return attributes;
+    }
+}
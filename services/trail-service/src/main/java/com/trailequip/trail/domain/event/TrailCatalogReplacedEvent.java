@@ -0,0 +1,9 @@
+package com.trailequip.trail.domain.event;
+
+/**
+ * Published after a bulk load has replaced the trail tables wholesale, bypassing JPA, so no
+ * {@link TrailChangedEvent}s were fired. In-memory read models rebuild from the database.
+ *
+ * @param trails number of trails now stored
+ */
+public record TrailCatalogReplacedEvent(long trails) {}
@@ -0,0 +1,21 @@
+package com.trailequip.trail.domain.event;
+
+import com.trailequip.trail.domain.model.Trail;
+import java.util.UUID;
+
+/**
+ * Published whenever a trail row is created, updated or deleted.
+ * In-memory read models (autocomplete, caches) listen for it after commit to stay in sync.
+ *
+ * @param trailId id of the changed trail
+ * @param trail the entity as persisted (still populated for DELETED)
+ * @param type kind of change
+ */
+public record TrailChangedEvent(UUID trailId, Trail trail, ChangeType type) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,43 @@
+package com.trailequip.trail.domain.event;
+
+import com.trailequip.trail.domain.model.Trail;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA lifecycle listener that turns Trail writes into {@link TrailChangedEvent}s.
+ * Catches every write path (REST, ingestion, bulk jobs) without each caller publishing events.
+ * Listeners should use @TransactionalEventListener so they only react to committed changes.
+ */
+@Component
+public class TrailEntityListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void onCreated(Trail trail) {
+        publish(trail, TrailChangedEvent.ChangeType.CREATED);
+    }
+
+    @PostUpdate
+    public void onUpdated(Trail trail) {
+        publish(trail, TrailChangedEvent.ChangeType.UPDATED);
+    }
+
+    @PostRemove
+    public void onDeleted(Trail trail) {
+        publish(trail, TrailChangedEvent.ChangeType.DELETED);
+    }
+
+    private void publish(Trail trail, TrailChangedEvent.ChangeType type) {
+        // Null when Hibernate instantiates the listener outside a Spring context (plain JPA tests)
+        if (eventPublisher != null && trail.getId() != null) {
+            eventPublisher.publishEvent(new TrailChangedEvent(trail.getId(), trail, type));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.trailequip.trail.domain.model;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Difficulty thresholds compiled into a flat decision table.
+ *
+ * Rows are EASY, MEDIUM, HARD and ALPINE; each row holds an upper limit for distance (km),
+ * elevation gain (m), average slope and maximum slope (%), plus a bitmask of terrain that
+ * rules the level out. A trail gets the first row it fits; technical terrain (scrambles,
+ * via ferratas) or exceeding every row means SCRAMBLING. Unknown metrics are passed as NaN
+ * and do not constrain a row, and a trail with no known metric gets the unknown difficulty.
+ */
+public final class DifficultyRules {
+
+    /** Levels with a row in the table, easiest first. */
+    public static final List<Difficulty> LEVELS =
+            List.of(Difficulty.EASY, Difficulty.MEDIUM, Difficulty.HARD, Difficulty.ALPINE);
+
+    private static final int METRICS = 4;
+    private static final Difficulty[] ROWS = LEVELS.toArray(new Difficulty[0]);
+
+    // Defaults as property strings, one value per level in LEVELS order
+    public static final String DEFAULT_MAX_DISTANCE = "15,30,50,Infinity";
+    public static final String DEFAULT_MAX_ELEVATION_GAIN = "500,1500,2500,3000";
+    public static final String DEFAULT_MAX_AVG_SLOPE = "10,15,20,Infinity";
+    public static final String DEFAULT_MAX_SLOPE = "20,30,40,50";
+    public static final String DEFAULT_EASY_EXCLUDED_TERRAIN = "scramble,exposed_ridge,via_ferrata";
+    public static final String DEFAULT_MEDIUM_EXCLUDED_TERRAIN = "via_ferrata,technical_climbing";
+    public static final String DEFAULT_TECHNICAL_TERRAIN = "scramble,technical_climbing,via_ferrata";
+
+    public static final DifficultyRules DEFAULT = new DifficultyRules(
+            parseLimits(DEFAULT_MAX_DISTANCE),
+            parseLimits(DEFAULT_MAX_ELEVATION_GAIN),
+            parseLimits(DEFAULT_MAX_AVG_SLOPE),
+            parseLimits(DEFAULT_MAX_SLOPE),
+            Map.of(
+                    Difficulty.EASY, List.of(DEFAULT_EASY_EXCLUDED_TERRAIN.split(",")),
+                    Difficulty.MEDIUM, List.of(DEFAULT_MEDIUM_EXCLUDED_TERRAIN.split(","))),
+            List.of(DEFAULT_TECHNICAL_TERRAIN.split(",")),
+            Difficulty.MEDIUM);
+
+    private final double[] limits; // ROWS.length x METRICS, row-major
+    private final int[] excludedTerrain; // per row
+    private final int technicalTerrain;
+    private final Difficulty unknown;
+
+    /**
+     * @param maxDistance one limit per level in LEVELS order; use infinity for no limit
+     * @param excludedTerrain terrain names that rule out a level, for the levels that have any
+     * @param technicalTerrain terrain names that always mean SCRAMBLING
+     * @param unknown difficulty of trails without any known metric
+     * @throws IllegalArgumentException for a limit array of the wrong length or a NaN limit
+     */
+    public DifficultyRules(
+            double[] maxDistance,
+            double[] maxElevationGain,
+            double[] maxAvgSlope,
+            double[] maxSlope,
+            Map<Difficulty, ? extends Collection<String>> excludedTerrain,
+            Collection<String> technicalTerrain,
+            Difficulty unknown) {
+        double[][] columns = {maxDistance, maxElevationGain, maxAvgSlope, maxSlope};
+        this.limits = new double[ROWS.length * METRICS];
+        for (int metric = 0; metric < METRICS; metric++) {
+            double[] column = columns[metric];
+            if (column == null || column.length != ROWS.length) {
+                throw new IllegalArgumentException("Expected one limit per level " + LEVELS + ": "
+                        + Arrays.toString(column));
+            }
+            for (int row = 0; row < ROWS.length; row++) {
+                if (Double.isNaN(column[row])) {
+                    throw new IllegalArgumentException("Limit must be a number: " + Arrays.toString(column));
+                }
+                limits[row * METRICS + metric] = column[row];
+            }
+        }
+
+        this.excludedTerrain = new int[ROWS.length];
+        for (int row = 0; row < ROWS.length; row++) {
+            this.excludedTerrain[row] = Terrain.mask(excludedTerrain.get(ROWS[row]));
+        }
+        this.technicalTerrain = Terrain.mask(technicalTerrain);
+        this.unknown = unknown;
+    }
+
+    /**
+     * Parse a comma-separated limit list such as "15,30,50,Infinity".
+     */
+    public static double[] parseLimits(String limits) {
+        return Arrays.stream(limits.split(","))
+                .map(String::trim)
+                .mapToDouble(Double::parseDouble)
+                .toArray();
+    }
+
+    /**
+     * Classify pre-extracted metrics; NaN marks an unknown metric.
+     *
+     * @param terrain bitmask from {@link Terrain#mask} or {@link EnumSetMaskConverter#toMask}
+     */
+    public Difficulty classify(double distance, double elevationGain, double avgSlope, double maxSlope, int terrain) {
+        if ((terrain & technicalTerrain) != 0) {
+            return Difficulty.SCRAMBLING;
+        }
+        if (Double.isNaN(distance) && Double.isNaN(elevationGain) && Double.isNaN(avgSlope) && Double.isNaN(maxSlope)) {
+            return unknown;
+        }
+
+        // NaN compares false, so unknown metrics never fail a row
+        for (int row = 0, offset = 0; row < ROWS.length; row++, offset += METRICS) {
+            if (distance > limits[offset]
+                    || elevationGain > limits[offset + 1]
+                    || avgSlope > limits[offset + 2]
+                    || maxSlope > limits[offset + 3]
+                    || (terrain & excludedTerrain[row]) != 0) {
+                continue;
+            }
+            return ROWS[row];
+        }
+        return Difficulty.SCRAMBLING;
+    }
+
+    /**
+     * Classify a trail from its distance, elevation gain, slopes and terrain.
+     */
+    public Difficulty classify(Trail trail) {
+        return classify(
+                valueOf(trail.getDistance()),
+                valueOf(trail.getElevationGain()),
+                valueOf(trail.getAvgSlope()),
+                valueOf(trail.getMaxSlope()),
+                EnumSetMaskConverter.toMask(trail.getTerrainSet()));
+    }
+
+    private static double valueOf(Number value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+}
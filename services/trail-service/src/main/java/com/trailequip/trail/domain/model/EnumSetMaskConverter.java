@@ -0,0 +1,59 @@
+package com.trailequip.trail.domain.model;
+
+import jakarta.persistence.AttributeConverter;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Stores a set of enum constants in one INTEGER column, bit {@code 1 << ordinal()} per
+ * constant. Filters can then test membership in the row itself ({@code mask & bit}) instead
+ * of joining a collection table. Enums with more than 31 constants do not fit.
+ *
+ * Null and the empty set are both stored as 0 and read back as an empty set.
+ */
+public abstract class EnumSetMaskConverter<E extends Enum<E>> implements AttributeConverter<Set<E>, Integer> {
+
+    private final Class<E> type;
+
+    protected EnumSetMaskConverter(Class<E> type) {
+        if (type.getEnumConstants().length > Integer.SIZE - 1) {
+            throw new IllegalArgumentException(type.getSimpleName() + " has too many constants for an int mask");
+        }
+        this.type = type;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(Set<E> values) {
+        return toMask(values);
+    }
+
+    @Override
+    public Set<E> convertToEntityAttribute(Integer mask) {
+        return fromMask(type, mask != null ? mask : 0);
+    }
+
+    public static <E extends Enum<E>> int toMask(Collection<E> values) {
+        if (values == null) {
+            return 0;
+        }
+        int mask = 0;
+        for (E value : values) {
+            mask |= 1 << value.ordinal();
+        }
+        return mask;
+    }
+
+    /**
+     * Constants whose bits are set; bits without a constant are ignored.
+     */
+    public static <E extends Enum<E>> EnumSet<E> fromMask(Class<E> type, int mask) {
+        EnumSet<E> set = EnumSet.noneOf(type);
+        for (E constant : type.getEnumConstants()) {
+            if ((mask & (1 << constant.ordinal())) != 0) {
+                set.add(constant);
+            }
+        }
+        return set;
+    }
+}
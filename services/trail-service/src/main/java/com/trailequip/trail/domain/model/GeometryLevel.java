@@ -0,0 +1,66 @@
+package com.trailequip.trail.domain.model;
+
+/**
+ * Precomputed resolutions of a trail line, from coarsest to full detail.
+ * Each level's tolerance stays below half a screen pixel up to its maximum zoom
+ * (at 45° latitude a pixel is ≈ 216 m at zoom 9, 27 m at zoom 12, 6.7 m at zoom 14).
+ */
+public enum GeometryLevel {
+    OVERVIEW(80.0, 9),
+    REGIONAL(12.0, 12),
+    DETAIL(3.0, 14),
+    FULL(0.0, Integer.MAX_VALUE);
+
+    private final double toleranceMeters;
+    private final int maxZoom;
+
+    GeometryLevel(double toleranceMeters, int maxZoom) {
+        this.toleranceMeters = toleranceMeters;
+        this.maxZoom = maxZoom;
+    }
+
+    public double getToleranceMeters() {
+        return toleranceMeters;
+    }
+
+    public int getMaxZoom() {
+        return maxZoom;
+    }
+
+    /**
+     * Coarsest level that still looks exact at a web map zoom level.
+     */
+    public static GeometryLevel forZoom(int zoom) {
+        for (GeometryLevel level : values()) {
+            if (zoom <= level.maxZoom) {
+                return level;
+            }
+        }
+        return FULL;
+    }
+
+    /**
+     * Coarsest level whose tolerance does not exceed the requested one.
+     */
+    public static GeometryLevel forTolerance(double toleranceMeters) {
+        for (GeometryLevel level : values()) {
+            if (level.toleranceMeters <= toleranceMeters) {
+                return level;
+            }
+        }
+        return FULL;
+    }
+
+    /**
+     * Resolve request parameters: tolerance wins over zoom, neither means full detail.
+     */
+    public static GeometryLevel resolve(Integer zoom, Double toleranceMeters) {
+        if (toleranceMeters != null) {
+            return forTolerance(toleranceMeters);
+        }
+        if (zoom != null) {
+            return forZoom(zoom);
+        }
+        return FULL;
+    }
+}
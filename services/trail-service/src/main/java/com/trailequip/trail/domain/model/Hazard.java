@@ -0,0 +1,71 @@
+package com.trailequip.trail.domain.model;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Known trail hazards, exposed in the API as lowercase names ("weather_dependent").
+ * Trails persist their hazards as a bitmask with one bit per constant (see
+ * {@link HazardSetConverter}), so new constants must only ever be appended.
+ */
+public enum Hazard {
+    EXPOSURE,
+    STEEP_TERRAIN,
+    HIGH_ALTITUDE,
+    WEATHER_DEPENDENT,
+    BEARS,
+    LIMITED_WATER_SOURCES,
+    LOOSE_ROCK,
+    STEEP_DESCENT,
+    GORGES,
+    WATER_CROSSING;
+
+    private static final Map<String, Hazard> BY_NAME = new HashMap<>();
+
+    static {
+        for (Hazard hazard : values()) {
+            BY_NAME.put(hazard.getName(), hazard);
+        }
+    }
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Name as shown on trails, e.g. "high_altitude".
+     */
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Case-insensitive lookup; null for names that are not a known hazard.
+     */
+    public static Hazard fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        Hazard hazard = BY_NAME.get(name);
+        return hazard != null ? hazard : BY_NAME.get(name.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Set of the known hazard names in the collection; unknown names are ignored.
+     */
+    public static EnumSet<Hazard> setOf(Collection<String> names) {
+        EnumSet<Hazard> set = EnumSet.noneOf(Hazard.class);
+        if (names != null) {
+            for (String name : names) {
+                Hazard hazard = fromName(name);
+                if (hazard != null) {
+                    set.add(hazard);
+                }
+            }
+        }
+        return set;
+    }
+}
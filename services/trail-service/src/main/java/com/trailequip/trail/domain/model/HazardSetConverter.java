@@ -0,0 +1,14 @@
+package com.trailequip.trail.domain.model;
+
+import jakarta.persistence.Converter;
+
+/**
+ * Trail hazards as the {@code hazard_mask} column; see {@link EnumSetMaskConverter}.
+ */
+@Converter
+public class HazardSetConverter extends EnumSetMaskConverter<Hazard> {
+
+    public HazardSetConverter() {
+        super(Hazard.class);
+    }
+}
@@ -0,0 +1,315 @@
+package com.trailequip.trail.domain.model;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.PrecisionModel;
+
+/**
+ * Immutable trail polyline on a fixed integer grid.
+ *
+ * Longitude and latitude are int32 in units of 1e-7° (≈ 1 cm), elevation is int16 in
+ * decimetres, all held in parallel primitive arrays: 10 bytes per vertex instead of a
+ * JTS Coordinate with three doubles. Values are exact integers, so equality and hashing
+ * are exact and cheap, and encoding to TWKB needs no further rounding.
+ *
+ * A line can also be a read-only view of the same columns in a {@link ByteBuffer}, typically
+ * off-heap memory of the geometry store; views read the buffer on every access and copy nothing.
+ */
+public final class QuantizedCoordinates {
+
+    public static final int COORDINATE_SCALE = 10_000_000; // units per degree
+    public static final int ELEVATION_SCALE = 10; // units per metre
+    public static final short NO_ELEVATION = Short.MIN_VALUE;
+
+    // Geometries built from the grid carry a precision model that describes it exactly
+    public static final GeometryFactory GEOMETRY_FACTORY =
+            new GeometryFactory(new PrecisionModel(COORDINATE_SCALE), 4326);
+
+    private static final QuantizedCoordinates EMPTY = new QuantizedCoordinates(new int[0], new int[0], new short[0]);
+
+    // Either the arrays or the buffer are set
+    private final int[] lon;
+    private final int[] lat;
+    private final short[] elevation;
+    private final ByteBuffer buffer;
+    private final int lonOffset;
+    private final int latOffset;
+    private final int elevationOffset;
+    private final int size;
+    private int hash;
+
+    private QuantizedCoordinates(int[] lon, int[] lat, short[] elevation) {
+        this.lon = lon;
+        this.lat = lat;
+        this.elevation = elevation;
+        this.buffer = null;
+        this.lonOffset = 0;
+        this.latOffset = 0;
+        this.elevationOffset = 0;
+        this.size = lon.length;
+    }
+
+    private QuantizedCoordinates(ByteBuffer buffer, int offset, int size) {
+        this.lon = null;
+        this.lat = null;
+        this.elevation = null;
+        this.buffer = buffer;
+        this.lonOffset = offset;
+        this.latOffset = offset + size * Integer.BYTES;
+        this.elevationOffset = offset + size * 2 * Integer.BYTES;
+        this.size = size;
+    }
+
+    public static QuantizedCoordinates empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Quantize JTS coordinates. A NaN z becomes {@link #NO_ELEVATION}.
+     */
+    public static QuantizedCoordinates of(List<Coordinate> coordinates) {
+        Builder builder = builder(coordinates.size());
+        for (Coordinate coordinate : coordinates) {
+            builder.add(coordinate.x, coordinate.y, coordinate.z);
+        }
+        return builder.build();
+    }
+
+    public static QuantizedCoordinates of(LineString line) {
+        return line == null ? EMPTY : of(Arrays.asList(line.getCoordinates()));
+    }
+
+    /**
+     * Wrap already quantized arrays without copying. The caller must not modify them afterwards.
+     */
+    public static QuantizedCoordinates wrap(int[] lonE7, int[] latE7, short[] elevationDm) {
+        if (lonE7.length != latE7.length || lonE7.length != elevationDm.length) {
+            throw new IllegalArgumentException("Coordinate arrays differ in length");
+        }
+        return new QuantizedCoordinates(lonE7, latE7, elevationDm);
+    }
+
+    /**
+     * View {@code size} vertices laid out by {@link #copyTo} at {@code offset}, in the buffer's
+     * byte order. Nothing is copied; the buffer region must not change while the view is in use.
+     */
+    public static QuantizedCoordinates view(ByteBuffer buffer, int offset, int size) {
+        Objects.checkFromIndexSize(offset, byteSize(size), buffer.limit());
+        return size == 0 ? EMPTY : new QuantizedCoordinates(buffer, offset, size);
+    }
+
+    /**
+     * Bytes taken by {@code size} vertices in a buffer: the longitude column, the latitude
+     * column, then the elevation column.
+     */
+    public static int byteSize(int size) {
+        return size * (2 * Integer.BYTES + Short.BYTES);
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public static int quantizeDegrees(double degrees) {
+        return (int) Math.round(degrees * COORDINATE_SCALE);
+    }
+
+    /**
+     * Quantize metres to decimetres, clamped to the int16 range (±3276.7 m).
+     */
+    public static short quantizeElevation(double metres) {
+        if (Double.isNaN(metres)) {
+            return NO_ELEVATION;
+        }
+        long decimetres = Math.round(metres * ELEVATION_SCALE);
+        return (short) Math.max(NO_ELEVATION + 1, Math.min(Short.MAX_VALUE, decimetres));
+    }
+
+    // ===== ACCESSORS =====
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int lonE7(int index) {
+        if (lon != null) {
+            return lon[index];
+        }
+        return buffer.getInt(lonOffset + Objects.checkIndex(index, size) * Integer.BYTES);
+    }
+
+    public int latE7(int index) {
+        if (lat != null) {
+            return lat[index];
+        }
+        return buffer.getInt(latOffset + Objects.checkIndex(index, size) * Integer.BYTES);
+    }
+
+    public short elevationDm(int index) {
+        if (elevation != null) {
+            return elevation[index];
+        }
+        return buffer.getShort(elevationOffset + Objects.checkIndex(index, size) * Short.BYTES);
+    }
+
+    public double lon(int index) {
+        // Division by the exact scale maps the grid back to the nearest double (25.54, not 25.540000000000003)
+        return lonE7(index) / (double) COORDINATE_SCALE;
+    }
+
+    public double lat(int index) {
+        return latE7(index) / (double) COORDINATE_SCALE;
+    }
+
+    public boolean hasElevation(int index) {
+        return elevationDm(index) != NO_ELEVATION;
+    }
+
+    /**
+     * Elevation in metres, or NaN when unknown.
+     */
+    public double elevation(int index) {
+        short value = elevationDm(index);
+        return value == NO_ELEVATION ? Double.NaN : value / (double) ELEVATION_SCALE;
+    }
+
+    public boolean hasAnyElevation() {
+        for (int i = 0; i < size; i++) {
+            if (elevationDm(i) != NO_ELEVATION) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copy the vertices into a buffer at {@code offset}, in the buffer's byte order, taking
+     * {@link #byteSize} bytes. {@link #view} reads them back.
+     */
+    public void copyTo(ByteBuffer target, int offset) {
+        Objects.checkFromIndexSize(offset, byteSize(size), target.limit());
+        if (buffer != null) {
+            target.put(offset, buffer, lonOffset, byteSize(size));
+            return;
+        }
+        // Slices start in big-endian order whatever the target's
+        target.slice(offset, size * Integer.BYTES).order(target.order()).asIntBuffer().put(lon);
+        target.slice(offset + size * Integer.BYTES, size * Integer.BYTES)
+                .order(target.order())
+                .asIntBuffer()
+                .put(lat);
+        target.slice(offset + size * 2 * Integer.BYTES, size * Short.BYTES)
+                .order(target.order())
+                .asShortBuffer()
+                .put(elevation);
+    }
+
+    /**
+     * Build a new JTS LineString (SRID 4326) from the grid.
+     */
+    public LineString toLineString() {
+        Coordinate[] coordinates = new Coordinate[size];
+        for (int i = 0; i < coordinates.length; i++) {
+            coordinates[i] = new Coordinate(lon(i), lat(i), elevation(i));
+        }
+        return GEOMETRY_FACTORY.createLineString(coordinates);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof QuantizedCoordinates that)) return false;
+        if (buffer == null && that.buffer == null) {
+            return Arrays.equals(lon, that.lon)
+                    && Arrays.equals(lat, that.lat)
+                    && Arrays.equals(elevation, that.elevation);
+        }
+        if (size != that.size) return false;
+        for (int i = 0; i < size; i++) {
+            if (lonE7(i) != that.lonE7(i) || latE7(i) != that.latE7(i) || elevationDm(i) != that.elevationDm(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            // Same value as over the arrays, so a view and its copy hash alike
+            int lonHash = 1;
+            int latHash = 1;
+            int elevationHash = 1;
+            for (int i = 0; i < size; i++) {
+                lonHash = 31 * lonHash + lonE7(i);
+                latHash = 31 * latHash + latE7(i);
+                elevationHash = 31 * elevationHash + elevationDm(i);
+            }
+            h = 31 * (31 * lonHash + latHash) + elevationHash;
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return "QuantizedCoordinates{size=" + size + '}';
+    }
+
+    /**
+     * Accumulates quantized vertices without intermediate Coordinate objects.
+     */
+    public static final class Builder {
+        private int[] lon;
+        private int[] lat;
+        private short[] elevation;
+        private int size;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 8);
+            this.lon = new int[capacity];
+            this.lat = new int[capacity];
+            this.elevation = new short[capacity];
+        }
+
+        /**
+         * Add a vertex in degrees and metres (NaN elevation = unknown).
+         */
+        public Builder add(double lonDegrees, double latDegrees, double elevationMetres) {
+            return addQuantized(
+                    quantizeDegrees(lonDegrees), quantizeDegrees(latDegrees), quantizeElevation(elevationMetres));
+        }
+
+        public Builder addQuantized(int lonE7, int latE7, short elevationDm) {
+            if (size == lon.length) {
+                int capacity = lon.length * 2;
+                lon = Arrays.copyOf(lon, capacity);
+                lat = Arrays.copyOf(lat, capacity);
+                elevation = Arrays.copyOf(elevation, capacity);
+            }
+            lon[size] = lonE7;
+            lat[size] = latE7;
+            elevation[size] = elevationDm;
+            size++;
+            return this;
+        }
+
+        public QuantizedCoordinates build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            return new QuantizedCoordinates(
+                    Arrays.copyOf(lon, size), Arrays.copyOf(lat, size), Arrays.copyOf(elevation, size));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.trailequip.trail.domain.model;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Known trail terrain types, exposed in the API as lowercase names ("exposed_ridge").
+ * Trails persist their terrain as a bitmask with one bit per constant (see
+ * {@link TerrainSetConverter}), so new constants must only ever be appended.
+ */
+public enum Terrain {
+    FOREST,
+    ALPINE_MEADOW,
+    EXPOSED_RIDGE,
+    SCRAMBLE,
+    ROCK,
+    WATER_CROSSING,
+    LOOSE_ROCK,
+    PAVED,
+    LAKE,
+    VIA_FERRATA,
+    TECHNICAL_CLIMBING;
+
+    private static final Map<String, Terrain> BY_NAME = new HashMap<>();
+
+    static {
+        for (Terrain terrain : values()) {
+            BY_NAME.put(terrain.getName(), terrain);
+        }
+    }
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Name as shown on trails, e.g. "alpine_meadow".
+     */
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Case-insensitive lookup; null for names that are not a known terrain.
+     */
+    public static Terrain fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        // Stored names are already lowercase, so try them as-is before normalizing
+        Terrain terrain = BY_NAME.get(name);
+        return terrain != null ? terrain : BY_NAME.get(name.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Set of the known terrain names in the collection; unknown names are ignored.
+     */
+    public static EnumSet<Terrain> setOf(Collection<String> names) {
+        EnumSet<Terrain> set = EnumSet.noneOf(Terrain.class);
+        if (names != null) {
+            for (String name : names) {
+                Terrain terrain = fromName(name);
+                if (terrain != null) {
+                    set.add(terrain);
+                }
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Bitmask of the known terrain names in the collection; unknown names are ignored.
+     */
+    public static int mask(Collection<String> names) {
+        if (names == null) {
+            return 0;
+        }
+        int mask = 0;
+        for (String name : names) {
+            Terrain terrain = fromName(name);
+            if (terrain != null) {
+                mask |= terrain.bit();
+            }
+        }
+        return mask;
+    }
+}
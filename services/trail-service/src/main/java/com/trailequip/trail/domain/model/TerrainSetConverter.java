@@ -0,0 +1,14 @@
+package com.trailequip.trail.domain.model;
+
+import jakarta.persistence.Converter;
+
+/**
+ * Trail terrain as the {@code terrain_mask} column; see {@link EnumSetMaskConverter}.
+ */
+@Converter
+public class TerrainSetConverter extends EnumSetMaskConverter<Terrain> {
+
+    public TerrainSetConverter() {
+        super(Terrain.class);
+    }
+}
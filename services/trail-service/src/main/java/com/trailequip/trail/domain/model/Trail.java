@@ -1,18 +1,37 @@
 package com.trailequip.trail.domain.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.trailequip.trail.domain.event.TrailEntityListener;
+import com.trailequip.trail.domain.service.LineSimplifier;
+import com.trailequip.trail.domain.service.TwkbCodec;
 import jakarta.persistence.*;
 import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.locationtech.jts.geom.LineString;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "trail", includeLazy = false)
+@EntityListeners(TrailEntityListener.class)
 @Table(
         name = "trails",
         indexes = {
             @Index(name = "idx_osm_id", columnList = "osm_id", unique = true),
             @Index(name = "idx_difficulty", columnList = "difficulty"),
-            @Index(name = "idx_source", columnList = "source")
+            @Index(name = "idx_source", columnList = "source"),
+            // Covers the faceted filter, so its counts can be index-only scans
+            @Index(
+                    name = "idx_trail_filter",
+                    columnList = "difficulty, distance, elevationGain, durationMinutes, maxSlope,"
+                            + " terrain_mask, hazard_mask")
         })
 public class Trail {
 
@@ -34,11 +53,35 @@ public class Trail {
     private String ref; // Reference: "01MN02", "02MN06"
 
     // === TRAIL GEOMETRY ===
-    // NOTE: Disabled for local development (requires PostGIS)
-    // Enable when using PostgreSQL with PostGIS extension
-    // @Column(columnDefinition = "Geometry(LineString,4326)")
+    // Persisted as compact TWKB (see TwkbCodec); works without PostGIS. The line columns
+    // are lazy (bytecode enhancement, see build.gradle.kts) and never enter the "trail"
+    // cache region: tiles and exports read lines from the off-heap geometry store, and
+    // bulk readers select them as TrailLineLevels
+    @JsonIgnore
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "geometry_twkb", columnDefinition = "BYTEA")
+    private byte[] encodedGeometry;
+
+    // Douglas-Peucker simplifications per GeometryLevel, written together with encodedGeometry
+    @JsonIgnore
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "geometry_overview_twkb", columnDefinition = "BYTEA")
+    private byte[] overviewGeometry;
+
+    @JsonIgnore
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "geometry_regional_twkb", columnDefinition = "BYTEA")
+    private byte[] regionalGeometry;
+
+    @JsonIgnore
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "geometry_detail_twkb", columnDefinition = "BYTEA")
+    private byte[] detailGeometry;
+
+    // Decoded from encodedGeometry on first access only
+    @JsonIgnore
     @Transient
-    private LineString geometry; // PostgreSQL PostGIS LineString (local dev: transient)
+    private QuantizedCoordinates coordinates;
 
     // === TRAIL STATISTICS ===
     @Column(nullable = false)
@@ -52,28 +95,41 @@ public class Trail {
     private Integer maxElevation;
 
     // === TRAIL CLASSIFICATION ===
-    @ElementCollection
-    @CollectionTable(name = "trail_terrain")
-    private List<String> terrain;
+    // One bit per enum constant in the trail row (see EnumSetMaskConverter): no collection
+    // tables to join, and filters test terrain and hazards in place. Null until set.
+    @Convert(converter = TerrainSetConverter.class)
+    @Column(name = "terrain_mask", columnDefinition = "INTEGER NOT NULL DEFAULT 0")
+    private Set<Terrain> terrain;
 
     @Enumerated(EnumType.STRING)
     private Difficulty difficulty;
 
-    @ElementCollection
-    @CollectionTable(name = "trail_hazards")
-    private List<String> hazards;
+    @Convert(converter = HazardSetConverter.class)
+    @Column(name = "hazard_mask", columnDefinition = "INTEGER NOT NULL DEFAULT 0")
+    private Set<Hazard> hazards;
+
+    // Set when setTerrain or setHazards dropped a name, so request validation can reject it
+    @JsonIgnore
+    @Transient
+    private boolean unknownClassificationNames;
 
     // === TRAIL MARKING (OSMC STANDARD) ===
-    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.EAGER, optional = true)
+    // Shared across trails; interned by TrailMarkingRegistry, never cascaded
+    @ManyToOne(fetch = FetchType.EAGER, optional = true)
+    @JoinColumn(name = "marking_id")
     private TrailMarking marking;
 
     // === TRAIL WAYPOINTS & SEGMENTS ===
+    // Unloaded collections of attached trails are read together, up to one export batch at a time
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
     @JoinColumn(name = "trail_id")
+    @BatchSize(size = 200)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "trail-waypoints")
     private List<Waypoint> waypoints;
 
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "trail_id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "trail-segments")
     private List<TrailSegment> segments;
 
     // === METADATA ===
@@ -112,9 +168,9 @@ public class Trail {
         this.durationMinutes = durationMinutes;
         this.maxSlope = maxSlope;
         this.avgSlope = avgSlope;
-        this.terrain = terrain;
+        this.terrain = terrain != null ? Terrain.setOf(terrain) : null;
         this.difficulty = difficulty;
-        this.hazards = hazards;
+        this.hazards = hazards != null ? Hazard.setOf(hazards) : null;
         this.source = source;
         this.createdAt = Instant.now();
         this.updatedAt = Instant.now();
@@ -155,8 +211,62 @@ public class Trail {
         return ref;
     }
 
+    /**
+     * Trail line on the 1e-7° grid, decoded from storage on first access.
+     */
+    public QuantizedCoordinates getCoordinates() {
+        if (coordinates == null && encodedGeometry != null) {
+            coordinates = TwkbCodec.decodeQuantized(encodedGeometry);
+        }
+        return coordinates;
+    }
+
+    /**
+     * Trail line simplified for a map resolution. Rows stored before levels existed
+     * are simplified on the fly.
+     */
+    public QuantizedCoordinates getCoordinates(GeometryLevel level) {
+        byte[] encoded =
+                switch (level) {
+                    case OVERVIEW -> overviewGeometry;
+                    case REGIONAL -> regionalGeometry;
+                    case DETAIL -> detailGeometry;
+                    case FULL -> null;
+                };
+        if (encoded != null) {
+            return TwkbCodec.decodeQuantized(encoded);
+        }
+
+        QuantizedCoordinates full = getCoordinates();
+        return full == null || level == GeometryLevel.FULL
+                ? full
+                : LineSimplifier.simplify(full, level.getToleranceMeters());
+    }
+
+    /**
+     * Trail line as a JTS geometry. Builds a new LineString on each call; prefer
+     * {@link #getCoordinates()} when only the vertices are needed.
+     */
+    @JsonIgnore
     public LineString getGeometry() {
-        return geometry;
+        QuantizedCoordinates line = getCoordinates();
+        return line != null ? line.toLineString() : null;
+    }
+
+    public byte[] getEncodedGeometry() {
+        return encodedGeometry;
+    }
+
+    /**
+     * Stored TWKB of the line at a level; null for levels of rows stored before levels existed.
+     */
+    public byte[] getEncodedGeometry(GeometryLevel level) {
+        return switch (level) {
+            case OVERVIEW -> overviewGeometry;
+            case REGIONAL -> regionalGeometry;
+            case DETAIL -> detailGeometry;
+            case FULL -> encodedGeometry;
+        };
     }
 
     public Double getDistance() {
@@ -187,16 +297,32 @@ public class Trail {
         return maxElevation;
     }
 
+    /**
+     * Terrain names in declaration order, e.g. ["forest", "alpine_meadow"]; null when not set.
+     */
     public List<String> getTerrain() {
-        return terrain;
+        return terrain != null ? terrain.stream().map(Terrain::getName).toList() : null;
+    }
+
+    @JsonIgnore
+    public Set<Terrain> getTerrainSet() {
+        return terrain != null ? Collections.unmodifiableSet(terrain) : null;
     }
 
     public Difficulty getDifficulty() {
         return difficulty;
     }
 
+    /**
+     * Hazard names in declaration order, e.g. ["exposure", "bears"]; null when not set.
+     */
     public List<String> getHazards() {
-        return hazards;
+        return hazards != null ? hazards.stream().map(Hazard::getName).toList() : null;
+    }
+
+    @JsonIgnore
+    public Set<Hazard> getHazardSet() {
+        return hazards != null ? Collections.unmodifiableSet(hazards) : null;
     }
 
     public TrailMarking getMarking() {
@@ -225,6 +351,10 @@ public class Trail {
 
     // ===== SETTERS =====
 
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
     public void setUpdatedAt(Instant updatedAt) {
         this.updatedAt = updatedAt;
     }
@@ -238,7 +368,33 @@ public class Trail {
     }
 
     public void setGeometry(LineString geometry) {
-        this.geometry = geometry;
+        setCoordinates(geometry != null ? QuantizedCoordinates.of(geometry) : null);
+    }
+
+    public void setCoordinates(QuantizedCoordinates coordinates) {
+        this.coordinates = coordinates;
+        this.encodedGeometry = coordinates != null ? TwkbCodec.encode(coordinates) : null;
+        this.overviewGeometry = encodeSimplified(coordinates, GeometryLevel.OVERVIEW);
+        this.regionalGeometry = encodeSimplified(coordinates, GeometryLevel.REGIONAL);
+        this.detailGeometry = encodeSimplified(coordinates, GeometryLevel.DETAIL);
+    }
+
+    /**
+     * Restore the stored TWKB of every level as read from a copy of the row (see
+     * TrailSnapshot), without decoding or simplifying the line again.
+     */
+    public void setEncodedGeometry(byte[] full, byte[] overview, byte[] regional, byte[] detail) {
+        this.coordinates = null;
+        this.encodedGeometry = full;
+        this.overviewGeometry = overview;
+        this.regionalGeometry = regional;
+        this.detailGeometry = detail;
+    }
+
+    private static byte[] encodeSimplified(QuantizedCoordinates coordinates, GeometryLevel level) {
+        return coordinates != null
+                ? TwkbCodec.encode(LineSimplifier.simplify(coordinates, level.getToleranceMeters()))
+                : null;
     }
 
     public void setDifficulty(Difficulty difficulty) {
@@ -273,12 +429,65 @@ public class Trail {
         this.description = description;
     }
 
+    /**
+     * Set terrain by name; names that are not a known {@link Terrain} are dropped and
+     * reported by {@link #hasUnknownClassificationNames()}.
+     */
     public void setTerrain(List<String> terrain) {
-        this.terrain = terrain;
+        this.terrain = terrain != null ? Terrain.setOf(terrain) : null;
+        unknownClassificationNames |= hasUnknownName(terrain, Terrain::fromName);
+    }
+
+    public void setTerrainSet(Set<Terrain> terrain) {
+        this.terrain = terrain != null ? copyOf(terrain, Terrain.class) : null;
     }
 
+    /**
+     * Set hazards by name; names that are not a known {@link Hazard} are dropped and
+     * reported by {@link #hasUnknownClassificationNames()}.
+     */
     public void setHazards(List<String> hazards) {
-        this.hazards = hazards;
+        this.hazards = hazards != null ? Hazard.setOf(hazards) : null;
+        unknownClassificationNames |= hasUnknownName(hazards, Hazard::fromName);
+    }
+
+    /**
+     * Whether a terrain or hazard name given to the setters was dropped as unknown. The REST
+     * validators reject such trails; ingestion and migration keep the lenient drop.
+     */
+    public boolean hasUnknownClassificationNames() {
+        return unknownClassificationNames;
+    }
+
+    // Blank entries are skipped rather than unknown, as in TrailFilterRequest
+    private static boolean hasUnknownName(List<String> names, Function<String, ?> lookup) {
+        if (names == null) {
+            return false;
+        }
+        for (String name : names) {
+            if (name != null && !name.isBlank() && lookup.apply(name) == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void setHazardSet(Set<Hazard> hazards) {
+        this.hazards = hazards != null ? copyOf(hazards, Hazard.class) : null;
+    }
+
+    private static <E extends Enum<E>> EnumSet<E> copyOf(Set<E> values, Class<E> type) {
+        EnumSet<E> copy = EnumSet.noneOf(type);
+        copy.addAll(values);
+        return copy;
+    }
+
+    // The mask columns are NOT NULL; a trail created without terrain or hazards has none
+    @PrePersist
+    @PreUpdate
+    void defaultClassificationSets() {
+        if (terrain == null) terrain = EnumSet.noneOf(Terrain.class);
+        if (hazards == null) hazards = EnumSet.noneOf(Hazard.class);
     }
 
     public void setSource(String source) {
@@ -0,0 +1,10 @@
+package com.trailequip.trail.domain.model;
+
+import java.util.Map;
+
+/**
+ * Counts for a trail filter: matching trails, matching trails per terrain type, and trails
+ * per difficulty. Difficulty counts ignore the filter's own difficulty selection, so they
+ * show what picking another level would return. Every constant has an entry, zero included.
+ */
+public record TrailFacets(long total, Map<Difficulty, Long> difficulty, Map<Terrain, Long> terrain) {}
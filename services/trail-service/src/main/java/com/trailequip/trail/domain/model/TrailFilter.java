@@ -0,0 +1,52 @@
+package com.trailequip.trail.domain.model;
+
+import java.util.Set;
+
+/**
+ * Criteria of the faceted trail filter. Ranges are inclusive and null bounds do not restrict;
+ * a trail without a value for a bounded metric does not match. Empty sets do not restrict.
+ *
+ * Matching trails have one of the difficulties, all of {@code terrain} and {@code hazards},
+ * and none of {@code excludedTerrain} and {@code excludedHazards}. The slope bounds apply to
+ * the trail's steepest section (maxSlope).
+ */
+public record TrailFilter(
+        Double minDistance,
+        Double maxDistance,
+        Integer minElevationGain,
+        Integer maxElevationGain,
+        Integer minDuration,
+        Integer maxDuration,
+        Double minSlope,
+        Double maxSlope,
+        Set<Difficulty> difficulties,
+        Set<Terrain> terrain,
+        Set<Terrain> excludedTerrain,
+        Set<Hazard> hazards,
+        Set<Hazard> excludedHazards,
+        String source) {
+
+    public TrailFilter {
+        difficulties = difficulties != null ? Set.copyOf(difficulties) : Set.of();
+        terrain = terrain != null ? Set.copyOf(terrain) : Set.of();
+        excludedTerrain = excludedTerrain != null ? Set.copyOf(excludedTerrain) : Set.of();
+        hazards = hazards != null ? Set.copyOf(hazards) : Set.of();
+        excludedHazards = excludedHazards != null ? Set.copyOf(excludedHazards) : Set.of();
+    }
+
+    public int terrainMask() {
+        return EnumSetMaskConverter.toMask(terrain);
+    }
+
+    public int excludedTerrainMask() {
+        return EnumSetMaskConverter.toMask(excludedTerrain);
+    }
+
+    public int hazardMask() {
+        return EnumSetMaskConverter.toMask(hazards);
+    }
+
+    public int excludedHazardMask() {
+        return EnumSetMaskConverter.toMask(excludedHazards);
+    }
+}
@@ -0,0 +1,9 @@
+package com.trailequip.trail.domain.model;
+
+import java.util.UUID;
+
+/**
+ * A trail's full line as stored TWKB (see TwkbCodec), read without loading the entity.
+ * The bytes are null for trails without geometry.
+ */
+public record TrailLine(UUID id, byte[] encodedGeometry) {}
@@ -0,0 +1,23 @@
+package com.trailequip.trail.domain.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Every stored level of a trail's line as TWKB (see TwkbCodec), read without loading the
+ * entity. Levels are null for trails without geometry and for rows stored before levels existed.
+ */
+public record TrailLineLevels(UUID id, Instant updatedAt, byte[] full, byte[] overview, byte[] regional, byte[] detail) {
+
+    /**
+     * Stored TWKB of the line at a level, as {@link Trail#getEncodedGeometry(GeometryLevel)}.
+     */
+    public byte[] encoded(GeometryLevel level) {
+        return switch (level) {
+            case OVERVIEW -> overview;
+            case REGIONAL -> regional;
+            case DETAIL -> detail;
+            case FULL -> full;
+        };
+    }
+}
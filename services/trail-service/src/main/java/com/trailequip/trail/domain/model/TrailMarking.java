@@ -1,6 +1,11 @@
 package com.trailequip.trail.domain.model;
 
 import jakarta.persistence.*;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * TrailMarking represents the OSMC (OpenStreetMap Cycling) symbol standard for trail markings.
@@ -8,11 +13,18 @@ import jakarta.persistence.*;
  * Example: "blue:blue_stripe", "red:red_triangle", "yellow:yellow_cross"
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "trail-marking")
 @Table(
         name = "trail_markings",
         uniqueConstraints = {@UniqueConstraint(columnNames = "osmcSymbol")})
 public class TrailMarking {
 
+    public static final String NO_MARKING = "none:none";
+
+    // Foreground component "<color>_<shape>", e.g. "red_bar", "blue_stripe", "yellow_cross"
+    private static final Pattern FOREGROUND_PATTERN = Pattern.compile("^([a-z]+)_([a-z_]+)$");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -87,6 +99,62 @@ public class TrailMarking {
         this.description = color + " " + shape;
     }
 
+    /**
+     * Parse an OSMC symbol into a new (unpersisted) marking.
+     * Format: "waycolor:background[:foreground[:foreground2]][:text:textcolor]".
+     * Example: "blue:blue_stripe", "red:white:red_bar".
+     * Unknown colors fall back to WHITE, unknown shapes to NONE.
+     */
+    public static TrailMarking fromOsmcSymbol(String osmcSymbol) {
+        if (osmcSymbol == null || osmcSymbol.trim().isEmpty()) {
+            return new TrailMarking(NO_MARKING, MarkingColor.WHITE, MarkingShape.NONE);
+        }
+
+        String[] parts = osmcSymbol.trim().toLowerCase(Locale.ROOT).split(":");
+        if (parts.length < 2) {
+            return new TrailMarking(osmcSymbol, MarkingColor.WHITE, MarkingShape.NONE);
+        }
+
+        MarkingColor color = parseColor(parts[0]);
+
+        // The shape is carried by the first "<color>_<shape>" component after the waycolor
+        MarkingShape shape = MarkingShape.NONE;
+        for (int i = 1; i < parts.length && shape == MarkingShape.NONE; i++) {
+            Matcher foreground = FOREGROUND_PATTERN.matcher(parts[i]);
+            if (foreground.matches()) {
+                shape = parseShape(foreground.group(2));
+            }
+        }
+
+        return new TrailMarking(osmcSymbol, color, shape);
+    }
+
+    private static MarkingColor parseColor(String colorStr) {
+        return switch (colorStr) {
+            case "blue" -> MarkingColor.BLUE;
+            case "red" -> MarkingColor.RED;
+            case "yellow" -> MarkingColor.YELLOW;
+            case "green" -> MarkingColor.GREEN;
+            case "white" -> MarkingColor.WHITE;
+            case "orange" -> MarkingColor.ORANGE;
+            case "black" -> MarkingColor.BLACK;
+            case "purple", "violet" -> MarkingColor.PURPLE;
+            default -> MarkingColor.WHITE;
+        };
+    }
+
+    private static MarkingShape parseShape(String shapeStr) {
+        return switch (shapeStr) {
+            case "stripe", "bar" -> MarkingShape.STRIPE;
+            case "triangle", "pyramid" -> MarkingShape.TRIANGLE;
+            case "cross", "plus", "x" -> MarkingShape.CROSS;
+            case "dot", "circle", "point" -> MarkingShape.DOT;
+            case "rectangle", "square", "box" -> MarkingShape.RECTANGLE;
+            case "arch", "arch_down" -> MarkingShape.ARCH;
+            default -> MarkingShape.NONE;
+        };
+    }
+
     // ===== GETTERS =====
 
     public Long getId() {
@@ -115,6 +183,10 @@ public class TrailMarking {
 
     // ===== SETTERS =====
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public void setOsmcSymbol(String osmcSymbol) {
         this.osmcSymbol = osmcSymbol;
     }
@@ -0,0 +1,20 @@
+package com.trailequip.trail.domain.model;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Classification inputs of a trail, read as columns without loading the entity.
+ */
+public record TrailMetrics(
+        UUID id,
+        String source,
+        String name,
+        Double distance,
+        Integer elevationGain,
+        Double avgSlope,
+        Double maxSlope,
+        Integer maxElevation,
+        Difficulty difficulty,
+        Set<Terrain> terrain,
+        Set<Hazard> hazards) {}
@@ -2,6 +2,8 @@ package com.trailequip.trail.domain.model;
 
 import jakarta.persistence.*;
 import java.util.UUID;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.locationtech.jts.geom.LineString;
 
 /**
@@ -9,6 +11,8 @@ import org.locationtech.jts.geom.LineString;
  * Multiple segments make up the complete trail path.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "trail-segment")
 @Table(
         name = "trail_segments",
         indexes = {
@@ -0,0 +1,66 @@
+package com.trailequip.trail.domain.model;
+
+/**
+ * Order of filtered trails: one attribute, ascending or descending, then name and id in
+ * the same direction. Trails without a value for the attribute come last either way.
+ * Difficulty sorts by level (EASY first), not alphabetically.
+ */
+public record TrailSort(Field field, boolean descending) {
+
+    public static final TrailSort DEFAULT = new TrailSort(Field.NAME, false);
+
+    public enum Field {
+        NAME("name"),
+        DISTANCE("distance"),
+        ELEVATION_GAIN("elevationGain"),
+        DURATION("durationMinutes"),
+        MAX_SLOPE("maxSlope"),
+        DIFFICULTY("difficulty");
+
+        private final String attribute;
+
+        Field(String attribute) {
+            this.attribute = attribute;
+        }
+
+        /**
+         * Name of the sorted attribute, as in TrailDto.
+         */
+        public String attribute() {
+            return attribute;
+        }
+
+        static Field fromAttribute(String attribute) {
+            for (Field field : values()) {
+                if (field.attribute.equalsIgnoreCase(attribute)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+    }
+
+    public TrailSort {
+        if (field == null) {
+            throw new IllegalArgumentException("Sort field is required");
+        }
+    }
+
+    /**
+     * Parse "distance" or "-distance" (descending); null or blank is the default order.
+     *
+     * @return the sort, or null for an attribute that cannot be sorted on
+     */
+    public static TrailSort parse(String value) {
+        if (value == null || value.isBlank()) {
+            return DEFAULT;
+        }
+        String attribute = value.trim();
+        boolean descending = attribute.startsWith("-");
+        if (descending) {
+            attribute = attribute.substring(1);
+        }
+        Field field = Field.fromAttribute(attribute);
+        return field != null ? new TrailSort(field, descending) : null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.trailequip.trail.domain.model;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Filter and sort attributes of a trail, read as columns without loading the entity.
+ */
+public record TrailSummary(
+        UUID id,
+        String name,
+        String source,
+        Double distance,
+        Integer elevationGain,
+        Integer durationMinutes,
+        Double maxSlope,
+        Difficulty difficulty,
+        Set<Terrain> terrain,
+        Set<Hazard> hazards,
+        Instant updatedAt) {}
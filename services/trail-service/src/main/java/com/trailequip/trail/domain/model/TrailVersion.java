@@ -0,0 +1,9 @@
+package com.trailequip.trail.domain.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Id and last change of a trail, read as columns without loading the entity.
+ */
+public record TrailVersion(UUID id, Instant updatedAt) {}
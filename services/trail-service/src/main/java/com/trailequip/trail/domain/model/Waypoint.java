@@ -2,12 +2,16 @@ package com.trailequip.trail.domain.model;
 
 import jakarta.persistence.*;
 import java.util.UUID;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Waypoint represents a route stop or point of interest along a trail.
  * Can be a shelter, peak, water source, junction, or scenic viewpoint.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "waypoint")
 @Table(
         name = "trail_waypoints",
         indexes = {
@@ -141,6 +145,10 @@ public class Waypoint {
 
     // ===== SETTERS =====
 
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
     public void setTrail(Trail trail) {
         this.trail = trail;
     }
@@ -0,0 +1,11 @@
+package com.trailequip.trail.domain.repository;
+
+import com.trailequip.trail.domain.model.TrailMarking;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TrailMarkingRepository extends JpaRepository<TrailMarking, Long> {
+    Optional<TrailMarking> findByOsmcSymbol(String osmcSymbol);
+}
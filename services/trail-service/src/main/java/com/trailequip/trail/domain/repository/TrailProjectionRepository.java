@@ -0,0 +1,46 @@
+package com.trailequip.trail.domain.repository;
+
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailFacets;
+import com.trailequip.trail.domain.model.TrailFilter;
+import com.trailequip.trail.domain.model.TrailSort;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Column projections of trails, for responses that need only some fields, and the
+ * faceted filter, which reads only filter columns. Also detaching of streamed trails, so
+ * services streaming through a cursor do not depend on the EntityManager themselves.
+ */
+public interface TrailProjectionRepository {
+
+    /**
+     * Selected basic attributes of the trails matching the optional filters, ordered by
+     * name. Only those columns are read: no entities, associations or collection tables
+     * are loaded. Each row maps attribute name to value.
+     */
+    List<Map<String, Object>> findAttributes(Collection<String> attributes, Difficulty difficulty, String source);
+
+    /**
+     * Selected basic attributes of the trails with the given ids, in no particular order.
+     */
+    List<Map<String, Object>> findAttributesByIds(Collection<String> attributes, Collection<UUID> ids);
+
+    /**
+     * Ids of one page of trails matching the filter, in the given order.
+     */
+    List<UUID> findIdsByFilter(TrailFilter filter, TrailSort sort, int offset, int limit);
+
+    /**
+     * Facet counts of the filter, in a single scan.
+     */
+    TrailFacets countFacets(TrailFilter filter);
+
+    /**
+     * Drop a trail read through a stream from the persistence context once it is written.
+     */
+    void detach(Trail trail);
+}
@@ -0,0 +1,256 @@
+package com.trailequip.trail.domain.repository;
+
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.Terrain;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailFacets;
+import com.trailequip.trail.domain.model.TrailFilter;
+import com.trailequip.trail.domain.model.TrailSort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Criteria tuple queries behind {@link TrailProjectionRepository}; picked up by Spring Data
+ * as the implementation of that fragment of TrailRepository.
+ *
+ * The filter queries are native SQL: terrain and hazards are tested with bitwise AND on the
+ * mask columns, which JPQL has no operator for. Their columns are all in idx_trail_filter,
+ * so Postgres can answer them from the index without reading the wide trail rows.
+ */
+public class TrailProjectionRepositoryImpl implements TrailProjectionRepository {
+
+    // Difficulty is stored by name; sorting goes by level, EASY first
+    private static final String DIFFICULTY_LEVEL = difficultyLevel();
+
+    private final EntityManager entityManager;
+
+    public TrailProjectionRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Map<String, Object>> findAttributes(
+            Collection<String> attributes, Difficulty difficulty, String source) {
+        return select(attributes, (cb, query, trail) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (difficulty != null) {
+                predicates.add(cb.equal(trail.get("difficulty"), difficulty));
+            }
+            if (source != null) {
+                predicates.add(cb.equal(trail.get("source"), source));
+            }
+            query.where(predicates.toArray(Predicate[]::new));
+            query.orderBy(cb.asc(trail.get("name")));
+        });
+    }
+
+    @Override
+    public List<Map<String, Object>> findAttributesByIds(Collection<String> attributes, Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return select(attributes, (cb, query, trail) -> query.where(trail.get("id").in(ids)));
+    }
+
+    @Override
+    public List<UUID> findIdsByFilter(TrailFilter filter, TrailSort sort, int offset, int limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        Query query = entityManager.createNativeQuery(
+                "SELECT t.id FROM trails t" + where(filter, true, parameters) + orderBy(sort));
+        parameters.forEach(query::setParameter);
+        query.setFirstResult(offset);
+        query.setMaxResults(limit);
+
+        List<UUID> ids = new ArrayList<>();
+        for (Object id : query.getResultList()) {
+            ids.add((UUID) id);
+        }
+        return ids;
+    }
+
+    @Override
+    public TrailFacets countFacets(TrailFilter filter) {
+        // One group per difficulty, each with its terrain counts; the difficulty selection is
+        // applied below so the difficulty facet can show the unselected levels too
+        StringBuilder sql = new StringBuilder("SELECT t.difficulty, count(*)");
+        for (Terrain terrain : Terrain.values()) {
+            sql.append(", count(*) FILTER (WHERE (t.terrain_mask & ").append(terrain.bit()).append(") <> 0)");
+        }
+        Map<String, Object> parameters = new HashMap<>();
+        sql.append(" FROM trails t").append(where(filter, false, parameters)).append(" GROUP BY t.difficulty");
+        Query query = entityManager.createNativeQuery(sql.toString());
+        parameters.forEach(query::setParameter);
+
+        Map<Difficulty, Long> difficultyCounts = new EnumMap<>(Difficulty.class);
+        for (Difficulty difficulty : Difficulty.values()) {
+            difficultyCounts.put(difficulty, 0L);
+        }
+        long total = 0;
+        long[] terrainCounts = new long[Terrain.values().length];
+        for (Object result : query.getResultList()) {
+            Object[] row = (Object[]) result;
+            Difficulty difficulty = difficultyOf((String) row[0]);
+            long count = ((Number) row[1]).longValue();
+            if (difficulty != null) {
+                difficultyCounts.merge(difficulty, count, Long::sum);
+            }
+            // Rows without a level match no selection; Set.copyOf sets throw on contains(null)
+            if (!filter.difficulties().isEmpty()
+                    && (difficulty == null || !filter.difficulties().contains(difficulty))) {
+                continue;
+            }
+            total += count;
+            for (int i = 0; i < terrainCounts.length; i++) {
+                terrainCounts[i] += ((Number) row[i + 2]).longValue();
+            }
+        }
+
+        Map<Terrain, Long> terrainFacet = new EnumMap<>(Terrain.class);
+        for (Terrain terrain : Terrain.values()) {
+            terrainFacet.put(terrain, terrainCounts[terrain.ordinal()]);
+        }
+        return new TrailFacets(total, difficultyCounts, terrainFacet);
+    }
+
+    @Override
+    public void detach(Trail trail) {
+        entityManager.detach(trail);
+    }
+
+    /**
+     * WHERE clause of a filter, with its values added to the parameters.
+     */
+    private static String where(TrailFilter filter, boolean withDifficulties, Map<String, Object> parameters) {
+        List<String> conditions = new ArrayList<>();
+        range(conditions, parameters, "t.distance", "Distance", filter.minDistance(), filter.maxDistance());
+        range(
+                conditions,
+                parameters,
+                "t.elevation_gain",
+                "ElevationGain",
+                filter.minElevationGain(),
+                filter.maxElevationGain());
+        range(conditions, parameters, "t.duration_minutes", "Duration", filter.minDuration(), filter.maxDuration());
+        range(conditions, parameters, "t.max_slope", "Slope", filter.minSlope(), filter.maxSlope());
+        if (withDifficulties && !filter.difficulties().isEmpty()) {
+            conditions.add("t.difficulty IN (:difficulties)");
+            parameters.put("difficulties", filter.difficulties().stream().map(Enum::name).toList());
+        }
+        if (!filter.terrain().isEmpty()) {
+            conditions.add("(t.terrain_mask & :terrain) = :terrain");
+            parameters.put("terrain", filter.terrainMask());
+        }
+        if (!filter.excludedTerrain().isEmpty()) {
+            conditions.add("(t.terrain_mask & :excludedTerrain) = 0");
+            parameters.put("excludedTerrain", filter.excludedTerrainMask());
+        }
+        if (!filter.hazards().isEmpty()) {
+            conditions.add("(t.hazard_mask & :hazards) = :hazards");
+            parameters.put("hazards", filter.hazardMask());
+        }
+        if (!filter.excludedHazards().isEmpty()) {
+            conditions.add("(t.hazard_mask & :excludedHazards) = 0");
+            parameters.put("excludedHazards", filter.excludedHazardMask());
+        }
+        if (filter.source() != null) {
+            conditions.add("t.source = :source");
+            parameters.put("source", filter.source());
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private static String orderBy(TrailSort sort) {
+        String direction = sort.descending() ? " DESC" : " ASC";
+        String tieBreak = "t.name" + direction + ", t.id" + direction;
+        String column = switch (sort.field()) {
+            case NAME -> null;
+            case DISTANCE -> "t.distance";
+            case ELEVATION_GAIN -> "t.elevation_gain";
+            case DURATION -> "t.duration_minutes";
+            case MAX_SLOPE -> "t.max_slope";
+            case DIFFICULTY -> DIFFICULTY_LEVEL;
+        };
+        return column == null
+                ? " ORDER BY " + tieBreak
+                : " ORDER BY " + column + direction + " NULLS LAST, " + tieBreak;
+    }
+
+    private static void range(
+            List<String> conditions,
+            Map<String, Object> parameters,
+            String column,
+            String name,
+            Number min,
+            Number max) {
+        if (min != null) {
+            conditions.add(column + " >= :min" + name);
+            parameters.put("min" + name, min);
+        }
+        if (max != null) {
+            conditions.add(column + " <= :max" + name);
+            parameters.put("max" + name, max);
+        }
+    }
+
+    private static String difficultyLevel() {
+        StringBuilder level = new StringBuilder("CASE t.difficulty");
+        for (Difficulty difficulty : Difficulty.values()) {
+            level.append(" WHEN '").append(difficulty.name()).append("' THEN ").append(difficulty.ordinal());
+        }
+        return level.append(" END").toString();
+    }
+
+    // Stored names outside the enum (rows written by older versions) count towards no level
+    private static Difficulty difficultyOf(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Difficulty.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private interface Restriction {
+        void apply(CriteriaBuilder cb, CriteriaQuery<Tuple> query, Root<Trail> trail);
+    }
+
+    private List<Map<String, Object>> select(Collection<String> attributes, Restriction restriction) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Trail> trail = query.from(Trail.class);
+
+        List<String> names = List.copyOf(attributes);
+        List<Selection<?>> selections = new ArrayList<>(names.size());
+        for (String name : names) {
+            selections.add(trail.get(name).alias(name));
+        }
+        query.multiselect(selections);
+        restriction.apply(cb, query, trail);
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String name : names) {
+                row.put(name, tuple.get(name));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -2,17 +2,29 @@ package com.trailequip.trail.domain.repository;
 
 import com.trailequip.trail.domain.model.Difficulty;
 import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailLine;
+import com.trailequip.trail.domain.model.TrailLineLevels;
+import com.trailequip.trail.domain.model.TrailMetrics;
+import com.trailequip.trail.domain.model.TrailSummary;
+import com.trailequip.trail.domain.model.TrailVersion;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface TrailRepository extends JpaRepository<Trail, UUID> {
+public interface TrailRepository extends JpaRepository<Trail, UUID>, TrailProjectionRepository {
     @Query("SELECT t FROM Trail t WHERE t.difficulty = :difficulty ORDER BY t.name")
     List<Trail> findByDifficulty(@Param("difficulty") Difficulty difficulty);
 
@@ -20,6 +32,12 @@ public interface TrailRepository extends JpaRepository<Trail, UUID> {
     @Query("SELECT t FROM Trail t WHERE t.difficulty = :difficulty OR :difficulty IS NULL ORDER BY t.name")
     List<Trail> findTrailsInArea(@Param("difficulty") Difficulty difficulty);
 
+    // Batch lookup: waypoints and marking come in the same query instead of one
+    // select per trail. Bypasses the second-level cache for the trails themselves.
+    @Query("SELECT DISTINCT t FROM Trail t LEFT JOIN FETCH t.waypoints LEFT JOIN FETCH t.marking"
+            + " WHERE t.id IN :ids")
+    List<Trail> findAllWithDetailsByIdIn(@Param("ids") Collection<UUID> ids);
+
     // OSM Integration Queries
     Optional<Trail> findByOsmId(Long osmId);
 
@@ -33,4 +51,78 @@ public interface TrailRepository extends JpaRepository<Trail, UUID> {
 
     @Query("SELECT t FROM Trail t WHERE t.source = :source ORDER BY t.createdAt DESC")
     List<Trail> findRecentTrailsBySource(@Param("source") String source, Pageable pageable);
+
+    // Export streaming: rows are read through a server-side cursor in batches of
+    // EXPORT_FETCH_SIZE, read-only and without filling the second-level cache.
+    // Must be consumed inside a transaction and closed.
+    // The fetch graph joins the marking and leaves waypoints unloaded, instead of one
+    // waypoint select per row; exports that need them read trails a batch at a time so
+    // the batch's waypoints come in one select (see Trail.waypoints).
+    String EXPORT_FETCH_SIZE = "200";
+
+    @EntityGraph(attributePaths = "marking")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET")
+    })
+    @Query("SELECT t FROM Trail t WHERE (:difficulty IS NULL OR t.difficulty = :difficulty)"
+            + " AND (:source IS NULL OR t.source = :source) ORDER BY t.name")
+    Stream<Trail> streamForExport(@Param("difficulty") Difficulty difficulty, @Param("source") String source);
+
+    // Reclassification: classification columns only, streamed through the same cursor
+    // settings as exports. Results are not entities, so the persistence context stays empty.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("SELECT new com.trailequip.trail.domain.model.TrailMetrics(t.id, t.source, t.name, t.distance,"
+            + " t.elevationGain, t.avgSlope, t.maxSlope, t.maxElevation, t.difficulty, t.terrain, t.hazards)"
+            + " FROM Trail t WHERE (:source IS NULL OR t.source = :source)")
+    Stream<TrailMetrics> streamMetrics(@Param("source") String source);
+
+    @Query("SELECT count(t) FROM Trail t WHERE (:source IS NULL OR t.source = :source)")
+    long countMetrics(@Param("source") String source);
+
+    // Off-heap geometry store: which rows changed since a snapshot was written
+    @Query("SELECT new com.trailequip.trail.domain.model.TrailVersion(t.id, t.updatedAt) FROM Trail t")
+    List<TrailVersion> findAllVersions();
+
+    // Trail catalog: filter and sort columns only, without waypoints or geometry
+    @Query("SELECT new com.trailequip.trail.domain.model.TrailSummary(t.id, t.name, t.source, t.distance,"
+            + " t.elevationGain, t.durationMinutes, t.maxSlope, t.difficulty, t.terrain, t.hazards, t.updatedAt)"
+            + " FROM Trail t")
+    List<TrailSummary> findAllSummaries();
+
+    // Full lines of trails the geometry store lacks, without the simplified levels
+    @Query("SELECT new com.trailequip.trail.domain.model.TrailLine(t.id, t.encodedGeometry) FROM Trail t"
+            + " WHERE t.id IN :ids")
+    List<TrailLine> findLinesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Every stored level, for the geometry store and the trail snapshot: the columns are lazy
+    // on Trail, so reading them through the entities would take one select per trail
+    @Query("SELECT new com.trailequip.trail.domain.model.TrailLineLevels(t.id, t.updatedAt, t.encodedGeometry,"
+            + " t.overviewGeometry, t.regionalGeometry, t.detailGeometry) FROM Trail t WHERE t.id IN :ids")
+    List<TrailLineLevels> findLineLevelsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Full-text + trigram search (requires unaccent/pg_trgm, see TrailSearchIndexInitializer).
+    // Expressions must match the index definitions exactly for Postgres to use the indexes.
+    String SEARCH_VECTOR = "(setweight(to_tsvector('simple', trail_unaccent(coalesce(t.name, ''))), 'A')"
+            + " || setweight(to_tsvector('simple', trail_unaccent(coalesce(t.ref, ''))), 'A')"
+            + " || setweight(to_tsvector('simple', trail_unaccent(coalesce(t.description, ''))), 'C'))";
+
+    String SEARCH_PREDICATE = "(" + SEARCH_VECTOR + " @@ to_tsquery('simple', :tsQuery)"
+            + " OR trail_unaccent(lower(t.name)) % :term"
+            + " OR trail_unaccent(lower(t.name)) LIKE :likePattern"
+            + " OR trail_unaccent(lower(t.ref)) LIKE :likePattern"
+            + " OR trail_unaccent(lower(t.description)) LIKE :likePattern)";
+
+    @Query(
+            value = "SELECT t.* FROM trails t WHERE " + SEARCH_PREDICATE
+                    + " ORDER BY ts_rank(" + SEARCH_VECTOR + ", to_tsquery('simple', :tsQuery))"
+                    + " + similarity(trail_unaccent(lower(t.name)), :term) DESC, t.name",
+            countQuery = "SELECT count(*) FROM trails t WHERE " + SEARCH_PREDICATE,
+            nativeQuery = true)
+    Page<Trail> searchRanked(
+            @Param("tsQuery") String tsQuery,
+            @Param("term") String term,
+            @Param("likePattern") String likePattern,
+            Pageable pageable);
 }
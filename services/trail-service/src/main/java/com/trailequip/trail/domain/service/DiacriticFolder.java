@@ -0,0 +1,63 @@
+package com.trailequip.trail.domain.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Folds text for search comparisons: lower-cases and strips diacritics so that
+ * "Vârful Omu", "VARFUL OMU" and "varful omu" compare equal.
+ * Mirrors the Postgres unaccent(lower(...)) expression used by the search indexes.
+ */
+public final class DiacriticFolder {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_TOKEN = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private DiacriticFolder() {}
+
+    /**
+     * Fold text to lower-case ASCII-like form (ă, â → a; î → i; ș, ş → s; ț, ţ → t).
+     *
+     * @param text input text, may be null
+     * @return folded text, or empty string for null input
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+
+        // Fast path: plain ASCII only needs lower-casing
+        boolean ascii = true;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7F) {
+                ascii = false;
+                break;
+            }
+        }
+        if (ascii) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Fold text and split it into alphanumeric tokens.
+     *
+     * @param text input text, may be null
+     * @return folded tokens, never null
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_TOKEN.split(fold(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
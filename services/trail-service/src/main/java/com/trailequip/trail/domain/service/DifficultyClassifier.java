@@ -1,92 +1,98 @@
 package com.trailequip.trail.domain.service;
 
+import static com.trailequip.trail.domain.model.DifficultyRules.*;
+
 import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.DifficultyRules;
+import com.trailequip.trail.domain.model.EnumSetMaskConverter;
 import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailMetrics;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+/**
+ * Classifies trails with the configured {@link DifficultyRules}. Limits are comma-separated,
+ * one per level from EASY to ALPINE, e.g. app.difficulty.max-slope=20,30,40,50.
+ */
 @Service
 public class DifficultyClassifier {
 
-    public Difficulty classify(Trail trail) {
-        if (hasRockClimbingTerrain(trail)) {
-            return Difficulty.SCRAMBLING;
-        }
-        if (isHard(trail)) {
-            return Difficulty.HARD;
-        }
-        if (isMedium(trail)) {
-            return Difficulty.MEDIUM;
-        }
-        if (isEasy(trail)) {
-            return Difficulty.EASY;
-        }
-        return Difficulty.HARD;
+    private final DifficultyRules rules;
+
+    /**
+     * Classifier with the default thresholds.
+     */
+    public DifficultyClassifier() {
+        this(DifficultyRules.DEFAULT);
     }
 
-    private boolean hasRockClimbingTerrain(Trail trail) {
-        if (trail.getTerrain() == null) return false;
-        for (String terrain : trail.getTerrain()) {
-            if (terrain.equalsIgnoreCase("scramble")
-                    || terrain.equalsIgnoreCase("technical_climbing")
-                    || terrain.equalsIgnoreCase("via_ferrata")) {
-                return true;
-            }
-        }
-        return trail.getMaxSlope() != null && trail.getMaxSlope() > 60;
+    public DifficultyClassifier(DifficultyRules rules) {
+        this.rules = rules;
     }
 
-    private boolean isHard(Trail trail) {
-        return trail.getDistance() != null
-                && trail.getDistance() <= 50
-                && trail.getElevationGain() != null
-                && trail.getElevationGain() <= 2000
-                && trail.getAvgSlope() != null
-                && trail.getAvgSlope() <= 20
-                && trail.getMaxSlope() != null
-                && trail.getMaxSlope() <= 50;
+    @Autowired
+    public DifficultyClassifier(
+            @Value("${app.difficulty.max-distance:" + DEFAULT_MAX_DISTANCE + "}") String maxDistance,
+            @Value("${app.difficulty.max-elevation-gain:" + DEFAULT_MAX_ELEVATION_GAIN + "}") String maxElevationGain,
+            @Value("${app.difficulty.max-avg-slope:" + DEFAULT_MAX_AVG_SLOPE + "}") String maxAvgSlope,
+            @Value("${app.difficulty.max-slope:" + DEFAULT_MAX_SLOPE + "}") String maxSlope,
+            @Value("${app.difficulty.easy-excluded-terrain:" + DEFAULT_EASY_EXCLUDED_TERRAIN + "}")
+                    String easyExcludedTerrain,
+            @Value("${app.difficulty.medium-excluded-terrain:" + DEFAULT_MEDIUM_EXCLUDED_TERRAIN + "}")
+                    String mediumExcludedTerrain,
+            @Value("${app.difficulty.technical-terrain:" + DEFAULT_TECHNICAL_TERRAIN + "}") String technicalTerrain) {
+        this(new DifficultyRules(
+                DifficultyRules.parseLimits(maxDistance),
+                DifficultyRules.parseLimits(maxElevationGain),
+                DifficultyRules.parseLimits(maxAvgSlope),
+                DifficultyRules.parseLimits(maxSlope),
+                Map.of(
+                        Difficulty.EASY, List.of(easyExcludedTerrain.split(",")),
+                        Difficulty.MEDIUM, List.of(mediumExcludedTerrain.split(","))),
+                List.of(technicalTerrain.split(",")),
+                Difficulty.MEDIUM));
     }
 
-    private boolean isMedium(Trail trail) {
-        return trail.getDistance() != null
-                && trail.getDistance() <= 30
-                && trail.getElevationGain() != null
-                && trail.getElevationGain() <= 1200
-                && trail.getAvgSlope() != null
-                && trail.getAvgSlope() <= 15
-                && trail.getMaxSlope() != null
-                && trail.getMaxSlope() <= 30
-                && !hasForbiddenTerrainForMedium(trail);
+    public Difficulty classify(Trail trail) {
+        return rules.classify(trail);
     }
 
-    private boolean isEasy(Trail trail) {
-        return trail.getDistance() != null
-                && trail.getDistance() <= 15
-                && trail.getElevationGain() != null
-                && trail.getElevationGain() <= 500
-                && trail.getAvgSlope() != null
-                && trail.getAvgSlope() <= 10
-                && !hasForbiddenTerrainForEasy(trail);
+    /**
+     * Classify column values read without the entity.
+     */
+    public Difficulty classify(TrailMetrics metrics) {
+        return rules.classify(
+                metrics.distance() != null ? metrics.distance() : Double.NaN,
+                metrics.elevationGain() != null ? metrics.elevationGain() : Double.NaN,
+                metrics.avgSlope() != null ? metrics.avgSlope() : Double.NaN,
+                metrics.maxSlope() != null ? metrics.maxSlope() : Double.NaN,
+                EnumSetMaskConverter.toMask(metrics.terrain()));
     }
 
-    private boolean hasForbiddenTerrainForEasy(Trail trail) {
-        if (trail.getTerrain() == null) return false;
-        for (String terrain : trail.getTerrain()) {
-            if (terrain.equalsIgnoreCase("scramble")
-                    || terrain.equalsIgnoreCase("exposed_ridge")
-                    || terrain.equalsIgnoreCase("via_ferrata")) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Classify metrics alone, e.g. for OSM relations before terrain is known.
+     */
+    public Difficulty classifyMetrics(Integer elevationGain, Double maxSlope) {
+        return rules.classify(
+                Double.NaN,
+                elevationGain != null ? elevationGain : Double.NaN,
+                Double.NaN,
+                maxSlope != null ? maxSlope : Double.NaN,
+                0);
     }
 
-    private boolean hasForbiddenTerrainForMedium(Trail trail) {
-        if (trail.getTerrain() == null) return false;
-        for (String terrain : trail.getTerrain()) {
-            if (terrain.equalsIgnoreCase("via_ferrata") || terrain.equalsIgnoreCase("technical_climbing")) {
-                return true;
-            }
+    /**
+     * Classify several trails in one pass, in list order.
+     */
+    public List<Difficulty> classifyAll(List<Trail> trails) {
+        List<Difficulty> difficulties = new ArrayList<>(trails.size());
+        for (Trail trail : trails) {
+            difficulties.add(rules.classify(trail));
         }
-        return false;
+        return difficulties;
     }
 }
@@ -0,0 +1,109 @@
+package com.trailequip.trail.domain.service;
+
+/**
+ * Writes decimal numbers with a fixed maximum number of fraction digits into a caller-owned
+ * char buffer, for coordinate-heavy exports.
+ *
+ * Values on the integer coordinate grid (1e-7° lon/lat, decimetre elevation) are formatted
+ * from their scaled integer form, so no double is involved at all; other doubles are scaled
+ * and rounded once. Trailing fraction zeros are dropped ("25.54", "1000"). Nothing is
+ * allocated per value, unlike Double.toString which also emits up to 17 significant digits.
+ */
+public final class FixedDecimalFormatter {
+
+    public static final int MAX_PRECISION = 7; // the coordinate grid
+    public static final int DEFAULT_PRECISION = 6; // ≈ 11 cm, below GPS accuracy
+
+    // Large enough for any call, including the Double.toString fallback
+    public static final int BUFFER_SIZE = 24;
+
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+
+    // Scaled doubles stay exact integers below 2^53
+    private static final double MAX_SCALED_DOUBLE = 9.007199254740992E15;
+
+    private FixedDecimalFormatter() {}
+
+    /**
+     * Write {@code value / 10^scale} rounded half away from zero to at most {@code precision}
+     * fraction digits, starting at {@code offset}.
+     *
+     * @return number of chars written
+     */
+    public static int format(long value, int scale, int precision, char[] buffer, int offset) {
+        checkPrecision(scale);
+        checkPrecision(precision);
+
+        int digits = scale;
+        if (precision < scale) {
+            long divisor = POWERS_OF_TEN[scale - precision];
+            long rounded = (Math.abs(value) + divisor / 2) / divisor;
+            value = value < 0 ? -rounded : rounded;
+            digits = precision;
+        }
+        while (digits > 0 && value % 10 == 0) {
+            value /= 10;
+            digits--;
+        }
+
+        int position = offset;
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        long unit = POWERS_OF_TEN[digits];
+        position = writeDigits(value / unit, buffer, position, 1);
+        if (digits > 0) {
+            buffer[position++] = '.';
+            position = writeDigits(value % unit, buffer, position, digits);
+        }
+        return position - offset;
+    }
+
+    /**
+     * Write a double rounded half away from zero to at most {@code precision} fraction digits.
+     * Values too large to scale exactly, NaN and infinities fall back to {@link Double#toString}.
+     *
+     * @return number of chars written
+     */
+    public static int format(double value, int precision, char[] buffer, int offset) {
+        checkPrecision(precision);
+        double scaled = value * POWERS_OF_TEN[precision];
+        if (!(Math.abs(scaled) < MAX_SCALED_DOUBLE)) {
+            String text = Double.toString(value);
+            text.getChars(0, text.length(), buffer, offset);
+            return text.length();
+        }
+        // Math.round takes negative halves up (-1.5 to -1); round the magnitude as the long path does
+        long rounded = Math.round(Math.abs(scaled));
+        return format(scaled < 0 ? -rounded : rounded, precision, precision, buffer, offset);
+    }
+
+    public static boolean isValidPrecision(int precision) {
+        return precision >= 0 && precision <= MAX_PRECISION;
+    }
+
+    private static void checkPrecision(int precision) {
+        if (!isValidPrecision(precision)) {
+            throw new IllegalArgumentException("Precision must be between 0 and " + MAX_PRECISION);
+        }
+    }
+
+    /**
+     * Write a non-negative value, left-padded with zeros to at least {@code minDigits}.
+     */
+    private static int writeDigits(long value, char[] buffer, int position, int minDigits) {
+        int length = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            length++;
+        }
+        length = Math.max(length, minDigits);
+        for (int i = position + length - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + length;
+    }
+}
@@ -0,0 +1,100 @@
+package com.trailequip.trail.domain.service;
+
+import com.trailequip.trail.domain.model.QuantizedCoordinates;
+
+/**
+ * Douglas-Peucker simplification directly on the packed integer grid.
+ *
+ * Distances are measured in metres on a local equirectangular projection (longitude scaled
+ * by the cosine of the line's mean latitude), which is accurate to well under a percent over
+ * the extent of a single trail. Endpoints are always kept, so simplified lines still join.
+ */
+public final class LineSimplifier {
+
+    private static final double METERS_PER_UNIT = 111_320.0 / QuantizedCoordinates.COORDINATE_SCALE;
+
+    private LineSimplifier() {}
+
+    /**
+     * Drop vertices that deviate less than {@code toleranceMeters} from the simplified line.
+     * Returns the input itself when nothing can be dropped.
+     */
+    public static QuantizedCoordinates simplify(QuantizedCoordinates line, double toleranceMeters) {
+        int n = line.size();
+        if (n <= 2 || toleranceMeters <= 0) {
+            return line;
+        }
+
+        double meanLat = 0;
+        for (int i = 0; i < n; i++) {
+            meanLat += line.lat(i);
+        }
+        double kx = Math.cos(Math.toRadians(meanLat / n)) * METERS_PER_UNIT;
+        double ky = METERS_PER_UNIT;
+        double toleranceSq = toleranceMeters * toleranceMeters;
+
+        boolean[] keep = new boolean[n];
+        keep[0] = true;
+        keep[n - 1] = true;
+        int kept = 2;
+
+        // Explicit stack of [first, last] ranges instead of recursion: trails can have 10k+ vertices
+        int[] stack = new int[2 * n];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = n - 1;
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+
+            int farthest = -1;
+            double maxDistSq = toleranceSq;
+            for (int i = first + 1; i < last; i++) {
+                double d = segmentDistanceSq(line, kx, ky, i, first, last);
+                if (d > maxDistSq) {
+                    maxDistSq = d;
+                    farthest = i;
+                }
+            }
+
+            if (farthest >= 0) {
+                keep[farthest] = true;
+                kept++;
+                stack[top++] = first;
+                stack[top++] = farthest;
+                stack[top++] = farthest;
+                stack[top++] = last;
+            }
+        }
+
+        if (kept == n) {
+            return line;
+        }
+
+        QuantizedCoordinates.Builder builder = QuantizedCoordinates.builder(kept);
+        for (int i = 0; i < n; i++) {
+            if (keep[i]) {
+                builder.addQuantized(line.lonE7(i), line.latE7(i), line.elevationDm(i));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Squared distance in metres from vertex p to segment [a, b].
+     */
+    private static double segmentDistanceSq(QuantizedCoordinates line, double kx, double ky, int p, int a, int b) {
+        double ax = line.lonE7(a) * kx;
+        double ay = line.latE7(a) * ky;
+        double dx = line.lonE7(b) * kx - ax;
+        double dy = line.latE7(b) * ky - ay;
+        double px = line.lonE7(p) * kx - ax;
+        double py = line.latE7(p) * ky - ay;
+
+        double lengthSq = dx * dx + dy * dy;
+        double t = lengthSq == 0 ? 0 : Math.max(0, Math.min(1, (px * dx + py * dy) / lengthSq));
+        double ex = px - t * dx;
+        double ey = py - t * dy;
+        return ex * ex + ey * ey;
+    }
+}
@@ -0,0 +1,83 @@
+package com.trailequip.trail.domain.service;
+
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.Hazard;
+import com.trailequip.trail.domain.model.Terrain;
+import java.util.EnumSet;
+import java.util.Locale;
+
+/**
+ * Terrain and hazards derived from OSM route metrics. Shared by ingestion and
+ * reclassification so a stored trail can be re-derived without its relation.
+ */
+public final class TrailFeatureRules {
+
+    private TrailFeatureRules() {}
+
+    /**
+     * Terrain types implied by elevation and slope; an unknown maximum elevation implies none.
+     */
+    public static EnumSet<Terrain> terrain(Integer maxElevation, Double maxSlope) {
+        EnumSet<Terrain> terrain = EnumSet.noneOf(Terrain.class);
+        double slope = maxSlope != null ? maxSlope : 0;
+
+        // Default classifications based on elevation and location
+        if (maxElevation != null && maxElevation > 2000) {
+            terrain.add(Terrain.ALPINE_MEADOW);
+        }
+
+        // Check for scrambling/rock based on slope
+        if (slope > 30) {
+            terrain.add(Terrain.SCRAMBLE);
+        }
+
+        if (slope > 40) {
+            terrain.add(Terrain.ROCK);
+        }
+
+        // Default forest for lower elevation
+        if (maxElevation != null && maxElevation < 1500) {
+            terrain.add(Terrain.FOREST);
+        }
+
+        // High altitude usually has exposed ridges
+        if (maxElevation != null && maxElevation > 2200) {
+            terrain.add(Terrain.EXPOSED_RIDGE);
+        }
+
+        return terrain;
+    }
+
+    /**
+     * Hazards implied by difficulty, slope, elevation and region.
+     */
+    public static EnumSet<Hazard> hazards(
+            String name, Difficulty difficulty, Double maxSlope, Integer maxElevation) {
+        EnumSet<Hazard> hazards = EnumSet.noneOf(Hazard.class);
+
+        // Add hazards based on difficulty
+        if (difficulty == Difficulty.HARD || difficulty == Difficulty.ALPINE || difficulty == Difficulty.SCRAMBLING) {
+            hazards.add(Hazard.EXPOSURE);
+        }
+
+        if (maxSlope != null && maxSlope > 25) {
+            hazards.add(Hazard.STEEP_TERRAIN);
+        }
+
+        if (maxElevation != null && maxElevation > 2300) {
+            hazards.add(Hazard.HIGH_ALTITUDE);
+        }
+
+        if (difficulty == Difficulty.ALPINE || difficulty == Difficulty.SCRAMBLING) {
+            hazards.add(Hazard.WEATHER_DEPENDENT);
+        }
+
+        // Bucegi-specific hazards
+        if (name != null && name.toLowerCase(Locale.ROOT).contains("bucegi")) {
+            hazards.add(Hazard.BEARS);
+            hazards.add(Hazard.LIMITED_WATER_SOURCES);
+        }
+
+        return hazards;
+    }
+}
@@ -0,0 +1,234 @@
+package com.trailequip.trail.domain.service;
+
+import com.trailequip.trail.domain.model.QuantizedCoordinates;
+import java.util.Arrays;
+import org.locationtech.jts.geom.LineString;
+
+/**
+ * Compact binary encoding of trail geometry in TWKB (Tiny Well-Known Binary).
+ *
+ * Vertices come from {@link QuantizedCoordinates} (1e-7° lon/lat, decimetre elevation),
+ * are stored as deltas from the previous vertex and written as zigzag varints. Consecutive
+ * trail vertices are metres apart, so most deltas fit in two bytes instead of the 24 bytes
+ * per XYZ point of WKB. The output is standard TWKB and can be read by PostGIS with
+ * ST_GeomFromTWKB.
+ *
+ * TWKB has no per-vertex "unknown" elevation. When a line has elevations only at some
+ * vertices, the others are written as {@link QuantizedCoordinates#NO_ELEVATION}, a value
+ * no real elevation quantizes to, and decode back to unknown; PostGIS reads them as -3276.8 m.
+ */
+public final class TwkbCodec {
+
+    public static final int XY_PRECISION = 7; // matches QuantizedCoordinates.COORDINATE_SCALE
+    public static final int Z_PRECISION = 1; // matches QuantizedCoordinates.ELEVATION_SCALE
+
+    private static final int TYPE_LINESTRING = 2;
+    private static final int FLAG_EXTENDED_DIMS = 0x08;
+    private static final int FLAG_EMPTY = 0x10;
+    private static final int EXT_HAS_Z = 0x01;
+
+    private TwkbCodec() {}
+
+    /**
+     * Quantize and encode a LineString.
+     */
+    public static byte[] encode(LineString line) {
+        return encode(QuantizedCoordinates.of(line));
+    }
+
+    /**
+     * Encode quantized coordinates; the integers are written as they are, so no precision is lost.
+     */
+    public static byte[] encode(QuantizedCoordinates coordinates) {
+        int count = coordinates.size();
+        boolean hasZ = coordinates.hasAnyElevation();
+
+        Writer out = new Writer(4 + count * (hasZ ? 5 : 4));
+        out.writeByte((zigzag(XY_PRECISION) << 4) | TYPE_LINESTRING);
+        out.writeByte((hasZ ? FLAG_EXTENDED_DIMS : 0) | (count == 0 ? FLAG_EMPTY : 0));
+        if (hasZ) {
+            out.writeByte(EXT_HAS_Z | (Z_PRECISION << 2));
+        }
+        if (count == 0) {
+            return out.toByteArray();
+        }
+
+        long prevX = 0;
+        long prevY = 0;
+        long prevZ = 0;
+
+        out.writeVarint(count);
+        for (int i = 0; i < count; i++) {
+            long x = coordinates.lonE7(i);
+            long y = coordinates.latE7(i);
+            out.writeVarint(zigzag(x - prevX));
+            out.writeVarint(zigzag(y - prevY));
+            prevX = x;
+            prevY = y;
+            if (hasZ) {
+                // NO_ELEVATION is written as is, so it survives the round trip
+                long z = coordinates.elevationDm(i);
+                out.writeVarint(zigzag(z - prevZ));
+                prevZ = z;
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode a TWKB LineString into an SRID 4326 geometry.
+     */
+    public static LineString decode(byte[] twkb) {
+        return decodeQuantized(twkb).toLineString();
+    }
+
+    /**
+     * Decode a TWKB LineString straight into packed arrays, without JTS objects.
+     * Input written at another precision (up to 7 digits) is rescaled onto the grid.
+     */
+    public static QuantizedCoordinates decodeQuantized(byte[] twkb) {
+        Reader in = new Reader(twkb);
+
+        int typeAndPrecision = in.readByte();
+        if ((typeAndPrecision & 0x0F) != TYPE_LINESTRING) {
+            throw new IllegalArgumentException("Not a TWKB LineString");
+        }
+        int xyPrecision = (int) unzigzag(typeAndPrecision >>> 4);
+        if (xyPrecision > XY_PRECISION) {
+            throw new IllegalArgumentException("TWKB precision " + xyPrecision + " exceeds 1e-7");
+        }
+
+        int flags = in.readByte();
+        boolean hasZ = false;
+        int zPrecision = 0;
+        if ((flags & FLAG_EXTENDED_DIMS) != 0) {
+            int dims = in.readByte();
+            hasZ = (dims & EXT_HAS_Z) != 0;
+            zPrecision = (dims >>> 2) & 0x07;
+        }
+        if ((flags & FLAG_EMPTY) != 0) {
+            return QuantizedCoordinates.empty();
+        }
+
+        long xyFactor = pow10(XY_PRECISION - xyPrecision);
+        long x = 0;
+        long y = 0;
+        long z = 0;
+
+        int count = (int) in.readVarint();
+        int[] lon = new int[count];
+        int[] lat = new int[count];
+        short[] elevation = new short[count];
+        for (int i = 0; i < count; i++) {
+            x += unzigzag(in.readVarint());
+            y += unzigzag(in.readVarint());
+            lon[i] = (int) (x * xyFactor);
+            lat[i] = (int) (y * xyFactor);
+            if (hasZ) {
+                z += unzigzag(in.readVarint());
+                elevation[i] = rescaleElevation(z, zPrecision);
+            } else {
+                elevation[i] = QuantizedCoordinates.NO_ELEVATION;
+            }
+        }
+
+        return QuantizedCoordinates.wrap(lon, lat, elevation);
+    }
+
+    /**
+     * Size in bytes of the same line as ISO WKB doubles, for storage comparisons.
+     */
+    public static int wkbSize(QuantizedCoordinates coordinates) {
+        if (coordinates == null) {
+            return 0;
+        }
+        int dimensions = coordinates.hasAnyElevation() ? 3 : 2;
+        return 1 + 4 + 4 + coordinates.size() * dimensions * Double.BYTES;
+    }
+
+    private static short rescaleElevation(long value, int precision) {
+        if (precision == Z_PRECISION) {
+            // Includes the NO_ELEVATION sentinel written by encode
+            return (short) value;
+        }
+        double metres = value / (double) pow10(precision);
+        return QuantizedCoordinates.quantizeElevation(metres);
+    }
+
+    private static long pow10(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Writer {
+        private byte[] buffer;
+        private int size;
+
+        Writer(int capacity) {
+            this.buffer = new byte[Math.max(capacity, 16)];
+        }
+
+        void writeByte(int value) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        int readByte() {
+            if (position >= buffer.length) {
+                throw new IllegalArgumentException("Truncated TWKB");
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed TWKB varint");
+        }
+    }
+}
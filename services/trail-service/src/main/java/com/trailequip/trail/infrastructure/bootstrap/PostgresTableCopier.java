@@ -0,0 +1,192 @@
+package com.trailequip.trail.infrastructure.bootstrap;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Postgres statements behind bulk table loads: binary COPY in and out, and dropping
+ * secondary indexes and foreign keys around a load so they are built once over the loaded
+ * rows instead of maintained row by row. Every method works on the caller's connection and
+ * transaction.
+ */
+@Component
+public class PostgresTableCopier {
+
+    /**
+     * Columns of a table in their physical order, with their types.
+     */
+    public List<CopyArchive.Column> columns(Connection conn, String table) throws SQLException {
+        List<CopyArchive.Column> columns = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT a.attname, format_type(a.atttypid, a.atttypmod)"
+                + " FROM pg_attribute a WHERE a.attrelid = ?::regclass AND a.attnum > 0 AND NOT a.attisdropped"
+                + " ORDER BY a.attnum")) {
+            stmt.setString(1, quote(table));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    columns.add(new CopyArchive.Column(rs.getString(1), rs.getString(2)));
+                }
+            }
+        }
+        return columns;
+    }
+
+    public long count(Connection conn, String table) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT count(*) FROM " + quote(table))) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Write the table's rows in binary COPY format.
+     *
+     * @return number of rows written
+     */
+    public long copyOut(Connection conn, CopyArchive.Table table, OutputStream out) throws SQLException, IOException {
+        return copyManager(conn).copyOut("COPY " + target(table) + " TO STDOUT (FORMAT binary)", out);
+    }
+
+    /**
+     * Load binary COPY data into the table. The table must have been created or truncated
+     * in the current transaction: rows are written frozen, so the first reads after the
+     * load need not set hint bits or vacuum them.
+     *
+     * @return number of rows loaded
+     */
+    public long copyIn(Connection conn, CopyArchive.Table table, InputStream in) throws SQLException, IOException {
+        return copyManager(conn).copyIn("COPY " + target(table) + " FROM STDIN (FORMAT binary, FREEZE)", in);
+    }
+
+    /**
+     * Empty the tables in one statement, so foreign keys between them do not get in the way.
+     */
+    public void truncate(Connection conn, List<String> tables) throws SQLException {
+        execute(conn, "TRUNCATE " + tables.stream().map(PostgresTableCopier::quote).collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * Drop the table's indexes that back no constraint. Primary keys and unique constraints
+     * stay, as foreign keys and duplicate checks rely on them.
+     *
+     * @return statements that create the dropped indexes again
+     */
+    public List<String> dropIndexes(Connection conn, String table) throws SQLException {
+        return dropAll(
+                conn,
+                "SELECT quote_ident(n.nspname) || '.' || quote_ident(c.relname), pg_get_indexdef(i.indexrelid)"
+                        + " FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid"
+                        + " JOIN pg_namespace n ON n.oid = c.relnamespace"
+                        + " WHERE i.indrelid = ?::regclass"
+                        + " AND NOT EXISTS (SELECT 1 FROM pg_constraint k WHERE k.conindid = i.indexrelid)",
+                table,
+                index -> "DROP INDEX " + index);
+    }
+
+    /**
+     * Drop the table's foreign keys. Adding one back checks all rows in a single join
+     * rather than one lookup per loaded row.
+     *
+     * @return statements that add the dropped foreign keys again
+     */
+    public List<String> dropForeignKeys(Connection conn, String table) throws SQLException {
+        return dropAll(
+                conn,
+                "SELECT quote_ident(conname), 'ALTER TABLE ' || conrelid::regclass || ' ADD CONSTRAINT '"
+                        + " || quote_ident(conname) || ' ' || pg_get_constraintdef(oid)"
+                        + " FROM pg_constraint WHERE conrelid = ?::regclass AND contype = 'f'",
+                table,
+                constraint -> "ALTER TABLE " + quote(table) + " DROP CONSTRAINT " + constraint);
+    }
+
+    /**
+     * Move the table's serial and identity sequences past the largest loaded value.
+     */
+    public void resetSequences(Connection conn, CopyArchive.Table table) throws SQLException {
+        for (CopyArchive.Column column : table.columns()) {
+            String sequence;
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT pg_get_serial_sequence(?, ?)")) {
+                stmt.setString(1, quote(table.name()));
+                stmt.setString(2, column.name());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    sequence = rs.getString(1);
+                }
+            }
+            if (sequence != null) {
+                try (PreparedStatement stmt = conn.prepareStatement("SELECT setval(?::regclass, coalesce(max("
+                        + quote(column.name()) + "), 0) + 1, false) FROM " + quote(table.name()))) {
+                    stmt.setString(1, sequence);
+                    stmt.execute();
+                }
+            }
+        }
+    }
+
+    public void analyze(Connection conn, String table) throws SQLException {
+        execute(conn, "ANALYZE " + quote(table));
+    }
+
+    /**
+     * Memory for index builds and foreign key checks until the transaction ends.
+     */
+    public void setMaintenanceWorkMem(Connection conn, int megabytes) throws SQLException {
+        execute(conn, "SET LOCAL maintenance_work_mem = '" + megabytes + "MB'");
+    }
+
+    public void execute(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    /**
+     * Run {@code query} for the table, which yields a name and its restoring statement per
+     * row, drop each name and return the restoring statements.
+     */
+    private List<String> dropAll(
+            Connection conn, String query, String table, Function<String, String> drop) throws SQLException {
+        List<String[]> found = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, quote(table));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    found.add(new String[] {rs.getString(1), rs.getString(2)});
+                }
+            }
+        }
+        List<String> restore = new ArrayList<>();
+        for (String[] object : found) {
+            execute(conn, drop.apply(object[0]));
+            restore.add(object[1]);
+        }
+        return restore;
+    }
+
+    private static CopyManager copyManager(Connection conn) throws SQLException {
+        return conn.unwrap(PGConnection.class).getCopyAPI();
+    }
+
+    private static String target(CopyArchive.Table table) {
+        return quote(table.name()) + " ("
+                + table.columns().stream().map(column -> quote(column.name())).collect(Collectors.joining(", "))
+                + ")";
+    }
+
+    static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,526 @@
+package com.trailequip.trail.infrastructure.catalog;
+
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.EnumSetMaskConverter;
+import com.trailequip.trail.domain.model.QuantizedCoordinates;
+import com.trailequip.trail.domain.model.Terrain;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailFacets;
+import com.trailequip.trail.domain.model.TrailFilter;
+import com.trailequip.trail.domain.model.TrailSort;
+import com.trailequip.trail.domain.model.TrailSummary;
+import com.trailequip.trail.domain.service.DiacriticFolder;
+import com.trailequip.trail.infrastructure.tiles.GeoBounds;
+import java.util.*;
+
+/**
+ * Immutable, columnar snapshot of the trail catalog's filter and sort attributes, so the
+ * filter, its facet counts and name-ordered column reads are answered without a query.
+ *
+ * One row per trail, held as parallel primitive arrays: distance, elevation gain, duration,
+ * steepest slope, difficulty level, terrain and hazard bitmasks and the bounding box on the
+ * 1e-7° grid. Names and sources are dictionary-encoded. Missing values are sentinels (NaN,
+ * Integer.MIN_VALUE, -1) and never match a bounded range, as NULL does in SQL.
+ *
+ * Rows are ordered by name, then id, so the default order is a scan in row order; every other
+ * sort attribute has a permutation computed at build time. A 50k-trail snapshot takes a few
+ * megabytes and is rebuilt, not updated: readers keep the instance they started with.
+ */
+public final class TrailCatalog {
+
+    /** Attributes a snapshot can return, named as in TrailDto. */
+    public static final Set<String> ATTRIBUTES = Set.of(
+            "id", "name", "distance", "elevationGain", "durationMinutes", "maxSlope", "difficulty", "source");
+
+    private static final int NO_VALUE = Integer.MIN_VALUE;
+    private static final int NO_SOURCE = -1;
+    private static final int UNKNOWN_SOURCE = -2; // a filter source no row has
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+    private static final Terrain[] TERRAIN = Terrain.values();
+    private static final TrailSort.Field[] SORT_FIELDS = TrailSort.Field.values();
+
+    private final int size;
+    private final long[] idMostBits;
+    private final long[] idLeastBits;
+    private final Map<UUID, Integer> rowById;
+
+    private final String[] names; // dictionary
+    private final int[] nameCodes;
+    private final String[] sources; // dictionary
+    private final Map<String, Integer> sourceCodeByName;
+    private final int[] sourceCodes;
+
+    private final double[] distance;
+    private final int[] elevationGain;
+    private final int[] duration;
+    private final double[] maxSlope;
+    private final byte[] difficulty;
+    private final int[] terrainMask;
+    private final int[] hazardMask;
+    private final int[] minLon;
+    private final int[] minLat;
+    private final int[] maxLon;
+    private final int[] maxLat;
+
+    // Per sort field: rows with a value in ascending order (ties in row order), then rows
+    // without one; known[field] is the length of the first part
+    private final int[][] orders;
+    private final int[] known;
+
+    /**
+     * Facet counts of a filter and the ids of the requested page.
+     */
+    public record Result(TrailFacets facets, List<UUID> ids) {}
+
+    /**
+     * Filter and sort attributes of one trail.
+     *
+     * @param bounds bounding box of the trail's line, null without geometry
+     */
+    public record Entry(
+            UUID id,
+            String name,
+            String source,
+            Double distance,
+            Integer elevationGain,
+            Integer durationMinutes,
+            Double maxSlope,
+            Difficulty difficulty,
+            int terrainMask,
+            int hazardMask,
+            GeoBounds bounds) {
+
+        public static Entry of(Trail trail) {
+            return new Entry(
+                    trail.getId(),
+                    trail.getName(),
+                    trail.getSource(),
+                    trail.getDistance(),
+                    trail.getElevationGain(),
+                    trail.getDurationMinutes(),
+                    trail.getMaxSlope(),
+                    trail.getDifficulty(),
+                    EnumSetMaskConverter.toMask(trail.getTerrainSet()),
+                    EnumSetMaskConverter.toMask(trail.getHazardSet()),
+                    GeoBounds.of(trail.getCoordinates()));
+        }
+
+        public static Entry of(TrailSummary trail, GeoBounds bounds) {
+            return new Entry(
+                    trail.id(),
+                    trail.name(),
+                    trail.source(),
+                    trail.distance(),
+                    trail.elevationGain(),
+                    trail.durationMinutes(),
+                    trail.maxSlope(),
+                    trail.difficulty(),
+                    EnumSetMaskConverter.toMask(trail.terrain()),
+                    EnumSetMaskConverter.toMask(trail.hazards()),
+                    bounds);
+        }
+    }
+
+    public static TrailCatalog build(Collection<Entry> entries) {
+        // Folded names approximate a locale collation ("Ștefan" next to "Stefan", not after "Z")
+        // at a fraction of the cost of a Collator
+        Map<String, String> folded = new HashMap<>();
+        for (Entry entry : entries) {
+            folded.computeIfAbsent(nameOf(entry), DiacriticFolder::fold);
+        }
+        List<Entry> rows = new ArrayList<>(entries);
+        rows.sort(Comparator.comparing((Entry entry) -> folded.get(nameOf(entry)))
+                .thenComparing(TrailCatalog::nameOf)
+                .thenComparing(Entry::id, TrailCatalog::compareUnsigned));
+        return new TrailCatalog(rows);
+    }
+
+    private TrailCatalog(List<Entry> rows) {
+        size = rows.size();
+        idMostBits = new long[size];
+        idLeastBits = new long[size];
+        rowById = new HashMap<>(size * 4 / 3 + 1);
+        nameCodes = new int[size];
+        sourceCodes = new int[size];
+        distance = new double[size];
+        elevationGain = new int[size];
+        duration = new int[size];
+        maxSlope = new double[size];
+        difficulty = new byte[size];
+        terrainMask = new int[size];
+        hazardMask = new int[size];
+        minLon = new int[size];
+        minLat = new int[size];
+        maxLon = new int[size];
+        maxLat = new int[size];
+
+        Map<String, Integer> nameCodeByName = new HashMap<>();
+        List<String> nameList = new ArrayList<>();
+        Map<String, Integer> sourceCodeByName = new HashMap<>();
+        List<String> sourceList = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            Entry entry = rows.get(row);
+            idMostBits[row] = entry.id().getMostSignificantBits();
+            idLeastBits[row] = entry.id().getLeastSignificantBits();
+            rowById.put(entry.id(), row);
+            nameCodes[row] = code(nameOf(entry), nameCodeByName, nameList);
+            sourceCodes[row] = entry.source() != null ? code(entry.source(), sourceCodeByName, sourceList) : NO_SOURCE;
+            distance[row] = entry.distance() != null ? entry.distance() : Double.NaN;
+            elevationGain[row] = entry.elevationGain() != null ? entry.elevationGain() : NO_VALUE;
+            duration[row] = entry.durationMinutes() != null ? entry.durationMinutes() : NO_VALUE;
+            maxSlope[row] = entry.maxSlope() != null ? entry.maxSlope() : Double.NaN;
+            difficulty[row] = entry.difficulty() != null ? (byte) entry.difficulty().ordinal() : -1;
+            terrainMask[row] = entry.terrainMask();
+            hazardMask[row] = entry.hazardMask();
+            GeoBounds bounds = entry.bounds();
+            minLon[row] = bounds != null ? QuantizedCoordinates.quantizeDegrees(bounds.west()) : NO_VALUE;
+            minLat[row] = bounds != null ? QuantizedCoordinates.quantizeDegrees(bounds.south()) : NO_VALUE;
+            maxLon[row] = bounds != null ? QuantizedCoordinates.quantizeDegrees(bounds.east()) : NO_VALUE;
+            maxLat[row] = bounds != null ? QuantizedCoordinates.quantizeDegrees(bounds.north()) : NO_VALUE;
+        }
+        names = nameList.toArray(String[]::new);
+        sources = sourceList.toArray(String[]::new);
+        this.sourceCodeByName = sourceCodeByName;
+
+        orders = new int[SORT_FIELDS.length][];
+        known = new int[SORT_FIELDS.length];
+        for (TrailSort.Field field : SORT_FIELDS) {
+            if (field != TrailSort.Field.NAME) {
+                sortBy(field);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Whether every attribute can be read from a snapshot.
+     */
+    public static boolean covers(Collection<String> attributes) {
+        return ATTRIBUTES.containsAll(attributes);
+    }
+
+    /**
+     * Facet counts and one page of ids of a filter, from a single pass over the rows.
+     */
+    public Result filter(TrailFilter filter, TrailSort sort, int offset, int limit) {
+        long[] matched = new long[(size + 63) >>> 6];
+        TrailFacets facets = count(new Criteria(filter), matched);
+        List<UUID> ids = new ArrayList<>(Math.min(limit, size));
+        if (offset < facets.total()) {
+            int skipped = 0;
+            for (int position = 0; position < size && ids.size() < limit; position++) {
+                int row = rowAt(sort, position);
+                if ((matched[row >>> 6] & (1L << row)) != 0 && skipped++ >= offset) {
+                    ids.add(id(row));
+                }
+            }
+        }
+        return new Result(facets, ids);
+    }
+
+    /**
+     * Facet counts of the filter, as the database would count them.
+     */
+    public TrailFacets facets(TrailFilter filter) {
+        return count(new Criteria(filter), null);
+    }
+
+    /**
+     * Ids of one page of trails matching the filter, in the given order.
+     */
+    public List<UUID> findIds(TrailFilter filter, TrailSort sort, int offset, int limit) {
+        Criteria criteria = new Criteria(filter);
+        List<UUID> ids = new ArrayList<>(Math.min(limit, size));
+        int skipped = 0;
+        for (int position = 0; position < size && ids.size() < limit; position++) {
+            int row = rowAt(sort, position);
+            if (criteria.matches(row) && skipped++ >= offset) {
+                ids.add(id(row));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Ids of the trails whose bounding box intersects the area, of the given difficulty
+     * when not null, ordered by name.
+     */
+    public List<UUID> findIdsIntersecting(GeoBounds area, Difficulty level) {
+        int west = QuantizedCoordinates.quantizeDegrees(area.west());
+        int south = QuantizedCoordinates.quantizeDegrees(area.south());
+        int east = QuantizedCoordinates.quantizeDegrees(area.east());
+        int north = QuantizedCoordinates.quantizeDegrees(area.north());
+        int wanted = level != null ? level.ordinal() : -1;
+
+        List<UUID> ids = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            if (minLon[row] == NO_VALUE || (wanted >= 0 && difficulty[row] != wanted)) {
+                continue;
+            }
+            if (minLon[row] <= east && west <= maxLon[row] && minLat[row] <= north && south <= maxLat[row]) {
+                ids.add(id(row));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Selected attributes of the trails with the given ids, in the order of the ids; unknown
+     * ids are skipped. Rows map attribute name to value, as the column projections do.
+     *
+     * @param attributes names from {@link #ATTRIBUTES}
+     */
+    public List<Map<String, Object>> findAttributes(Collection<String> attributes, Collection<UUID> ids) {
+        List<String> selected = List.copyOf(attributes);
+        List<Map<String, Object>> rows = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Integer row = rowById.get(id);
+            if (row == null) {
+                continue;
+            }
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (String attribute : selected) {
+                values.put(attribute, value(row, attribute));
+            }
+            rows.add(values);
+        }
+        return rows;
+    }
+
+    // Counts per difficulty ignore the difficulty selection; matching rows are marked in the
+    // bitmap when one is given
+    private TrailFacets count(Criteria criteria, long[] matched) {
+        long[] difficultyCounts = new long[DIFFICULTIES.length];
+        long[] terrainCounts = new long[TERRAIN.length];
+        long total = 0;
+        for (int row = 0; row < size; row++) {
+            if (!criteria.matchesIgnoringDifficulty(row)) {
+                continue;
+            }
+            int level = difficulty[row];
+            if (level >= 0) {
+                difficultyCounts[level]++;
+            }
+            if (!criteria.matchesDifficulty(level)) {
+                continue;
+            }
+            total++;
+            if (matched != null) {
+                matched[row >>> 6] |= 1L << row;
+            }
+            for (int mask = terrainMask[row]; mask != 0; mask &= mask - 1) {
+                int bit = Integer.numberOfTrailingZeros(mask);
+                if (bit < terrainCounts.length) {
+                    terrainCounts[bit]++;
+                }
+            }
+        }
+
+        Map<Difficulty, Long> difficultyFacet = new EnumMap<>(Difficulty.class);
+        for (Difficulty level : DIFFICULTIES) {
+            difficultyFacet.put(level, difficultyCounts[level.ordinal()]);
+        }
+        Map<Terrain, Long> terrainFacet = new EnumMap<>(Terrain.class);
+        for (Terrain terrain : TERRAIN) {
+            terrainFacet.put(terrain, terrainCounts[terrain.ordinal()]);
+        }
+        return new TrailFacets(total, difficultyFacet, terrainFacet);
+    }
+
+    private Object value(int row, String attribute) {
+        return switch (attribute) {
+            case "id" -> id(row);
+            case "name" -> names[nameCodes[row]];
+            case "distance" -> Double.isNaN(distance[row]) ? null : distance[row];
+            case "elevationGain" -> elevationGain[row] != NO_VALUE ? elevationGain[row] : null;
+            case "durationMinutes" -> duration[row] != NO_VALUE ? duration[row] : null;
+            case "maxSlope" -> Double.isNaN(maxSlope[row]) ? null : maxSlope[row];
+            case "difficulty" -> difficulty[row] >= 0 ? DIFFICULTIES[difficulty[row]] : null;
+            case "source" -> sourceCodes[row] != NO_SOURCE ? sources[sourceCodes[row]] : null;
+            default -> throw new IllegalArgumentException("Attribute not in the trail catalog: " + attribute);
+        };
+    }
+
+    private UUID id(int row) {
+        return new UUID(idMostBits[row], idLeastBits[row]);
+    }
+
+    // Descending walks each part of the order backwards, so ties fall back to name and id
+    // descending and rows without a value stay last, like ORDER BY ... DESC NULLS LAST
+    private int rowAt(TrailSort sort, int position) {
+        if (sort.field() == TrailSort.Field.NAME) {
+            return sort.descending() ? size - 1 - position : position;
+        }
+        int[] order = orders[sort.field().ordinal()];
+        if (!sort.descending()) {
+            return order[position];
+        }
+        int withValue = known[sort.field().ordinal()];
+        return position < withValue ? order[withValue - 1 - position] : order[size - 1 - (position - withValue)];
+    }
+
+    private void sortBy(TrailSort.Field field) {
+        double[] keys = new double[size];
+        int[] order = new int[size];
+        int withValue = 0;
+        for (int row = 0; row < size; row++) {
+            keys[row] = key(field, row);
+            if (!Double.isNaN(keys[row])) {
+                order[withValue++] = row;
+            }
+        }
+        int next = withValue;
+        for (int row = 0; row < size; row++) {
+            if (Double.isNaN(keys[row])) {
+                order[next++] = row;
+            }
+        }
+        mergeSort(order, new int[withValue], 0, withValue, keys);
+        orders[field.ordinal()] = order;
+        known[field.ordinal()] = withValue;
+    }
+
+    // Sort key of a row, NaN without a value; ints and levels are exact as doubles
+    private double key(TrailSort.Field field, int row) {
+        return switch (field) {
+            case NAME -> row;
+            case DISTANCE -> distance[row];
+            case ELEVATION_GAIN -> elevationGain[row] != NO_VALUE ? elevationGain[row] : Double.NaN;
+            case DURATION -> duration[row] != NO_VALUE ? duration[row] : Double.NaN;
+            case MAX_SLOPE -> maxSlope[row];
+            case DIFFICULTY -> difficulty[row] >= 0 ? difficulty[row] : Double.NaN;
+        };
+    }
+
+    // Stable, so rows with equal keys stay in row (name, id) order
+    private static void mergeSort(int[] rows, int[] buffer, int from, int to, double[] keys) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(rows, buffer, from, mid, keys);
+        mergeSort(rows, buffer, mid, to, keys);
+        if (keys[rows[mid - 1]] <= keys[rows[mid]]) {
+            return;
+        }
+        System.arraycopy(rows, from, buffer, from, to - from);
+        int left = from;
+        int right = mid;
+        int out = from;
+        while (left < mid && right < to) {
+            rows[out++] = keys[buffer[right]] < keys[buffer[left]] ? buffer[right++] : buffer[left++];
+        }
+        while (left < mid) {
+            rows[out++] = buffer[left++];
+        }
+        while (right < to) {
+            rows[out++] = buffer[right++];
+        }
+    }
+
+    private static String nameOf(Entry entry) {
+        return entry.name() != null ? entry.name() : "";
+    }
+
+    private static int code(String value, Map<String, Integer> codes, List<String> dictionary) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = dictionary.size();
+            codes.put(value, code);
+            dictionary.add(value);
+        }
+        return code;
+    }
+
+    // Postgres compares uuid values as unsigned bytes; UUID.compareTo is signed
+    private static int compareUnsigned(UUID a, UUID b) {
+        int compared = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return compared != 0
+                ? compared
+                : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    private static boolean inRange(int value, int min, int max) {
+        return value != NO_VALUE && value >= min && value <= max;
+    }
+
+    /**
+     * A filter compiled to primitive bounds and masks for the row scan.
+     */
+    private final class Criteria {
+        private final boolean distanceBounded;
+        private final double distanceFrom;
+        private final double distanceTo;
+        private final boolean gainBounded;
+        private final int gainFrom;
+        private final int gainTo;
+        private final boolean durationBounded;
+        private final int durationFrom;
+        private final int durationTo;
+        private final boolean slopeBounded;
+        private final double slopeFrom;
+        private final double slopeTo;
+        private final int difficulties; // bit per level, 0 for any
+        private final int terrain;
+        private final int excludedTerrain;
+        private final int hazards;
+        private final int excludedHazards;
+        private final boolean sourceBounded;
+        private final int source;
+
+        Criteria(TrailFilter filter) {
+            distanceBounded = filter.minDistance() != null || filter.maxDistance() != null;
+            distanceFrom = filter.minDistance() != null ? filter.minDistance() : Double.NEGATIVE_INFINITY;
+            distanceTo = filter.maxDistance() != null ? filter.maxDistance() : Double.POSITIVE_INFINITY;
+            gainBounded = filter.minElevationGain() != null || filter.maxElevationGain() != null;
+            gainFrom = filter.minElevationGain() != null ? filter.minElevationGain() : Integer.MIN_VALUE;
+            gainTo = filter.maxElevationGain() != null ? filter.maxElevationGain() : Integer.MAX_VALUE;
+            durationBounded = filter.minDuration() != null || filter.maxDuration() != null;
+            durationFrom = filter.minDuration() != null ? filter.minDuration() : Integer.MIN_VALUE;
+            durationTo = filter.maxDuration() != null ? filter.maxDuration() : Integer.MAX_VALUE;
+            slopeBounded = filter.minSlope() != null || filter.maxSlope() != null;
+            slopeFrom = filter.minSlope() != null ? filter.minSlope() : Double.NEGATIVE_INFINITY;
+            slopeTo = filter.maxSlope() != null ? filter.maxSlope() : Double.POSITIVE_INFINITY;
+            difficulties = EnumSetMaskConverter.toMask(filter.difficulties());
+            terrain = filter.terrainMask();
+            excludedTerrain = filter.excludedTerrainMask();
+            hazards = filter.hazardMask();
+            excludedHazards = filter.excludedHazardMask();
+            sourceBounded = filter.source() != null;
+            source = sourceBounded ? sourceCodeByName.getOrDefault(filter.source(), UNKNOWN_SOURCE) : NO_SOURCE;
+        }
+
+        boolean matches(int row) {
+            return matchesIgnoringDifficulty(row) && matchesDifficulty(difficulty[row]);
+        }
+
+        boolean matchesDifficulty(int level) {
+            return difficulties == 0 || (level >= 0 && (difficulties & (1 << level)) != 0);
+        }
+
+        boolean matchesIgnoringDifficulty(int row) {
+            if (distanceBounded && !(distance[row] >= distanceFrom && distance[row] <= distanceTo)) {
+                return false;
+            }
+            if (gainBounded && !inRange(elevationGain[row], gainFrom, gainTo)) {
+                return false;
+            }
+            if (durationBounded && !inRange(duration[row], durationFrom, durationTo)) {
+                return false;
+            }
+            if (slopeBounded && !(maxSlope[row] >= slopeFrom && maxSlope[row] <= slopeTo)) {
+                return false;
+            }
+            if ((terrainMask[row] & terrain) != terrain || (terrainMask[row] & excludedTerrain) != 0) {
+                return false;
+            }
+            if ((hazardMask[row] & hazards) != hazards || (hazardMask[row] & excludedHazards) != 0) {
+                return false;
+            }
+            return !sourceBounded || sourceCodes[row] == source;
+        }
+    }
+}
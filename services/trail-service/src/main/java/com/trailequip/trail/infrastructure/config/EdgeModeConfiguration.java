@@ -0,0 +1,100 @@
+package com.trailequip.trail.infrastructure.config;
+
+import com.trailequip.trail.infrastructure.snapshot.TrailSnapshot;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Read-only edge mode (profile "edge"): trails are served from a {@link TrailSnapshot}
+ * file instead of Postgres, so an instance needs no database at all.
+ *
+ * application-edge.yml turns off the datasource, JPA and the database startup checks;
+ * the snapshot repositories in infrastructure.snapshot take the place of the JPA ones.
+ * Requests that would change trails are refused with 405.
+ */
+@Slf4j
+@Configuration
+@Profile("edge")
+public class EdgeModeConfiguration {
+
+    // POST endpoints that only read, because their input does not fit a query string
+    private static final Set<String> READ_ONLY_POSTS = Set.of("/api/v1/trails/batch", "/api/v1/trails/suggest");
+
+    @Bean
+    public TrailSnapshot trailSnapshot(@Value("${app.snapshot.file}") String snapshotFile) throws IOException {
+        long start = System.currentTimeMillis();
+        TrailSnapshot snapshot = TrailSnapshot.open(Path.of(snapshotFile));
+        TrailSnapshot.Metadata metadata = snapshot.metadata();
+        log.info(
+                "Mapped trail snapshot {} (format {}, {} trails, written {}) in {} ms",
+                snapshotFile,
+                metadata.formatVersion(),
+                metadata.trails(),
+                metadata.createdAt(),
+                System.currentTimeMillis() - start);
+        return snapshot;
+    }
+
+    // @Transactional services still run; there is nothing to commit or roll back
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new SnapshotTransactionManager();
+    }
+
+    @Bean
+    public OncePerRequestFilter readOnlyRequestFilter() {
+        return new ReadOnlyRequestFilter();
+    }
+
+    static final class SnapshotTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {}
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {}
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {}
+    }
+
+    static final class ReadOnlyRequestFilter extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            String method = request.getMethod();
+            boolean readOnly = method.equals("GET")
+                    || method.equals("HEAD")
+                    || method.equals("OPTIONS")
+                    || (method.equals("POST") && READ_ONLY_POSTS.contains(request.getRequestURI()));
+            if (!readOnly) {
+                response.setHeader(HttpHeaders.ALLOW, "GET, HEAD, OPTIONS");
+                response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Trails are read-only in edge mode");
+                return;
+            }
+            chain.doFilter(request, response);
+        }
+    }
+}
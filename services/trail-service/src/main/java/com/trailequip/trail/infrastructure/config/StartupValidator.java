@@ -20,7 +20,8 @@ import org.springframework.stereotype.Component;
 @Component
 public class StartupValidator implements ApplicationRunner {
 
-    @Autowired
+    // Absent in edge mode, which runs without a database
+    @Autowired(required = false)
     private DataSource dataSource;
 
     @Value("${spring.datasource.url:}")
@@ -35,6 +36,9 @@ public class StartupValidator implements ApplicationRunner {
     @Value("${overpass.rate-limit:3000}")
     private int overpassRateLimit;
 
+    @Value("${app.validation.database.enabled:true}")
+    private boolean databaseValidationEnabled;
+
     @Value("${app.validation.postgis.enabled:true}")
     private boolean postgisValidationEnabled;
 
@@ -48,17 +52,10 @@ public class StartupValidator implements ApplicationRunner {
         log.info("========================================");
 
         try {
-            validateEnvironmentVariables();
-            validateDatabaseConnection();
-            if (postgisValidationEnabled) {
-                validatePostGISExtension();
-            } else {
-                log.warn("⚠ PostGIS validation disabled (development mode)");
-            }
-            if (schemaValidationEnabled) {
-                validateDatabaseSchema();
+            if (databaseValidationEnabled) {
+                validateDatabase();
             } else {
-                log.warn("⚠ Database schema validation disabled (Hibernate will manage)");
+                log.warn("⚠ Database validation disabled (read-only edge mode)");
             }
             validateConfiguration();
 
@@ -73,6 +70,24 @@ public class StartupValidator implements ApplicationRunner {
         }
     }
 
+    /**
+     * Validate database settings, connection, extensions and schema.
+     */
+    private void validateDatabase() {
+        validateEnvironmentVariables();
+        validateDatabaseConnection();
+        if (postgisValidationEnabled) {
+            validatePostGISExtension();
+        } else {
+            log.warn("⚠ PostGIS validation disabled (development mode)");
+        }
+        if (schemaValidationEnabled) {
+            validateDatabaseSchema();
+        } else {
+            log.warn("⚠ Database schema validation disabled (Hibernate will manage)");
+        }
+    }
+
     /**
      * Validate all required environment variables are set.
      * In development mode (when datasource URL is configured in properties), skips env var validation.
@@ -199,6 +214,11 @@ public class StartupValidator implements ApplicationRunner {
         }
         log.debug("  ✓ Overpass rate limit: {}ms", overpassRateLimit);
 
+        if (!databaseValidationEnabled) {
+            log.info("✓ Configuration validated");
+            return;
+        }
+
         // Validate datasource URL
         if (datasourceUrl == null || datasourceUrl.isEmpty()) {
             throw new IllegalArgumentException("DATABASE_URL not configured");
@@ -0,0 +1,76 @@
+package com.trailequip.trail.infrastructure.config;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the Postgres objects backing trail search.
+ * Hibernate's ddl-auto cannot express extensions or expression indexes, so they are
+ * created here idempotently once the schema exists.
+ *
+ * - unaccent / pg_trgm extensions
+ * - trail_unaccent(text): IMMUTABLE wrapper so unaccent can be used in index expressions
+ * - GIN tsvector index over name, ref and description
+ * - GIN trigram indexes over folded name, ref and description
+ *
+ * Not used in edge mode, which has no database.
+ */
+@Slf4j
+@Component
+@Profile("!edge")
+@Order(10)
+public class TrailSearchIndexInitializer implements ApplicationRunner {
+
+    private static final String[] STATEMENTS = {
+        "CREATE EXTENSION IF NOT EXISTS unaccent",
+        "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+        "CREATE OR REPLACE FUNCTION trail_unaccent(text) RETURNS text AS"
+                + " $$ SELECT public.unaccent('public.unaccent'::regdictionary, $1) $$"
+                + " LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT",
+        "CREATE INDEX IF NOT EXISTS idx_trails_search_tsv ON trails USING GIN ("
+                + "(setweight(to_tsvector('simple', trail_unaccent(coalesce(name, ''))), 'A')"
+                + " || setweight(to_tsvector('simple', trail_unaccent(coalesce(ref, ''))), 'A')"
+                + " || setweight(to_tsvector('simple', trail_unaccent(coalesce(description, ''))), 'C')))",
+        "CREATE INDEX IF NOT EXISTS idx_trails_name_trgm ON trails USING GIN (trail_unaccent(lower(name)) gin_trgm_ops)",
+        "CREATE INDEX IF NOT EXISTS idx_trails_ref_trgm ON trails USING GIN (trail_unaccent(lower(ref)) gin_trgm_ops)",
+        "CREATE INDEX IF NOT EXISTS idx_trails_description_trgm"
+                + " ON trails USING GIN (trail_unaccent(lower(description)) gin_trgm_ops)"
+    };
+
+    private final DataSource dataSource;
+
+    @Value("${app.search.indexes.enabled:true}")
+    private boolean enabled;
+
+    public TrailSearchIndexInitializer(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            log.warn("⚠ Trail search index initialization disabled");
+            return;
+        }
+
+        log.info("Initializing trail search indexes...");
+        try (Connection conn = dataSource.getConnection();
+                Statement stmt = conn.createStatement()) {
+            for (String sql : STATEMENTS) {
+                stmt.execute(sql);
+            }
+            log.info("✓ Trail search indexes ready");
+        } catch (Exception e) {
+            // Search degrades (queries fail) but the rest of the service stays usable
+            log.error("✗ Failed to initialize trail search indexes: {}", e.getMessage());
+        }
+    }
+}
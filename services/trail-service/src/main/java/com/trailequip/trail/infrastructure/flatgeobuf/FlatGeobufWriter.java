@@ -0,0 +1,401 @@
+package com.trailequip.trail.infrastructure.flatgeobuf;
+
+import com.google.flatbuffers.FlatBufferBuilder;
+import com.trailequip.trail.domain.model.QuantizedCoordinates;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes LineString features as a FlatGeobuf file with a packed Hilbert R-tree index.
+ *
+ * The index sits between the header and the features and holds every feature's byte
+ * offset, so nothing can be written until all features are known. Features are therefore
+ * encoded once as they arrive and spilled to a temporary file; only their bounds and
+ * spill positions stay in memory (about 50 bytes each). {@link #writeTo} then emits the
+ * header, the index and the spilled features in Hilbert order.
+ *
+ * Coordinates are EPSG:4326 with elevation as z (NaN where unknown).
+ */
+public final class FlatGeobufWriter implements Closeable {
+
+    public static final byte[] MAGIC = {0x66, 0x67, 0x62, 0x03, 0x66, 0x67, 0x62, 0x00};
+    public static final int NODE_SIZE = 16;
+    public static final String MEDIA_TYPE = "application/flatgeobuf";
+
+    private static final byte GEOMETRY_TYPE_LINE_STRING = 2;
+    private static final int EPSG_WGS84 = 4326;
+
+    /**
+     * Supported property column types, with their FlatGeobuf type codes.
+     */
+    public enum ColumnType {
+        INT(5),
+        LONG(7),
+        DOUBLE(10),
+        STRING(11);
+
+        private final byte code;
+
+        ColumnType(int code) {
+            this.code = (byte) code;
+        }
+    }
+
+    public record Column(String name, ColumnType type) {}
+
+    private final String name;
+    private final List<Column> columns;
+    private final Path spillFile;
+    private final FileChannel spill;
+    private final FlatBufferBuilder builder = new FlatBufferBuilder(4096);
+    private ByteBuffer properties = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+
+    // Per feature, in arrival order: minX, minY, maxX, maxY
+    private double[] bounds = new double[256];
+    private long[] spillOffsets = new long[64];
+    private int[] sizes = new int[64];
+    private int count;
+    private long spillSize;
+
+    private double minX = Double.POSITIVE_INFINITY;
+    private double minY = Double.POSITIVE_INFINITY;
+    private double maxX = Double.NEGATIVE_INFINITY;
+    private double maxY = Double.NEGATIVE_INFINITY;
+
+    /**
+     * @param spillDirectory where the temporary feature file goes; null for the default temp dir
+     */
+    public FlatGeobufWriter(String name, List<Column> columns, Path spillDirectory) throws IOException {
+        this.name = name;
+        this.columns = List.copyOf(columns);
+        this.spillFile = spillDirectory != null
+                ? Files.createTempFile(spillDirectory, "features", ".fgb.tmp")
+                : Files.createTempFile("features", ".fgb.tmp");
+        this.spill = FileChannel.open(
+                spillFile, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    /**
+     * Encode one feature. Values follow the column order; nulls are left out.
+     * Lines with fewer than two vertices have no geometry to index and are skipped.
+     *
+     * @return whether the feature was added
+     */
+    public boolean add(QuantizedCoordinates line, Object... values) throws IOException {
+        if (values.length != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " values, got " + values.length);
+        }
+        if (line == null || line.size() < 2) {
+            return false;
+        }
+
+        ensureCapacity(count + 1);
+        double featureMinX = Double.POSITIVE_INFINITY;
+        double featureMinY = Double.POSITIVE_INFINITY;
+        double featureMaxX = Double.NEGATIVE_INFINITY;
+        double featureMaxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < line.size(); i++) {
+            double x = line.lon(i);
+            double y = line.lat(i);
+            featureMinX = Math.min(featureMinX, x);
+            featureMinY = Math.min(featureMinY, y);
+            featureMaxX = Math.max(featureMaxX, x);
+            featureMaxY = Math.max(featureMaxY, y);
+        }
+        bounds[count * 4] = featureMinX;
+        bounds[count * 4 + 1] = featureMinY;
+        bounds[count * 4 + 2] = featureMaxX;
+        bounds[count * 4 + 3] = featureMaxY;
+        minX = Math.min(minX, featureMinX);
+        minY = Math.min(minY, featureMinY);
+        maxX = Math.max(maxX, featureMaxX);
+        maxY = Math.max(maxY, featureMaxY);
+
+        ByteBuffer feature = encodeFeature(line, values);
+        spillOffsets[count] = spillSize;
+        sizes[count] = feature.remaining();
+        while (feature.hasRemaining()) {
+            spillSize += spill.write(feature, spillSize);
+        }
+        count++;
+        return true;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Write the complete file: magic bytes, header, index and features.
+     * The output stream is flushed but left open.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(MAGIC);
+        writeBuffer(encodeHeader(), out);
+        if (count == 0) {
+            out.flush();
+            return;
+        }
+
+        int[] order = hilbertOrder();
+        writeIndex(order, out);
+
+        WritableByteChannel target = Channels.newChannel(out);
+        for (int i : order) {
+            long position = spillOffsets[i];
+            long end = position + sizes[i];
+            while (position < end) {
+                position += spill.transferTo(position, end - position, target);
+            }
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        spill.close(); // deletes the spill file
+    }
+
+    private ByteBuffer encodeFeature(QuantizedCoordinates line, Object[] values) {
+        builder.clear();
+        int n = line.size();
+
+        // FlatBuffers vectors are built back to front
+        builder.startVector(8, n * 2, 8);
+        for (int i = n - 1; i >= 0; i--) {
+            builder.addDouble(line.lat(i));
+            builder.addDouble(line.lon(i));
+        }
+        int xy = builder.endVector();
+
+        builder.startVector(8, n, 8);
+        for (int i = n - 1; i >= 0; i--) {
+            builder.addDouble(line.hasElevation(i) ? line.elevation(i) : Double.NaN);
+        }
+        int z = builder.endVector();
+
+        builder.startTable(8); // Geometry
+        builder.addOffset(1, xy, 0);
+        builder.addOffset(2, z, 0);
+        int geometry = builder.endTable();
+
+        int propertyBytes = encodeProperties(values);
+        int propertyVector = 0;
+        if (propertyBytes > 0) {
+            builder.startVector(1, propertyBytes, 1);
+            for (int i = propertyBytes - 1; i >= 0; i--) {
+                builder.addByte(properties.get(i));
+            }
+            propertyVector = builder.endVector();
+        }
+
+        builder.startTable(3); // Feature
+        builder.addOffset(0, geometry, 0);
+        if (propertyVector != 0) {
+            builder.addOffset(1, propertyVector, 0);
+        }
+        builder.finishSizePrefixed(builder.endTable());
+        return builder.dataBuffer();
+    }
+
+    /**
+     * Properties are a byte run of (uint16 column index, value) pairs, little-endian,
+     * with strings as a uint32 byte length and UTF-8.
+     */
+    private int encodeProperties(Object[] values) {
+        properties.clear();
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            switch (columns.get(i).type()) {
+                case INT -> {
+                    reserve(6);
+                    properties.putShort((short) i).putInt(((Number) value).intValue());
+                }
+                case LONG -> {
+                    reserve(10);
+                    properties.putShort((short) i).putLong(((Number) value).longValue());
+                }
+                case DOUBLE -> {
+                    reserve(10);
+                    properties.putShort((short) i).putDouble(((Number) value).doubleValue());
+                }
+                case STRING -> {
+                    byte[] text = value.toString().getBytes(StandardCharsets.UTF_8);
+                    reserve(6 + text.length);
+                    properties.putShort((short) i).putInt(text.length).put(text);
+                }
+            }
+        }
+        return properties.position();
+    }
+
+    private ByteBuffer encodeHeader() {
+        builder.clear();
+        int nameOffset = builder.createString(name);
+
+        int[] columnOffsets = new int[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            int columnName = builder.createString(columns.get(i).name());
+            builder.startTable(11); // Column
+            builder.addOffset(0, columnName, 0);
+            builder.addByte(1, columns.get(i).type().code, 0);
+            columnOffsets[i] = builder.endTable();
+        }
+        builder.startVector(4, columnOffsets.length, 4);
+        for (int i = columnOffsets.length - 1; i >= 0; i--) {
+            builder.addOffset(columnOffsets[i]);
+        }
+        int columnVector = builder.endVector();
+
+        int envelope = 0;
+        if (count > 0) {
+            builder.startVector(8, 4, 8);
+            builder.addDouble(maxY);
+            builder.addDouble(maxX);
+            builder.addDouble(minY);
+            builder.addDouble(minX);
+            envelope = builder.endVector();
+        }
+
+        int org = builder.createString("EPSG");
+        builder.startTable(6); // Crs
+        builder.addOffset(0, org, 0);
+        builder.addInt(1, EPSG_WGS84, 0);
+        int crs = builder.endTable();
+
+        builder.startTable(14); // Header
+        builder.addOffset(0, nameOffset, 0);
+        if (envelope != 0) {
+            builder.addOffset(1, envelope, 0);
+        }
+        builder.addByte(2, GEOMETRY_TYPE_LINE_STRING, 0);
+        builder.addBoolean(3, true, false); // has_z
+        builder.addOffset(7, columnVector, 0);
+        builder.addLong(8, count, 0L);
+        builder.addShort(9, (short) (count > 0 ? NODE_SIZE : 0), NODE_SIZE); // 0 means no index
+        builder.addOffset(10, crs, 0);
+        builder.finishSizePrefixed(builder.endTable());
+        return builder.dataBuffer();
+    }
+
+    /**
+     * Feature indexes sorted by the Hilbert value of their bbox centre within the extent.
+     */
+    private int[] hilbertOrder() {
+        double width = maxX - minX;
+        double height = maxY - minY;
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            double centreX = (bounds[i * 4] + bounds[i * 4 + 2]) / 2;
+            double centreY = (bounds[i * 4 + 1] + bounds[i * 4 + 3]) / 2;
+            int x = width > 0 ? (int) Math.floor(PackedRTree.HILBERT_MAX * (centreX - minX) / width) : 0;
+            int y = height > 0 ? (int) Math.floor(PackedRTree.HILBERT_MAX * (centreY - minY) / height) : 0;
+            // 32-bit curve position above a 31-bit index, so one long sort does it
+            keys[i] = (PackedRTree.hilbert(x, y) << 31) | i;
+        }
+        Arrays.sort(keys);
+
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = (int) (keys[i] & Integer.MAX_VALUE);
+        }
+        return order;
+    }
+
+    private void writeIndex(int[] order, OutputStream out) throws IOException {
+        int[][] levels = PackedRTree.levelBounds(count, NODE_SIZE);
+        int numNodes = levels[0][1];
+        double[] nodeBounds = new double[numNodes * 4];
+        long[] nodeOffsets = new long[numNodes];
+
+        // Leaves point at byte offsets within the feature section
+        int leaf = levels[0][0];
+        long featureOffset = 0;
+        for (int i : order) {
+            System.arraycopy(bounds, i * 4, nodeBounds, leaf * 4, 4);
+            nodeOffsets[leaf++] = featureOffset;
+            featureOffset += sizes[i];
+        }
+
+        // Parents point at the index of their first child
+        for (int level = 0; level < levels.length - 1; level++) {
+            int child = levels[level][0];
+            int end = levels[level][1];
+            int parent = levels[level + 1][0];
+            while (child < end) {
+                nodeOffsets[parent] = child;
+                double[] box = {
+                    Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                    Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY
+                };
+                for (int j = 0; j < NODE_SIZE && child < end; j++, child++) {
+                    box[0] = Math.min(box[0], nodeBounds[child * 4]);
+                    box[1] = Math.min(box[1], nodeBounds[child * 4 + 1]);
+                    box[2] = Math.max(box[2], nodeBounds[child * 4 + 2]);
+                    box[3] = Math.max(box[3], nodeBounds[child * 4 + 3]);
+                }
+                System.arraycopy(box, 0, nodeBounds, parent * 4, 4);
+                parent++;
+            }
+        }
+
+        ByteBuffer chunk = ByteBuffer.allocate(PackedRTree.NODE_BYTES * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        for (int node = 0; node < numNodes; node++) {
+            if (chunk.remaining() < PackedRTree.NODE_BYTES) {
+                chunk.flip();
+                writeBuffer(chunk, out);
+                chunk.clear();
+            }
+            chunk.putDouble(nodeBounds[node * 4])
+                    .putDouble(nodeBounds[node * 4 + 1])
+                    .putDouble(nodeBounds[node * 4 + 2])
+                    .putDouble(nodeBounds[node * 4 + 3])
+                    .putLong(nodeOffsets[node]);
+        }
+        chunk.flip();
+        writeBuffer(chunk, out);
+    }
+
+    private static void writeBuffer(ByteBuffer buffer, OutputStream out) throws IOException {
+        if (buffer.hasArray()) {
+            out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        } else {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            out.write(bytes);
+        }
+    }
+
+    private void reserve(int bytes) {
+        if (properties.remaining() < bytes) {
+            int capacity = Math.max(properties.capacity() * 2, properties.position() + bytes);
+            ByteBuffer grown = ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+            properties.flip();
+            properties = grown.put(properties);
+        }
+    }
+
+    private void ensureCapacity(int features) {
+        if (features > sizes.length) {
+            int capacity = Math.max(features, sizes.length * 2);
+            bounds = Arrays.copyOf(bounds, capacity * 4);
+            spillOffsets = Arrays.copyOf(spillOffsets, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+        }
+    }
+}
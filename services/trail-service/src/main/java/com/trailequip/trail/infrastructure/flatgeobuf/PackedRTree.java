@@ -0,0 +1,115 @@
+package com.trailequip.trail.infrastructure.flatgeobuf;
+
+/**
+ * Layout helpers for the packed Hilbert R-tree that FlatGeobuf stores after its header.
+ *
+ * The tree is a flat array of nodes, root first and leaves last. Leaves are the feature
+ * bounding boxes in Hilbert order; every parent covers up to {@code nodeSize} consecutive
+ * nodes of the level below. Readers walk it from the root with range requests, so only
+ * the nodes on the path to a bbox are ever fetched.
+ */
+public final class PackedRTree {
+
+    /** Bytes per node: minX, minY, maxX, maxY as doubles, then a uint64 offset. */
+    public static final int NODE_BYTES = 40;
+
+    /** Cells per axis of the Hilbert grid (16 bits each way). */
+    public static final int HILBERT_MAX = (1 << 16) - 1;
+
+    private PackedRTree() {}
+
+    /**
+     * Node index ranges per level, bottom-up: {@code bounds[level] = {start, end}}, with the
+     * leaves at level 0 and the root at the last level. Even one item gets a root above it.
+     */
+    public static int[][] levelBounds(int numItems, int nodeSize) {
+        if (numItems < 1) {
+            throw new IllegalArgumentException("Tree needs at least one item");
+        }
+        if (nodeSize < 2) {
+            throw new IllegalArgumentException("Node size must be at least 2");
+        }
+
+        int levels = 1;
+        int numNodes = numItems;
+        int n = numItems;
+        do {
+            n = (n + nodeSize - 1) / nodeSize;
+            numNodes += n;
+            levels++;
+        } while (n != 1);
+
+        int[][] bounds = new int[levels][];
+        int end = numNodes;
+        n = numItems;
+        for (int level = 0; level < levels; level++) {
+            bounds[level] = new int[] {end - n, end};
+            end -= n;
+            n = (n + nodeSize - 1) / nodeSize;
+        }
+        return bounds;
+    }
+
+    public static int numNodes(int numItems, int nodeSize) {
+        return levelBounds(numItems, nodeSize)[0][1];
+    }
+
+    /**
+     * Position of a grid cell along the Hilbert curve, as an unsigned 32-bit value.
+     * Both coordinates must be in [0, {@link #HILBERT_MAX}]. Branch-free variant from
+     * the FlatGeobuf reference writer, so files sort the same way.
+     */
+    public static long hilbert(int x, int y) {
+        int a = x ^ y;
+        int b = 0xFFFF ^ a;
+        int c = 0xFFFF ^ (x | y);
+        int d = x & (y ^ 0xFFFF);
+
+        int nextA = a | (b >>> 1);
+        int nextB = (a >>> 1) ^ a;
+        int nextC = ((c >>> 1) ^ (b & (d >>> 1))) ^ c;
+        int nextD = ((a & (c >>> 1)) ^ (d >>> 1)) ^ d;
+
+        a = nextA;
+        b = nextB;
+        c = nextC;
+        d = nextD;
+        nextA = (a & (a >>> 2)) ^ (b & (b >>> 2));
+        nextB = (a & (b >>> 2)) ^ (b & ((a ^ b) >>> 2));
+        nextC ^= (a & (c >>> 2)) ^ (b & (d >>> 2));
+        nextD ^= (b & (c >>> 2)) ^ ((a ^ b) & (d >>> 2));
+
+        a = nextA;
+        b = nextB;
+        c = nextC;
+        d = nextD;
+        nextA = (a & (a >>> 4)) ^ (b & (b >>> 4));
+        nextB = (a & (b >>> 4)) ^ (b & ((a ^ b) >>> 4));
+        nextC ^= (a & (c >>> 4)) ^ (b & (d >>> 4));
+        nextD ^= (b & (c >>> 4)) ^ ((a ^ b) & (d >>> 4));
+
+        a = nextA;
+        b = nextB;
+        c = nextC;
+        d = nextD;
+        nextC ^= (a & (c >>> 8)) ^ (b & (d >>> 8));
+        nextD ^= (b & (c >>> 8)) ^ ((a ^ b) & (d >>> 8));
+
+        a = nextC ^ (nextC >>> 1);
+        b = nextD ^ (nextD >>> 1);
+
+        int i0 = x ^ y;
+        int i1 = b | (0xFFFF ^ (i0 | a));
+        return Integer.toUnsignedLong((spread(i1) << 1) | spread(i0));
+    }
+
+    /**
+     * Spread the low 16 bits so a zero sits between each of them.
+     */
+    private static int spread(int value) {
+        value = (value | (value << 8)) & 0x00FF00FF;
+        value = (value | (value << 4)) & 0x0F0F0F0F;
+        value = (value | (value << 2)) & 0x33333333;
+        return (value | (value << 1)) & 0x55555555;
+    }
+}
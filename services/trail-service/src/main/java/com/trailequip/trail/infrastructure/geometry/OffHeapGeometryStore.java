@@ -0,0 +1,451 @@
+package com.trailequip.trail.infrastructure.geometry;
+
+import com.trailequip.trail.domain.model.GeometryLevel;
+import com.trailequip.trail.domain.model.QuantizedCoordinates;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.infrastructure.tiles.GeoBounds;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trail lines at every {@link GeometryLevel}, kept outside the Java heap.
+ *
+ * Vertices are copied into large direct buffers ("arenas") and handed out as
+ * {@link QuantizedCoordinates#view views}, so the heap holds one small index entry per
+ * trail instead of its arrays, and the collector never scans or copies the vertices.
+ * Arenas are bump-allocated. A replaced or removed trail leaves a hole; once holes outgrow
+ * the live lines, the live lines are compacted into fresh arenas. An arena is released by
+ * the collector when no view refers to it any more, so a view stays valid for as long as
+ * a request holds it.
+ *
+ * A snapshot file keeps the same layout and is memory-mapped when read, so a restart
+ * neither queries the geometry columns nor copies vertices into the heap.
+ *
+ * Reads are lock-free; writes are serialized.
+ */
+public final class OffHeapGeometryStore {
+
+    public static final int DEFAULT_ARENA_SIZE = 64 << 20;
+
+    private static final int SNAPSHOT_MAGIC = 0x53475254; // "TRGS" little-endian
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int HEADER_BYTES = 16; // magic, version, section count, trail count
+    private static final int SECTION_BYTES = 16; // position, length
+    private static final int INDEX_BYTES = 64; // id, version, section, offset, sizes, bounds
+
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    private static final GeometryLevel[] LEVELS = GeometryLevel.values();
+    private static final int NO_LINE = -1;
+    private static final long NO_VERSION = Long.MIN_VALUE;
+
+    private final int arenaSize;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private ByteBuffer arena;
+    private int arenaUsed;
+    private long usedBytes;
+    private long liveBytes;
+
+    public OffHeapGeometryStore() {
+        this(DEFAULT_ARENA_SIZE);
+    }
+
+    public OffHeapGeometryStore(int arenaSize) {
+        if (arenaSize <= 0) {
+            throw new IllegalArgumentException("Arena size must be positive");
+        }
+        this.arenaSize = arenaSize;
+    }
+
+    /**
+     * Store every level of a trail's line. A row older than the stored one is ignored, so
+     * a load racing a committed change keeps the change.
+     */
+    public void put(Trail trail) {
+        QuantizedCoordinates[] lines = new QuantizedCoordinates[LEVELS.length];
+        for (GeometryLevel level : LEVELS) {
+            lines[level.ordinal()] = trail.getCoordinates(level);
+        }
+        put(trail.getId(), version(trail.getUpdatedAt()), lines);
+    }
+
+    public synchronized void remove(UUID id) {
+        Entry removed = entries.remove(id);
+        if (removed != null) {
+            liveBytes -= removed.byteSize();
+            compactIfFragmented();
+        }
+    }
+
+    /**
+     * Drop every stored line, whatever its version. Views handed out before stay readable;
+     * their memory is released once nothing refers to it.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        arena = null;
+        arenaUsed = 0;
+        usedBytes = 0;
+        liveBytes = 0;
+    }
+
+    /**
+     * The stored trail, at whatever version; null when it is not stored.
+     */
+    public Entry get(UUID id) {
+        return entries.get(id);
+    }
+
+    /**
+     * The stored trail if it was stored at this updatedAt; null when absent or stale.
+     */
+    public Entry find(UUID id, Instant updatedAt) {
+        Entry entry = entries.get(id);
+        return entry != null && entry.version == version(updatedAt) ? entry : null;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Bytes of off-heap memory and mapped snapshot taken by stored lines and the holes between them.
+     */
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Write all stored lines to a snapshot file. The file is written next to the target and
+     * moved over it, so a reader never sees half a snapshot and a mapped previous version
+     * stays intact.
+     */
+    public void writeSnapshot(Path file) throws IOException {
+        // Entries are immutable, so a copy of the index is a consistent view without locking
+        List<Map.Entry<UUID, Entry>> stored = new ArrayList<>(entries.entrySet());
+
+        // Pack lines into sections no larger than an arena, each mapped on its own when read
+        List<Long> sectionLengths = new ArrayList<>();
+        int[] sections = new int[stored.size()];
+        int[] offsets = new int[stored.size()];
+        int section = -1;
+        long sectionLength = 0;
+        for (int i = 0; i < stored.size(); i++) {
+            int bytes = stored.get(i).getValue().byteSize();
+            if (section < 0 || (sectionLength > 0 && sectionLength + bytes > arenaSize)) {
+                if (section >= 0) {
+                    sectionLengths.add(sectionLength);
+                }
+                section++;
+                sectionLength = 0;
+            }
+            sections[i] = section;
+            offsets[i] = (int) sectionLength;
+            sectionLength += bytes;
+        }
+        if (section >= 0) {
+            sectionLengths.add(sectionLength);
+        }
+
+        int indexBytes = HEADER_BYTES + sectionLengths.size() * SECTION_BYTES + stored.size() * INDEX_BYTES;
+        ByteBuffer index = ByteBuffer.allocate(indexBytes).order(ORDER);
+        index.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION);
+        index.putInt(sectionLengths.size()).putInt(stored.size());
+        long[] positions = new long[sectionLengths.size()];
+        long position = align(indexBytes);
+        for (int s = 0; s < positions.length; s++) {
+            positions[s] = position;
+            index.putLong(position).putLong(sectionLengths.get(s));
+            position = align(position + sectionLengths.get(s));
+        }
+        for (int i = 0; i < stored.size(); i++) {
+            UUID id = stored.get(i).getKey();
+            Entry entry = stored.get(i).getValue();
+            index.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+            index.putLong(entry.version).putInt(sections[i]).putInt(offsets[i]);
+            for (int size : entry.sizes) {
+                index.putInt(size);
+            }
+            index.putInt(entry.minLon).putInt(entry.minLat).putInt(entry.maxLon).putInt(entry.maxLat);
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                writeFully(channel, index.flip(), 0);
+                for (int i = 0; i < stored.size(); i++) {
+                    Entry entry = stored.get(i).getValue();
+                    ByteBuffer block = entry.arena.slice(entry.offset, entry.byteSize());
+                    writeFully(channel, block, positions[sections[i]] + offsets[i]);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Map a snapshot file and add the trails it holds. Trails already stored are kept, as
+     * they come from changes newer than the snapshot. Nothing is added from a file that
+     * fails to read.
+     *
+     * @return ids of the trails added from the snapshot
+     */
+    public synchronized Set<UUID> readSnapshot(Path file) throws IOException {
+        Map<UUID, Entry> read = new LinkedHashMap<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = read(channel, 0, HEADER_BYTES);
+            if (header.getInt(0) != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a geometry snapshot: " + file);
+            }
+            if (header.getInt(4) != SNAPSHOT_VERSION) {
+                throw new IOException("Unsupported geometry snapshot version " + header.getInt(4) + ": " + file);
+            }
+            int sectionCount = header.getInt(8);
+            int trailCount = header.getInt(12);
+            ByteBuffer index =
+                    read(channel, HEADER_BYTES, (long) sectionCount * SECTION_BYTES + (long) trailCount * INDEX_BYTES);
+
+            // Mappings stay valid after the channel is closed
+            ByteBuffer[] sections = new ByteBuffer[sectionCount];
+            for (int s = 0; s < sectionCount; s++) {
+                long position = index.getLong();
+                long length = index.getLong();
+                if (length > Integer.MAX_VALUE || position + length > channel.size()) {
+                    throw new IOException("Corrupt geometry snapshot section " + s + ": " + file);
+                }
+                sections[s] = channel.map(FileChannel.MapMode.READ_ONLY, position, length).order(ORDER);
+            }
+
+            for (int i = 0; i < trailCount; i++) {
+                UUID id = new UUID(index.getLong(), index.getLong());
+                long version = index.getLong();
+                int section = index.getInt();
+                int offset = index.getInt();
+                int[] sizes = new int[LEVELS.length];
+                for (int level = 0; level < sizes.length; level++) {
+                    sizes[level] = index.getInt();
+                }
+                Entry entry = new Entry(
+                        section >= 0 && section < sectionCount ? sections[section] : null,
+                        offset,
+                        sizes,
+                        version,
+                        index.getInt(),
+                        index.getInt(),
+                        index.getInt(),
+                        index.getInt());
+                if (entry.arena == null || offset < 0 || (long) offset + entry.byteSize() > entry.arena.limit()) {
+                    throw new IOException("Corrupt geometry snapshot entry for trail " + id + ": " + file);
+                }
+                read.put(id, entry);
+            }
+        }
+
+        Set<UUID> added = new HashSet<>();
+        read.forEach((id, entry) -> {
+            if (entries.putIfAbsent(id, entry) == null) {
+                usedBytes += entry.byteSize();
+                liveBytes += entry.byteSize();
+                added.add(id);
+            }
+        });
+        return added;
+    }
+
+    private synchronized void put(UUID id, long version, QuantizedCoordinates[] lines) {
+        Entry previous = entries.get(id);
+        if (previous != null && previous.version > version) {
+            return;
+        }
+
+        int[] sizes = new int[lines.length];
+        int bytes = 0;
+        for (int level = 0; level < lines.length; level++) {
+            sizes[level] = lines[level] != null ? lines[level].size() : NO_LINE;
+            bytes += blockSize(sizes[level]);
+        }
+        int offset = reserve(bytes);
+        int position = offset;
+        for (int level = 0; level < lines.length; level++) {
+            if (lines[level] != null) {
+                lines[level].copyTo(arena, position);
+            }
+            position += blockSize(sizes[level]);
+        }
+
+        int minLon = Integer.MAX_VALUE;
+        int minLat = Integer.MAX_VALUE;
+        int maxLon = Integer.MIN_VALUE;
+        int maxLat = Integer.MIN_VALUE;
+        QuantizedCoordinates full = lines[GeometryLevel.FULL.ordinal()];
+        for (int i = 0; full != null && i < full.size(); i++) {
+            minLon = Math.min(minLon, full.lonE7(i));
+            maxLon = Math.max(maxLon, full.lonE7(i));
+            minLat = Math.min(minLat, full.latE7(i));
+            maxLat = Math.max(maxLat, full.latE7(i));
+        }
+
+        entries.put(id, new Entry(arena, offset, sizes, version, minLon, minLat, maxLon, maxLat));
+        liveBytes += bytes;
+        if (previous != null) {
+            liveBytes -= previous.byteSize();
+            compactIfFragmented();
+        }
+    }
+
+    /**
+     * Offset of {@code bytes} free bytes in {@link #arena}, starting a new arena when the
+     * current one is full. A line larger than an arena gets an arena of its own.
+     */
+    private int reserve(int bytes) {
+        if (arena == null || arenaUsed + bytes > arena.capacity()) {
+            arena = ByteBuffer.allocateDirect(Math.max(arenaSize, bytes)).order(ORDER);
+            arenaUsed = 0;
+        }
+        int offset = arenaUsed;
+        arenaUsed += bytes;
+        usedBytes += bytes;
+        return offset;
+    }
+
+    private void compactIfFragmented() {
+        long holes = usedBytes - liveBytes;
+        if (holes > liveBytes && holes > arenaSize / 2) {
+            arena = null;
+            usedBytes = 0;
+            entries.replaceAll((id, entry) -> {
+                int offset = reserve(entry.byteSize());
+                arena.put(offset, entry.arena, entry.offset, entry.byteSize());
+                return entry.moveTo(arena, offset);
+            });
+        }
+    }
+
+    /**
+     * Version of a row as stored: updatedAt in microseconds, the precision Postgres keeps
+     * (rounded, as it rounds), so a row read back matches the entity that was written.
+     */
+    private static long version(Instant updatedAt) {
+        return updatedAt != null ? ChronoUnit.MICROS.between(Instant.EPOCH, updatedAt.plusNanos(500)) : NO_VERSION;
+    }
+
+    private static int blockSize(int size) {
+        return size == NO_LINE ? 0 : (int) align(QuantizedCoordinates.byteSize(size));
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, long length) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Geometry snapshot index too large");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) length).order(ORDER);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Truncated geometry snapshot");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Lines of one stored trail. Holds no vertices itself, only where they are.
+     */
+    public static final class Entry {
+        private final ByteBuffer arena;
+        private final int offset;
+        private final int[] sizes; // vertices per level, NO_LINE when the trail has no line
+        private final long version;
+        private final int minLon;
+        private final int minLat;
+        private final int maxLon;
+        private final int maxLat;
+
+        private Entry(
+                ByteBuffer arena,
+                int offset,
+                int[] sizes,
+                long version,
+                int minLon,
+                int minLat,
+                int maxLon,
+                int maxLat) {
+            this.arena = arena;
+            this.offset = offset;
+            this.sizes = sizes;
+            this.version = version;
+            this.minLon = minLon;
+            this.minLat = minLat;
+            this.maxLon = maxLon;
+            this.maxLat = maxLat;
+        }
+
+        /**
+         * View of the line at a level, or null when the trail has no line.
+         */
+        public QuantizedCoordinates coordinates(GeometryLevel level) {
+            int size = sizes[level.ordinal()];
+            if (size == NO_LINE) {
+                return null;
+            }
+            int position = offset;
+            for (int i = 0; i < level.ordinal(); i++) {
+                position += blockSize(sizes[i]);
+            }
+            return QuantizedCoordinates.view(arena, position, size);
+        }
+
+        /**
+         * Bounds of the full line, or null when it has no vertices.
+         */
+        public GeoBounds bounds() {
+            if (sizes[GeometryLevel.FULL.ordinal()] <= 0) {
+                return null;
+            }
+            double scale = QuantizedCoordinates.COORDINATE_SCALE;
+            return new GeoBounds(minLon / scale, minLat / scale, maxLon / scale, maxLat / scale);
+        }
+
+        private int byteSize() {
+            int bytes = 0;
+            for (int size : sizes) {
+                bytes += blockSize(size);
+            }
+            return bytes;
+        }
+
+        private Entry moveTo(ByteBuffer arena, int offset) {
+            return new Entry(arena, offset, sizes, version, minLon, minLat, maxLon, maxLat);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.trailequip.trail.infrastructure.search;
+
+import com.trailequip.trail.domain.service.DiacriticFolder;
+import java.util.*;
+
+/**
+ * Immutable in-memory prefix index for search-as-you-type.
+ *
+ * Every word-start suffix of a folded term is a key ("Vârful Omu" → "varful omu", "omu"),
+ * so typing any word of a name finds it. Keys live in one sorted char arena and map to
+ * suggestion ranks (0 = heaviest). A prefix selects a contiguous key range by binary
+ * search, and a min-segment-tree over the ranks yields the k best suggestions in that
+ * range in O(k log n), independent of how many keys share the prefix.
+ *
+ * Instances are never mutated; callers rebuild and swap the reference on change.
+ */
+public final class AutocompleteIndex {
+
+    public static final int MAX_LIMIT = 20;
+
+    private static final AutocompleteIndex EMPTY = build(List.of());
+
+    /**
+     * A completion returned to clients.
+     *
+     * @param text display text with original diacritics
+     * @param type TRAIL, REF or a waypoint type (PEAK, SHELTER, ...)
+     * @param trailId trail to open for this completion
+     */
+    public record Suggestion(String text, String type, UUID trailId) {}
+
+    /**
+     * An input term with its ranking weight (higher ranks first).
+     */
+    public record Term(String text, String type, UUID trailId, int weight) {}
+
+    private record Key(String text, int rank) {}
+
+    private final Suggestion[] suggestions; // ordered by rank
+    private final char[] keyChars; // all keys, concatenated in sorted order
+    private final int[] keyOffsets; // key i spans keyChars[keyOffsets[i], keyOffsets[i + 1])
+    private final int keyCount;
+    private final int leafBase; // leaves of minTree start here
+    private final int[] minTree; // minTree[node] = smallest rank below node; leaf leafBase + i = key i
+
+    private AutocompleteIndex(Suggestion[] suggestions, char[] keyChars, int[] keyOffsets, int[] keyRanks) {
+        this.suggestions = suggestions;
+        this.keyChars = keyChars;
+        this.keyOffsets = keyOffsets;
+        this.keyCount = keyRanks.length;
+
+        int base = 1;
+        while (base < keyCount) {
+            base <<= 1;
+        }
+        this.leafBase = base;
+        this.minTree = new int[2 * base];
+        Arrays.fill(minTree, Integer.MAX_VALUE);
+        System.arraycopy(keyRanks, 0, minTree, base, keyCount);
+        for (int node = base - 1; node > 0; node--) {
+            minTree[node] = Math.min(minTree[2 * node], minTree[2 * node + 1]);
+        }
+    }
+
+    public static AutocompleteIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build an index from terms. Blank terms are ignored.
+     */
+    public static AutocompleteIndex build(Collection<Term> terms) {
+        List<Term> ranked = new ArrayList<>();
+        for (Term term : terms) {
+            if (term.text() != null && !term.text().isBlank()) {
+                ranked.add(term);
+            }
+        }
+        ranked.sort(Comparator.comparingInt(Term::weight).reversed().thenComparing(Term::text));
+
+        Suggestion[] suggestions = new Suggestion[ranked.size()];
+        List<Key> keys = new ArrayList<>();
+        int totalChars = 0;
+        for (int rank = 0; rank < ranked.size(); rank++) {
+            Term term = ranked.get(rank);
+            suggestions[rank] = new Suggestion(term.text(), term.type(), term.trailId());
+
+            String normalized = normalize(term.text());
+            for (int i = 0; i < normalized.length(); i++) {
+                if (i == 0 || normalized.charAt(i - 1) == ' ') {
+                    String key = normalized.substring(i);
+                    keys.add(new Key(key, rank));
+                    totalChars += key.length();
+                }
+            }
+        }
+        keys.sort(Comparator.comparing(Key::text).thenComparingInt(Key::rank));
+
+        char[] keyChars = new char[totalChars];
+        int[] keyOffsets = new int[keys.size() + 1];
+        int[] keyRanks = new int[keys.size()];
+        int offset = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            Key key = keys.get(i);
+            key.text().getChars(0, key.text().length(), keyChars, offset);
+            keyOffsets[i] = offset;
+            keyRanks[i] = key.rank();
+            offset += key.text().length();
+        }
+        keyOffsets[keys.size()] = offset;
+
+        return new AutocompleteIndex(suggestions, keyChars, keyOffsets, keyRanks);
+    }
+
+    /**
+     * Return up to {@code limit} completions for a prefix, best first.
+     */
+    public List<Suggestion> complete(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        int k = Math.min(Math.max(limit, 0), MAX_LIMIT);
+        if (normalized.isEmpty() || k == 0) {
+            return List.of();
+        }
+
+        int lo = lowerBound(normalized);
+        int hi = upperBound(normalized);
+        if (lo >= hi) {
+            return List.of();
+        }
+
+        List<Suggestion> result = new ArrayList<>(k);
+        for (int rank : topRanks(lo, hi, k)) {
+            result.add(suggestions[rank]);
+        }
+        return result;
+    }
+
+    /**
+     * Number of distinct suggestions in the index.
+     */
+    public int size() {
+        return suggestions.length;
+    }
+
+    /**
+     * The k smallest distinct ranks among keys [lo, hi), ascending.
+     * Best-first search over the segment tree: pop the node with the smallest minimum,
+     * emit it if it is a leaf, otherwise expand its children.
+     */
+    private int[] topRanks(int lo, int hi, int k) {
+        PriorityQueue<Long> frontier = new PriorityQueue<>();
+        for (int l = lo + leafBase, r = hi + leafBase; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) {
+                frontier.add(entry(l++));
+            }
+            if ((r & 1) == 1) {
+                frontier.add(entry(--r));
+            }
+        }
+
+        int[] top = new int[k];
+        int size = 0;
+        while (size < k && !frontier.isEmpty()) {
+            int node = (int) (long) frontier.poll();
+            if (node >= leafBase) {
+                int rank = minTree[node];
+                // Ranks arrive in ascending order; a repeat is the same suggestion via another word
+                if (size == 0 || top[size - 1] != rank) {
+                    top[size++] = rank;
+                }
+            } else {
+                frontier.add(entry(2 * node));
+                if (minTree[2 * node + 1] != Integer.MAX_VALUE) {
+                    frontier.add(entry(2 * node + 1));
+                }
+            }
+        }
+
+        return Arrays.copyOf(top, size);
+    }
+
+    private long entry(int node) {
+        return ((long) minTree[node] << 32) | node;
+    }
+
+    /**
+     * First key whose leading chars are >= prefix.
+     */
+    private int lowerBound(String prefix) {
+        int lo = 0;
+        int hi = keyCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparePrefix(mid, prefix) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * First key whose leading chars are > prefix, i.e. past the last key starting with it.
+     */
+    private int upperBound(String prefix) {
+        int lo = 0;
+        int hi = keyCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparePrefix(mid, prefix) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Compare key's first prefix.length() chars with prefix (0 = key starts with prefix).
+     */
+    private int comparePrefix(int keyIndex, String prefix) {
+        int start = keyOffsets[keyIndex];
+        int length = keyOffsets[keyIndex + 1] - start;
+        int n = Math.min(length, prefix.length());
+        for (int i = 0; i < n; i++) {
+            int diff = keyChars[start + i] - prefix.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length < prefix.length() ? -1 : 0;
+    }
+
+    private static String normalize(String text) {
+        return String.join(" ", DiacriticFolder.tokenize(text));
+    }
+}
@@ -0,0 +1,52 @@
+package com.trailequip.trail.infrastructure.snapshot;
+
+import com.trailequip.trail.domain.model.TrailMarking;
+import com.trailequip.trail.domain.repository.TrailMarkingRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * TrailMarkingRepository of edge mode: the markings of a {@link TrailSnapshot}, the same
+ * instances its trails refer to.
+ */
+@Component
+@Profile("edge")
+public class SnapshotTrailMarkingRepository extends ReadOnlyJpaRepository<TrailMarking, Long>
+        implements TrailMarkingRepository {
+
+    private final List<TrailMarking> markings;
+    private final Map<Long, TrailMarking> byId;
+    private final Map<String, TrailMarking> bySymbol;
+
+    public SnapshotTrailMarkingRepository(TrailSnapshot snapshot) {
+        this.markings = List.copyOf(snapshot.markings());
+        this.byId = markings.stream().collect(Collectors.toMap(TrailMarking::getId, Function.identity()));
+        this.bySymbol = markings.stream()
+                .collect(Collectors.toMap(TrailMarking::getOsmcSymbol, Function.identity(), (first, second) -> first));
+    }
+
+    @Override
+    public Optional<TrailMarking> findById(Long id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    @Override
+    public List<TrailMarking> findAll() {
+        return markings;
+    }
+
+    @Override
+    public long count() {
+        return markings.size();
+    }
+
+    @Override
+    public Optional<TrailMarking> findByOsmcSymbol(String osmcSymbol) {
+        return Optional.ofNullable(bySymbol.get(osmcSymbol));
+    }
+}
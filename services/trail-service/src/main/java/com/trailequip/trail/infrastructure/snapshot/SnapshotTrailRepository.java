@@ -0,0 +1,426 @@
+package com.trailequip.trail.infrastructure.snapshot;
+
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.GeometryLevel;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailFacets;
+import com.trailequip.trail.domain.model.TrailFilter;
+import com.trailequip.trail.domain.model.TrailLine;
+import com.trailequip.trail.domain.model.TrailLineLevels;
+import com.trailequip.trail.domain.model.TrailMetrics;
+import com.trailequip.trail.domain.model.TrailSort;
+import com.trailequip.trail.domain.model.TrailSummary;
+import com.trailequip.trail.domain.model.TrailVersion;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.domain.service.DiacriticFolder;
+import com.trailequip.trail.infrastructure.catalog.TrailCatalog;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/**
+ * TrailRepository of edge mode, answering every query from a {@link TrailSnapshot}.
+ *
+ * Lookups by id go through the snapshot's index and lookups by OSM id through a map built
+ * at startup. Filters, facets and orderings use a {@link TrailCatalog} of the snapshot,
+ * built on first use, so they order by name the same way the catalog service does.
+ * Search matches query tokens as word prefixes and the whole query as a substring of the
+ * folded name, ref and description, ranking name and ref matches first; it has no
+ * trigram similarity, so misspelled queries find less than Postgres would.
+ */
+@Component
+@Profile("edge")
+public class SnapshotTrailRepository extends ReadOnlyJpaRepository<Trail, UUID> implements TrailRepository {
+
+    private final TrailSnapshot snapshot;
+    private final Map<Long, Integer> rowsByOsmId;
+    private volatile TrailCatalog catalog;
+    private volatile SearchText searchText;
+
+    public SnapshotTrailRepository(TrailSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.rowsByOsmId = new HashMap<>(snapshot.size() * 4 / 3 + 1);
+        for (int row = 0; row < snapshot.size(); row++) {
+            Long osmId = snapshot.osmId(row);
+            if (osmId != null) {
+                rowsByOsmId.put(osmId, row);
+            }
+        }
+    }
+
+    @Override
+    public Optional<Trail> findById(UUID id) {
+        return snapshot.find(id);
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return snapshot.row(id) >= 0;
+    }
+
+    @Override
+    public List<Trail> findAll() {
+        List<Trail> trails = new ArrayList<>(snapshot.size());
+        for (int row = 0; row < snapshot.size(); row++) {
+            trails.add(snapshot.trail(row));
+        }
+        return trails;
+    }
+
+    @Override
+    public long count() {
+        return snapshot.size();
+    }
+
+    @Override
+    public List<Trail> findByDifficulty(Difficulty difficulty) {
+        return findMatching(difficulty, null, TrailSort.DEFAULT);
+    }
+
+    @Override
+    public List<Trail> findTrailsInArea(Difficulty difficulty) {
+        return difficulty != null ? findByDifficulty(difficulty) : findMatching(null, null, TrailSort.DEFAULT);
+    }
+
+    @Override
+    public List<Trail> findAllWithDetailsByIdIn(Collection<UUID> ids) {
+        return findAllById(ids);
+    }
+
+    @Override
+    public Optional<Trail> findByOsmId(Long osmId) {
+        Integer row = rowsByOsmId.get(osmId);
+        return row != null ? Optional.of(snapshot.trail(row)) : Optional.empty();
+    }
+
+    @Override
+    public List<Trail> findBySource(String source) {
+        return source != null ? findMatching(null, source, TrailSort.DEFAULT) : List.of();
+    }
+
+    @Override
+    public List<Trail> findByOsmIds(List<Long> osmIds) {
+        List<Trail> trails = new ArrayList<>();
+        for (Long osmId : osmIds) {
+            findByOsmId(osmId).ifPresent(trails::add);
+        }
+        return trails;
+    }
+
+    @Override
+    public List<Trail> findByDifficultyOrderByDistance(Difficulty difficulty) {
+        return findMatching(difficulty, null, new TrailSort(TrailSort.Field.DISTANCE, true));
+    }
+
+    @Override
+    public List<Trail> findRecentTrailsBySource(String source, Pageable pageable) {
+        return findBySource(source).stream()
+                .sorted(Comparator.comparing(Trail::getCreatedAt).reversed())
+                .skip(pageable.isPaged() ? pageable.getOffset() : 0)
+                .limit(pageable.isPaged() ? pageable.getPageSize() : Long.MAX_VALUE)
+                .toList();
+    }
+
+    @Override
+    public Stream<Trail> streamForExport(Difficulty difficulty, String source) {
+        return catalog().findIds(filter(difficulty, source), TrailSort.DEFAULT, 0, Integer.MAX_VALUE).stream()
+                .map(id -> snapshot.trail(snapshot.row(id)));
+    }
+
+    @Override
+    public Stream<TrailMetrics> streamMetrics(String source) {
+        return streamForExport(null, source)
+                .map(trail -> new TrailMetrics(
+                        trail.getId(),
+                        trail.getSource(),
+                        trail.getName(),
+                        trail.getDistance(),
+                        trail.getElevationGain(),
+                        trail.getAvgSlope(),
+                        trail.getMaxSlope(),
+                        trail.getMaxElevation(),
+                        trail.getDifficulty(),
+                        trail.getTerrainSet(),
+                        trail.getHazardSet()));
+    }
+
+    @Override
+    public long countMetrics(String source) {
+        return catalog().facets(filter(null, source)).total();
+    }
+
+    @Override
+    public List<TrailVersion> findAllVersions() {
+        List<TrailVersion> versions = new ArrayList<>(snapshot.size());
+        for (int row = 0; row < snapshot.size(); row++) {
+            versions.add(new TrailVersion(snapshot.id(row), snapshot.updatedAt(row)));
+        }
+        return versions;
+    }
+
+    @Override
+    public List<TrailSummary> findAllSummaries() {
+        List<TrailSummary> summaries = new ArrayList<>(snapshot.size());
+        for (int row = 0; row < snapshot.size(); row++) {
+            Trail trail = snapshot.trail(row);
+            summaries.add(new TrailSummary(
+                    trail.getId(),
+                    trail.getName(),
+                    trail.getSource(),
+                    trail.getDistance(),
+                    trail.getElevationGain(),
+                    trail.getDurationMinutes(),
+                    trail.getMaxSlope(),
+                    trail.getDifficulty(),
+                    trail.getTerrainSet(),
+                    trail.getHazardSet(),
+                    trail.getUpdatedAt()));
+        }
+        return summaries;
+    }
+
+    @Override
+    public List<TrailLine> findLinesByIdIn(Collection<UUID> ids) {
+        return ids.stream()
+                .map(snapshot::row)
+                .filter(row -> row >= 0)
+                .map(snapshot::trail)
+                .map(trail -> new TrailLine(trail.getId(), trail.getEncodedGeometry()))
+                .toList();
+    }
+
+    @Override
+    public List<TrailLineLevels> findLineLevelsByIdIn(Collection<UUID> ids) {
+        return ids.stream()
+                .map(snapshot::row)
+                .filter(row -> row >= 0)
+                .map(snapshot::trail)
+                .map(trail -> new TrailLineLevels(
+                        trail.getId(),
+                        trail.getUpdatedAt(),
+                        trail.getEncodedGeometry(GeometryLevel.FULL),
+                        trail.getEncodedGeometry(GeometryLevel.OVERVIEW),
+                        trail.getEncodedGeometry(GeometryLevel.REGIONAL),
+                        trail.getEncodedGeometry(GeometryLevel.DETAIL)))
+                .toList();
+    }
+
+    /**
+     * In-memory stand-in for the Postgres full-text search; only term is used, the
+     * tsQuery and likePattern arguments are derived from it.
+     */
+    @Override
+    public Page<Trail> searchRanked(String tsQuery, String term, String likePattern, Pageable pageable) {
+        SearchText text = searchText();
+        String[] tokens = term.split(" ");
+        List<int[]> matches = new ArrayList<>(); // row, rank
+        for (int row = 0; row < snapshot.size(); row++) {
+            int rank = text.rank(row, term, tokens);
+            if (rank > 0) {
+                matches.add(new int[] {row, rank});
+            }
+        }
+        // Rows are in name order already, so a stable sort keeps name as the tie-breaker
+        matches.sort(Comparator.comparingInt((int[] match) -> match[1]).reversed());
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        List<Trail> page = new ArrayList<>(to - from);
+        for (int[] match : matches.subList(from, to)) {
+            page.add(snapshot.trail(match[0]));
+        }
+        return new PageImpl<>(page, pageable, matches.size());
+    }
+
+    @Override
+    public List<Map<String, Object>> findAttributes(
+            Collection<String> attributes, Difficulty difficulty, String source) {
+        return findMatching(difficulty, source, TrailSort.DEFAULT).stream()
+                .map(trail -> attributes(trail, attributes))
+                .toList();
+    }
+
+    @Override
+    public List<Map<String, Object>> findAttributesByIds(Collection<String> attributes, Collection<UUID> ids) {
+        return findAllById(ids).stream()
+                .map(trail -> attributes(trail, attributes))
+                .toList();
+    }
+
+    @Override
+    public List<UUID> findIdsByFilter(TrailFilter filter, TrailSort sort, int offset, int limit) {
+        return catalog().findIds(filter, sort, offset, limit);
+    }
+
+    @Override
+    public TrailFacets countFacets(TrailFilter filter) {
+        return catalog().facets(filter);
+    }
+
+    @Override
+    public void detach(Trail trail) {
+        // Snapshot trails are never managed
+    }
+
+    private List<Trail> findMatching(Difficulty difficulty, String source, TrailSort sort) {
+        List<UUID> ids = catalog().findIds(filter(difficulty, source), sort, 0, Integer.MAX_VALUE);
+        List<Trail> trails = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            trails.add(snapshot.trail(snapshot.row(id)));
+        }
+        return trails;
+    }
+
+    private static TrailFilter filter(Difficulty difficulty, String source) {
+        return new TrailFilter(
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                difficulty != null ? Set.of(difficulty) : null,
+                null,
+                null,
+                null,
+                null,
+                source);
+    }
+
+    private static Map<String, Object> attributes(Trail trail, Collection<String> attributes) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String attribute : attributes) {
+            values.put(attribute, attribute(trail, attribute));
+        }
+        return values;
+    }
+
+    private static Object attribute(Trail trail, String attribute) {
+        return switch (attribute) {
+            case "id" -> trail.getId();
+            case "osmId" -> trail.getOsmId();
+            case "name" -> trail.getName();
+            case "description" -> trail.getDescription();
+            case "ref" -> trail.getRef();
+            case "distance" -> trail.getDistance();
+            case "elevationGain" -> trail.getElevationGain();
+            case "elevationLoss" -> trail.getElevationLoss();
+            case "durationMinutes" -> trail.getDurationMinutes();
+            case "maxSlope" -> trail.getMaxSlope();
+            case "avgSlope" -> trail.getAvgSlope();
+            case "maxElevation" -> trail.getMaxElevation();
+            case "difficulty" -> trail.getDifficulty();
+            case "source" -> trail.getSource();
+            case "createdAt" -> trail.getCreatedAt();
+            case "updatedAt" -> trail.getUpdatedAt();
+            default -> throw new IllegalArgumentException("Not a trail column: " + attribute);
+        };
+    }
+
+    private TrailCatalog catalog() {
+        TrailCatalog current = catalog;
+        if (current == null) {
+            synchronized (this) {
+                if (catalog == null) {
+                    List<TrailCatalog.Entry> entries = new ArrayList<>(snapshot.size());
+                    for (int row = 0; row < snapshot.size(); row++) {
+                        entries.add(TrailCatalog.Entry.of(snapshot.trail(row)));
+                    }
+                    catalog = TrailCatalog.build(entries);
+                }
+                current = catalog;
+            }
+        }
+        return current;
+    }
+
+    private SearchText searchText() {
+        SearchText current = searchText;
+        if (current == null) {
+            synchronized (this) {
+                if (searchText == null) {
+                    searchText = new SearchText(snapshot);
+                }
+                current = searchText;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Folded name, ref and description of every row, split into words.
+     */
+    private static final class SearchText {
+
+        private final String[] names;
+        private final String[] refs;
+        private final String[] descriptions;
+        private final String[][] primaryWords; // name and ref, weight A in Postgres
+        private final String[][] descriptionWords; // weight C
+
+        SearchText(TrailSnapshot snapshot) {
+            int size = snapshot.size();
+            names = new String[size];
+            refs = new String[size];
+            descriptions = new String[size];
+            primaryWords = new String[size][];
+            descriptionWords = new String[size][];
+            IntStream.range(0, size).parallel().forEach(row -> {
+                TrailSnapshot.Labels labels = snapshot.labels(row);
+                names[row] = DiacriticFolder.fold(labels.name());
+                refs[row] = DiacriticFolder.fold(labels.ref());
+                descriptions[row] = DiacriticFolder.fold(labels.description());
+                List<String> primary = new ArrayList<>(DiacriticFolder.tokenize(names[row]));
+                primary.addAll(DiacriticFolder.tokenize(refs[row]));
+                primaryWords[row] = primary.toArray(String[]::new);
+                descriptionWords[row] = DiacriticFolder.tokenize(descriptions[row]).toArray(String[]::new);
+            });
+        }
+
+        /**
+         * 0 when the row does not match. Every token matching a word prefix in name or ref
+         * ranks above matching in the description only; a name containing the whole query
+         * ranks higher still.
+         */
+        int rank(int row, String term, String[] tokens) {
+            boolean primary = true;
+            boolean anywhere = true;
+            for (String token : tokens) {
+                boolean inPrimary = hasPrefix(primaryWords[row], token);
+                primary &= inPrimary;
+                anywhere &= inPrimary || hasPrefix(descriptionWords[row], token);
+            }
+            boolean inName = names[row].contains(term);
+            int rank = (primary ? 4 : anywhere ? 2 : 0) + (inName ? 1 : 0);
+            if (rank == 0 && (refs[row].contains(term) || descriptions[row].contains(term))) {
+                rank = 1;
+            }
+            return rank;
+        }
+
+        private static boolean hasPrefix(String[] words, String token) {
+            for (String word : words) {
+                if (word.startsWith(token)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.trailequip.trail.infrastructure.snapshot;
+
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.EnumSetMaskConverter;
+import com.trailequip.trail.domain.model.Hazard;
+import com.trailequip.trail.domain.model.Terrain;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailMarking;
+import com.trailequip.trail.domain.model.Waypoint;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read-only copy of the trail catalog in one memory-mapped file (see TrailSnapshotWriter
+ * for the layout), served by edge instances that run without a database.
+ *
+ * Trail records stay in the mapped file, so the heap holds only the id index and the
+ * markings; each read decodes a new Trail from its record, ready to be serialized. The
+ * file is mapped in windows of at most 1 GiB, the largest a single mapping can cover, and
+ * a record is always within one window.
+ *
+ * Immutable and safe for concurrent reads.
+ */
+public final class TrailSnapshot {
+
+    public static final int FORMAT_VERSION = 1;
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+    static final int MAGIC = 0x54524C53; // "TRLS"
+    static final int HEADER_SIZE = 64;
+    static final int INDEX_ENTRY_SIZE = 24; // id msb, id lsb, record position
+
+    // Fixed-size record prefix: id, osmId, createdAt, updatedAt
+    private static final int OSM_ID_OFFSET = 16;
+    private static final int CREATED_AT_OFFSET = 25;
+    private static final int UPDATED_AT_OFFSET = 38;
+    private static final int NAME_OFFSET = 51;
+
+    /**
+     * What a snapshot holds and when it was written.
+     */
+    public record Metadata(int formatVersion, Instant createdAt, int trails, int markings, long bytes) {}
+
+    /**
+     * Name, ref and description of a trail, read without decoding the rest of its record.
+     */
+    public record Labels(String name, String ref, String description) {}
+
+    private final Metadata metadata;
+    private final int windowSize;
+    private final ByteBuffer[] windows;
+    private final Map<Long, TrailMarking> markings;
+
+    // Sorted by id, compared as signed (msb, lsb) like UUID.compareTo
+    private final long[] idMsb;
+    private final long[] idLsb;
+    private final long[] idPositions;
+
+    // Record positions in the order trails were written (by name)
+    private final long[] rowPositions;
+
+    private TrailSnapshot(
+            Metadata metadata,
+            int windowSize,
+            ByteBuffer[] windows,
+            Map<Long, TrailMarking> markings,
+            long[] idMsb,
+            long[] idLsb,
+            long[] idPositions) {
+        this.metadata = metadata;
+        this.windowSize = windowSize;
+        this.windows = windows;
+        this.markings = markings;
+        this.idMsb = idMsb;
+        this.idLsb = idLsb;
+        this.idPositions = idPositions;
+        this.rowPositions = idPositions.clone();
+        Arrays.sort(rowPositions);
+    }
+
+    /**
+     * Map a snapshot file, checking its header and reading its index and markings.
+     *
+     * @throws IOException when the file is not a snapshot or has another format version
+     */
+    public static TrailSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = read(channel, 0, HEADER_SIZE, size);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a trail snapshot: " + file);
+            }
+            int version = header.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported trail snapshot format version " + version + ": " + file);
+            }
+            int windowSize = header.getInt();
+            int trailCount = header.getInt();
+            int markingCount = header.getInt();
+            header.getInt(); // reserved
+            Instant createdAt = Instant.ofEpochMilli(header.getLong());
+            long markingsPosition = header.getLong();
+            long indexPosition = header.getLong();
+            if (windowSize < HEADER_SIZE
+                    || trailCount < 0
+                    || markingsPosition < HEADER_SIZE
+                    || indexPosition < markingsPosition
+                    || indexPosition + (long) trailCount * INDEX_ENTRY_SIZE != size) {
+                throw new IOException("Corrupt trail snapshot header: " + file);
+            }
+
+            Map<Long, TrailMarking> markings = new LinkedHashMap<>();
+            ByteBuffer markingSection = read(channel, markingsPosition, indexPosition - markingsPosition, size);
+            for (int i = 0; i < markingCount; i++) {
+                TrailMarking marking = readMarking(markingSection);
+                markings.put(marking.getId(), marking);
+            }
+
+            ByteBuffer index = read(channel, indexPosition, (long) trailCount * INDEX_ENTRY_SIZE, size);
+            long[] idMsb = new long[trailCount];
+            long[] idLsb = new long[trailCount];
+            long[] idPositions = new long[trailCount];
+            for (int i = 0; i < trailCount; i++) {
+                idMsb[i] = index.getLong();
+                idLsb[i] = index.getLong();
+                idPositions[i] = index.getLong();
+                if (idPositions[i] < HEADER_SIZE || idPositions[i] >= markingsPosition) {
+                    throw new IOException("Corrupt trail snapshot index: " + file);
+                }
+            }
+
+            ByteBuffer[] windows = new ByteBuffer[(int) ((markingsPosition + windowSize - 1) / windowSize)];
+            for (int i = 0; i < windows.length; i++) {
+                long from = (long) i * windowSize;
+                windows[i] = channel.map(
+                        FileChannel.MapMode.READ_ONLY, from, Math.min(windowSize, markingsPosition - from));
+            }
+
+            Metadata metadata = new Metadata(version, createdAt, trailCount, markings.size(), size);
+            return new TrailSnapshot(
+                    metadata, windowSize, windows, Collections.unmodifiableMap(markings), idMsb, idLsb, idPositions);
+        }
+    }
+
+    public Metadata metadata() {
+        return metadata;
+    }
+
+    public int size() {
+        return rowPositions.length;
+    }
+
+    /**
+     * Markings in the snapshot; trails read from it share these instances.
+     */
+    public Collection<TrailMarking> markings() {
+        return markings.values();
+    }
+
+    /**
+     * Row of the trail with this id, or -1. Rows are numbered in the order trails were
+     * written.
+     */
+    public int row(UUID id) {
+        int low = 0;
+        int high = idMsb.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Long.compare(idMsb[mid], id.getMostSignificantBits());
+            if (cmp == 0) {
+                cmp = Long.compare(idLsb[mid], id.getLeastSignificantBits());
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return Arrays.binarySearch(rowPositions, idPositions[mid]);
+            }
+        }
+        return -1;
+    }
+
+    public Optional<Trail> find(UUID id) {
+        int row = row(id);
+        return row >= 0 ? Optional.of(trail(row)) : Optional.empty();
+    }
+
+    public UUID id(int row) {
+        ByteBuffer record = record(row);
+        return new UUID(record.getLong(0), record.getLong(8));
+    }
+
+    public Long osmId(int row) {
+        ByteBuffer record = record(row);
+        return record.get(OSM_ID_OFFSET) != 0 ? record.getLong(OSM_ID_OFFSET + 1) : null;
+    }
+
+    public Instant updatedAt(int row) {
+        return fixedInstant(record(row), UPDATED_AT_OFFSET);
+    }
+
+    public Labels labels(int row) {
+        ByteBuffer record = record(row).position(NAME_OFFSET);
+        return new Labels(readString(record), readString(record), readString(record));
+    }
+
+    /**
+     * Decode a trail. Every call returns a new, unmanaged Trail; segments are not part of
+     * a snapshot and are left unset.
+     */
+    public Trail trail(int row) {
+        ByteBuffer record = record(row);
+        Trail trail = new Trail();
+        trail.setId(new UUID(record.getLong(0), record.getLong(8)));
+        trail.setOsmId(record.get(OSM_ID_OFFSET) != 0 ? record.getLong(OSM_ID_OFFSET + 1) : null);
+        trail.setCreatedAt(fixedInstant(record, CREATED_AT_OFFSET));
+        trail.setUpdatedAt(fixedInstant(record, UPDATED_AT_OFFSET));
+        record.position(NAME_OFFSET);
+        trail.setName(readString(record));
+        trail.setRef(readString(record));
+        trail.setDescription(readString(record));
+
+        trail.setDistance(readDouble(record));
+        trail.setElevationGain(readInt(record));
+        trail.setElevationLoss(readInt(record));
+        trail.setDurationMinutes(readInt(record));
+        trail.setMaxSlope(readDouble(record));
+        trail.setAvgSlope(readDouble(record));
+        trail.setMaxElevation(readInt(record));
+        String difficulty = readString(record);
+        trail.setDifficulty(difficulty != null ? Difficulty.valueOf(difficulty) : null);
+        Integer terrain = readInt(record);
+        trail.setTerrainSet(terrain != null ? EnumSetMaskConverter.fromMask(Terrain.class, terrain) : null);
+        Integer hazards = readInt(record);
+        trail.setHazardSet(hazards != null ? EnumSetMaskConverter.fromMask(Hazard.class, hazards) : null);
+        Long markingId = readLong(record);
+        trail.setMarking(markingId != null ? markings.get(markingId) : null);
+        trail.setSource(readString(record));
+        trail.setEncodedGeometry(readBytes(record), readBytes(record), readBytes(record), readBytes(record));
+
+        int waypointCount = record.getInt();
+        if (waypointCount >= 0) {
+            List<Waypoint> waypoints = new ArrayList<>(waypointCount);
+            for (int i = 0; i < waypointCount; i++) {
+                waypoints.add(readWaypoint(record));
+            }
+            trail.setWaypoints(waypoints);
+        }
+        return trail;
+    }
+
+    /**
+     * A trail's record as a buffer of its own, positioned at its start.
+     */
+    private ByteBuffer record(int row) {
+        long position = rowPositions[row];
+        ByteBuffer window = windows[(int) (position / windowSize)];
+        int offset = (int) (position % windowSize);
+        return window.slice(offset + Integer.BYTES, window.getInt(offset));
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, long length, long size) throws IOException {
+        if (position + length > size || length > Integer.MAX_VALUE) {
+            throw new IOException("Truncated trail snapshot");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated trail snapshot");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static TrailMarking readMarking(ByteBuffer buffer) {
+        TrailMarking marking = new TrailMarking();
+        marking.setId(buffer.getLong());
+        marking.setOsmcSymbol(readString(buffer));
+        String color = readString(buffer);
+        if (color != null) {
+            marking.setColor(TrailMarking.MarkingColor.valueOf(color));
+        }
+        String shape = readString(buffer);
+        marking.setShape(shape != null ? TrailMarking.MarkingShape.valueOf(shape) : null);
+        marking.setDescription(readString(buffer));
+        return marking;
+    }
+
+    private static Waypoint readWaypoint(ByteBuffer buffer) {
+        Waypoint waypoint = new Waypoint();
+        if (buffer.get() != 0) {
+            waypoint.setId(new UUID(buffer.getLong(), buffer.getLong()));
+        }
+        waypoint.setOsmNodeId(readLong(buffer));
+        waypoint.setSequenceOrder(readInt(buffer));
+        waypoint.setLatitude(readDouble(buffer));
+        waypoint.setLongitude(readDouble(buffer));
+        waypoint.setElevation(readInt(buffer));
+        waypoint.setName(readString(buffer));
+        String type = readString(buffer);
+        waypoint.setType(type != null ? Waypoint.WaypointType.valueOf(type) : null);
+        waypoint.setDescription(readString(buffer));
+        return waypoint;
+    }
+
+    private static Instant fixedInstant(ByteBuffer buffer, int offset) {
+        return buffer.get(offset) != 0
+                ? Instant.ofEpochSecond(buffer.getLong(offset + 1), buffer.getInt(offset + 9))
+                : null;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = readBytes(buffer);
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static Long readLong(ByteBuffer buffer) {
+        return buffer.get() != 0 ? buffer.getLong() : null;
+    }
+
+    private static Integer readInt(ByteBuffer buffer) {
+        return buffer.get() != 0 ? buffer.getInt() : null;
+    }
+
+    private static Double readDouble(ByteBuffer buffer) {
+        return buffer.get() != 0 ? buffer.getDouble() : null;
+    }
+}
@@ -0,0 +1,293 @@
+package com.trailequip.trail.infrastructure.snapshot;
+
+import com.trailequip.trail.domain.model.EnumSetMaskConverter;
+import com.trailequip.trail.domain.model.GeometryLevel;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailLineLevels;
+import com.trailequip.trail.domain.model.TrailMarking;
+import com.trailequip.trail.domain.model.Waypoint;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes a {@link TrailSnapshot} file, one trail at a time so a database cursor can feed it.
+ *
+ * Layout, big-endian:
+ * - header: magic, format version, window size, counts, created at and section positions
+ * - trails: one length-prefixed record per trail, in the order written. A record never
+ *   crosses a multiple of the window size, so the reader can map the file in windows and
+ *   read every record from a single buffer.
+ * - markings: the markings referenced by trails, plus any written explicitly
+ * - index: id and record position per trail, sorted by id
+ *
+ * The file is written next to its target and moved into place once complete, so a reader
+ * never maps a partial snapshot.
+ */
+public final class TrailSnapshotWriter implements Closeable {
+
+    private static final GeometryLevel[] STORED_LEVELS = {
+        GeometryLevel.FULL, GeometryLevel.OVERVIEW, GeometryLevel.REGIONAL, GeometryLevel.DETAIL
+    };
+
+    private final Path target;
+    private final Path temp;
+    private final int windowSize;
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(8192);
+    private final DataOutputStream record = new DataOutputStream(recordBytes);
+    private final Map<Long, TrailMarking> markings = new LinkedHashMap<>();
+
+    // Per trail: id msb, id lsb, record position
+    private long[] index = new long[3 * 1024];
+    private int trailCount;
+    private long position;
+    private boolean finished;
+
+    private TrailSnapshotWriter(Path target, int windowSize) throws IOException {
+        this.target = target;
+        this.windowSize = windowSize;
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        this.temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16));
+        out.write(new byte[TrailSnapshot.HEADER_SIZE]); // written for real by finish()
+        position = TrailSnapshot.HEADER_SIZE;
+    }
+
+    public static TrailSnapshotWriter open(Path target) throws IOException {
+        return open(target, TrailSnapshot.DEFAULT_WINDOW_SIZE);
+    }
+
+    static TrailSnapshotWriter open(Path target, int windowSize) throws IOException {
+        if (windowSize < TrailSnapshot.HEADER_SIZE) {
+            throw new IllegalArgumentException("Window size too small: " + windowSize);
+        }
+        return new TrailSnapshotWriter(target, windowSize);
+    }
+
+    /**
+     * Include a marking even when no trail refers to it.
+     */
+    public void writeMarking(TrailMarking marking) {
+        if (marking != null && marking.getId() != null) {
+            markings.putIfAbsent(marking.getId(), marking);
+        }
+    }
+
+    /**
+     * Append a trail with its summary, stored geometry levels, waypoints and marking.
+     */
+    public void writeTrail(Trail trail) throws IOException {
+        writeTrail(trail, null);
+    }
+
+    /**
+     * Append a trail whose stored geometry levels were selected apart from it, so its lazy
+     * line columns are not loaded one trail at a time; null lines reads them from the trail.
+     */
+    public void writeTrail(Trail trail, TrailLineLevels lines) throws IOException {
+        if (trail.getId() == null) {
+            throw new IllegalArgumentException("Trail has no id");
+        }
+        recordBytes.reset();
+        writeRecord(trail, lines);
+        int length = recordBytes.size();
+        if (Integer.BYTES + (long) length > windowSize) {
+            throw new IOException("Trail " + trail.getId() + " does not fit in a snapshot window");
+        }
+
+        long windowEnd = (position / windowSize + 1) * windowSize;
+        if (position + Integer.BYTES + length > windowEnd) {
+            out.write(new byte[(int) (windowEnd - position)]);
+            position = windowEnd;
+        }
+
+        if (index.length < (trailCount + 1) * 3) {
+            index = Arrays.copyOf(index, index.length * 2);
+        }
+        index[trailCount * 3] = trail.getId().getMostSignificantBits();
+        index[trailCount * 3 + 1] = trail.getId().getLeastSignificantBits();
+        index[trailCount * 3 + 2] = position;
+        trailCount++;
+
+        out.writeInt(length);
+        recordBytes.writeTo(out);
+        position += Integer.BYTES + length;
+    }
+
+    /**
+     * Write the markings, the index and the header, and move the file into place.
+     */
+    public TrailSnapshot.Metadata finish() throws IOException {
+        long markingsPosition = position;
+        for (TrailMarking marking : markings.values()) {
+            recordBytes.reset();
+            record.writeLong(marking.getId());
+            writeString(record, marking.getOsmcSymbol());
+            writeString(record, marking.getColor() != null ? marking.getColor().name() : null);
+            writeString(record, marking.getShape() != null ? marking.getShape().name() : null);
+            writeString(record, marking.getDescription());
+            recordBytes.writeTo(out);
+            position += recordBytes.size();
+        }
+
+        long indexPosition = position;
+        Integer[] order = new Integer[trailCount];
+        for (int i = 0; i < trailCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(
+                order,
+                Comparator.<Integer>comparingLong(i -> index[i * 3]).thenComparingLong(i -> index[i * 3 + 1]));
+        for (int i : order) {
+            out.writeLong(index[i * 3]);
+            out.writeLong(index[i * 3 + 1]);
+            out.writeLong(index[i * 3 + 2]);
+        }
+        position += (long) trailCount * TrailSnapshot.INDEX_ENTRY_SIZE;
+        out.close();
+
+        Instant createdAt = Instant.ofEpochMilli(System.currentTimeMillis());
+        ByteBuffer header = ByteBuffer.allocate(TrailSnapshot.HEADER_SIZE);
+        header.putInt(TrailSnapshot.MAGIC)
+                .putInt(TrailSnapshot.FORMAT_VERSION)
+                .putInt(windowSize)
+                .putInt(trailCount)
+                .putInt(markings.size())
+                .putInt(0)
+                .putLong(createdAt.toEpochMilli())
+                .putLong(markingsPosition)
+                .putLong(indexPosition)
+                .flip();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        finished = true;
+        return new TrailSnapshot.Metadata(
+                TrailSnapshot.FORMAT_VERSION, createdAt, trailCount, markings.size(), position);
+    }
+
+    /**
+     * Discard the file unless {@link #finish()} moved it into place.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!finished) {
+            out.close();
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * One trail. The fixed-size prefix (id, osmId, createdAt, updatedAt) and the name, ref
+     * and description after it are read without parsing the rest; see TrailSnapshot.
+     */
+    private void writeRecord(Trail trail, TrailLineLevels lines) throws IOException {
+        record.writeLong(trail.getId().getMostSignificantBits());
+        record.writeLong(trail.getId().getLeastSignificantBits());
+        record.writeBoolean(trail.getOsmId() != null);
+        record.writeLong(trail.getOsmId() != null ? trail.getOsmId() : 0);
+        writeFixedInstant(record, trail.getCreatedAt());
+        writeFixedInstant(record, trail.getUpdatedAt());
+        writeString(record, trail.getName());
+        writeString(record, trail.getRef());
+        writeString(record, trail.getDescription());
+
+        writeDouble(record, trail.getDistance());
+        writeInt(record, trail.getElevationGain());
+        writeInt(record, trail.getElevationLoss());
+        writeInt(record, trail.getDurationMinutes());
+        writeDouble(record, trail.getMaxSlope());
+        writeDouble(record, trail.getAvgSlope());
+        writeInt(record, trail.getMaxElevation());
+        writeString(record, trail.getDifficulty() != null ? trail.getDifficulty().name() : null);
+        writeInt(record, trail.getTerrainSet() != null ? EnumSetMaskConverter.toMask(trail.getTerrainSet()) : null);
+        writeInt(record, trail.getHazardSet() != null ? EnumSetMaskConverter.toMask(trail.getHazardSet()) : null);
+        TrailMarking marking = trail.getMarking();
+        writeMarking(marking);
+        writeLong(record, marking != null ? marking.getId() : null);
+        writeString(record, trail.getSource());
+
+        for (GeometryLevel level : STORED_LEVELS) {
+            writeBytes(record, lines != null ? lines.encoded(level) : trail.getEncodedGeometry(level));
+        }
+
+        if (trail.getWaypoints() == null) {
+            record.writeInt(-1);
+            return;
+        }
+        record.writeInt(trail.getWaypoints().size());
+        for (Waypoint waypoint : trail.getWaypoints()) {
+            UUID id = waypoint.getId();
+            record.writeBoolean(id != null);
+            if (id != null) {
+                record.writeLong(id.getMostSignificantBits());
+                record.writeLong(id.getLeastSignificantBits());
+            }
+            writeLong(record, waypoint.getOsmNodeId());
+            writeInt(record, waypoint.getSequenceOrder());
+            writeDouble(record, waypoint.getLatitude());
+            writeDouble(record, waypoint.getLongitude());
+            writeInt(record, waypoint.getElevation());
+            writeString(record, waypoint.getName());
+            writeString(record, waypoint.getType() != null ? waypoint.getType().name() : null);
+            writeString(record, waypoint.getDescription());
+        }
+    }
+
+    private static void writeFixedInstant(DataOutputStream out, Instant value) throws IOException {
+        out.writeBoolean(value != null);
+        out.writeLong(value != null ? value.getEpochSecond() : 0);
+        out.writeInt(value != null ? value.getNano() : 0);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        out.writeInt(value != null ? value.length : -1);
+        if (value != null) {
+            out.write(value);
+        }
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static void writeInt(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void writeDouble(DataOutputStream out, Double value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeDouble(value);
+        }
+    }
+}
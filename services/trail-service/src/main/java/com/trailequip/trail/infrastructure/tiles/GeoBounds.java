@@ -0,0 +1,67 @@
+package com.trailequip.trail.infrastructure.tiles;
+
+import com.trailequip.trail.domain.model.QuantizedCoordinates;
+
+/**
+ * Longitude/latitude bounding box in degrees.
+ */
+public record GeoBounds(double west, double south, double east, double north) {
+
+    /**
+     * Bounds of a line, or null when it has no vertices.
+     */
+    public static GeoBounds of(QuantizedCoordinates line) {
+        if (line == null || line.isEmpty()) {
+            return null;
+        }
+        int minLon = Integer.MAX_VALUE;
+        int minLat = Integer.MAX_VALUE;
+        int maxLon = Integer.MIN_VALUE;
+        int maxLat = Integer.MIN_VALUE;
+        for (int i = 0; i < line.size(); i++) {
+            minLon = Math.min(minLon, line.lonE7(i));
+            maxLon = Math.max(maxLon, line.lonE7(i));
+            minLat = Math.min(minLat, line.latE7(i));
+            maxLat = Math.max(maxLat, line.latE7(i));
+        }
+        double scale = QuantizedCoordinates.COORDINATE_SCALE;
+        return new GeoBounds(minLon / scale, minLat / scale, maxLon / scale, maxLat / scale);
+    }
+
+    /**
+     * Bounds of a tile, grown by a fraction of its size on every side.
+     */
+    public static GeoBounds of(TileKey tile, double buffer) {
+        double n = 1 << tile.z();
+        return new GeoBounds(
+                tileXToLon(tile.x() - buffer, n),
+                tileYToLat(tile.y() + 1 + buffer, n),
+                tileXToLon(tile.x() + 1 + buffer, n),
+                tileYToLat(tile.y() - buffer, n));
+    }
+
+    public boolean intersects(GeoBounds other) {
+        return west <= other.east && other.west <= east && south <= other.north && other.south <= north;
+    }
+
+    /**
+     * Smallest bounds covering both; either side may be null.
+     */
+    public static GeoBounds union(GeoBounds a, GeoBounds b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return new GeoBounds(
+                Math.min(a.west, b.west),
+                Math.min(a.south, b.south),
+                Math.max(a.east, b.east),
+                Math.max(a.north, b.north));
+    }
+
+    private static double tileXToLon(double x, double n) {
+        return x / n * 360.0 - 180.0;
+    }
+
+    private static double tileYToLat(double y, double n) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y / n))));
+    }
+}
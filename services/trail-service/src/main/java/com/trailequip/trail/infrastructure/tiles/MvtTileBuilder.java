@@ -0,0 +1,322 @@
+package com.trailequip.trail.infrastructure.tiles;
+
+import com.trailequip.trail.domain.model.QuantizedCoordinates;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Encodes line features into a single-layer Mapbox Vector Tile (MVT 2.1 protobuf).
+ *
+ * Lines are projected to Web Mercator tile space, clipped to the tile plus a small
+ * buffer (so strokes do not end visibly at tile seams), snapped to the integer tile
+ * grid and written with the MVT MoveTo/LineTo command encoding. A clipped line that
+ * leaves and re-enters the tile becomes a multi-part feature.
+ */
+public final class MvtTileBuilder {
+
+    public static final String CONTENT_TYPE = "application/vnd.mapbox-vector-tile";
+    public static final int EXTENT = 4096;
+    public static final int BUFFER = 64; // tile units beyond each edge
+
+    // Protobuf wire types
+    private static final int VARINT = 0;
+    private static final int FIXED64 = 1;
+    private static final int LENGTH_DELIMITED = 2;
+
+    // MVT geometry commands and types
+    private static final int MOVE_TO = 1;
+    private static final int LINE_TO = 2;
+    private static final int GEOM_LINESTRING = 2;
+
+    private final TileKey tile;
+    private final String layerName;
+    private final Map<String, Integer> keyIndex = new LinkedHashMap<>();
+    private final Map<Object, Integer> valueIndex = new LinkedHashMap<>();
+    private final List<byte[]> features = new ArrayList<>();
+
+    public MvtTileBuilder(TileKey tile, String layerName) {
+        this.tile = tile;
+        this.layerName = layerName;
+    }
+
+    /**
+     * Add a line feature. Attribute values may be String, Integer, Long, Double or Boolean;
+     * nulls are skipped. Lines that fall outside the tile are ignored.
+     *
+     * @return true if any part of the line was written
+     */
+    public boolean addLine(QuantizedCoordinates line, Map<String, Object> attributes) {
+        if (line == null || line.size() < 2) {
+            return false;
+        }
+
+        List<int[]> parts = clipToTile(line);
+        if (parts.isEmpty()) {
+            return false;
+        }
+
+        ProtoWriter geometry = new ProtoWriter();
+        int cursorX = 0;
+        int cursorY = 0;
+        for (int[] part : parts) {
+            int points = part.length / 2;
+            geometry.writeRawVarint(command(MOVE_TO, 1));
+            geometry.writeRawVarint(zigzag(part[0] - cursorX));
+            geometry.writeRawVarint(zigzag(part[1] - cursorY));
+            cursorX = part[0];
+            cursorY = part[1];
+            geometry.writeRawVarint(command(LINE_TO, points - 1));
+            for (int i = 1; i < points; i++) {
+                geometry.writeRawVarint(zigzag(part[2 * i] - cursorX));
+                geometry.writeRawVarint(zigzag(part[2 * i + 1] - cursorY));
+                cursorX = part[2 * i];
+                cursorY = part[2 * i + 1];
+            }
+        }
+
+        ProtoWriter tags = new ProtoWriter();
+        for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+            if (attribute.getValue() != null) {
+                tags.writeRawVarint(keyIndex.computeIfAbsent(attribute.getKey(), k -> keyIndex.size()));
+                tags.writeRawVarint(valueIndex.computeIfAbsent(attribute.getValue(), v -> valueIndex.size()));
+            }
+        }
+
+        ProtoWriter feature = new ProtoWriter();
+        feature.writeBytes(2, tags.toByteArray());
+        feature.writeVarint(3, GEOM_LINESTRING);
+        feature.writeBytes(4, geometry.toByteArray());
+        features.add(feature.toByteArray());
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return features.isEmpty();
+    }
+
+    /**
+     * Encoded tile; an empty tile encodes to zero bytes.
+     */
+    public byte[] build() {
+        if (features.isEmpty()) {
+            return new byte[0];
+        }
+
+        ProtoWriter layer = new ProtoWriter();
+        layer.writeVarint(15, 2); // version
+        layer.writeString(1, layerName);
+        for (byte[] feature : features) {
+            layer.writeBytes(2, feature);
+        }
+        for (String key : keyIndex.keySet()) {
+            layer.writeString(3, key);
+        }
+        for (Object value : valueIndex.keySet()) {
+            layer.writeBytes(4, encodeValue(value));
+        }
+        layer.writeVarint(5, EXTENT);
+
+        ProtoWriter tileWriter = new ProtoWriter();
+        tileWriter.writeBytes(3, layer.toByteArray());
+        return tileWriter.toByteArray();
+    }
+
+    /**
+     * Project, clip (Liang-Barsky per segment) and snap a line; returns parts as flat x,y arrays.
+     */
+    private List<int[]> clipToTile(QuantizedCoordinates line) {
+        double min = -BUFFER;
+        double max = EXTENT + BUFFER;
+        List<int[]> parts = new ArrayList<>();
+        IntList current = new IntList();
+
+        double prevX = projectX(line.lon(0));
+        double prevY = projectY(line.lat(0));
+        for (int i = 1; i < line.size(); i++) {
+            double x = projectX(line.lon(i));
+            double y = projectY(line.lat(i));
+
+            double[] clipped = clipSegment(prevX, prevY, x, y, min, max);
+            if (clipped == null) {
+                flush(current, parts);
+            } else {
+                boolean startsInside = clipped[0] == prevX && clipped[1] == prevY;
+                if (!startsInside) {
+                    flush(current, parts);
+                }
+                current.addPoint((int) Math.round(clipped[0]), (int) Math.round(clipped[1]));
+                current.addPoint((int) Math.round(clipped[2]), (int) Math.round(clipped[3]));
+                boolean endsInside = clipped[2] == x && clipped[3] == y;
+                if (!endsInside) {
+                    flush(current, parts);
+                }
+            }
+
+            prevX = x;
+            prevY = y;
+        }
+        flush(current, parts);
+        return parts;
+    }
+
+    private double projectX(double lon) {
+        return (TileKey.lonToTileX(lon, tile.z()) - tile.x()) * EXTENT;
+    }
+
+    private double projectY(double lat) {
+        return (TileKey.latToTileY(lat, tile.z()) - tile.y()) * EXTENT;
+    }
+
+    private static void flush(IntList current, List<int[]> parts) {
+        // Parts collapsing to a single grid point at this zoom carry nothing visible
+        if (current.points() >= 2) {
+            parts.add(current.toArray());
+        }
+        current.clear();
+    }
+
+    private static double[] clipSegment(double x0, double y0, double x1, double y1, double min, double max) {
+        double t0 = 0;
+        double t1 = 1;
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double[] p = {-dx, dx, -dy, dy};
+        double[] q = {x0 - min, max - x0, y0 - min, max - y0};
+        for (int i = 0; i < 4; i++) {
+            if (p[i] == 0) {
+                if (q[i] < 0) {
+                    return null;
+                }
+            } else {
+                double t = q[i] / p[i];
+                if (p[i] < 0) {
+                    t0 = Math.max(t0, t);
+                } else {
+                    t1 = Math.min(t1, t);
+                }
+            }
+        }
+        if (t0 > t1) {
+            return null;
+        }
+        return new double[] {
+            t0 == 0 ? x0 : x0 + t0 * dx, t0 == 0 ? y0 : y0 + t0 * dy,
+            t1 == 1 ? x1 : x0 + t1 * dx, t1 == 1 ? y1 : y0 + t1 * dy
+        };
+    }
+
+    private static byte[] encodeValue(Object value) {
+        ProtoWriter writer = new ProtoWriter();
+        if (value instanceof String s) {
+            writer.writeString(1, s);
+        } else if (value instanceof Double d) {
+            writer.writeTag(3, FIXED64);
+            writer.writeFixed64(Double.doubleToLongBits(d));
+        } else if (value instanceof Integer || value instanceof Long) {
+            writer.writeVarint(6, zigzag64(((Number) value).longValue()));
+        } else if (value instanceof Boolean b) {
+            writer.writeVarint(7, b ? 1 : 0);
+        } else {
+            writer.writeString(1, String.valueOf(value));
+        }
+        return writer.toByteArray();
+    }
+
+    private static int command(int id, int count) {
+        return (id & 0x7) | (count << 3);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static long zigzag64(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Growable x,y buffer that drops consecutive duplicate grid points.
+     */
+    private static final class IntList {
+        private int[] values = new int[64];
+        private int size;
+
+        void addPoint(int x, int y) {
+            if (size >= 2 && values[size - 2] == x && values[size - 1] == y) {
+                return;
+            }
+            if (size + 2 > values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size++] = x;
+            values[size++] = y;
+        }
+
+        int points() {
+            return size / 2;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * Minimal protobuf writer for the handful of field types MVT uses.
+     */
+    private static final class ProtoWriter {
+        private byte[] buffer = new byte[64];
+        private int size;
+
+        void writeTag(int field, int wireType) {
+            writeRawVarint((field << 3) | wireType);
+        }
+
+        void writeVarint(int field, long value) {
+            writeTag(field, VARINT);
+            writeRawVarint(value);
+        }
+
+        void writeString(int field, String value) {
+            writeBytes(field, value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void writeBytes(int field, byte[] value) {
+            writeTag(field, LENGTH_DELIMITED);
+            writeRawVarint(value.length);
+            ensure(value.length);
+            System.arraycopy(value, 0, buffer, size, value.length);
+            size += value.length;
+        }
+
+        void writeFixed64(long value) {
+            ensure(8);
+            for (int i = 0; i < 8; i++) {
+                buffer[size++] = (byte) (value >>> (8 * i));
+            }
+        }
+
+        void writeRawVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+}
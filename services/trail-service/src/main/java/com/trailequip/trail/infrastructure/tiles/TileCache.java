@@ -0,0 +1,214 @@
+package com.trailequip.trail.infrastructure.tiles;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Two-level cache for encoded vector tiles: a bounded in-memory LRU in front of a
+ * directory of {z}/{x}/{y}.mvt files that keeps tiles evicted from memory.
+ *
+ * Invalidation is per tile: a changed trail evicts only the tiles its bounds touch,
+ * at every zoom. A generation counter lets callers discard tiles rendered from data
+ * that changed while they were rendering.
+ */
+@Slf4j
+@Component
+public class TileCache {
+
+    private static final double INVALIDATION_BUFFER = (double) MvtTileBuilder.BUFFER / MvtTileBuilder.EXTENT;
+
+    private final int maxEntries;
+    private final Path directory; // null disables the disk tier
+    private final Map<TileKey, byte[]> memory;
+    private final AtomicLong generation = new AtomicLong();
+
+    public TileCache(
+            @Value("${app.tiles.memory-cache-size:4096}") int maxEntries,
+            @Value("${app.tiles.cache-dir:${java.io.tmpdir}/trailequip-tiles}") String directory) {
+        this.maxEntries = maxEntries;
+        this.directory = directory == null || directory.isBlank() ? null : Path.of(directory);
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TileKey, byte[]> eldest) {
+                return size() > TileCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Current generation; pass it back to {@link #put} after rendering.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public byte[] get(TileKey key) {
+        synchronized (memory) {
+            byte[] tile = memory.get(key);
+            if (tile != null) {
+                return tile;
+            }
+        }
+
+        if (directory != null) {
+            long readAt = generation.get();
+            Path file = fileFor(key);
+            try {
+                byte[] tile = Files.readAllBytes(file);
+                synchronized (memory) {
+                    if (generation.get() != readAt) {
+                        return null; // invalidated while reading
+                    }
+                    memory.put(key, tile);
+                }
+                return tile;
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                log.warn("Failed to read cached tile {}: {}", key, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Store a rendered tile unless an invalidation happened since {@code renderedAt}.
+     */
+    public void put(TileKey key, byte[] tile, long renderedAt) {
+        synchronized (memory) {
+            if (generation.get() != renderedAt) {
+                return;
+            }
+            memory.put(key, tile);
+        }
+
+        if (directory != null) {
+            Path file = fileFor(key);
+            try {
+                Files.createDirectories(file.getParent());
+                Path temp = Files.createTempFile(file.getParent(), "tile", ".tmp");
+                Files.write(temp, tile);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                if (generation.get() != renderedAt) {
+                    // Invalidated while writing; the file may be stale
+                    deleteQuietly(file);
+                }
+            } catch (IOException e) {
+                log.warn("Failed to write cached tile {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Evict every cached tile that overlaps the given bounds, at all zoom levels.
+     */
+    public void invalidate(GeoBounds bounds) {
+        if (bounds == null) {
+            return;
+        }
+
+        invalidateInMemory(bounds);
+        if (directory != null) {
+            invalidateOnDisk(bounds);
+            // A get() that read a file just before its deletion may have put the stale tile
+            // back in memory since the first pass. The first pass is still needed: it makes
+            // a put() rendered before the change delete the file it writes after the deletes
+            invalidateInMemory(bounds);
+        }
+    }
+
+    /**
+     * Drop all cached tiles.
+     */
+    public void clear() {
+        clearMemory();
+        if (directory != null && Files.isDirectory(directory)) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.filter(path -> path.toString().endsWith(".mvt")).forEach(this::deleteQuietly);
+            } catch (IOException e) {
+                log.warn("Failed to clear tile cache directory {}: {}", directory, e.getMessage());
+            }
+            clearMemory(); // drop tiles read back from files not yet deleted, as in invalidate
+        }
+    }
+
+    public int memorySize() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private void invalidateInMemory(GeoBounds bounds) {
+        synchronized (memory) {
+            generation.incrementAndGet();
+            Iterator<TileKey> keys = memory.keySet().iterator();
+            while (keys.hasNext()) {
+                if (GeoBounds.of(keys.next(), INVALIDATION_BUFFER).intersects(bounds)) {
+                    keys.remove();
+                }
+            }
+        }
+    }
+
+    private void clearMemory() {
+        synchronized (memory) {
+            generation.incrementAndGet();
+            memory.clear();
+        }
+    }
+
+    private void invalidateOnDisk(GeoBounds bounds) {
+        // Only zoom and column directories that exist are visited, so untouched zooms cost nothing
+        for (int z = 0; z <= TileKey.MAX_ZOOM; z++) {
+            Path zoomDir = directory.resolve(Integer.toString(z));
+            if (!Files.isDirectory(zoomDir)) {
+                continue;
+            }
+            int max = (1 << z) - 1;
+            int minX = clamp((int) Math.floor(TileKey.lonToTileX(bounds.west(), z) - INVALIDATION_BUFFER), max);
+            int maxX = clamp((int) Math.floor(TileKey.lonToTileX(bounds.east(), z) + INVALIDATION_BUFFER), max);
+            int minY = clamp((int) Math.floor(TileKey.latToTileY(bounds.north(), z) - INVALIDATION_BUFFER), max);
+            int maxY = clamp((int) Math.floor(TileKey.latToTileY(bounds.south(), z) + INVALIDATION_BUFFER), max);
+            for (int x = minX; x <= maxX; x++) {
+                Path columnDir = zoomDir.resolve(Integer.toString(x));
+                if (!Files.isDirectory(columnDir)) {
+                    continue;
+                }
+                for (int y = minY; y <= maxY; y++) {
+                    deleteQuietly(columnDir.resolve(y + ".mvt"));
+                }
+            }
+        }
+    }
+
+    private Path fileFor(TileKey key) {
+        return directory
+                .resolve(Integer.toString(key.z()))
+                .resolve(Integer.toString(key.x()))
+                .resolve(key.y() + ".mvt");
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete cached tile {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(max, value));
+    }
+}
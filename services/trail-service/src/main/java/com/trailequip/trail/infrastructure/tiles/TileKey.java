@@ -0,0 +1,40 @@
+package com.trailequip.trail.infrastructure.tiles;
+
+/**
+ * Web Mercator (XYZ / slippy map) tile address.
+ */
+public record TileKey(int z, int x, int y) {
+
+    public static final int MAX_ZOOM = 22;
+
+    public TileKey {
+        if (z < 0 || z > MAX_ZOOM || x < 0 || y < 0 || x >= (1 << z) || y >= (1 << z)) {
+            throw new IllegalArgumentException("Invalid tile " + z + "/" + x + "/" + y);
+        }
+    }
+
+    public static boolean isValid(int z, int x, int y) {
+        return z >= 0 && z <= MAX_ZOOM && x >= 0 && y >= 0 && x < (1 << z) && y < (1 << z);
+    }
+
+    /**
+     * Longitude as a fractional tile column at zoom z.
+     */
+    public static double lonToTileX(double lon, int z) {
+        return (lon + 180.0) / 360.0 * (1 << z);
+    }
+
+    /**
+     * Latitude as a fractional tile row at zoom z (row 0 at the north edge).
+     */
+    public static double latToTileY(double lat, int z) {
+        double clamped = Math.max(-85.05112878, Math.min(85.05112878, lat));
+        double rad = Math.toRadians(clamped);
+        return (1 - Math.log(Math.tan(rad) + 1 / Math.cos(rad)) / Math.PI) / 2 * (1 << z);
+    }
+
+    @Override
+    public String toString() {
+        return z + "/" + x + "/" + y;
+    }
+}
@@ -0,0 +1,64 @@
+package com.trailequip.trail.adapter.dto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.Trail;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for TrailFields.
+ * Tests parsing, validation and how a selection shapes the TrailDto.
+ */
+class TrailFieldsTest {
+
+    @Test
+    void shouldSelectEverythingWithoutParameter() {
+        assertTrue(TrailFields.parse(null).isAll());
+        assertTrue(TrailFields.parse(" ").isAll());
+        assertFalse(TrailFields.ALL.isColumnsOnly());
+        assertTrue(TrailFields.ALL.includes("waypoints"));
+    }
+
+    @Test
+    void shouldAlwaysIncludeId() {
+        TrailFields fields = TrailFields.parse("name, distance,");
+
+        assertEquals(Set.of("id", "name", "distance"), fields.getNames());
+        assertTrue(fields.isColumnsOnly());
+        assertFalse(fields.includes("description"));
+    }
+
+    @Test
+    void shouldNeedEntitiesForAssociations() {
+        assertFalse(TrailFields.parse("name,waypoints").isColumnsOnly());
+        assertFalse(TrailFields.parse("terrain").isColumnsOnly());
+    }
+
+    @Test
+    void shouldRejectUnknownFields() {
+        assertFalse(TrailFields.isValid("name,segments"));
+        assertTrue(TrailFields.isValid("name,marking"));
+        assertThrows(IllegalArgumentException.class, () -> TrailFields.parse("geometry"));
+    }
+
+    @Test
+    void shouldLeaveUnselectedFieldsUnset() {
+        Trail trail = new Trail(null, "Omu Peak Loop", "01MN02", 12.5, Difficulty.MEDIUM, null);
+        trail.setId(UUID.randomUUID());
+        trail.setDescription("Long description");
+        trail.setTerrain(List.of("forest"));
+
+        TrailDto dto = TrailDto.fromDomain(trail, TrailFields.parse("name,difficulty"));
+
+        assertEquals(trail.getId(), dto.getId());
+        assertEquals("Omu Peak Loop", dto.getName());
+        assertEquals(Difficulty.MEDIUM, dto.getDifficulty());
+        assertNull(dto.getDescription());
+        assertNull(dto.getTerrain());
+        assertNull(dto.getDistance());
+    }
+}
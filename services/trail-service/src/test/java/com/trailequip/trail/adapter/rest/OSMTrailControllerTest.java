@@ -0,0 +1,143 @@
+package com.trailequip.trail.adapter.rest;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.trailequip.trail.application.service.OSMIngestionService;
+import com.trailequip.trail.application.service.TrailExportCache;
+import com.trailequip.trail.application.service.TrailFlatGeobufCatalog;
+import com.trailequip.trail.application.service.TrailSearchService;
+import com.trailequip.trail.application.service.TrailStreamingExportService;
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.GeometryLevel;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Web layer tests for OSMTrailController.
+ * Tests cached single-trail exports (ETags, 304 responses, gzip negotiation) and
+ * range requests against the FlatGeobuf catalog.
+ */
+@WebMvcTest(OSMTrailController.class)
+public class OSMTrailControllerTest {
+
+    private static final byte[] GEOJSON = "{\"type\":\"Feature\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] GEOJSON_GZIP = {0x1f, (byte) 0x8b, 8, 0};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private OSMIngestionService osmIngestionService;
+
+    @MockBean
+    private TrailSearchService trailSearchService;
+
+    @MockBean
+    private TrailStreamingExportService trailStreamingExportService;
+
+    @MockBean
+    private TrailExportCache trailExportCache;
+
+    @MockBean
+    private TrailFlatGeobufCatalog trailFlatGeobufCatalog;
+
+    @MockBean
+    private TrailRepository trailRepository;
+
+    @TempDir
+    Path tempDir;
+
+    private UUID trailId;
+    private Trail trail;
+
+    @BeforeEach
+    public void setup() {
+        trailId = UUID.randomUUID();
+        trail = new Trail(null, "Omu Peak Loop", null, 12.5, Difficulty.MEDIUM, null);
+        trail.setId(trailId);
+        when(trailRepository.findById(trailId)).thenReturn(Optional.of(trail));
+        when(trailExportCache.get(eq(trail), eq(TrailExportCache.Format.GEOJSON), any(), anyInt()))
+                .thenReturn(new TrailExportCache.Artifact(GEOJSON, GEOJSON_GZIP, "\"abc\"", "\"abc-gz\""));
+    }
+
+    @Test
+    public void testExportGeoJSONWithETag() throws Exception {
+        mockMvc.perform(get("/api/v1/osm/trails/" + trailId + "/geojson").param("zoom", "9"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(GEOJSON));
+
+        verify(trailExportCache).get(trail, TrailExportCache.Format.GEOJSON, GeometryLevel.OVERVIEW, 6);
+    }
+
+    @Test
+    public void testExportGeoJSONGzipped() throws Exception {
+        mockMvc.perform(get("/api/v1/osm/trails/" + trailId + "/geojson")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc-gz\""))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(content().bytes(GEOJSON_GZIP));
+    }
+
+    @Test
+    public void testExportGeoJSONNotModified() throws Exception {
+        mockMvc.perform(get("/api/v1/osm/trails/" + trailId + "/geojson")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"old\", W/\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""));
+    }
+
+    @Test
+    public void testExportGeoJSONInvalidPrecision() throws Exception {
+        mockMvc.perform(get("/api/v1/osm/trails/" + trailId + "/geojson").param("precision", "9"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testExportUnknownTrail() throws Exception {
+        mockMvc.perform(get("/api/v1/osm/trails/" + UUID.randomUUID() + "/gpx")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testExportFlatGeobufCatalogRange() throws Exception {
+        byte[] content = "fgb\u0003fgb\u0000header".getBytes(StandardCharsets.UTF_8);
+        Path file = Files.write(tempDir.resolve("trails.fgb"), content);
+        when(trailFlatGeobufCatalog.current())
+                .thenReturn(new TrailFlatGeobufCatalog.Snapshot(file, "\"fgb-1\"", Instant.now(), 0));
+
+        mockMvc.perform(get("/api/v1/osm/trails/all/fgb").header(HttpHeaders.RANGE, "bytes=8-13"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"fgb-1\""))
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 8-13/14"))
+                .andExpect(content().string("header"));
+    }
+
+    @Test
+    public void testExportFlatGeobufCatalogBuildFailure() throws Exception {
+        when(trailFlatGeobufCatalog.current()).thenThrow(new IOException("disk full"));
+
+        mockMvc.perform(get("/api/v1/osm/trails/all/fgb")).andExpect(status().isInternalServerError());
+    }
+}
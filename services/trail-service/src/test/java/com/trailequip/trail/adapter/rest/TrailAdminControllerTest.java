@@ -0,0 +1,104 @@
+package com.trailequip.trail.adapter.rest;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.trailequip.trail.application.service.TrailReclassificationService;
+import com.trailequip.trail.application.service.TrailReclassificationService.JobStatus;
+import com.trailequip.trail.application.service.TrailReclassificationService.State;
+import com.trailequip.trail.application.service.TrailSnapshotService;
+import com.trailequip.trail.infrastructure.snapshot.TrailSnapshot;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Web layer tests for TrailAdminController.
+ * Tests starting a reclassification, rejecting a second one and reading its progress,
+ * and writing the edge snapshot.
+ */
+@WebMvcTest(TrailAdminController.class)
+public class TrailAdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TrailReclassificationService trailReclassificationService;
+
+    @MockBean
+    private TrailSnapshotService trailSnapshotService;
+
+    @Test
+    public void testStartReclassification() throws Exception {
+        when(trailReclassificationService.start("openstreetmap", true))
+                .thenReturn(Optional.of(status(State.RUNNING, 0, Map.of())));
+
+        mockMvc.perform(post("/api/v1/admin/trails/reclassify")
+                        .param("source", "openstreetmap")
+                        .param("dryRun", "true"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andExpect(jsonPath("$.dryRun").value(true));
+    }
+
+    @Test
+    public void testRejectConcurrentReclassification() throws Exception {
+        when(trailReclassificationService.start(null, false)).thenReturn(Optional.empty());
+        when(trailReclassificationService.getStatus())
+                .thenReturn(Optional.of(status(State.RUNNING, 1200, Map.of())));
+
+        mockMvc.perform(post("/api/v1/admin/trails/reclassify"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.processed").value(1200));
+    }
+
+    @Test
+    public void testGetReclassificationStatus() throws Exception {
+        when(trailReclassificationService.getStatus())
+                .thenReturn(Optional.of(status(State.COMPLETED, 5000, Map.of("HARD->MEDIUM", 42L))));
+
+        mockMvc.perform(get("/api/v1/admin/trails/reclassify"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("COMPLETED"))
+                .andExpect(jsonPath("$.difficultyTransitions['HARD->MEDIUM']").value(42));
+    }
+
+    @Test
+    public void testGetReclassificationStatusBeforeFirstRun() throws Exception {
+        when(trailReclassificationService.getStatus()).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/v1/admin/trails/reclassify")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testWriteSnapshot() throws Exception {
+        when(trailSnapshotService.writeSnapshot())
+                .thenReturn(new TrailSnapshot.Metadata(
+                        TrailSnapshot.FORMAT_VERSION, Instant.parse("2026-10-01T06:00:00Z"), 5000, 12, 48_000_000L));
+
+        mockMvc.perform(post("/api/v1/admin/trails/snapshot"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.formatVersion").value(TrailSnapshot.FORMAT_VERSION))
+                .andExpect(jsonPath("$.trails").value(5000));
+    }
+
+    @Test
+    public void testWriteSnapshotFailure() throws Exception {
+        when(trailSnapshotService.writeSnapshot()).thenThrow(new IOException("No space left on device"));
+
+        mockMvc.perform(post("/api/v1/admin/trails/snapshot")).andExpect(status().isInternalServerError());
+    }
+
+    private static JobStatus status(State state, long processed, Map<String, Long> transitions) {
+        return new JobStatus(
+                state, null, true, Instant.now(), null, 5000, processed, 42, 42, 0, 0, transitions, null);
+    }
+}
@@ -0,0 +1,84 @@
+package com.trailequip.trail.adapter.rest;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.trailequip.trail.application.service.TrailBootstrapService;
+import com.trailequip.trail.application.service.TrailBootstrapService.ImportResult;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Web layer tests for TrailBootstrapController.
+ * Tests importing an archive, refusing to overwrite stored trails, rejecting bad archives
+ * and reporting database failures.
+ */
+@WebMvcTest(TrailBootstrapController.class)
+public class TrailBootstrapControllerTest {
+
+    private static final byte[] ARCHIVE = {'P', 'K', 3, 4};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TrailBootstrapService trailBootstrapService;
+
+    @Test
+    public void testImportTables() throws Exception {
+        when(trailBootstrapService.importArchive(any(InputStream.class), eq(true)))
+                .thenReturn(new ImportResult(Map.of("trails", 100_000L), 7, 4200));
+
+        mockMvc.perform(post("/api/v1/admin/trails/bootstrap")
+                        .param("replace", "true")
+                        .contentType("application/zip")
+                        .content(ARCHIVE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows.trails").value(100_000))
+                .andExpect(jsonPath("$.indexesRebuilt").value(7));
+    }
+
+    @Test
+    public void testImportIntoStoredCatalog() throws Exception {
+        when(trailBootstrapService.importArchive(any(InputStream.class), eq(false)))
+                .thenThrow(new IllegalStateException("Table trails is not empty"));
+
+        mockMvc.perform(post("/api/v1/admin/trails/bootstrap")
+                        .contentType("application/zip")
+                        .content(ARCHIVE))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void testImportMalformedArchive() throws Exception {
+        when(trailBootstrapService.importArchive(any(InputStream.class), eq(false)))
+                .thenThrow(new IOException("Not a trail COPY archive"));
+
+        mockMvc.perform(post("/api/v1/admin/trails/bootstrap")
+                        .contentType("application/zip")
+                        .content(ARCHIVE))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testImportDatabaseFailure() throws Exception {
+        when(trailBootstrapService.importArchive(any(InputStream.class), eq(true)))
+                .thenThrow(new SQLException("could not extend file"));
+
+        mockMvc.perform(post("/api/v1/admin/trails/bootstrap")
+                        .param("replace", "true")
+                        .contentType("application/zip")
+                        .content(ARCHIVE))
+                .andExpect(status().isInternalServerError());
+    }
+}
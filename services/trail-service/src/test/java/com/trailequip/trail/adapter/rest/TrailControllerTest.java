@@ -1,17 +1,41 @@
 package com.trailequip.trail.adapter.rest;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.trailequip.trail.application.service.TrailApplicationService;
+import com.trailequip.trail.application.service.TrailAutocompleteService;
+import com.trailequip.trail.application.service.TrailBulkService;
+import com.trailequip.trail.application.service.TrailBulkService.BulkResult;
+import com.trailequip.trail.application.service.TrailBulkService.ItemResult;
+import com.trailequip.trail.application.service.TrailBulkService.Status;
+import com.trailequip.trail.application.service.TrailFilterService;
+import com.trailequip.trail.application.service.TrailTileService;
 import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.Hazard;
+import com.trailequip.trail.domain.model.Terrain;
 import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailFacets;
+import com.trailequip.trail.domain.model.TrailFilter;
+import com.trailequip.trail.domain.model.TrailSort;
+import com.trailequip.trail.infrastructure.search.AutocompleteIndex;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,6 +54,18 @@ public class TrailControllerTest {
     @MockBean
     private TrailApplicationService trailApplicationService;
 
+    @MockBean
+    private TrailAutocompleteService trailAutocompleteService;
+
+    @MockBean
+    private TrailTileService trailTileService;
+
+    @MockBean
+    private TrailBulkService trailBulkService;
+
+    @MockBean
+    private TrailFilterService trailFilterService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -68,6 +104,156 @@ public class TrailControllerTest {
         verify(trailApplicationService, times(1)).getAllTrails();
     }
 
+    @Test
+    public void testGetAllTrailsWithColumnFieldsSkipsEntities() throws Exception {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", trailId);
+        row.put("name", "Omu Peak Loop");
+        row.put("distance", 12.5);
+        when(trailApplicationService.getTrailAttributes(anyCollection(), eq("MEDIUM"), isNull()))
+                .thenReturn(List.of(row));
+
+        mockMvc.perform(get("/api/v1/trails")
+                        .param("difficulty", "MEDIUM")
+                        .param("fields", "name,distance")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(trailId.toString()))
+                .andExpect(jsonPath("$[0].name").value("Omu Peak Loop"))
+                .andExpect(jsonPath("$[0].difficulty").doesNotExist());
+
+        verify(trailApplicationService).getTrailAttributes(Set.of("id", "name", "distance"), "MEDIUM", null);
+        verify(trailApplicationService, never()).getTrailsByDifficulty(any());
+    }
+
+    @Test
+    public void testGetTrailByIdWithFields() throws Exception {
+        when(trailApplicationService.getTrail(trailId)).thenReturn(Optional.of(sampleTrail));
+
+        mockMvc.perform(get("/api/v1/trails/" + trailId).param("fields", "name,terrain"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Omu Peak Loop"))
+                .andExpect(jsonPath("$.terrain", hasSize(3)))
+                .andExpect(jsonPath("$.description").doesNotExist())
+                .andExpect(jsonPath("$.hazards").doesNotExist());
+    }
+
+    @Test
+    public void testGetAllTrailsWithUnknownField() throws Exception {
+        mockMvc.perform(get("/api/v1/trails").param("fields", "name,geometry"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetTrailsBatch() throws Exception {
+        UUID missing = UUID.randomUUID();
+        List<UUID> ids = List.of(trailId, missing);
+        when(trailApplicationService.getTrails(ids)).thenReturn(List.of(sampleTrail));
+
+        mockMvc.perform(post("/api/v1/trails/batch")
+                        .param("fields", "name,hazards")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(trailId.toString()))
+                .andExpect(jsonPath("$[0].hazards", hasSize(2)))
+                .andExpect(jsonPath("$[0].distance").doesNotExist());
+    }
+
+    @Test
+    public void testGetTrailsBatchWithColumnFields() throws Exception {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", trailId);
+        row.put("name", "Omu Peak Loop");
+        when(trailApplicationService.getTrailAttributes(Set.of("id", "name"), List.of(trailId)))
+                .thenReturn(List.of(row));
+
+        mockMvc.perform(post("/api/v1/trails/batch")
+                        .param("fields", "name")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(trailId))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Omu Peak Loop"));
+
+        verify(trailApplicationService, never()).getTrails(any());
+    }
+
+    @Test
+    public void testGetTrailsBatchTooLarge() throws Exception {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i <= TrailApplicationService.MAX_BATCH_SIZE; i++) {
+            ids.add(UUID.randomUUID());
+        }
+
+        mockMvc.perform(post("/api/v1/trails/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testCreateTrailsInBulk() throws Exception {
+        BulkResult result = new BulkResult(
+                1,
+                1,
+                List.of(
+                        new ItemResult(0, trailId, Status.CREATED, null),
+                        new ItemResult(1, null, Status.FAILED, "Trail name is required")));
+        when(trailBulkService.createTrails(anyList())).thenReturn(result);
+
+        mockMvc.perform(post("/api/v1/trails/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(sampleTrail, new Trail()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(trailId.toString()))
+                .andExpect(jsonPath("$.items[1].status").value("FAILED"))
+                .andExpect(jsonPath("$.items[1].error").value("Trail name is required"));
+    }
+
+    @Test
+    public void testUpdateTrailsInBulk() throws Exception {
+        when(trailBulkService.updateTrails(anyList()))
+                .thenReturn(new BulkResult(1, 0, List.of(new ItemResult(0, trailId, Status.UPDATED, null))));
+
+        mockMvc.perform(put("/api/v1/trails/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(sampleTrail))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].status").value("UPDATED"));
+
+        verify(trailApplicationService, never()).updateTrail(any());
+    }
+
+    @Test
+    public void testBulkRequestTooLarge() throws Exception {
+        List<Trail> trails = new ArrayList<>();
+        for (int i = 0; i <= TrailBulkService.MAX_BULK_SIZE; i++) {
+            trails.add(new Trail());
+        }
+
+        mockMvc.perform(post("/api/v1/trails/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(trails)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(trailBulkService);
+    }
+
+    @Test
+    public void testBulkRequestWithUnknownTerrain() throws Exception {
+        String body = "[{\"name\":\"Omu Peak Loop\",\"distance\":12.5,\"terrain\":[\"forest\",\"glacier\"]}]";
+
+        mockMvc.perform(post("/api/v1/trails/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(trailBulkService);
+    }
+
     @Test
     public void testGetTrailById() throws Exception {
         when(trailApplicationService.getTrail(trailId)).thenReturn(Optional.of(sampleTrail));
@@ -149,6 +335,28 @@ public class TrailControllerTest {
         verify(trailApplicationService, times(1)).createTrail(any(Trail.class));
     }
 
+    @Test
+    public void testCreateTrailWithUnknownHazard() throws Exception {
+        String body = "{\"name\":\"Omu Peak Loop\",\"distance\":12.5,\"hazards\":[\"exposure\",\"avalanche\"]}";
+
+        mockMvc.perform(post("/api/v1/trails")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+
+        verify(trailApplicationService, never()).createTrail(any());
+    }
+
+    @Test
+    public void testUpdateTrailWithUnknownTerrain() throws Exception {
+        mockMvc.perform(put("/api/v1/trails/{id}", trailId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"terrain\":[\"Glacier\"]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(trailApplicationService, never()).updateTrail(any());
+    }
+
     @Test
     public void testDeleteTrail() throws Exception {
         doNothing().when(trailApplicationService).deleteTrail(trailId);
@@ -218,4 +426,111 @@ public class TrailControllerTest {
 
         verify(trailApplicationService, times(1)).createTrail(any(Trail.class));
     }
+
+    @Test
+    public void testAutocomplete() throws Exception {
+        when(trailAutocompleteService.complete("varf", 5))
+                .thenReturn(List.of(new AutocompleteIndex.Suggestion("Vârful Omu", "PEAK", trailId)));
+
+        mockMvc.perform(get("/api/v1/trails/autocomplete").param("q", "varf").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].text").value("Vârful Omu"))
+                .andExpect(jsonPath("$[0].type").value("PEAK"));
+
+        verify(trailAutocompleteService, times(1)).complete("varf", 5);
+    }
+
+    @Test
+    public void testGetTile() throws Exception {
+        byte[] tile = {0x1A, 0x02, 0x78, 0x02};
+        when(trailTileService.isValidTile(12, 2300, 1480)).thenReturn(true);
+        when(trailTileService.getTile(12, 2300, 1480)).thenReturn(tile);
+
+        mockMvc.perform(get("/api/v1/trails/tiles/12/2300/1480.mvt"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/vnd.mapbox-vector-tile"))
+                .andExpect(content().bytes(tile));
+    }
+
+    @Test
+    public void testGetEmptyTile() throws Exception {
+        when(trailTileService.isValidTile(3, 1, 1)).thenReturn(true);
+        when(trailTileService.getTile(3, 1, 1)).thenReturn(new byte[0]);
+
+        mockMvc.perform(get("/api/v1/trails/tiles/3/1/1.mvt")).andExpect(status().isNoContent());
+    }
+
+    @Test
+    public void testGetTileOutOfRange() throws Exception {
+        when(trailTileService.isValidTile(2, 9, 0)).thenReturn(false);
+
+        mockMvc.perform(get("/api/v1/trails/tiles/2/9/0.mvt")).andExpect(status().isBadRequest());
+
+        verify(trailTileService, never()).getTile(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testFilterTrails() throws Exception {
+        sampleTrail.setId(trailId);
+        Map<Difficulty, Long> difficulties = new EnumMap<>(Difficulty.class);
+        difficulties.put(Difficulty.EASY, 4L);
+        difficulties.put(Difficulty.MEDIUM, 1L);
+        Map<Terrain, Long> terrain = new EnumMap<>(Terrain.class);
+        terrain.put(Terrain.FOREST, 1L);
+        TrailFacets facets = new TrailFacets(1, difficulties, terrain);
+        when(trailFilterService.filter(any(TrailFilter.class), any(TrailSort.class), eq(0), eq(20)))
+                .thenReturn(new TrailFilterService.Result(List.of(trailId), facets, 0, 20));
+        when(trailApplicationService.getTrails(List.of(trailId))).thenReturn(List.of(sampleTrail));
+
+        mockMvc.perform(get("/api/v1/trails/filter")
+                        .param("maxDistance", "15")
+                        .param("difficulty", "easy,MEDIUM")
+                        .param("terrain", "forest")
+                        .param("excludeTerrain", "scramble")
+                        .param("excludeHazards", "bears")
+                        .param("sort", "-distance"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.trails", hasSize(1)))
+                .andExpect(jsonPath("$.trails[0].name").value("Omu Peak Loop"))
+                .andExpect(jsonPath("$.facets.difficulty.EASY").value(4))
+                .andExpect(jsonPath("$.facets.terrain.forest").value(1));
+
+        verify(trailFilterService)
+                .filter(
+                        eq(new TrailFilter(
+                                null,
+                                15.0,
+                                null,
+                                null,
+                                null,
+                                null,
+                                null,
+                                null,
+                                Set.of(Difficulty.EASY, Difficulty.MEDIUM),
+                                Set.of(Terrain.FOREST),
+                                Set.of(Terrain.SCRAMBLE),
+                                Set.of(),
+                                Set.of(Hazard.BEARS),
+                                null)),
+                        eq(new TrailSort(TrailSort.Field.DISTANCE, true)),
+                        eq(0),
+                        eq(20));
+    }
+
+    @Test
+    public void testFilterTrailsRejectsUnknownTerrain() throws Exception {
+        mockMvc.perform(get("/api/v1/trails/filter").param("excludeTerrain", "glacier"))
+                .andExpect(status().isBadRequest());
+
+        verify(trailFilterService, never()).filter(any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testFilterTrailsRejectsUnknownSort() throws Exception {
+        mockMvc.perform(get("/api/v1/trails/filter").param("sort", "-ref")).andExpect(status().isBadRequest());
+
+        verify(trailFilterService, never()).filter(any(), any(), anyInt(), anyInt());
+    }
 }
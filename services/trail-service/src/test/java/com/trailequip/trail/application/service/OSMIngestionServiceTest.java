@@ -36,7 +36,7 @@ class OSMIngestionServiceTest {
 
     @BeforeEach
     void setUp() {
-        trailNormalizer = new TrailNormalizer();
+        trailNormalizer = new TrailNormalizer(TrailMarkingRegistry.detached());
         ingestionService = new OSMIngestionService(overpassApiClient, trailNormalizer, trailRepository);
     }
 
@@ -0,0 +1,140 @@
+package com.trailequip.trail.application.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailSummary;
+import com.trailequip.trail.domain.model.TrailVersion;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.domain.service.DifficultyClassifier;
+import com.trailequip.trail.infrastructure.catalog.TrailCatalog;
+import com.trailequip.trail.infrastructure.tiles.GeoBounds;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for TrailApplicationService.
+ * Tests batch lookups: request order, unknown and repeated ids, column projections, and area
+ * suggestions from the trail catalog and, without it, from stored bounds.
+ */
+@ExtendWith(MockitoExtension.class)
+class TrailApplicationServiceTest {
+
+    @Mock
+    private TrailRepository trailRepository;
+
+    @Mock
+    private DifficultyClassifier difficultyClassifier;
+
+    @Mock
+    private TrailMarkingRegistry markingRegistry;
+
+    @Mock
+    private TrailCatalogService trailCatalogService;
+
+    @Mock
+    private TrailGeometryService trailGeometryService;
+
+    private TrailApplicationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TrailApplicationService(
+                trailRepository, difficultyClassifier, markingRegistry, trailCatalogService, trailGeometryService);
+    }
+
+    @Test
+    void shouldReturnBatchInRequestOrder() {
+        Trail first = trail("Omu Loop");
+        Trail second = trail("Jepii Mici");
+        UUID unknown = UUID.randomUUID();
+        when(trailRepository.findAllWithDetailsByIdIn(any())).thenReturn(List.of(first, second));
+
+        List<Trail> trails = service.getTrails(List.of(second.getId(), unknown, first.getId(), second.getId()));
+
+        assertEquals(List.of(second, first), trails);
+        verify(trailRepository).findAllWithDetailsByIdIn(Set.of(second.getId(), unknown, first.getId()));
+    }
+
+    @Test
+    void shouldOrderProjectedRowsLikeRequest() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(trailRepository.findAttributesByIds(any(), any()))
+                .thenReturn(List.of(Map.of("id", first, "name", "A"), Map.of("id", second, "name", "B")));
+
+        List<Map<String, Object>> rows = service.getTrailAttributes(Set.of("id", "name"), List.of(second, first));
+
+        assertEquals("B", rows.get(0).get("name"));
+        assertEquals("A", rows.get(1).get("name"));
+    }
+
+    @Test
+    void shouldSuggestTrailsWhoseBoundsReachTheArea() {
+        UUID near = UUID.randomUUID();
+        UUID far = UUID.randomUUID();
+        TrailCatalog catalog = TrailCatalog.build(List.of(
+                entry(near, "Omu Loop", new GeoBounds(25.40, 45.40, 25.50, 45.45)),
+                entry(far, "Piatra Craiului", new GeoBounds(25.20, 45.50, 25.25, 45.58))));
+        when(trailCatalogService.current()).thenReturn(Optional.of(catalog));
+
+        List<Map<String, Object>> rows =
+                service.getTrailAttributesInArea(List.of("id", "name"), 45.42, 25.56, 5.0, null);
+
+        assertEquals(List.of(Map.of("id", near, "name", "Omu Loop")), rows);
+        verifyNoInteractions(trailRepository);
+    }
+
+    @Test
+    void shouldMatchAreaFromStoredBoundsWithoutCatalog() {
+        TrailSummary near = summary("Omu Loop", Difficulty.MEDIUM);
+        TrailSummary far = summary("Piatra Craiului", Difficulty.MEDIUM);
+        TrailSummary hard = summary("Jepii Mici", Difficulty.HARD);
+        Trail nearTrail = trail("Omu Loop");
+        when(trailCatalogService.current()).thenReturn(Optional.empty());
+        when(trailRepository.findAllSummaries()).thenReturn(List.of(near, far, hard));
+        when(trailGeometryService.getBounds(anyCollection()))
+                .thenReturn(Map.of(
+                        near.id(), new GeoBounds(25.40, 45.40, 25.50, 45.45),
+                        far.id(), new GeoBounds(25.20, 45.50, 25.25, 45.58)));
+        when(trailRepository.findAllWithDetailsByIdIn(any())).thenReturn(List.of(nearTrail));
+
+        List<Trail> trails = service.suggestTrailsInArea(45.42, 25.56, 5.0, "medium");
+
+        assertEquals(List.of(nearTrail), trails);
+        verify(trailRepository).findAllWithDetailsByIdIn(Set.of(near.id()));
+        // Bounds are looked up for the trails at the requested level only
+        verify(trailGeometryService)
+                .getBounds(List.of(
+                        new TrailVersion(near.id(), near.updatedAt()), new TrailVersion(far.id(), far.updatedAt())));
+        verify(trailRepository, never()).findAll();
+    }
+
+    private static TrailSummary summary(String name, Difficulty difficulty) {
+        return new TrailSummary(
+                UUID.randomUUID(), name, "manual", 8.0, 600, 180, 20.0, difficulty, Set.of(), Set.of(), Instant.EPOCH);
+    }
+
+    private static TrailCatalog.Entry entry(UUID id, String name, GeoBounds bounds) {
+        return new TrailCatalog.Entry(id, name, "manual", 8.0, 600, 180, 20.0, Difficulty.MEDIUM, 0, 0, bounds);
+    }
+
+    private Trail trail(String name) {
+        Trail trail = new Trail(null, name, null, 10.0, Difficulty.MEDIUM, null);
+        trail.setId(UUID.randomUUID());
+        return trail;
+    }
+}
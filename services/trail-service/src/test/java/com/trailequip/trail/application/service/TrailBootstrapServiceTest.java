@@ -0,0 +1,187 @@
+package com.trailequip.trail.application.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.trailequip.trail.domain.event.TrailCatalogReplacedEvent;
+import com.trailequip.trail.infrastructure.bootstrap.CopyArchive;
+import com.trailequip.trail.infrastructure.bootstrap.PostgresTableCopier;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Unit tests for TrailBootstrapService.
+ * Tests loading between dropping and restoring indexes, refusing to overwrite stored trails,
+ * rolling back on short or mismatched archives, and exporting in load order.
+ */
+@ExtendWith(MockitoExtension.class)
+class TrailBootstrapServiceTest {
+
+    private static final List<CopyArchive.Column> COLUMNS =
+            List.of(new CopyArchive.Column("id", "uuid"), new CopyArchive.Column("name", "character varying(255)"));
+    private static final long[] ROWS = {12, 3, 40, 25}; // per table, in load order
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PostgresTableCopier copier;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TrailBootstrapService service;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        service = new TrailBootstrapService(dataSource, copier, entityManagerFactory, eventPublisher, 256);
+        when(dataSource.getConnection()).thenReturn(connection);
+    }
+
+    @Test
+    void shouldLoadTablesBetweenDroppingAndRestoringIndexes() throws Exception {
+        givenSchema();
+        String createIndex = "CREATE INDEX idx_difficulty ON public.trails USING btree (difficulty)";
+        String addForeignKey = "ALTER TABLE trail_waypoints ADD CONSTRAINT fk_trail FOREIGN KEY (trail_id) ...";
+        when(copier.dropIndexes(connection, "trails")).thenReturn(List.of(createIndex));
+        when(copier.dropForeignKeys(connection, "trail_waypoints")).thenReturn(List.of(addForeignKey));
+        when(copier.copyIn(eq(connection), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(1, CopyArchive.Table.class).rows());
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+
+        TrailBootstrapService.ImportResult result = service.importArchive(archive(ROWS), false);
+
+        assertEquals(
+                Map.of("trail_markings", 12L, "trails", 3L, "trail_waypoints", 40L, "trail_segments", 25L),
+                result.rows());
+        assertEquals(1, result.indexesRebuilt());
+        InOrder order = inOrder(copier, connection, cache, eventPublisher);
+        order.verify(copier).truncate(connection, TrailBootstrapService.TABLES);
+        order.verify(copier).dropIndexes(connection, "trails");
+        for (String table : TrailBootstrapService.TABLES) {
+            order.verify(copier).copyIn(eq(connection), argThat(t -> t.name().equals(table)), any());
+        }
+        order.verify(copier).execute(connection, createIndex);
+        order.verify(copier).execute(connection, addForeignKey);
+        order.verify(copier).analyze(connection, "trails");
+        order.verify(connection).commit();
+        order.verify(cache).evictAll();
+        order.verify(eventPublisher).publishEvent(new TrailCatalogReplacedEvent(3));
+        verify(copier).setMaintenanceWorkMem(connection, 256);
+    }
+
+    @Test
+    void shouldRefuseToReplaceStoredTrailsUnlessAsked() throws Exception {
+        givenSchema();
+        when(copier.count(connection, "trail_markings")).thenReturn(0L);
+        when(copier.count(connection, "trails")).thenReturn(5000L);
+
+        assertThrows(IllegalStateException.class, () -> service.importArchive(archive(ROWS), false));
+
+        verify(connection).rollback();
+        verify(copier, never()).truncate(any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldRollBackWhenArchiveHoldsFewerRowsThanListed() throws Exception {
+        givenSchema();
+        when(copier.copyIn(eq(connection), any(), any())).thenReturn(11L);
+
+        assertThrows(IOException.class, () -> service.importArchive(archive(ROWS), true));
+
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+        verify(copier, never()).count(any(), any()); // replace skips the emptiness check
+        verifyNoInteractions(entityManagerFactory, eventPublisher);
+    }
+
+    @Test
+    void shouldRejectArchiveOfAnotherSchema() throws Exception {
+        when(copier.columns(connection, "trail_markings")).thenReturn(List.of(new CopyArchive.Column("id", "bigint")));
+
+        assertThrows(IllegalArgumentException.class, () -> service.importArchive(archive(ROWS), true));
+
+        verify(copier, never()).truncate(any(), any());
+        verify(connection).rollback();
+    }
+
+    @Test
+    void shouldExportTablesInLoadOrderFromOneSnapshot() throws Exception {
+        givenSchema();
+        for (int i = 0; i < ROWS.length; i++) {
+            when(copier.count(connection, TrailBootstrapService.TABLES.get(i))).thenReturn(ROWS[i]);
+        }
+        when(copier.copyOut(eq(connection), any(), any())).thenAnswer(invocation -> {
+            CopyArchive.Table table = invocation.getArgument(1);
+            invocation.getArgument(2, OutputStream.class).write(table.name().getBytes(StandardCharsets.UTF_8));
+            return table.rows();
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        CopyArchive.Manifest manifest = service.exportArchive(out);
+
+        assertEquals(3, manifest.rows("trails"));
+        verify(connection).setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        verify(connection).commit();
+        try (CopyArchive.Reader reader = CopyArchive.read(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(manifest, reader.manifest());
+            for (CopyArchive.Table table : manifest.tables()) {
+                assertEquals(table.name(), new String(reader.table(table).readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private void givenSchema() throws SQLException {
+        when(copier.columns(eq(connection), anyString())).thenReturn(COLUMNS);
+    }
+
+    private static InputStream archive(long... rows) throws IOException {
+        List<CopyArchive.Table> tables = new ArrayList<>();
+        for (int i = 0; i < rows.length; i++) {
+            tables.add(new CopyArchive.Table(TrailBootstrapService.TABLES.get(i), COLUMNS, rows[i]));
+        }
+        CopyArchive.Manifest manifest =
+                new CopyArchive.Manifest(CopyArchive.FORMAT_VERSION, Instant.parse("2026-10-01T06:00:00Z"), tables);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (CopyArchive.Writer writer = CopyArchive.write(bytes, manifest)) {
+            for (CopyArchive.Table table : tables) {
+                writer.table(table.name()).write(new byte[(int) table.rows()]);
+            }
+            writer.finish();
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+}
@@ -0,0 +1,160 @@
+package com.trailequip.trail.application.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import com.trailequip.trail.application.service.TrailBulkService.BulkResult;
+import com.trailequip.trail.application.service.TrailBulkService.Status;
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.domain.service.DifficultyClassifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Unit tests for TrailBulkService.
+ * Tests per-item validation, batch classification, chunked transactions and partial updates.
+ */
+@ExtendWith(MockitoExtension.class)
+class TrailBulkServiceTest {
+
+    @Mock
+    private TrailRepository trailRepository;
+
+    @Mock
+    private DifficultyClassifier difficultyClassifier;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TrailBulkService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TrailBulkService(
+                trailRepository, difficultyClassifier, TrailMarkingRegistry.detached(), transactionManager, 2);
+    }
+
+    @Test
+    void shouldCreateValidTrailsAndReportInvalidOnes() {
+        Trail valid = trail("Omu Loop", 12.0, Difficulty.MEDIUM);
+        Trail unnamed = trail(" ", 5.0, Difficulty.EASY);
+        Trail noDistance = trail("Jepii Mici", null, Difficulty.HARD);
+        when(difficultyClassifier.classifyAll(List.of())).thenReturn(List.of());
+        when(trailRepository.saveAll(anyList())).thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+
+        BulkResult result = service.createTrails(List.of(valid, unnamed, noDistance));
+
+        assertEquals(1, result.succeeded());
+        assertEquals(2, result.failed());
+        assertEquals(Status.CREATED, result.items().get(0).status());
+        assertEquals(valid.getId(), result.items().get(0).id());
+        assertEquals("Trail name is required", result.items().get(1).error());
+        assertEquals("Trail distance must be positive", result.items().get(2).error());
+        verify(trailRepository).saveAll(List.of(valid));
+    }
+
+    @Test
+    void shouldClassifyTrailsWithoutDifficultyInOneBatch() {
+        Trail first = trail("Omu Loop", 12.0, null);
+        Trail classified = trail("Jepii Mici", 6.0, Difficulty.HARD);
+        Trail second = trail("Valea Alba", 9.0, null);
+        when(difficultyClassifier.classifyAll(List.of(first, second)))
+                .thenReturn(List.of(Difficulty.EASY, Difficulty.SCRAMBLING));
+        when(trailRepository.saveAll(anyList())).thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+
+        service.createTrails(List.of(first, classified, second));
+
+        assertEquals(Difficulty.EASY, first.getDifficulty());
+        assertEquals(Difficulty.HARD, classified.getDifficulty());
+        assertEquals(Difficulty.SCRAMBLING, second.getDifficulty());
+        verify(difficultyClassifier, never()).classify(any());
+    }
+
+    @Test
+    void shouldFailOnlyTheChunkThatRolledBack() {
+        List<Trail> trails = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            trails.add(trail("Trail " + i, 10.0, Difficulty.MEDIUM));
+        }
+        when(difficultyClassifier.classifyAll(List.of())).thenReturn(List.of());
+        when(trailRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Trail> chunk = invocation.getArgument(0);
+            if (chunk.contains(trails.get(2))) {
+                throw new DataIntegrityViolationException("duplicate key value violates osm_id");
+            }
+            return assignIds(chunk);
+        });
+
+        BulkResult result = service.createTrails(trails);
+
+        verify(trailRepository, times(3)).saveAll(anyList());
+        assertEquals(3, result.succeeded());
+        assertEquals(Status.FAILED, result.items().get(2).status());
+        assertEquals(Status.FAILED, result.items().get(3).status());
+        assertNull(result.items().get(3).id());
+        assertTrue(result.items().get(3).error().contains("duplicate key"));
+        assertEquals(Status.CREATED, result.items().get(4).status());
+    }
+
+    @Test
+    void shouldPatchLoadedTrailsAndReportMissingOnes() {
+        Trail existing = trail("Omu Loop", 12.0, Difficulty.MEDIUM);
+        existing.setId(UUID.randomUUID());
+        Trail change = new Trail();
+        change.setId(existing.getId());
+        change.setDistance(14.5);
+        Trail missing = new Trail();
+        missing.setId(UUID.randomUUID());
+        when(trailRepository.findAllById(List.of(existing.getId(), missing.getId())))
+                .thenReturn(List.of(existing));
+
+        BulkResult result = service.updateTrails(List.of(change, missing));
+
+        assertEquals(14.5, existing.getDistance());
+        assertEquals("Omu Loop", existing.getName());
+        assertEquals(Status.UPDATED, result.items().get(0).status());
+        assertEquals("Trail not found", result.items().get(1).error());
+        verify(trailRepository, never()).findById(any());
+    }
+
+    @Test
+    void shouldRejectUpdatesWithoutIdOrRepeatedIds() {
+        UUID id = UUID.randomUUID();
+        Trail first = new Trail();
+        first.setId(id);
+        Trail repeated = new Trail();
+        repeated.setId(id);
+        Trail withoutId = new Trail();
+        Trail negativeSlope = new Trail();
+        negativeSlope.setId(UUID.randomUUID());
+        negativeSlope.setMaxSlope(-3.0);
+        when(trailRepository.findAllById(List.of(id))).thenReturn(List.of());
+
+        BulkResult result = service.updateTrails(List.of(first, repeated, withoutId, negativeSlope));
+
+        assertEquals("Duplicate id in request", result.items().get(1).error());
+        assertEquals("Trail id is required", result.items().get(2).error());
+        assertEquals("Max slope must not be negative", result.items().get(3).error());
+    }
+
+    private static Trail trail(String name, Double distance, Difficulty difficulty) {
+        return new Trail(null, name, null, distance, difficulty, null);
+    }
+
+    private static List<Trail> assignIds(List<Trail> trails) {
+        trails.forEach(trail -> trail.setId(UUID.randomUUID()));
+        return trails;
+    }
+}
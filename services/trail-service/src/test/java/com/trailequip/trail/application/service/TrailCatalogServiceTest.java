@@ -0,0 +1,177 @@
+package com.trailequip.trail.application.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import com.trailequip.trail.domain.event.TrailChangedEvent;
+import com.trailequip.trail.domain.event.TrailChangedEvent.ChangeType;
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailSummary;
+import com.trailequip.trail.domain.model.TrailVersion;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.infrastructure.catalog.TrailCatalog;
+import com.trailequip.trail.infrastructure.tiles.GeoBounds;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for TrailCatalogService.
+ * Tests loading from column projections, bounds from the geometry service, trail
+ * changes committed while the catalog is loading and retries after a failed load.
+ */
+@ExtendWith(MockitoExtension.class)
+class TrailCatalogServiceTest {
+
+    private static final Instant UPDATED_AT = Instant.parse("2026-06-01T08:30:00Z");
+    private static final long RETRY_DELAY_MS = 10;
+    private static final GeoBounds BUCEGI = new GeoBounds(25.40, 45.35, 25.55, 45.50);
+
+    @Mock
+    private TrailRepository trailRepository;
+
+    @Mock
+    private TrailGeometryService trailGeometryService;
+
+    private TrailCatalogService catalogService;
+
+    @BeforeEach
+    void setUp() {
+        catalogService = new TrailCatalogService(trailRepository, trailGeometryService, true, RETRY_DELAY_MS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalogService.shutdown();
+    }
+
+    @Test
+    void shouldBuildCatalogFromSummariesAndStoredBounds() {
+        TrailSummary omu = summary("Omu Loop");
+        TrailSummary jepii = summary("Jepii Mici");
+        when(trailRepository.findAllSummaries()).thenReturn(List.of(omu, jepii));
+        when(trailGeometryService.getBounds(anyCollection())).thenReturn(Map.of(omu.id(), BUCEGI));
+
+        catalogService.load();
+
+        TrailCatalog catalog = catalogService.current().orElseThrow();
+        assertEquals(2, catalog.size());
+        assertEquals(List.of(omu.id()), catalog.findIdsIntersecting(BUCEGI, null));
+        verify(trailGeometryService)
+                .getBounds(List.of(new TrailVersion(omu.id(), UPDATED_AT), new TrailVersion(jepii.id(), UPDATED_AT)));
+        verify(trailRepository, never()).findAll();
+    }
+
+    @Test
+    void shouldNotRestoreTrailDeletedWhileLoading() {
+        TrailSummary omu = summary("Omu Loop");
+        TrailSummary deleted = summary("Closed Path");
+        when(trailRepository.findAllSummaries()).thenAnswer(invocation -> {
+            // Committed after the rows were read, but applied before the load finished
+            catalogService.onTrailChanged(new TrailChangedEvent(deleted.id(), trail(deleted), ChangeType.DELETED));
+            return List.of(omu, deleted);
+        });
+        when(trailGeometryService.getBounds(anyCollection())).thenReturn(Map.of());
+
+        catalogService.load();
+
+        TrailCatalog catalog = catalogService.current().orElseThrow();
+        assertEquals(1, catalog.size());
+        assertTrue(catalog.findAttributes(Set.of("id"), List.of(deleted.id())).isEmpty());
+    }
+
+    @Test
+    void shouldKeepChangeCommittedWhileLoading() {
+        TrailSummary omu = summary("Omu Loop");
+        Trail renamed = trail(omu);
+        renamed.setName("Omu Peak Loop");
+        when(trailRepository.findAllSummaries()).thenAnswer(invocation -> {
+            catalogService.onTrailChanged(new TrailChangedEvent(omu.id(), renamed, ChangeType.UPDATED));
+            return List.of(omu);
+        });
+        when(trailGeometryService.getBounds(anyCollection())).thenReturn(Map.of());
+
+        catalogService.load();
+
+        List<Map<String, Object>> rows =
+                catalogService.current().orElseThrow().findAttributes(List.of("name"), List.of(omu.id()));
+        assertEquals("Omu Peak Loop", rows.get(0).get("name"));
+    }
+
+    @Test
+    void shouldServeFromDatabaseWhenLoadFails() {
+        when(trailRepository.findAllSummaries()).thenThrow(new IllegalStateException("connection refused"));
+
+        catalogService.load();
+
+        assertTrue(catalogService.current().isEmpty());
+    }
+
+    @Test
+    void shouldRetryLoadAfterFailure() throws InterruptedException {
+        TrailSummary omu = summary("Omu Loop");
+        when(trailRepository.findAllSummaries())
+                .thenThrow(new IllegalStateException("connection refused"))
+                .thenReturn(List.of(omu));
+        when(trailGeometryService.getBounds(anyCollection())).thenReturn(Map.of(omu.id(), BUCEGI));
+
+        catalogService.load();
+        assertTrue(catalogService.current().isEmpty());
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (catalogService.current().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(RETRY_DELAY_MS);
+        }
+        assertEquals(1, catalogService.current().orElseThrow().size());
+        verify(trailRepository, times(2)).findAllSummaries();
+    }
+
+    @Test
+    void shouldNotKeepDeletesFromBeforeLoad() {
+        TrailSummary omu = summary("Omu Loop");
+        // Deleted before the load, then restored with the same id before the rows are read
+        catalogService.onTrailChanged(new TrailChangedEvent(omu.id(), trail(omu), ChangeType.DELETED));
+        when(trailRepository.findAllSummaries()).thenReturn(List.of(omu));
+        when(trailGeometryService.getBounds(anyCollection())).thenReturn(Map.of());
+
+        catalogService.load();
+
+        assertEquals(1, catalogService.current().orElseThrow().size());
+    }
+
+    private static TrailSummary summary(String name) {
+        return new TrailSummary(
+                UUID.randomUUID(),
+                name,
+                "openstreetmap",
+                8.0,
+                450,
+                240,
+                35.0,
+                Difficulty.MEDIUM,
+                Set.of(),
+                Set.of(),
+                UPDATED_AT);
+    }
+
+    private static Trail trail(TrailSummary summary) {
+        Trail trail = new Trail();
+        trail.setId(summary.id());
+        trail.setName(summary.name());
+        trail.setSource(summary.source());
+        trail.setDistance(summary.distance());
+        trail.setDifficulty(summary.difficulty());
+        trail.setUpdatedAt(UPDATED_AT);
+        return trail;
+    }
+}
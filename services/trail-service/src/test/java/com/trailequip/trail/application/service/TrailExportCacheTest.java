@@ -0,0 +1,103 @@
+package com.trailequip.trail.application.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trailequip.trail.domain.event.TrailChangedEvent;
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.GeometryLevel;
+import com.trailequip.trail.domain.model.QuantizedCoordinates;
+import com.trailequip.trail.domain.model.Trail;
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for TrailExportCache.
+ * Tests reuse of rendered bytes, gzip variants, ETags and invalidation.
+ */
+class TrailExportCacheTest {
+
+    private TrailExportCache exportCache;
+    private Trail trail;
+
+    @BeforeEach
+    void setUp() {
+        exportCache = new TrailExportCache(new TrailExportService(new ObjectMapper()), 1 << 20);
+        trail = createTrail();
+    }
+
+    @Test
+    void shouldServeRepeatedExportsFromCache() {
+        TrailExportCache.Artifact first = geoJson(6);
+        TrailExportCache.Artifact second = geoJson(6);
+
+        assertSame(first, second);
+        assertNotSame(first, geoJson(5));
+    }
+
+    @Test
+    void shouldKeepGzipVariantWithItsOwnStrongETag() throws Exception {
+        TrailExportCache.Artifact artifact =
+                exportCache.get(trail, TrailExportCache.Format.GPX, GeometryLevel.FULL, 6);
+
+        assertTrue(artifact.hasGzip());
+        assertTrue(artifact.gzip().length < artifact.identity().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(artifact.gzip()))) {
+            assertArrayEquals(artifact.identity(), in.readAllBytes());
+        }
+        assertTrue(artifact.etag().startsWith("\"") && artifact.etag().endsWith("\""));
+        assertNotEquals(artifact.etag(), artifact.gzipEtag());
+    }
+
+    @Test
+    void shouldRenderAgainWhenTrailIsUpdated() {
+        TrailExportCache.Artifact before = geoJson(6);
+
+        trail.setName("Renamed Trail");
+        trail.setUpdatedAt(trail.getUpdatedAt().plusSeconds(60));
+        TrailExportCache.Artifact after = geoJson(6);
+
+        assertNotEquals(before.etag(), after.etag());
+    }
+
+    @Test
+    void shouldDropTrailEntriesOnCommittedChange() {
+        TrailExportCache.Artifact before = geoJson(6);
+
+        exportCache.onTrailChanged(
+                new TrailChangedEvent(trail.getId(), trail, TrailChangedEvent.ChangeType.UPDATED));
+
+        assertNotSame(before, geoJson(6));
+    }
+
+    @Test
+    void shouldIgnoreGeometryLevelForGPX() {
+        TrailExportCache.Artifact full = exportCache.get(trail, TrailExportCache.Format.GPX, GeometryLevel.FULL, 6);
+
+        assertSame(full, exportCache.get(trail, TrailExportCache.Format.GPX, GeometryLevel.OVERVIEW, 6));
+    }
+
+    private TrailExportCache.Artifact geoJson(int precision) {
+        return exportCache.get(trail, TrailExportCache.Format.GEOJSON, GeometryLevel.FULL, precision);
+    }
+
+    private Trail createTrail() {
+        Trail trail = new Trail();
+        trail.setId(UUID.randomUUID());
+        trail.setName("Omu Peak Loop");
+        trail.setDistance(12.5);
+        trail.setDifficulty(Difficulty.MEDIUM);
+        trail.setSource("openstreetmap");
+        trail.setUpdatedAt(Instant.parse("2026-06-01T10:00:00Z"));
+        QuantizedCoordinates.Builder coordinates = QuantizedCoordinates.builder(200);
+        for (int i = 0; i < 200; i++) {
+            coordinates.add(25.45 + i * 0.0001, 45.40 + i * 0.0001, 2000 + i);
+        }
+        trail.setCoordinates(coordinates.build());
+        return trail;
+    }
+}
@@ -5,11 +5,18 @@ import static org.junit.jupiter.api.Assertions.*;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.GeometryLevel;
+import com.trailequip.trail.domain.model.QuantizedCoordinates;
 import com.trailequip.trail.domain.model.Trail;
 import com.trailequip.trail.domain.model.Waypoint;
+import com.trailequip.trail.domain.service.FixedDecimalFormatter;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.locationtech.jts.geom.Coordinate;
@@ -220,6 +227,92 @@ class TrailExportServiceTest {
         assertTrue(gpx.contains("</gpx>"));
     }
 
+    @Test
+    void shouldStreamGeoJSONCollectionIdenticalToBufferedExport() throws Exception {
+        List<Trail> trails = List.of(createSimpleTrail(), createSimpleTrail());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (TrailExportService.GeoJSONCollectionWriter writer =
+                exportService.openGeoJSONCollection(out, GeometryLevel.FULL, FixedDecimalFormatter.DEFAULT_PRECISION)) {
+            for (Trail trail : trails) {
+                writer.write(trail);
+            }
+            writer.finish();
+            assertEquals(2, writer.getCount());
+        }
+
+        assertEquals(
+                objectMapper.readTree(exportService.exportAsGeoJSONCollection(trails)),
+                objectMapper.readTree(out.toByteArray()));
+    }
+
+    @Test
+    void shouldLeaveUnfinishedGeoJSONCollectionUnterminated() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (TrailExportService.GeoJSONCollectionWriter writer =
+                exportService.openGeoJSONCollection(out, GeometryLevel.FULL, FixedDecimalFormatter.DEFAULT_PRECISION)) {
+            writer.write(createSimpleTrail());
+        }
+
+        String json = out.toString(StandardCharsets.UTF_8);
+        assertTrue(json.startsWith("{\"type\":\"FeatureCollection\",\"features\":[{"));
+        assertFalse(json.endsWith("]}"));
+    }
+
+    @Test
+    void shouldStreamGPXWithoutClosingTheStream() throws Exception {
+        Trail trail = createSimpleTrail();
+        trail.setName("Creasta 'Cocoșului'");
+        AtomicBoolean closed = new AtomicBoolean();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+
+        exportService.writeGPX(trail, FixedDecimalFormatter.DEFAULT_PRECISION, out);
+
+        String gpx = out.toString(StandardCharsets.UTF_8);
+        assertFalse(closed.get());
+        assertTrue(gpx.contains("<name>Creasta &apos;Cocoșului&apos;</name>"));
+        assertEquals(3, gpx.split("<trkpt ").length - 1);
+        assertTrue(gpx.endsWith("</gpx>"));
+    }
+
+    @Test
+    void shouldStampGPXWithTrailVersionSoRendersAreIdentical() throws Exception {
+        Trail trail = createSimpleTrail();
+        trail.setUpdatedAt(Instant.parse("2026-06-01T10:00:00Z"));
+
+        String first = exportService.exportAsGPX(trail);
+        String second = exportService.exportAsGPX(trail);
+
+        assertTrue(first.contains("<time>2026-06-01T10:00:00Z</time>"));
+        assertEquals(first, second);
+    }
+
+    @Test
+    void shouldRoundCoordinatesToRequestedPrecision() throws Exception {
+        Trail trail = createSimpleTrail();
+        trail.setCoordinates(QuantizedCoordinates.builder(2)
+                .add(25.5412345, 45.3512345, 1000.25)
+                .add(25.5, 45.0, Double.NaN)
+                .build());
+
+        JsonNode coordinates = objectMapper
+                .readTree(exportService.exportAsGeoJSON(trail, GeometryLevel.FULL, 3))
+                .get("geometry")
+                .get("coordinates");
+        String gpx = exportService.exportAsGPX(trail);
+
+        assertEquals("[25.541,45.351,1000.3]", coordinates.get(0).toString());
+        assertEquals("[25.5,45]", coordinates.get(1).toString());
+        assertTrue(gpx.contains("<trkpt lat=\"45.351235\" lon=\"25.541235\"><ele>1000.3</ele></trkpt>"));
+        assertTrue(gpx.contains("<trkpt lat=\"45\" lon=\"25.5\"></trkpt>"));
+    }
+
     // Helper methods
 
     private Trail createSimpleTrail() {
@@ -0,0 +1,99 @@
+package com.trailequip.trail.application.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.TrailFacets;
+import com.trailequip.trail.domain.model.TrailFilter;
+import com.trailequip.trail.domain.model.TrailSort;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.infrastructure.catalog.TrailCatalog;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for TrailFilterService.
+ * Tests paging of matching ids, skipping the page query past the last match and serving
+ * from the in-memory catalog once it is built.
+ */
+@ExtendWith(MockitoExtension.class)
+class TrailFilterServiceTest {
+
+    private static final TrailFilter ALL =
+            new TrailFilter(null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+
+    @Mock
+    private TrailRepository trailRepository;
+
+    @Mock
+    private TrailCatalogService trailCatalogService;
+
+    private TrailFilterService filterService;
+
+    @BeforeEach
+    void setUp() {
+        filterService = new TrailFilterService(trailRepository, trailCatalogService);
+    }
+
+    @Test
+    void shouldReadPageOfMatchingIds() {
+        UUID id = UUID.randomUUID();
+        when(trailRepository.countFacets(ALL)).thenReturn(facets(45));
+        when(trailRepository.findIdsByFilter(ALL, TrailSort.DEFAULT, 40, 20)).thenReturn(List.of(id));
+
+        TrailFilterService.Result result = filterService.filter(ALL, TrailSort.DEFAULT, 2, 20);
+
+        assertEquals(List.of(id), result.ids());
+        assertEquals(45, result.facets().total());
+        assertEquals(2, result.page());
+    }
+
+    @Test
+    void shouldClampPageSize() {
+        when(trailRepository.countFacets(ALL)).thenReturn(facets(500));
+
+        TrailFilterService.Result result = filterService.filter(ALL, TrailSort.DEFAULT, -1, 1000);
+
+        assertEquals(0, result.page());
+        assertEquals(TrailFilterService.MAX_PAGE_SIZE, result.size());
+        verify(trailRepository).findIdsByFilter(ALL, TrailSort.DEFAULT, 0, TrailFilterService.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void shouldSkipPageQueryPastLastMatch() {
+        when(trailRepository.countFacets(ALL)).thenReturn(facets(10));
+
+        TrailFilterService.Result result = filterService.filter(ALL, TrailSort.DEFAULT, 1, 20);
+
+        assertTrue(result.ids().isEmpty());
+        verify(trailRepository, never()).findIdsByFilter(any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void shouldServeFromCatalogOnceBuilt() {
+        UUID id = UUID.randomUUID();
+        TrailCatalog catalog = TrailCatalog.build(List.of(new TrailCatalog.Entry(
+                id, "Jepii Mici", "manual", 6.0, 900, 180, 32.0, Difficulty.HARD, 0, 0, null)));
+        when(trailCatalogService.current()).thenReturn(Optional.of(catalog));
+
+        TrailFilterService.Result result = filterService.filter(ALL, TrailSort.DEFAULT, 0, 20);
+
+        assertEquals(List.of(id), result.ids());
+        assertEquals(1, result.facets().total());
+        verifyNoInteractions(trailRepository);
+    }
+
+    private static TrailFacets facets(long total) {
+        return new TrailFacets(total, Map.of(), Map.of());
+    }
+}
@@ -0,0 +1,113 @@
+package com.trailequip.trail.application.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.trailequip.trail.domain.model.TrailMarking;
+import com.trailequip.trail.domain.repository.TrailMarkingRepository;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Unit tests for TrailMarkingRegistry.
+ * Tests that each OSMC symbol is persisted once and shared afterwards, and that markings
+ * are read again after the trail tables were replaced.
+ */
+@ExtendWith(MockitoExtension.class)
+class TrailMarkingRegistryTest {
+
+    @Mock
+    private TrailMarkingRepository markingRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TrailMarkingRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TrailMarkingRegistry(markingRepository, transactionManager);
+    }
+
+    @Test
+    void shouldInsertNewSymbolOnlyOnce() {
+        when(markingRepository.findAll()).thenReturn(List.of());
+        when(markingRepository.save(any(TrailMarking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TrailMarking first = registry.resolve("blue:blue_stripe");
+        TrailMarking second = registry.resolve("blue:blue_stripe");
+
+        assertSame(first, second);
+        assertEquals(1, registry.size());
+        verify(markingRepository, times(1)).save(any(TrailMarking.class));
+        verify(markingRepository, times(1)).findAll();
+    }
+
+    @Test
+    void shouldReusePersistedMarkings() {
+        TrailMarking existing = TrailMarking.fromOsmcSymbol("red:red_triangle");
+        when(markingRepository.findAll()).thenReturn(List.of(existing));
+
+        assertSame(existing, registry.resolve("red:red_triangle"));
+        verify(markingRepository, never()).save(any(TrailMarking.class));
+    }
+
+    @Test
+    void shouldReadMarkingsAgainAfterCatalogReplaced() {
+        TrailMarking before = marking(1L, "red:red_triangle");
+        TrailMarking imported = marking(7L, "red:red_triangle");
+        when(markingRepository.findAll()).thenReturn(List.of(before), List.of(imported));
+        registry.resolve("red:red_triangle");
+
+        registry.reload();
+
+        assertEquals(0, registry.size());
+        assertSame(imported, registry.resolve("red:red_triangle"));
+        verify(markingRepository, times(2)).findAll();
+        verify(markingRepository, never()).save(any(TrailMarking.class));
+    }
+
+    @Test
+    void shouldResolveBlankSymbolToNoMarking() {
+        TrailMarkingRegistry detached = TrailMarkingRegistry.detached();
+
+        TrailMarking marking = detached.resolve(null);
+
+        assertEquals(TrailMarking.NO_MARKING, marking.getOsmcSymbol());
+        assertEquals(TrailMarking.MarkingShape.NONE, marking.getShape());
+        assertSame(marking, detached.resolve("  "));
+    }
+
+    @Test
+    void shouldParseColorAndShape() {
+        TrailMarking marking = TrailMarkingRegistry.detached().resolve("red:white:red_bar");
+
+        assertEquals(TrailMarking.MarkingColor.RED, marking.getColor());
+        assertEquals(TrailMarking.MarkingShape.STRIPE, marking.getShape());
+    }
+
+    @Test
+    void shouldFallBackToExistingRowOnConcurrentInsert() {
+        TrailMarking concurrent = TrailMarking.fromOsmcSymbol("yellow:yellow_cross");
+        when(markingRepository.findAll()).thenReturn(List.of());
+        when(markingRepository.save(any(TrailMarking.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(markingRepository.findByOsmcSymbol("yellow:yellow_cross")).thenReturn(Optional.of(concurrent));
+
+        assertSame(concurrent, registry.resolve("yellow:yellow_cross"));
+    }
+
+    private static TrailMarking marking(Long id, String osmcSymbol) {
+        TrailMarking marking = TrailMarking.fromOsmcSymbol(osmcSymbol);
+        marking.setId(id);
+        return marking;
+    }
+}
@@ -21,7 +21,7 @@ class TrailNormalizerTest {
 
     @BeforeEach
     void setUp() {
-        normalizer = new TrailNormalizer();
+        normalizer = new TrailNormalizer(TrailMarkingRegistry.detached());
     }
 
     @Test
@@ -0,0 +1,165 @@
+package com.trailequip.trail.application.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.trailequip.trail.application.service.TrailReclassificationService.JobStatus;
+import com.trailequip.trail.application.service.TrailReclassificationService.State;
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.Hazard;
+import com.trailequip.trail.domain.model.Terrain;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailMetrics;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.domain.service.DifficultyClassifier;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Unit tests for TrailReclassificationService.
+ * Tests change detection per source, chunked write-back of changed rows only, dry runs and the diff summary.
+ */
+@ExtendWith(MockitoExtension.class)
+class TrailReclassificationServiceTest {
+
+    @Mock
+    private TrailRepository trailRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TrailReclassificationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TrailReclassificationService(trailRepository, new DifficultyClassifier(), transactionManager, 2);
+    }
+
+    @Test
+    void shouldWriteBackOnlyChangedTrails() {
+        // 300 m gain at 8% is EASY; stored as HARD
+        TrailMetrics stale = osm("Valea Alba", 300, 8.0, 1200, Difficulty.HARD, EnumSet.of(Terrain.FOREST));
+        TrailMetrics current = osm("Jepii Mici", 300, 8.0, 1200, Difficulty.EASY, EnumSet.of(Terrain.FOREST));
+        TrailMetrics curated = curated(6.0, 200, Difficulty.EASY, Set.of(), Set.of());
+        Trail staleTrail = trail(stale.id(), Difficulty.HARD);
+        when(trailRepository.countMetrics(null)).thenReturn(3L);
+        when(trailRepository.streamMetrics(null)).thenReturn(Stream.of(stale, current, curated));
+        when(trailRepository.findAllById(Set.of(stale.id()))).thenReturn(List.of(staleTrail));
+
+        JobStatus status = service.reclassify(null, false);
+
+        assertEquals(State.COMPLETED, status.state());
+        assertEquals(3, status.total());
+        assertEquals(3, status.processed());
+        assertEquals(1, status.changed());
+        assertEquals(Map.of("HARD->EASY", 1L), status.difficultyTransitions());
+        assertEquals(Difficulty.EASY, staleTrail.getDifficulty());
+        verify(trailRepository, times(1)).findAllById(any()); // only the chunk with a change
+    }
+
+    @Test
+    void shouldRederiveTerrainAndHazardsOfOsmTrails() {
+        TrailMetrics row = osm("Creasta Bucegi", 2600, 28.0, 2450, Difficulty.ALPINE, EnumSet.of(Terrain.FOREST));
+
+        TrailReclassificationService.Change change = service.reclassifyRow(row);
+
+        assertNotNull(change);
+        assertNull(change.difficulty());
+        assertEquals(EnumSet.of(Terrain.ALPINE_MEADOW, Terrain.EXPOSED_RIDGE), change.terrain());
+        assertTrue(change.hazards().contains(Hazard.HIGH_ALTITUDE));
+        assertTrue(change.hazards().contains(Hazard.BEARS));
+    }
+
+    @Test
+    void shouldKeepCuratedTerrainAndUseItForDifficulty() {
+        TrailMetrics row =
+                curated(4.0, 200, Difficulty.EASY, EnumSet.of(Terrain.VIA_FERRATA), EnumSet.of(Hazard.EXPOSURE));
+
+        TrailReclassificationService.Change change = service.reclassifyRow(row);
+
+        assertEquals(Difficulty.SCRAMBLING, change.difficulty());
+        assertNull(change.terrain());
+        assertNull(change.hazards());
+    }
+
+    @Test
+    void shouldSkipUnchangedTrail() {
+        TrailMetrics row = new TrailMetrics(
+                UUID.randomUUID(),
+                "openstreetmap",
+                "Ridge",
+                10.0,
+                900,
+                5.0,
+                35.0,
+                2300,
+                Difficulty.HARD,
+                EnumSet.of(Terrain.EXPOSED_RIDGE, Terrain.SCRAMBLE, Terrain.ALPINE_MEADOW),
+                EnumSet.of(Hazard.STEEP_TERRAIN, Hazard.EXPOSURE));
+
+        assertNull(service.reclassifyRow(row));
+    }
+
+    @Test
+    void shouldNotWriteOnDryRun() {
+        TrailMetrics stale = osm("Valea Alba", 300, 8.0, 1200, Difficulty.HARD, Set.of());
+        when(trailRepository.streamMetrics("openstreetmap")).thenReturn(Stream.of(stale));
+
+        JobStatus status = service.reclassify("openstreetmap", true);
+
+        assertTrue(status.dryRun());
+        assertEquals(1, status.difficultyChanged());
+        assertEquals(1, status.terrainChanged());
+        verify(trailRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void shouldReportFailure() {
+        when(trailRepository.streamMetrics(null)).thenThrow(new IllegalStateException("cursor closed"));
+
+        JobStatus status = service.reclassify(null, false);
+
+        assertEquals(State.FAILED, status.state());
+        assertEquals("cursor closed", status.error());
+        assertNotNull(status.finishedAt());
+    }
+
+    private static TrailMetrics osm(
+            String name, int gain, double maxSlope, int maxElevation, Difficulty difficulty, Set<Terrain> terrain) {
+        return new TrailMetrics(
+                UUID.randomUUID(),
+                "openstreetmap",
+                name,
+                10.0,
+                gain,
+                5.0,
+                maxSlope,
+                maxElevation,
+                difficulty,
+                terrain,
+                Set.of());
+    }
+
+    private static TrailMetrics curated(
+            double distance, int gain, Difficulty difficulty, Set<Terrain> terrain, Set<Hazard> hazards) {
+        return new TrailMetrics(
+                UUID.randomUUID(), "manual", "Curated", distance, gain, 4.0, 12.0, 900, difficulty, terrain, hazards);
+    }
+
+    private static Trail trail(UUID id, Difficulty difficulty) {
+        Trail trail = new Trail(null, "Valea Alba", null, 10.0, difficulty, null);
+        trail.setId(id);
+        return trail;
+    }
+}
@@ -0,0 +1,90 @@
+package com.trailequip.trail.application.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.domain.service.DiacriticFolder;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Unit tests for TrailSearchService.
+ * Tests query folding and tsquery construction.
+ */
+@ExtendWith(MockitoExtension.class)
+class TrailSearchServiceTest {
+
+    @Mock
+    private TrailRepository trailRepository;
+
+    private TrailSearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        searchService = new TrailSearchService(trailRepository);
+    }
+
+    @Test
+    void shouldFoldRomanianDiacritics() {
+        assertEquals("varful omu", DiacriticFolder.fold("Vârful Omu"));
+        assertEquals("sesul tarcului", DiacriticFolder.fold("Șesul Țarcului"));
+        assertEquals("sesul tarcului", DiacriticFolder.fold("Şesul Ţarcului"));
+        assertEquals("piatra arsa", DiacriticFolder.fold("Piatra Arsă"));
+        assertEquals("", DiacriticFolder.fold(null));
+    }
+
+    @Test
+    void shouldBuildPrefixTsQueryFromFoldedTokens() {
+        when(trailRepository.searchRanked(any(), any(), any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(new Trail())));
+
+        Page<Trail> result = searchService.search("Vârful  Om", 0, 20);
+
+        assertEquals(1, result.getContent().size());
+        verify(trailRepository)
+                .searchRanked(eq("varful:* & om:*"), eq("varful om"), eq("%varful om%"), any(Pageable.class));
+    }
+
+    @Test
+    void shouldStripOperatorCharactersFromQuery() {
+        when(trailRepository.searchRanked(any(), any(), any(), any(Pageable.class)))
+                .thenReturn(Page.empty());
+
+        searchService.search("omu' | !%_", 0, 20);
+
+        verify(trailRepository).searchRanked(eq("omu:*"), eq("omu"), eq("%omu%"), any(Pageable.class));
+    }
+
+    @Test
+    void shouldReturnEmptyPageWithoutQueryingForBlankTokens() {
+        Page<Trail> result = searchService.search("  !! ", 0, 20);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(trailRepository);
+    }
+
+    @Test
+    void shouldClampPageSize() {
+        when(trailRepository.searchRanked(any(), any(), any(), any(Pageable.class)))
+                .thenReturn(Page.empty());
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+
+        searchService.search("omu", -1, 10_000);
+
+        verify(trailRepository).searchRanked(any(), any(), any(), pageable.capture());
+        assertEquals(0, pageable.getValue().getPageNumber());
+        assertEquals(TrailSearchService.MAX_PAGE_SIZE, pageable.getValue().getPageSize());
+    }
+}
@@ -0,0 +1,177 @@
+package com.trailequip.trail.application.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.GeometryLevel;
+import com.trailequip.trail.domain.model.QuantizedCoordinates;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.Waypoint;
+import com.trailequip.trail.domain.repository.TrailRepository;
+import com.trailequip.trail.infrastructure.flatgeobuf.FlatGeobufWriter;
+import com.trailequip.trail.infrastructure.tiles.GeoBounds;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for TrailStreamingExportService.
+ * Tests filter handling, region filtering, detaching, GPX batching and cursor cleanup
+ * for the GeoJSON, GPX archive and FlatGeobuf exports.
+ */
+@ExtendWith(MockitoExtension.class)
+class TrailStreamingExportServiceTest {
+
+    @Mock
+    private TrailRepository trailRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private TrailStreamingExportService streamingExportService;
+
+    @BeforeEach
+    void setUp() {
+        streamingExportService = new TrailStreamingExportService(
+                trailRepository, new TrailExportService(objectMapper), TrailGeometryService.detached());
+    }
+
+    @Test
+    void shouldStreamEveryTrailAndDetachIt() throws Exception {
+        Trail first = trail("Omu Loop");
+        Trail second = trail("Jepii Mici");
+        AtomicBoolean closed = new AtomicBoolean();
+        when(trailRepository.streamForExport(Difficulty.HARD, "openstreetmap"))
+                .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int count = streamingExportService.writeGeoJSONCollection("hard", "openstreetmap", GeometryLevel.FULL, 6, out);
+
+        assertEquals(2, count);
+        JsonNode root = objectMapper.readTree(out.toByteArray());
+        assertEquals("FeatureCollection", root.get("type").asText());
+        assertEquals("Jepii Mici", root.get("features").get(1).get("properties").get("name").asText());
+        verify(trailRepository).detach(first);
+        verify(trailRepository).detach(second);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void shouldWriteEmptyCollectionForUnknownDifficulty() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int count = streamingExportService.writeGeoJSONCollection("VERTICAL", null, GeometryLevel.FULL, 6, out);
+
+        assertEquals(0, count);
+        assertEquals(0, objectMapper.readTree(out.toByteArray()).get("features").size());
+        verify(trailRepository, never()).streamForExport(any(), any());
+    }
+
+    @Test
+    void shouldZipOneGPXPerTrailInsideTheRegion() throws Exception {
+        Trail bucegi = trail("Omu Loop");
+        Trail elsewhere = trail("Far Away");
+        elsewhere.setCoordinates(QuantizedCoordinates.builder(2)
+                .add(2.35, 48.85, Double.NaN)
+                .add(2.36, 48.86, Double.NaN)
+                .build());
+        when(trailRepository.streamForExport(null, null)).thenReturn(Stream.of(bucegi, elsewhere));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int count = streamingExportService.writeGPXArchive(
+                null, null, new GeoBounds(25.40, 45.35, 25.55, 45.50), 6, out);
+
+        assertEquals(1, count);
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.add(entry.getName());
+                String gpx = new String(zip.readAllBytes(), StandardCharsets.UTF_8);
+                assertTrue(gpx.contains("<name>Omu Loop</name>"));
+                assertTrue(gpx.endsWith("</gpx>"));
+            }
+        }
+        assertEquals(List.of("trail-" + bucegi.getId() + ".gpx"), entries);
+        verify(trailRepository).detach(elsewhere);
+    }
+
+    @Test
+    void shouldWriteWholeGPXBatchBeforeDetachingIt() throws Exception {
+        List<String> events = new ArrayList<>();
+        Trail first = trailWithWaypoints("Omu Loop", events);
+        Trail second = trailWithWaypoints("Jepii Mici", events);
+        when(trailRepository.streamForExport(null, null)).thenReturn(Stream.of(first, second));
+        doAnswer(invocation -> events.add("detach " + invocation.<Trail>getArgument(0).getName()))
+                .when(trailRepository)
+                .detach(any());
+
+        int count = streamingExportService.writeGPXArchive(null, null, null, 6, new ByteArrayOutputStream());
+
+        assertEquals(2, count);
+        // Both trails are still attached when their waypoints are read, so one select can load them
+        assertEquals(
+                List.of("waypoints Omu Loop", "waypoints Jepii Mici", "detach Omu Loop", "detach Jepii Mici"),
+                events);
+    }
+
+    @Test
+    void shouldWriteFlatGeobufWithEveryTrail() throws Exception {
+        Trail first = trail("Omu Loop");
+        Trail second = trail("Jepii Mici");
+        when(trailRepository.streamForExport(null, "openstreetmap")).thenReturn(Stream.of(first, second));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int count = streamingExportService.writeFlatGeobuf(null, "openstreetmap", out);
+
+        assertEquals(2, count);
+        byte[] file = out.toByteArray();
+        assertArrayEquals(FlatGeobufWriter.MAGIC, Arrays.copyOf(file, 8));
+        String content = new String(file, StandardCharsets.UTF_8);
+        assertTrue(content.contains("Omu Loop"));
+        assertTrue(content.contains("Jepii Mici"));
+        verify(trailRepository).detach(first);
+        verify(trailRepository).detach(second);
+    }
+
+    private Trail trailWithWaypoints(String name, List<String> events) {
+        Trail trail = trail(name);
+        trail.setWaypoints(new ArrayList<>() {
+            @Override
+            public Iterator<Waypoint> iterator() {
+                events.add("waypoints " + name);
+                return super.iterator();
+            }
+        });
+        return trail;
+    }
+
+    private Trail trail(String name) {
+        Trail trail = new Trail();
+        trail.setId(UUID.randomUUID());
+        trail.setName(name);
+        trail.setDistance(8.0);
+        trail.setDifficulty(Difficulty.HARD);
+        trail.setSource("openstreetmap");
+        trail.setCoordinates(QuantizedCoordinates.builder(2)
+                .add(25.46, 45.44, 2505)
+                .add(25.47, 45.45, 2400)
+                .build());
+        return trail;
+    }
+}
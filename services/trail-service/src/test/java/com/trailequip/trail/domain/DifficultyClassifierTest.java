@@ -39,7 +39,7 @@ class DifficultyClassifierTest {
     }
 
     @Test
-    void testClassifyMediumTrail() {
+    void testClassifySteepAlpineTrail() {
         Trail trail = new Trail(
                 "Omu Peak Loop",
                 "Alpine route",
@@ -54,12 +54,13 @@ class DifficultyClassifierTest {
                 List.of("exposure"),
                 "openstreetmap");
 
+        // Short and low, but an average slope over 10% rules out EASY and a 35% pitch rules out MEDIUM
         Difficulty result = classifier.classify(trail);
-        assertEquals(Difficulty.MEDIUM, result);
+        assertEquals(Difficulty.HARD, result);
     }
 
     @Test
-    void testClassifyRockClimbingTrail() {
+    void testClassifyScrambleTrail() {
         Trail trail = new Trail(
                 "Sphinx Ridge Scramble",
                 "Technical scramble",
@@ -75,6 +76,16 @@ class DifficultyClassifierTest {
                 "openstreetmap");
 
         Difficulty result = classifier.classify(trail);
-        assertEquals(Difficulty.HARD, result);
+        assertEquals(Difficulty.SCRAMBLING, result);
+    }
+
+    @Test
+    void testClassifyAllKeepsOrder() {
+        Trail easy = new Trail(
+                "Lake Walk", null, 5.0, 120, 120, 90, 9.0, 3.0, List.of("forest"), null, List.of(), "manual");
+        Trail ferrata = new Trail(
+                "Ferrata", null, 3.0, 400, 400, 180, 70.0, 30.0, List.of("via_ferrata"), null, List.of(), "manual");
+
+        assertEquals(List.of(Difficulty.SCRAMBLING, Difficulty.EASY), classifier.classifyAll(List.of(ferrata, easy)));
     }
 }
@@ -0,0 +1,85 @@
+package com.trailequip.trail.domain.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for DifficultyRules.
+ * Tests the decision table: row order, unknown metrics, excluded and technical terrain.
+ */
+class DifficultyRulesTest {
+
+    private static final double UNKNOWN = Double.NaN;
+
+    private final DifficultyRules rules = DifficultyRules.DEFAULT;
+
+    @Test
+    void shouldPickFirstLevelWithinEveryLimit() {
+        assertEquals(Difficulty.EASY, rules.classify(6.8, 150, 4.5, 12.0, 0));
+        assertEquals(Difficulty.MEDIUM, rules.classify(18.0, 900, 12.0, 25.0, 0));
+        assertEquals(Difficulty.HARD, rules.classify(12.5, 450, 12.1, 35.2, 0));
+        assertEquals(Difficulty.ALPINE, rules.classify(60.0, 2800, 18.0, 38.0, 0));
+        assertEquals(Difficulty.SCRAMBLING, rules.classify(8.0, 700, 30.0, 65.0, 0));
+    }
+
+    @Test
+    void shouldIgnoreUnknownMetrics() {
+        assertEquals(Difficulty.EASY, rules.classify(UNKNOWN, 300, UNKNOWN, 8.0, 0));
+        assertEquals(Difficulty.HARD, rules.classify(UNKNOWN, 2000, UNKNOWN, UNKNOWN, 0));
+        assertEquals(Difficulty.MEDIUM, rules.classify(UNKNOWN, UNKNOWN, UNKNOWN, UNKNOWN, 0));
+    }
+
+    @Test
+    void shouldRuleOutLevelsByTerrain() {
+        int ridge = Terrain.EXPOSED_RIDGE.bit();
+
+        assertEquals(Difficulty.EASY, rules.classify(6.8, 150, 4.5, 12.0, Terrain.FOREST.bit()));
+        assertEquals(Difficulty.MEDIUM, rules.classify(6.8, 150, 4.5, 12.0, ridge));
+    }
+
+    @Test
+    void shouldClassifyTechnicalTerrainAsScrambling() {
+        int terrain = Terrain.FOREST.bit() | Terrain.VIA_FERRATA.bit();
+
+        assertEquals(Difficulty.SCRAMBLING, rules.classify(4.0, 200, 5.0, 10.0, terrain));
+        assertEquals(Difficulty.SCRAMBLING, rules.classify(UNKNOWN, UNKNOWN, UNKNOWN, UNKNOWN, terrain));
+    }
+
+    @Test
+    void shouldClassifyTrailFields() {
+        Trail trail = new Trail(
+                "Ridge", null, 12.0, 900, 900, 300, 28.0, 14.0, List.of("Exposed_Ridge"), null, null, "manual");
+
+        assertEquals(Difficulty.MEDIUM, rules.classify(trail));
+    }
+
+    @Test
+    void shouldApplyConfiguredLimits() {
+        double[] open = DifficultyRules.parseLimits("Infinity, Infinity, Infinity, Infinity");
+        DifficultyRules strict = new DifficultyRules(
+                DifficultyRules.parseLimits("5,10,20,40"),
+                open,
+                open,
+                open,
+                Map.of(),
+                List.of(),
+                Difficulty.EASY);
+
+        assertEquals(Difficulty.HARD, strict.classify(15.0, UNKNOWN, UNKNOWN, UNKNOWN, 0));
+        assertEquals(Difficulty.SCRAMBLING, strict.classify(45.0, UNKNOWN, UNKNOWN, UNKNOWN, 0));
+        assertEquals(Difficulty.EASY, strict.classify(UNKNOWN, UNKNOWN, UNKNOWN, UNKNOWN, 0));
+    }
+
+    @Test
+    void shouldRejectLimitsNotMatchingLevels() {
+        double[] limits = DifficultyRules.parseLimits("1,2,3,4");
+        double[] tooShort = DifficultyRules.parseLimits("1,2,3");
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new DifficultyRules(tooShort, limits, limits, limits, Map.of(), List.of(), Difficulty.MEDIUM));
+    }
+}
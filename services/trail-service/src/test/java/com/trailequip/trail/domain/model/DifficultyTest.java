@@ -3,12 +3,10 @@ package com.trailequip.trail.domain.model;
 import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.params.ParameterizedTest;
-import org.junit.jupiter.params.provider.CsvSource;
 
 /**
  * Unit tests for Difficulty enum.
- * Tests difficulty inference from metrics and validation logic.
+ * Tests difficulty inference from metrics and display attributes.
  */
 class DifficultyTest {
 
@@ -55,16 +53,11 @@ class DifficultyTest {
         assertEquals(Difficulty.ALPINE, difficulty);
     }
 
-    @ParameterizedTest
-    @CsvSource({
-        "400, 9.0, true", // EASY matches
-        "600, 12.0, false", // EASY doesn't match (elevation too high)
-        "1200, 18.0, true", // MEDIUM matches
-        "1600, 25.0, true", // HARD matches
-    })
-    void shouldValidateMetricsAgainstDifficulty(int elevation, double slope, boolean shouldMatch) {
-        boolean result = Difficulty.EASY.matches(elevation, slope);
-        assertEquals(shouldMatch, result);
+    @Test
+    void shouldInferWithDefaultRuleLimits() {
+        // The EASY row of the default table allows pitches up to 20%
+        assertEquals(Difficulty.EASY, Difficulty.inferFromMetrics(500, 20.0));
+        assertEquals(Difficulty.MEDIUM, Difficulty.inferFromMetrics(501, 20.0));
     }
 
     @Test
@@ -82,22 +75,4 @@ class DifficultyTest {
         assertFalse(Difficulty.EASY.getDescription().isEmpty());
         assertTrue(Difficulty.EASY.getDescription().contains("Easy"));
     }
-
-    @Test
-    void shouldHaveSlopeThresholds() {
-        assertEquals(10.0, Difficulty.EASY.getMaxSlopeThreshold());
-        assertEquals(20.0, Difficulty.MEDIUM.getMaxSlopeThreshold());
-        assertEquals(30.0, Difficulty.HARD.getMaxSlopeThreshold());
-        assertEquals(40.0, Difficulty.ALPINE.getMaxSlopeThreshold());
-        assertEquals(50.0, Difficulty.SCRAMBLING.getMaxSlopeThreshold());
-    }
-
-    @Test
-    void shouldHaveElevationThresholds() {
-        assertEquals(500, Difficulty.EASY.getMaxElevationGainThreshold());
-        assertEquals(1500, Difficulty.MEDIUM.getMaxElevationGainThreshold());
-        assertEquals(2500, Difficulty.HARD.getMaxElevationGainThreshold());
-        assertEquals(3000, Difficulty.ALPINE.getMaxElevationGainThreshold());
-        assertEquals(3500, Difficulty.SCRAMBLING.getMaxElevationGainThreshold());
-    }
 }
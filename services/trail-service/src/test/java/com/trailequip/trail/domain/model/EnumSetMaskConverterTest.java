@@ -0,0 +1,64 @@
+package com.trailequip.trail.domain.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for EnumSetMaskConverter and the trail terrain and hazard converters.
+ * Tests round trips, null handling and the persisted bit of each constant.
+ */
+class EnumSetMaskConverterTest {
+
+    private final TerrainSetConverter terrainConverter = new TerrainSetConverter();
+    private final HazardSetConverter hazardConverter = new HazardSetConverter();
+
+    @Test
+    void shouldRoundTripSets() {
+        Set<Terrain> terrain = EnumSet.of(Terrain.FOREST, Terrain.LAKE, Terrain.TECHNICAL_CLIMBING);
+        Set<Hazard> hazards = EnumSet.of(Hazard.EXPOSURE, Hazard.WATER_CROSSING);
+
+        Integer terrainMask = terrainConverter.convertToDatabaseColumn(terrain);
+        Integer hazardMask = hazardConverter.convertToDatabaseColumn(hazards);
+
+        assertEquals(terrain, terrainConverter.convertToEntityAttribute(terrainMask));
+        assertEquals(hazards, hazardConverter.convertToEntityAttribute(hazardMask));
+    }
+
+    @Test
+    void shouldStoreNullAndEmptyAsZero() {
+        assertEquals(0, terrainConverter.convertToDatabaseColumn(null));
+        assertEquals(0, terrainConverter.convertToDatabaseColumn(Set.of()));
+        assertEquals(Set.of(), terrainConverter.convertToEntityAttribute(null));
+        assertEquals(Set.of(), terrainConverter.convertToEntityAttribute(0));
+    }
+
+    @Test
+    void shouldIgnoreBitsWithoutConstant() {
+        assertEquals(EnumSet.of(Hazard.EXPOSURE), hazardConverter.convertToEntityAttribute(1 | 1 << 30));
+    }
+
+    @Test
+    void shouldKeepPersistedBits() {
+        // Stored masks and infra/db migrations depend on these; constants may only be appended
+        assertEquals(
+                List.of(1, 2, 4, 8, 16, 32, 64, 128, 256, 512, 1024),
+                EnumSet.allOf(Terrain.class).stream().map(Terrain::bit).toList());
+        assertEquals(1 | 8, terrainConverter.convertToDatabaseColumn(EnumSet.of(Terrain.FOREST, Terrain.SCRAMBLE)));
+        assertEquals(4 | 16, hazardConverter.convertToDatabaseColumn(EnumSet.of(Hazard.HIGH_ALTITUDE, Hazard.BEARS)));
+    }
+
+    @Test
+    void trailShouldExposeNamesOfKnownConstants() {
+        Trail trail = new Trail();
+        trail.setTerrain(List.of("rock", "Forest", "glacier"));
+        trail.setHazards(List.of("bears"));
+
+        assertEquals(List.of("forest", "rock"), trail.getTerrain());
+        assertEquals(EnumSet.of(Hazard.BEARS), trail.getHazardSet());
+        assertNull(new Trail().getTerrain());
+    }
+}
@@ -0,0 +1,35 @@
+package com.trailequip.trail.domain.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for GeometryLevel selection.
+ */
+class GeometryLevelTest {
+
+    @Test
+    void shouldPickLevelForZoom() {
+        assertEquals(GeometryLevel.OVERVIEW, GeometryLevel.forZoom(5));
+        assertEquals(GeometryLevel.OVERVIEW, GeometryLevel.forZoom(9));
+        assertEquals(GeometryLevel.REGIONAL, GeometryLevel.forZoom(10));
+        assertEquals(GeometryLevel.DETAIL, GeometryLevel.forZoom(14));
+        assertEquals(GeometryLevel.FULL, GeometryLevel.forZoom(15));
+    }
+
+    @Test
+    void shouldPickCoarsestLevelWithinTolerance() {
+        assertEquals(GeometryLevel.OVERVIEW, GeometryLevel.forTolerance(100));
+        assertEquals(GeometryLevel.REGIONAL, GeometryLevel.forTolerance(50));
+        assertEquals(GeometryLevel.DETAIL, GeometryLevel.forTolerance(3));
+        assertEquals(GeometryLevel.FULL, GeometryLevel.forTolerance(1));
+    }
+
+    @Test
+    void shouldPreferToleranceOverZoom() {
+        assertEquals(GeometryLevel.FULL, GeometryLevel.resolve(null, null));
+        assertEquals(GeometryLevel.OVERVIEW, GeometryLevel.resolve(16, 200.0));
+        assertEquals(GeometryLevel.REGIONAL, GeometryLevel.resolve(11, null));
+    }
+}
@@ -0,0 +1,101 @@
+package com.trailequip.trail.domain.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.LineString;
+
+/**
+ * Unit tests for QuantizedCoordinates.
+ * Tests grid rounding, elevation handling, exact equality and buffer views.
+ */
+class QuantizedCoordinatesTest {
+
+    @Test
+    void shouldQuantizeToTenMillionthsOfADegree() {
+        QuantizedCoordinates line = QuantizedCoordinates.of(List.of(new Coordinate(25.54, 45.35, 1000.04)));
+
+        assertEquals(255_400_000, line.lonE7(0));
+        assertEquals(453_500_000, line.latE7(0));
+        assertEquals(10_000, line.elevationDm(0));
+    }
+
+    @Test
+    void shouldMapGridBackToShortestDecimal() {
+        QuantizedCoordinates line = QuantizedCoordinates.of(List.of(new Coordinate(25.5412345, 45.3501, 1523.7)));
+
+        assertEquals(25.5412345, line.lon(0));
+        assertEquals(45.3501, line.lat(0));
+        assertEquals(1523.7, line.elevation(0));
+    }
+
+    @Test
+    void shouldKeepMissingElevationUnknown() {
+        QuantizedCoordinates line = QuantizedCoordinates.of(List.of(new Coordinate(25.54, 45.35)));
+
+        assertFalse(line.hasElevation(0));
+        assertFalse(line.hasAnyElevation());
+        assertTrue(Double.isNaN(line.elevation(0)));
+    }
+
+    @Test
+    void shouldClampElevationToInt16Range() {
+        assertEquals(Short.MAX_VALUE, QuantizedCoordinates.quantizeElevation(8848.9));
+        assertEquals(Short.MIN_VALUE + 1, QuantizedCoordinates.quantizeElevation(-5000));
+    }
+
+    @Test
+    void shouldCompareExactly() {
+        QuantizedCoordinates a = QuantizedCoordinates.of(
+                List.of(new Coordinate(25.54, 45.35, 1000), new Coordinate(25.55, 45.36, 1010)));
+        QuantizedCoordinates b = QuantizedCoordinates.builder(2)
+                .add(25.54000001, 45.34999999, 1000.01) // below grid resolution
+                .add(25.55, 45.36, 1010)
+                .build();
+        QuantizedCoordinates c = QuantizedCoordinates.builder(2)
+                .add(25.54, 45.35, 1000)
+                .add(25.5500002, 45.36, 1010)
+                .build();
+
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, c);
+    }
+
+    @Test
+    void shouldBuildLineStringOnGrid() {
+        QuantizedCoordinates line = QuantizedCoordinates.of(List.of(new Coordinate(25.54, 45.35, 1000)));
+
+        LineString geometry = line.toLineString();
+
+        assertEquals(4326, geometry.getSRID());
+        assertEquals(25.54, geometry.getCoordinateN(0).x);
+        assertEquals(line, QuantizedCoordinates.of(geometry));
+    }
+
+    @Test
+    void shouldReadCopyBackAsViewWithoutCopying() {
+        QuantizedCoordinates line = QuantizedCoordinates.builder(2)
+                .add(25.54, 45.35, 1000)
+                .add(25.55, 45.36, Double.NaN)
+                .build();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(8 + QuantizedCoordinates.byteSize(2))
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        line.copyTo(buffer, 8);
+        QuantizedCoordinates view = QuantizedCoordinates.view(buffer, 8, 2);
+
+        assertEquals(line, view);
+        assertEquals(line.hashCode(), view.hashCode());
+        assertEquals(25.55, view.lon(1));
+        assertFalse(view.hasElevation(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> view.latE7(2));
+
+        buffer.putInt(8, 0); // a view reads the buffer, it holds no copy
+        assertEquals(0, view.lonE7(0));
+    }
+}
@@ -0,0 +1,36 @@
+package com.trailequip.trail.domain.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for Terrain.
+ * Tests name lookup and bitmask parsing of stored terrain lists.
+ */
+class TerrainTest {
+
+    @Test
+    void shouldLookUpNamesIgnoringCase() {
+        assertEquals(Terrain.EXPOSED_RIDGE, Terrain.fromName("exposed_ridge"));
+        assertEquals(Terrain.EXPOSED_RIDGE, Terrain.fromName(" Exposed_Ridge "));
+        assertNull(Terrain.fromName("glacier"));
+        assertNull(Terrain.fromName(null));
+    }
+
+    @Test
+    void shouldMaskKnownNamesOnly() {
+        int mask = Terrain.mask(Arrays.asList("forest", "SCRAMBLE", "glacier", null));
+
+        assertEquals(Terrain.FOREST.bit() | Terrain.SCRAMBLE.bit(), mask);
+        assertEquals(0, Terrain.mask(null));
+        assertEquals(0, Terrain.mask(List.of()));
+    }
+
+    @Test
+    void shouldFitInIntegerMask() {
+        assertTrue(Terrain.values().length <= Integer.SIZE);
+    }
+}
@@ -0,0 +1,84 @@
+package com.trailequip.trail.domain.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.Terrain;
+import com.trailequip.trail.domain.model.TrailFacets;
+import com.trailequip.trail.domain.model.TrailFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for TrailProjectionRepositoryImpl.
+ * Tests facet counting from the grouped database rows, including rows without a difficulty.
+ */
+@ExtendWith(MockitoExtension.class)
+class TrailProjectionRepositoryImplTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Query query;
+
+    @Test
+    void shouldCountFacetsWithRowsWithoutDifficulty() {
+        List<Object> rows = new ArrayList<>();
+        rows.add(row("EASY", 3, Terrain.FOREST));
+        rows.add(row(null, 2, Terrain.FOREST));
+        rows.add(row("MODERATE", 4)); // written by an older version
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.getResultList()).thenReturn(rows);
+        TrailProjectionRepositoryImpl repository = new TrailProjectionRepositoryImpl(entityManager);
+
+        TrailFacets facets = repository.countFacets(filter(Set.of(Difficulty.EASY)));
+
+        assertEquals(3L, facets.total());
+        assertEquals(3L, facets.difficulty().get(Difficulty.EASY));
+        assertEquals(3L, facets.terrain().get(Terrain.FOREST));
+    }
+
+    @Test
+    void shouldCountEveryRowWithoutDifficultySelection() {
+        List<Object> rows = new ArrayList<>();
+        rows.add(row("EASY", 3, Terrain.FOREST));
+        rows.add(row(null, 2, Terrain.FOREST));
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.getResultList()).thenReturn(rows);
+        TrailProjectionRepositoryImpl repository = new TrailProjectionRepositoryImpl(entityManager);
+
+        TrailFacets facets = repository.countFacets(filter(null));
+
+        assertEquals(5L, facets.total());
+        assertEquals(5L, facets.terrain().get(Terrain.FOREST));
+    }
+
+    // A grouped row as countFacets selects it: difficulty, count, then one count per terrain
+    private static Object[] row(String difficulty, long count, Terrain... terrain) {
+        Object[] row = new Object[2 + Terrain.values().length];
+        row[0] = difficulty;
+        row[1] = count;
+        for (int i = 0; i < Terrain.values().length; i++) {
+            row[i + 2] = 0L;
+        }
+        for (Terrain value : terrain) {
+            row[value.ordinal() + 2] = count;
+        }
+        return row;
+    }
+
+    private static TrailFilter filter(Set<Difficulty> difficulties) {
+        return new TrailFilter(
+                null, null, null, null, null, null, null, null, difficulties, null, null, null, null, null);
+    }
+}
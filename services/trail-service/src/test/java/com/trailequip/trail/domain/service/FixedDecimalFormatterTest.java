@@ -0,0 +1,78 @@
+package com.trailequip.trail.domain.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for FixedDecimalFormatter.
+ * Tests rounding, trailing zero trimming and the double fallback.
+ */
+class FixedDecimalFormatterTest {
+
+    @Test
+    void shouldFormatGridValuesAtRequestedPrecision() {
+        assertEquals("25.541235", format(255412345, 7, 6));
+        assertEquals("-25.541235", format(-255412345, 7, 6));
+        assertEquals("25.5412345", format(255412345, 7, 7));
+        assertEquals("180", format(1799999999, 7, 0));
+        assertEquals("0.0000005", format(5, 7, 7));
+        assertEquals("-0.0000005", format(-5, 7, 7));
+    }
+
+    @Test
+    void shouldTrimTrailingZerosAndNegativeZero() {
+        assertEquals("25.54", format(255400000, 7, 6));
+        assertEquals("1000", format(10000, 1, 1));
+        assertEquals("2505.5", format(25055, 1, 1));
+        assertEquals("0", format(-4, 7, 6));
+    }
+
+    @Test
+    void shouldRoundDoublesOnce() {
+        assertEquals("45.35", format(45.35, 6));
+        assertEquals("2505.3", format(2505.25, 1));
+        assertEquals("0", format(-0.0000001, 6));
+    }
+
+    @Test
+    void shouldRoundNegativeHalvesAwayFromZero() {
+        assertEquals("-0.000002", format(-1.5e-6, 6));
+        assertEquals("0.000002", format(1.5e-6, 6));
+        assertEquals("-2505.3", format(-2505.25, 1));
+    }
+
+    @Test
+    void shouldFallBackForValuesThatCannotBeScaled() {
+        assertEquals("NaN", format(Double.NaN, 3));
+        assertEquals("1.0E300", format(1e300, 2));
+    }
+
+    @Test
+    void shouldWriteAtOffset() {
+        char[] buffer = new char[FixedDecimalFormatter.BUFFER_SIZE + 2];
+        buffer[0] = 'x';
+        buffer[1] = 'x';
+
+        int length = FixedDecimalFormatter.format(453500000, 7, 6, buffer, 2);
+
+        assertEquals("xx45.35", new String(buffer, 0, 2 + length));
+    }
+
+    @Test
+    void shouldRejectPrecisionOutsideGrid() {
+        assertFalse(FixedDecimalFormatter.isValidPrecision(8));
+        assertFalse(FixedDecimalFormatter.isValidPrecision(-1));
+        assertThrows(IllegalArgumentException.class, () -> format(1, 7, 8));
+    }
+
+    private static String format(long value, int scale, int precision) {
+        char[] buffer = new char[FixedDecimalFormatter.BUFFER_SIZE];
+        return new String(buffer, 0, FixedDecimalFormatter.format(value, scale, precision, buffer, 0));
+    }
+
+    private static String format(double value, int precision) {
+        char[] buffer = new char[FixedDecimalFormatter.BUFFER_SIZE];
+        return new String(buffer, 0, FixedDecimalFormatter.format(value, precision, buffer, 0));
+    }
+}
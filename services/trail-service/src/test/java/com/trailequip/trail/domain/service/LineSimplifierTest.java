@@ -0,0 +1,77 @@
+package com.trailequip.trail.domain.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.trailequip.trail.domain.model.QuantizedCoordinates;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for LineSimplifier.
+ * Tests Douglas-Peucker on the quantized grid.
+ */
+class LineSimplifierTest {
+
+    @Test
+    void shouldDropCollinearVertices() {
+        QuantizedCoordinates line = QuantizedCoordinates.builder(3)
+                .add(25.50, 45.40, 1000)
+                .add(25.51, 45.40, 1050)
+                .add(25.52, 45.40, 1100)
+                .build();
+
+        QuantizedCoordinates simplified = LineSimplifier.simplify(line, 1.0);
+
+        assertEquals(2, simplified.size());
+        assertEquals(line.lonE7(0), simplified.lonE7(0));
+        assertEquals(line.lonE7(2), simplified.lonE7(1));
+        assertEquals(1100.0, simplified.elevation(1));
+    }
+
+    @Test
+    void shouldKeepVerticesBeyondTolerance() {
+        // Middle vertex is ~111 m north of the straight line
+        QuantizedCoordinates line = QuantizedCoordinates.builder(3)
+                .add(25.50, 45.40, 1000)
+                .add(25.51, 45.401, 1050)
+                .add(25.52, 45.40, 1100)
+                .build();
+
+        assertEquals(3, LineSimplifier.simplify(line, 100).size());
+        assertEquals(2, LineSimplifier.simplify(line, 120).size());
+    }
+
+    @Test
+    void shouldReduceDenseTrailByCoarseningTolerance() {
+        QuantizedCoordinates line = randomWalk(5000);
+
+        int detail = LineSimplifier.simplify(line, 3).size();
+        int regional = LineSimplifier.simplify(line, 12).size();
+        int overview = LineSimplifier.simplify(line, 80).size();
+
+        assertTrue(detail < line.size());
+        assertTrue(regional < detail);
+        assertTrue(overview < regional);
+        assertTrue(overview * 20 < line.size(), "overview kept " + overview + " of " + line.size());
+    }
+
+    @Test
+    void shouldReturnInputWhenToleranceIsZero() {
+        QuantizedCoordinates line = randomWalk(100);
+
+        assertSame(line, LineSimplifier.simplify(line, 0));
+    }
+
+    private QuantizedCoordinates randomWalk(int points) {
+        Random random = new Random(11);
+        QuantizedCoordinates.Builder builder = QuantizedCoordinates.builder(points);
+        double lon = 25.4602;
+        double lat = 45.4012;
+        for (int i = 0; i < points; i++) {
+            builder.add(lon, lat, 1600);
+            lon += (random.nextDouble() - 0.3) * 0.0001;
+            lat += (random.nextDouble() - 0.4) * 0.0001;
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,142 @@
+package com.trailequip.trail.domain.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.trailequip.trail.domain.model.QuantizedCoordinates;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.io.WKBWriter;
+
+/**
+ * Unit tests for TwkbCodec.
+ * Tests round-trip accuracy, missing elevations and encoded size against WKB.
+ */
+class TwkbCodecTest {
+
+    private static final GeometryFactory FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
+
+    @Test
+    void shouldRoundTripWithinPrecision() {
+        LineString line = bucegiLikeTrail(2000, 42);
+
+        LineString decoded = TwkbCodec.decode(TwkbCodec.encode(line));
+
+        assertEquals(line.getNumPoints(), decoded.getNumPoints());
+        assertEquals(4326, decoded.getSRID());
+        for (int i = 0; i < line.getNumPoints(); i++) {
+            Coordinate expected = line.getCoordinateN(i);
+            Coordinate actual = decoded.getCoordinateN(i);
+            assertEquals(expected.x, actual.x, 0.5e-7 + 1e-12);
+            assertEquals(expected.y, actual.y, 0.5e-7 + 1e-12);
+            assertEquals(expected.z, actual.z, 0.05 + 1e-9);
+        }
+    }
+
+    @Test
+    void shouldBeStableWhenReencoded() {
+        LineString line = bucegiLikeTrail(500, 7);
+        byte[] encoded = TwkbCodec.encode(line);
+
+        assertArrayEquals(encoded, TwkbCodec.encode(TwkbCodec.decode(encoded)));
+    }
+
+    @Test
+    void shouldDecodeQuantizedCoordinatesExactly() {
+        QuantizedCoordinates coordinates = QuantizedCoordinates.of(bucegiLikeTrail(1000, 3));
+
+        assertEquals(coordinates, TwkbCodec.decodeQuantized(TwkbCodec.encode(coordinates)));
+    }
+
+    @Test
+    void shouldRescaleLowerPrecisionInput() {
+        // LineString(25.5 45.4) at precision 6, no Z: header 0xC2, flags 0, 1 point, zigzag deltas
+        byte[] twkb = {
+            (byte) 0xC2, 0x00, 0x01, (byte) 0xC0, (byte) 0xE5, (byte) 0xA8, 0x18, (byte) 0x80, (byte) 0xFF, (byte) 0xA5, 0x2B
+        };
+
+        QuantizedCoordinates decoded = TwkbCodec.decodeQuantized(twkb);
+
+        assertEquals(255_000_000, decoded.lonE7(0));
+        assertEquals(454_000_000, decoded.latE7(0));
+        assertFalse(decoded.hasElevation(0));
+    }
+
+    @Test
+    void shouldKeepMissingElevationsUnknown() {
+        LineString line = FACTORY.createLineString(new Coordinate[] {
+            new Coordinate(25.45, 45.40, 1650.3),
+            new Coordinate(25.4501, 45.4001),
+            new Coordinate(25.4502, 45.4002, 0),
+            new Coordinate(25.4503, 45.4003)
+        });
+
+        QuantizedCoordinates decoded = TwkbCodec.decodeQuantized(TwkbCodec.encode(line));
+
+        assertEquals(1650.3, decoded.elevation(0), 1e-9);
+        assertFalse(decoded.hasElevation(1));
+        assertTrue(decoded.hasElevation(2));
+        assertEquals(0.0, decoded.elevation(2));
+        assertFalse(decoded.hasElevation(3));
+        assertEquals(QuantizedCoordinates.of(line), decoded);
+    }
+
+    @Test
+    void shouldRoundTripTwoDimensionalLine() {
+        LineString line = FACTORY.createLineString(
+                new Coordinate[] {new Coordinate(25.45, 45.40), new Coordinate(25.451234, 45.398765)});
+
+        LineString decoded = TwkbCodec.decode(TwkbCodec.encode(line));
+
+        assertEquals(25.451234, decoded.getCoordinateN(1).x, 1e-9);
+        assertEquals(45.398765, decoded.getCoordinateN(1).y, 1e-9);
+        assertTrue(Double.isNaN(decoded.getCoordinateN(1).z));
+    }
+
+    @Test
+    void shouldRoundTripEmptyLine() {
+        LineString decoded = TwkbCodec.decode(TwkbCodec.encode(FACTORY.createLineString(new Coordinate[0])));
+
+        assertTrue(decoded.isEmpty());
+    }
+
+    @Test
+    void shouldBeFarSmallerThanWkb() {
+        // ~10 m vertex spacing, as in the Bucegi OSM relations
+        LineString line = bucegiLikeTrail(3000, 1);
+
+        int twkb = TwkbCodec.encode(line).length;
+        int wkb = new WKBWriter(3).write(line).length;
+
+        assertEquals(wkb, TwkbCodec.wkbSize(QuantizedCoordinates.of(line)));
+        assertTrue(twkb * 4 < wkb, "TWKB " + twkb + " bytes vs WKB " + wkb + " bytes");
+    }
+
+    @Test
+    void shouldRejectOtherGeometryTypes() {
+        byte[] point = {(byte) 0xC1, 0x00};
+
+        assertThrows(IllegalArgumentException.class, () -> TwkbCodec.decode(point));
+    }
+
+    /**
+     * Random walk across the Bucegi plateau with ~10 m steps and 1500-2500 m elevations.
+     */
+    private LineString bucegiLikeTrail(int points, long seed) {
+        Random random = new Random(seed);
+        Coordinate[] coordinates = new Coordinate[points];
+        double lon = 25.4602;
+        double lat = 45.4012;
+        double ele = 1600;
+        for (int i = 0; i < points; i++) {
+            coordinates[i] = new Coordinate(lon, lat, ele);
+            lon += (random.nextDouble() - 0.5) * 0.00025;
+            lat += (random.nextDouble() - 0.5) * 0.00018;
+            ele = Math.max(1500, Math.min(2500, ele + (random.nextDouble() - 0.4) * 3));
+        }
+        return FACTORY.createLineString(coordinates);
+    }
+}
@@ -0,0 +1,107 @@
+package com.trailequip.trail.infrastructure.bootstrap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for CopyArchive.
+ * Tests manifest and table data round trips, entry order, and rejection of foreign
+ * archives and other format versions.
+ */
+class CopyArchiveTest {
+
+    private static final CopyArchive.Table MARKINGS = new CopyArchive.Table(
+            "trail_markings",
+            List.of(
+                    new CopyArchive.Column("id", "bigint"),
+                    new CopyArchive.Column("osmc_symbol", "character varying(100)")),
+            2);
+    private static final CopyArchive.Table TRAILS = new CopyArchive.Table(
+            "trails",
+            List.of(new CopyArchive.Column("id", "uuid"), new CopyArchive.Column("max_slope", "numeric(5,2)")),
+            3);
+    private static final CopyArchive.Manifest MANIFEST = new CopyArchive.Manifest(
+            CopyArchive.FORMAT_VERSION, Instant.parse("2026-10-01T06:00:00Z"), List.of(MARKINGS, TRAILS));
+
+    @Test
+    void shouldReadBackManifestAndTableData() throws IOException {
+        byte[] archive = write(MANIFEST, "markings".getBytes(), new byte[100_000]);
+
+        try (CopyArchive.Reader reader = CopyArchive.read(new ByteArrayInputStream(archive))) {
+            assertEquals(MANIFEST, reader.manifest());
+            assertEquals(3, reader.manifest().rows("trails"));
+            assertEquals(0, reader.manifest().rows("trail_segments"));
+            try (InputStream data = reader.table(MARKINGS)) {
+                assertEquals("markings", new String(data.readAllBytes()));
+            }
+            assertEquals(100_000, reader.table(TRAILS).readAllBytes().length);
+        }
+    }
+
+    @Test
+    void shouldKeepTypesContainingCommas() throws IOException {
+        CopyArchive.Manifest parsed = CopyArchive.parse(CopyArchive.format(MANIFEST));
+
+        assertEquals("numeric(5,2)", parsed.tables().get(1).columns().get(1).type());
+    }
+
+    @Test
+    void shouldRequireTablesInManifestOrder() throws IOException {
+        byte[] archive = write(MANIFEST, new byte[1], new byte[1]);
+
+        try (CopyArchive.Reader reader = CopyArchive.read(new ByteArrayInputStream(archive))) {
+            assertThrows(IllegalStateException.class, () -> reader.table(TRAILS));
+        }
+        try (CopyArchive.Writer writer = CopyArchive.write(new ByteArrayOutputStream(), MANIFEST)) {
+            assertThrows(IllegalStateException.class, () -> writer.table("trails"));
+            writer.table("trail_markings").close();
+            assertThrows(IllegalStateException.class, writer::finish); // trails not written
+        }
+    }
+
+    @Test
+    void shouldRejectArchiveWithoutManifest() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("trails.gpx"));
+            zip.write("<gpx/>".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertThrows(IOException.class, () -> CopyArchive.read(new ByteArrayInputStream(bytes.toByteArray())));
+        assertThrows(IOException.class, () -> CopyArchive.read(new ByteArrayInputStream(new byte[64])));
+    }
+
+    @Test
+    void shouldRejectOtherVersionOrIncompleteManifest() throws IOException {
+        String manifest = CopyArchive.format(MANIFEST);
+        String otherVersion = manifest.replace(
+                "format.version=" + CopyArchive.FORMAT_VERSION, "format.version=" + (CopyArchive.FORMAT_VERSION + 1));
+
+        assertThrows(IOException.class, () -> CopyArchive.parse(otherVersion));
+        assertThrows(IOException.class, () -> CopyArchive.parse(manifest.replace("trails.rows=3", "")));
+    }
+
+    private static byte[] write(CopyArchive.Manifest manifest, byte[]... tables) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (CopyArchive.Writer writer = CopyArchive.write(bytes, manifest)) {
+            for (int i = 0; i < tables.length; i++) {
+                try (OutputStream data = writer.table(manifest.tables().get(i).name())) {
+                    data.write(tables[i]);
+                }
+            }
+            writer.finish();
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,200 @@
+package com.trailequip.trail.infrastructure.catalog;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.Hazard;
+import com.trailequip.trail.domain.model.Terrain;
+import com.trailequip.trail.domain.model.TrailFacets;
+import com.trailequip.trail.domain.model.TrailFilter;
+import com.trailequip.trail.domain.model.TrailSort;
+import com.trailequip.trail.infrastructure.tiles.GeoBounds;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for TrailCatalog.
+ * Tests range and mask matching, facet counts, sort orders with missing values, paging,
+ * column reads and area lookups.
+ */
+class TrailCatalogTest {
+
+    private static final TrailFilter ALL = filter(null, null, null, null, null, null);
+
+    private final UUID omu = UUID.randomUUID();
+    private final UUID jepii = UUID.randomUUID();
+    private final UUID lacul = UUID.randomUUID();
+    private final UUID unmeasured = UUID.randomUUID();
+
+    private final TrailCatalog catalog = TrailCatalog.build(List.of(
+            new TrailCatalog.Entry(
+                    omu,
+                    "Omu Loop",
+                    "openstreetmap",
+                    14.0,
+                    1100,
+                    360,
+                    28.0,
+                    Difficulty.HARD,
+                    Terrain.ALPINE_MEADOW.bit() | Terrain.EXPOSED_RIDGE.bit(),
+                    Hazard.EXPOSURE.bit(),
+                    new GeoBounds(25.40, 45.40, 25.50, 45.45)),
+            new TrailCatalog.Entry(
+                    jepii,
+                    "Jepii Mici",
+                    "openstreetmap",
+                    6.0,
+                    900,
+                    180,
+                    32.0,
+                    Difficulty.HARD,
+                    Terrain.SCRAMBLE.bit(),
+                    Hazard.EXPOSURE.bit() | Hazard.BEARS.bit(),
+                    new GeoBounds(25.45, 45.38, 25.48, 45.41)),
+            new TrailCatalog.Entry(
+                    lacul,
+                    "Lacul Sf. Ana",
+                    "manual",
+                    3.0,
+                    150,
+                    60,
+                    9.0,
+                    Difficulty.EASY,
+                    Terrain.FOREST.bit() | Terrain.LAKE.bit(),
+                    0,
+                    new GeoBounds(25.88, 46.12, 25.89, 46.13)),
+            new TrailCatalog.Entry(
+                    unmeasured, "Ciucaș Ridge", null, null, null, null, null, null, Terrain.FOREST.bit(), 0, null)));
+
+    @Test
+    void shouldOrderByNameByDefault() {
+        assertEquals(List.of(unmeasured, jepii, lacul, omu), catalog.findIds(ALL, TrailSort.DEFAULT, 0, 10));
+        assertEquals(
+                List.of(omu, lacul, jepii, unmeasured),
+                catalog.findIds(ALL, new TrailSort(TrailSort.Field.NAME, true), 0, 10));
+    }
+
+    @Test
+    void shouldSortMissingValuesLastInBothDirections() {
+        TrailSort shortest = new TrailSort(TrailSort.Field.DISTANCE, false);
+        TrailSort longest = new TrailSort(TrailSort.Field.DISTANCE, true);
+        TrailSort hardest = new TrailSort(TrailSort.Field.DIFFICULTY, true);
+
+        assertEquals(List.of(lacul, jepii, omu, unmeasured), catalog.findIds(ALL, shortest, 0, 10));
+        assertEquals(List.of(omu, jepii, lacul, unmeasured), catalog.findIds(ALL, longest, 0, 10));
+        // Equal difficulty falls back to name in the same direction
+        assertEquals(List.of(omu, jepii, lacul, unmeasured), catalog.findIds(ALL, hardest, 0, 10));
+    }
+
+    @Test
+    void shouldPageMatchingRows() {
+        TrailSort steepest = new TrailSort(TrailSort.Field.MAX_SLOPE, true);
+
+        assertEquals(List.of(omu), catalog.findIds(ALL, steepest, 1, 1));
+        assertEquals(List.of(), catalog.findIds(ALL, steepest, 4, 10));
+    }
+
+    @Test
+    void shouldCountAndPageInOnePass() {
+        TrailFilter hard = filter(null, null, Set.of(Difficulty.HARD), null, null, null);
+
+        TrailCatalog.Result result = catalog.filter(hard, new TrailSort(TrailSort.Field.MAX_SLOPE, true), 1, 5);
+
+        assertEquals(2, result.facets().total());
+        assertEquals(1L, result.facets().difficulty().get(Difficulty.EASY));
+        assertEquals(List.of(omu), result.ids());
+    }
+
+    @Test
+    void shouldMatchRangesAndMasks() {
+        TrailFilter shortTrails = filter(10.0, null, null, null, null, null);
+        TrailFilter shortExposed =
+                filter(10.0, null, Set.of(), Set.of(), Set.of(Hazard.EXPOSURE), Set.of(Hazard.BEARS));
+        TrailFilter forest = filter(null, null, null, Set.of(Terrain.FOREST), null, null);
+        TrailFilter moderateGain = filter(null, 1000, null, null, null, null);
+
+        assertEquals(List.of(jepii, lacul), catalog.findIds(shortTrails, TrailSort.DEFAULT, 0, 10));
+        assertEquals(List.of(), catalog.findIds(shortExposed, TrailSort.DEFAULT, 0, 10));
+        assertEquals(List.of(unmeasured, lacul), catalog.findIds(forest, TrailSort.DEFAULT, 0, 10));
+        // A trail without elevation gain does not match a gain bound
+        assertEquals(List.of(jepii, lacul), catalog.findIds(moderateGain, TrailSort.DEFAULT, 0, 10));
+    }
+
+    @Test
+    void shouldCountFacetsIgnoringDifficultySelection() {
+        TrailFilter easy = filter(null, null, Set.of(Difficulty.EASY), null, null, null);
+
+        TrailFacets facets = catalog.facets(easy);
+
+        assertEquals(1, facets.total());
+        assertEquals(2L, facets.difficulty().get(Difficulty.HARD));
+        assertEquals(1L, facets.difficulty().get(Difficulty.EASY));
+        assertEquals(0L, facets.difficulty().get(Difficulty.MEDIUM));
+        assertEquals(1L, facets.terrain().get(Terrain.LAKE));
+        assertEquals(0L, facets.terrain().get(Terrain.SCRAMBLE));
+        assertEquals(4, catalog.facets(ALL).total());
+    }
+
+    @Test
+    void shouldMatchSourceExactly() {
+        TrailFilter manual = new TrailFilter(
+                null, null, null, null, null, null, null, null, null, null, null, null, null, "manual");
+        TrailFilter unknown = new TrailFilter(
+                null, null, null, null, null, null, null, null, null, null, null, null, null, "wikiloc");
+
+        assertEquals(List.of(lacul), catalog.findIds(manual, TrailSort.DEFAULT, 0, 10));
+        assertEquals(0, catalog.facets(unknown).total());
+    }
+
+    @Test
+    void shouldReadColumnsInIdOrder() {
+        List<Map<String, Object>> rows = catalog.findAttributes(
+                List.of("id", "name", "distance", "difficulty", "elevationGain"),
+                List.of(omu, UUID.randomUUID(), unmeasured));
+
+        assertEquals(2, rows.size());
+        assertEquals("Omu Loop", rows.get(0).get("name"));
+        assertEquals(14.0, rows.get(0).get("distance"));
+        assertEquals(Difficulty.HARD, rows.get(0).get("difficulty"));
+        assertEquals(1100, rows.get(0).get("elevationGain"));
+        assertNull(rows.get(1).get("distance"));
+        assertNull(rows.get(1).get("difficulty"));
+        assertTrue(TrailCatalog.covers(List.of("id", "name", "maxSlope")));
+        assertFalse(TrailCatalog.covers(List.of("id", "description")));
+    }
+
+    @Test
+    void shouldFindTrailsWhoseBoundsIntersectArea() {
+        GeoBounds bucegi = new GeoBounds(25.44, 45.39, 25.46, 45.42);
+
+        assertEquals(List.of(jepii, omu), catalog.findIdsIntersecting(bucegi, null));
+        assertEquals(List.of(), catalog.findIdsIntersecting(bucegi, Difficulty.EASY));
+    }
+
+    private static TrailFilter filter(
+            Double maxDistance,
+            Integer maxElevationGain,
+            Set<Difficulty> difficulties,
+            Set<Terrain> terrain,
+            Set<Hazard> hazards,
+            Set<Hazard> excludedHazards) {
+        return new TrailFilter(
+                null,
+                maxDistance,
+                null,
+                maxElevationGain,
+                null,
+                null,
+                null,
+                null,
+                difficulties,
+                terrain,
+                null,
+                hazards,
+                excludedHazards,
+                null);
+    }
+}
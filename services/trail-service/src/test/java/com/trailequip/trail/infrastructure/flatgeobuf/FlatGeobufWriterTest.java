@@ -0,0 +1,148 @@
+package com.trailequip.trail.infrastructure.flatgeobuf;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.trailequip.trail.domain.model.QuantizedCoordinates;
+import com.trailequip.trail.infrastructure.flatgeobuf.FlatGeobufWriter.Column;
+import com.trailequip.trail.infrastructure.flatgeobuf.FlatGeobufWriter.ColumnType;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for FlatGeobufWriter.
+ * Tests the file layout: magic bytes, header fields, the packed R-tree and feature offsets.
+ */
+class FlatGeobufWriterTest {
+
+    private static final List<Column> COLUMNS =
+            List.of(new Column("name", ColumnType.STRING), new Column("distance", ColumnType.DOUBLE));
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    void shouldWriteHeaderOnlyWhenEmpty() throws IOException {
+        ByteBuffer file = write(0);
+
+        assertArrayEquals(FlatGeobufWriter.MAGIC, Arrays.copyOf(file.array(), 8));
+        Header header = Header.read(file);
+        assertEquals(0, header.featuresCount);
+        assertEquals(0, header.indexNodeSize);
+        assertEquals(2, header.geometryType);
+        assertEquals(12 + header.length, file.limit());
+    }
+
+    @Test
+    void shouldWriteIndexCoveringAllFeatures() throws IOException {
+        int count = 40; // three levels with node size 16
+        ByteBuffer file = write(count);
+
+        Header header = Header.read(file);
+        assertEquals(count, header.featuresCount);
+        assertEquals(FlatGeobufWriter.NODE_SIZE, header.indexNodeSize);
+
+        int numNodes = PackedRTree.numNodes(count, FlatGeobufWriter.NODE_SIZE);
+        int indexStart = 12 + header.length;
+        int featuresStart = indexStart + numNodes * PackedRTree.NODE_BYTES;
+
+        // Root covers every feature
+        assertEquals(25.0, file.getDouble(indexStart), 1e-9);
+        assertEquals(45.0, file.getDouble(indexStart + 8), 1e-9);
+        assertEquals(25.0 + (count - 1) * 0.01 + 0.005, file.getDouble(indexStart + 16), 1e-9);
+        assertEquals(45.0 + (count - 1) * 0.01 + 0.005, file.getDouble(indexStart + 24), 1e-9);
+        assertEquals(1, file.getLong(indexStart + 32)); // first child
+
+        // Every leaf points at a size-prefixed feature inside its own bounds
+        int firstLeaf = numNodes - count;
+        long expectedOffset = 0;
+        for (int leaf = firstLeaf; leaf < numNodes; leaf++) {
+            int node = indexStart + leaf * PackedRTree.NODE_BYTES;
+            long offset = file.getLong(node + 32);
+            assertEquals(expectedOffset, offset);
+            int featureSize = file.getInt(featuresStart + (int) offset);
+            expectedOffset += 4 + featureSize;
+            assertTrue(file.getDouble(node + 16) - file.getDouble(node) > 0.004);
+        }
+        assertEquals(file.limit(), featuresStart + expectedOffset);
+    }
+
+    @Test
+    void shouldSkipLinesWithoutTwoVertices() throws IOException {
+        try (FlatGeobufWriter writer = new FlatGeobufWriter("trails", COLUMNS, spillDirectory)) {
+            assertFalse(writer.add(QuantizedCoordinates.empty(), "Empty", null));
+            assertFalse(writer.add(line(25.0, 45.0, 0), "Point", 1.0));
+            assertEquals(0, writer.getCount());
+        }
+    }
+
+    @Test
+    void shouldRejectWrongNumberOfValues() throws IOException {
+        try (FlatGeobufWriter writer = new FlatGeobufWriter("trails", COLUMNS, spillDirectory)) {
+            assertThrows(IllegalArgumentException.class, () -> writer.add(line(25.0, 45.0, 0.005), "Only name"));
+        }
+    }
+
+    @Test
+    void shouldDeleteSpillFileOnClose() throws IOException {
+        write(3);
+
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private ByteBuffer write(int count) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FlatGeobufWriter writer = new FlatGeobufWriter("trails", COLUMNS, spillDirectory)) {
+            // Diagonal of short lines, added in reverse so the Hilbert sort has work to do
+            for (int i = count - 1; i >= 0; i--) {
+                double start = i * 0.01;
+                assertTrue(writer.add(line(25.0 + start, 45.0 + start, 0.005), "Trail " + i, i * 1.5));
+            }
+            writer.writeTo(out);
+        }
+        return ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static QuantizedCoordinates line(double lon, double lat, double length) {
+        QuantizedCoordinates.Builder builder = QuantizedCoordinates.builder(2).add(lon, lat, 1500);
+        if (length > 0) {
+            builder.add(lon + length, lat + length, 1510);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reads the few header fields the tests need straight from the FlatBuffers table.
+     */
+    private record Header(int length, long featuresCount, int geometryType, int indexNodeSize) {
+
+        static Header read(ByteBuffer file) {
+            int length = file.getInt(8);
+            int table = 12 + file.getInt(12);
+            int vtable = table - file.getInt(table);
+            return new Header(
+                    length,
+                    field(file, table, vtable, 8) != 0 ? file.getLong(table + field(file, table, vtable, 8)) : 0,
+                    field(file, table, vtable, 2) != 0 ? file.get(table + field(file, table, vtable, 2)) : 0,
+                    field(file, table, vtable, 9) != 0
+                            ? Short.toUnsignedInt(file.getShort(table + field(file, table, vtable, 9)))
+                            : FlatGeobufWriter.NODE_SIZE);
+        }
+
+        private static int field(ByteBuffer file, int table, int vtable, int slot) {
+            int vtableSize = file.getShort(vtable);
+            int entry = 4 + slot * 2;
+            return entry < vtableSize ? file.getShort(vtable + entry) : 0;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.trailequip.trail.infrastructure.flatgeobuf;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for PackedRTree.
+ * Tests level layout and that the Hilbert curve visits every cell once in unit steps.
+ */
+class PackedRTreeTest {
+
+    @Test
+    void shouldPutRootFirstAndLeavesLast() {
+        int[][] levels = PackedRTree.levelBounds(40, 16);
+
+        assertEquals(3, levels.length);
+        assertArrayEquals(new int[] {4, 44}, levels[0]);
+        assertArrayEquals(new int[] {1, 4}, levels[1]);
+        assertArrayEquals(new int[] {0, 1}, levels[2]);
+        assertEquals(44, PackedRTree.numNodes(40, 16));
+    }
+
+    @Test
+    void shouldAddRootAboveSingleItem() {
+        assertEquals(2, PackedRTree.numNodes(1, 16));
+        assertEquals(17, PackedRTree.numNodes(16, 16));
+    }
+
+    @Test
+    void shouldRejectEmptyTree() {
+        assertThrows(IllegalArgumentException.class, () -> PackedRTree.levelBounds(0, 16));
+    }
+
+    @Test
+    void shouldTraverseCornerOfHilbertGridContinuously() {
+        // The first 256 curve positions fill the 16x16 corner cell block
+        int size = 16;
+        int[] xs = new int[size * size];
+        int[] ys = new int[size * size];
+        boolean[] seen = new boolean[size * size];
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                long position = PackedRTree.hilbert(x, y);
+                assertTrue(position < size * size);
+                assertFalse(seen[(int) position]);
+                seen[(int) position] = true;
+                xs[(int) position] = x;
+                ys[(int) position] = y;
+            }
+        }
+        for (int i = 1; i < size * size; i++) {
+            assertEquals(1, Math.abs(xs[i] - xs[i - 1]) + Math.abs(ys[i] - ys[i - 1]));
+        }
+    }
+
+    @Test
+    void shouldReturnUnsignedCurvePositions() {
+        assertEquals(0, PackedRTree.hilbert(0, 0));
+        assertEquals(0xFFFFFFFFL, PackedRTree.hilbert(PackedRTree.HILBERT_MAX, 0));
+    }
+}
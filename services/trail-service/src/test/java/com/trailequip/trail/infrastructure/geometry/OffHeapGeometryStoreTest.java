@@ -0,0 +1,179 @@
+package com.trailequip.trail.infrastructure.geometry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.trailequip.trail.domain.model.GeometryLevel;
+import com.trailequip.trail.domain.model.QuantizedCoordinates;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.infrastructure.tiles.GeoBounds;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for OffHeapGeometryStore.
+ * Tests views at every level, version checks, compaction and snapshot files.
+ */
+class OffHeapGeometryStoreTest {
+
+    private static final Instant CHANGED_AT = Instant.parse("2026-06-01T08:30:00.123456789Z");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldServeEveryLevelOfStoredTrail() {
+        OffHeapGeometryStore store = new OffHeapGeometryStore();
+        Trail trail = trail(120, CHANGED_AT);
+
+        store.put(trail);
+        OffHeapGeometryStore.Entry entry = store.find(trail.getId(), CHANGED_AT);
+
+        assertNotNull(entry);
+        for (GeometryLevel level : GeometryLevel.values()) {
+            assertEquals(trail.getCoordinates(level), entry.coordinates(level), level.name());
+        }
+        assertEquals(GeoBounds.of(trail.getCoordinates()), entry.bounds());
+    }
+
+    @Test
+    void shouldMatchOnlyTheStoredVersion() {
+        OffHeapGeometryStore store = new OffHeapGeometryStore();
+        Trail trail = trail(10, CHANGED_AT);
+        store.put(trail);
+
+        // Postgres keeps microseconds, so the row read back has lost the nanoseconds
+        assertNotNull(store.find(trail.getId(), Instant.parse("2026-06-01T08:30:00.123457Z")));
+        assertNull(store.find(trail.getId(), CHANGED_AT.plusSeconds(1)));
+        assertNull(store.find(UUID.randomUUID(), CHANGED_AT));
+    }
+
+    @Test
+    void shouldIgnoreRowOlderThanStoredOne() {
+        OffHeapGeometryStore store = new OffHeapGeometryStore();
+        Trail current = trail(10, CHANGED_AT);
+        Trail older = trail(20, CHANGED_AT.minusSeconds(60));
+        older.setId(current.getId());
+
+        store.put(current);
+        store.put(older);
+
+        assertEquals(10, store.get(current.getId()).coordinates(GeometryLevel.FULL).size());
+    }
+
+    @Test
+    void shouldStoreTrailWithoutLine() {
+        OffHeapGeometryStore store = new OffHeapGeometryStore();
+        Trail trail = trail(0, CHANGED_AT);
+        trail.setCoordinates(null);
+
+        store.put(trail);
+
+        assertNull(store.find(trail.getId(), CHANGED_AT).coordinates(GeometryLevel.FULL));
+        assertNull(store.get(trail.getId()).bounds());
+    }
+
+    @Test
+    void shouldCompactHolesLeftByReplacedTrails() {
+        OffHeapGeometryStore store = new OffHeapGeometryStore(4096);
+        Trail trail = trail(50, CHANGED_AT);
+        store.put(trail);
+        QuantizedCoordinates heldView = store.get(trail.getId()).coordinates(GeometryLevel.FULL);
+
+        for (int i = 1; i <= 100; i++) {
+            trail.setUpdatedAt(CHANGED_AT.plusSeconds(i));
+            store.put(trail);
+        }
+
+        assertTrue(store.usedBytes() < 4096, "used " + store.usedBytes());
+        // Views handed out before compaction still read their old arena
+        assertEquals(trail.getCoordinates(), heldView);
+    }
+
+    @Test
+    void shouldAcceptOlderRowAfterClear() {
+        OffHeapGeometryStore store = new OffHeapGeometryStore(4096);
+        Trail trail = trail(50, CHANGED_AT);
+        store.put(trail);
+        QuantizedCoordinates heldView = store.get(trail.getId()).coordinates(GeometryLevel.FULL);
+
+        store.clear();
+        Trail older = trail(20, CHANGED_AT.minusSeconds(60));
+        older.setId(trail.getId());
+        store.put(older);
+
+        assertEquals(1, store.size());
+        assertNotNull(store.find(trail.getId(), older.getUpdatedAt()));
+        assertEquals(older.getCoordinates(), store.get(trail.getId()).coordinates(GeometryLevel.FULL));
+        assertEquals(trail.getCoordinates(), heldView);
+    }
+
+    @Test
+    void shouldReadBackWrittenSnapshot() throws IOException {
+        OffHeapGeometryStore store = new OffHeapGeometryStore(4096); // several sections
+        Trail first = trail(200, CHANGED_AT);
+        Trail second = trail(30, CHANGED_AT);
+        Trail empty = trail(0, CHANGED_AT);
+        empty.setCoordinates(null);
+        store.put(first);
+        store.put(second);
+        store.put(empty);
+        Path file = tempDir.resolve("geometry.bin");
+
+        store.writeSnapshot(file);
+        OffHeapGeometryStore restored = new OffHeapGeometryStore(4096);
+        Set<UUID> added = restored.readSnapshot(file);
+
+        assertEquals(Set.of(first.getId(), second.getId(), empty.getId()), added);
+        assertEquals(
+                first.getCoordinates(GeometryLevel.REGIONAL),
+                restored.find(first.getId(), CHANGED_AT).coordinates(GeometryLevel.REGIONAL));
+        assertEquals(second.getCoordinates(), restored.get(second.getId()).coordinates(GeometryLevel.FULL));
+        assertEquals(GeoBounds.of(first.getCoordinates()), restored.get(first.getId()).bounds());
+        assertNull(restored.get(empty.getId()).coordinates(GeometryLevel.FULL));
+    }
+
+    @Test
+    void shouldKeepTrailsStoredBeforeSnapshotWasRead() throws IOException {
+        OffHeapGeometryStore store = new OffHeapGeometryStore();
+        Trail trail = trail(10, CHANGED_AT);
+        store.put(trail);
+        Path file = tempDir.resolve("geometry.bin");
+        store.writeSnapshot(file);
+
+        OffHeapGeometryStore restarted = new OffHeapGeometryStore();
+        Trail changed = trail(25, CHANGED_AT.plusSeconds(5));
+        changed.setId(trail.getId());
+        restarted.put(changed);
+
+        assertEquals(Set.of(), restarted.readSnapshot(file));
+        assertNotNull(restarted.find(trail.getId(), changed.getUpdatedAt()));
+    }
+
+    @Test
+    void shouldRejectFileThatIsNoSnapshot() throws IOException {
+        OffHeapGeometryStore store = new OffHeapGeometryStore();
+        Path file = Files.write(tempDir.resolve("tiles.mvt"), new byte[64]);
+
+        assertThrows(IOException.class, () -> store.readSnapshot(file));
+        assertEquals(0, store.size());
+    }
+
+    private static Trail trail(int vertices, Instant updatedAt) {
+        QuantizedCoordinates.Builder line = QuantizedCoordinates.builder(vertices);
+        for (int i = 0; i < vertices; i++) {
+            // A wavy line, so the simplified levels keep fewer vertices than the full one
+            line.add(25.40 + i * 0.001, 45.40 + Math.sin(i / 3.0) * 0.002, 1500 + i);
+        }
+        Trail trail = new Trail();
+        trail.setId(UUID.randomUUID());
+        trail.setCoordinates(line.build());
+        trail.setUpdatedAt(updatedAt);
+        return trail;
+    }
+}
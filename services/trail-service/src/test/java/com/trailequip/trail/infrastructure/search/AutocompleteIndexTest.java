@@ -0,0 +1,78 @@
+package com.trailequip.trail.infrastructure.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for AutocompleteIndex.
+ * Tests prefix matching, diacritic folding and ranking.
+ */
+class AutocompleteIndexTest {
+
+    @Test
+    void shouldCompleteFromAnyWordStartIgnoringDiacritics() {
+        AutocompleteIndex index = AutocompleteIndex.build(List.of(
+                term("Vârful Omu", "PEAK", 600),
+                term("Cabana Piatra Arsă", "SHELTER", 600),
+                term("Bucegi Plateau Loop", "TRAIL", 1000)));
+
+        assertEquals("Vârful Omu", index.complete("varf", 5).get(0).text());
+        assertEquals("Vârful Omu", index.complete("OMU", 5).get(0).text());
+        assertEquals("Cabana Piatra Arsă", index.complete("piatra ars", 5).get(0).text());
+        assertTrue(index.complete("xyz", 5).isEmpty());
+    }
+
+    @Test
+    void shouldRankByWeightAndHonourLimit() {
+        AutocompleteIndex index = AutocompleteIndex.build(List.of(
+                term("Bucegi Hut", "SHELTER", 600),
+                term("Bucegi Loop", "TRAIL", 1000),
+                term("Bucegi Ridge", "TRAIL", 900)));
+
+        List<AutocompleteIndex.Suggestion> results = index.complete("bucegi", 2);
+
+        assertEquals(2, results.size());
+        assertEquals("Bucegi Loop", results.get(0).text());
+        assertEquals("Bucegi Ridge", results.get(1).text());
+    }
+
+    @Test
+    void shouldNotReturnDuplicatesWhenSeveralWordsMatch() {
+        AutocompleteIndex index = AutocompleteIndex.build(List.of(term("Omu Omu", "TRAIL", 1000)));
+
+        assertEquals(1, index.complete("omu", 5).size());
+        assertEquals(1, index.complete("o", 5).size());
+    }
+
+    @Test
+    void shouldReturnBestRanksForWidePrefixes() {
+        List<AutocompleteIndex.Term> terms = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            terms.add(term("Trail " + i, "TRAIL", i));
+        }
+        AutocompleteIndex index = AutocompleteIndex.build(terms);
+
+        List<AutocompleteIndex.Suggestion> results = index.complete("t", 3);
+
+        assertEquals(List.of("Trail 499", "Trail 498", "Trail 497"),
+                results.stream().map(AutocompleteIndex.Suggestion::text).toList());
+        assertEquals(AutocompleteIndex.MAX_LIMIT, index.complete("tr", 100).size());
+    }
+
+    @Test
+    void shouldHandleEmptyInput() {
+        AutocompleteIndex index = AutocompleteIndex.build(List.of(term("Omu", "PEAK", 600)));
+
+        assertTrue(index.complete("", 5).isEmpty());
+        assertTrue(index.complete(null, 5).isEmpty());
+        assertTrue(AutocompleteIndex.empty().complete("omu", 5).isEmpty());
+    }
+
+    private AutocompleteIndex.Term term(String text, String type, int weight) {
+        return new AutocompleteIndex.Term(text, type, UUID.randomUUID(), weight);
+    }
+}
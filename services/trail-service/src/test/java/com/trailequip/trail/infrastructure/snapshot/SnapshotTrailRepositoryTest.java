@@ -0,0 +1,137 @@
+package com.trailequip.trail.infrastructure.snapshot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.QuantizedCoordinates;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailFilter;
+import com.trailequip.trail.domain.model.TrailSort;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Unit tests for SnapshotTrailRepository.
+ * Tests lookups by id and OSM id, difficulty and source queries, column projections,
+ * the faceted filter, search ranking and refusal of writes.
+ */
+class SnapshotTrailRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Trail omu;
+    private Trail jepii;
+    private Trail lacul;
+    private SnapshotTrailRepository repository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        omu = trail("Vârful Omu", 101L, Difficulty.HARD, 14.0, "openstreetmap");
+        omu.setDescription("Ridge walk above Bușteni");
+        jepii = trail("Jepii Mici", 102L, Difficulty.HARD, 6.0, "openstreetmap");
+        jepii.setRef("01MN02");
+        lacul = trail("Lacul Sf. Ana", null, Difficulty.EASY, 3.0, "manual");
+        lacul.setDescription("Crater lake near Omu Hut");
+        Path file = tempDir.resolve("trails.snapshot");
+        try (TrailSnapshotWriter writer = TrailSnapshotWriter.open(file)) {
+            // Written in name order, as TrailSnapshotService streams them
+            writer.writeTrail(jepii);
+            writer.writeTrail(lacul);
+            writer.writeTrail(omu);
+            writer.finish();
+        }
+        repository = new SnapshotTrailRepository(TrailSnapshot.open(file));
+    }
+
+    @Test
+    void shouldFindByIdAndOsmId() {
+        assertEquals("Vârful Omu", repository.findById(omu.getId()).orElseThrow().getName());
+        assertTrue(repository.findById(UUID.randomUUID()).isEmpty());
+        assertTrue(repository.existsById(lacul.getId()));
+        assertEquals(jepii.getId(), repository.findByOsmId(102L).orElseThrow().getId());
+        assertTrue(repository.findByOsmId(999L).isEmpty());
+        assertEquals(2, repository.findByOsmIds(List.of(101L, 102L, 999L)).size());
+        assertEquals(3, repository.count());
+    }
+
+    @Test
+    void shouldQueryByDifficultyAndSource() {
+        assertEquals(List.of(jepii.getId(), omu.getId()), ids(repository.findByDifficulty(Difficulty.HARD)));
+        assertEquals(
+                List.of(omu.getId(), jepii.getId()),
+                ids(repository.findByDifficultyOrderByDistance(Difficulty.HARD)));
+        assertEquals(3, repository.findTrailsInArea(null).size());
+        assertEquals(List.of(lacul.getId()), ids(repository.findBySource("manual")));
+        assertEquals(2, repository.countMetrics("openstreetmap"));
+        assertEquals(3, repository.findAllVersions().size());
+    }
+
+    @Test
+    void shouldProjectColumnsAndFilter() {
+        List<Map<String, Object>> rows = repository.findAttributes(List.of("name", "distance"), Difficulty.HARD, null);
+        TrailFilter shortTrails = new TrailFilter(
+                null, 10.0, null, null, null, null, null, null, null, null, null, null, null, null);
+
+        assertEquals(List.of("Jepii Mici", "Vârful Omu"), rows.stream().map(row -> row.get("name")).toList());
+        assertEquals(6.0, rows.get(0).get("distance"));
+        assertEquals(
+                List.of(lacul.getId(), jepii.getId()),
+                repository.findIdsByFilter(shortTrails, new TrailSort(TrailSort.Field.DISTANCE, false), 0, 10));
+        assertEquals(1L, repository.countFacets(shortTrails).difficulty().get(Difficulty.EASY));
+    }
+
+    @Test
+    void shouldRankNameMatchesAboveDescriptionMatches() {
+        Page<Trail> page = repository.searchRanked("omu:*", "omu", "%omu%", PageRequest.of(0, 10));
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of(omu.getId(), lacul.getId()), ids(page.getContent()));
+        assertEquals(
+                List.of(jepii.getId()),
+                ids(repository
+                        .searchRanked("01mn:*", "01mn", "%01mn%", PageRequest.of(0, 10))
+                        .getContent()));
+        assertEquals(
+                List.of(omu.getId()),
+                ids(repository
+                        .searchRanked("busteni:*", "busteni", "%busteni%", PageRequest.of(0, 10))
+                        .getContent()));
+    }
+
+    @Test
+    void shouldRefuseWrites() {
+        assertThrows(UnsupportedOperationException.class, () -> repository.save(omu));
+        assertThrows(UnsupportedOperationException.class, () -> repository.deleteById(omu.getId()));
+    }
+
+    private static List<UUID> ids(List<Trail> trails) {
+        return trails.stream().map(Trail::getId).toList();
+    }
+
+    private static Trail trail(String name, Long osmId, Difficulty difficulty, double distance, String source) {
+        Trail trail = new Trail();
+        trail.setId(UUID.randomUUID());
+        trail.setOsmId(osmId);
+        trail.setName(name);
+        trail.setDifficulty(difficulty);
+        trail.setDistance(distance);
+        trail.setSource(source);
+        trail.setTerrainSet(Set.of());
+        trail.setHazardSet(Set.of());
+        trail.setCoordinates(QuantizedCoordinates.builder(2)
+                .add(25.40, 45.40, 1500)
+                .add(25.41, 45.41, 1600)
+                .build());
+        return trail;
+    }
+}
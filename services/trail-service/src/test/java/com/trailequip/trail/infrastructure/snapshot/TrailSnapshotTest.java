@@ -0,0 +1,264 @@
+package com.trailequip.trail.infrastructure.snapshot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.trailequip.trail.domain.model.Difficulty;
+import com.trailequip.trail.domain.model.GeometryLevel;
+import com.trailequip.trail.domain.model.Hazard;
+import com.trailequip.trail.domain.model.QuantizedCoordinates;
+import com.trailequip.trail.domain.model.Terrain;
+import com.trailequip.trail.domain.model.Trail;
+import com.trailequip.trail.domain.model.TrailLineLevels;
+import com.trailequip.trail.domain.model.TrailMarking;
+import com.trailequip.trail.domain.model.Waypoint;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for TrailSnapshot and TrailSnapshotWriter.
+ * Tests round trips of every trail field, lines written apart from their trail, shared
+ * markings, id lookups, records kept within mapping windows, and rejection of partial or
+ * foreign files.
+ */
+class TrailSnapshotTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2025-04-01T07:00:00.123456Z");
+    private static final Instant UPDATED_AT = Instant.parse("2026-06-01T08:30:00.654321Z");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReadBackEveryField() throws IOException {
+        TrailMarking marking = marking(7L, "red:white:red_bar");
+        Trail omu = trail("Vârful Omu", 60);
+        omu.setOsmId(123456L);
+        omu.setRef("01MN02");
+        omu.setDescription("Creastă expusă, marcaj bandă roșie");
+        omu.setDistance(14.2);
+        omu.setElevationGain(1100);
+        omu.setMaxSlope(28.5);
+        omu.setDifficulty(Difficulty.HARD);
+        omu.setTerrainSet(Set.of(Terrain.ALPINE_MEADOW, Terrain.EXPOSED_RIDGE));
+        omu.setHazardSet(Set.of(Hazard.EXPOSURE));
+        omu.setMarking(marking);
+        omu.setSource("openstreetmap");
+        omu.setWaypoints(List.of(waypoint("Cabana Babele", Waypoint.WaypointType.SHELTER)));
+        Path file = tempDir.resolve("trails.snapshot");
+
+        TrailSnapshot.Metadata written = write(file, TrailSnapshot.DEFAULT_WINDOW_SIZE, omu);
+        TrailSnapshot snapshot = TrailSnapshot.open(file);
+        Trail read = snapshot.find(omu.getId()).orElseThrow();
+
+        assertEquals(written, snapshot.metadata());
+        assertEquals(1, snapshot.size());
+        assertEquals(123456L, read.getOsmId());
+        assertEquals("Vârful Omu", read.getName());
+        assertEquals("01MN02", read.getRef());
+        assertEquals(omu.getDescription(), read.getDescription());
+        assertEquals(14.2, read.getDistance());
+        assertEquals(1100, read.getElevationGain());
+        assertNull(read.getElevationLoss());
+        assertEquals(28.5, read.getMaxSlope());
+        assertEquals(Difficulty.HARD, read.getDifficulty());
+        assertEquals(omu.getTerrainSet(), read.getTerrainSet());
+        assertEquals(omu.getHazardSet(), read.getHazardSet());
+        assertEquals("openstreetmap", read.getSource());
+        assertEquals(CREATED_AT, read.getCreatedAt());
+        assertEquals(UPDATED_AT, read.getUpdatedAt());
+        assertEquals("red:white:red_bar", read.getMarking().getOsmcSymbol());
+        assertEquals(TrailMarking.MarkingColor.RED, read.getMarking().getColor());
+        for (GeometryLevel level : GeometryLevel.values()) {
+            assertEquals(omu.getCoordinates(level), read.getCoordinates(level), level.name());
+        }
+
+        Waypoint shelter = read.getWaypoints().get(0);
+        assertEquals(omu.getWaypoints().get(0).getId(), shelter.getId());
+        assertEquals("Cabana Babele", shelter.getName());
+        assertEquals(Waypoint.WaypointType.SHELTER, shelter.getType());
+        assertEquals(45.4, shelter.getLatitude());
+        assertEquals(2206, shelter.getElevation());
+        assertNull(shelter.getOsmNodeId());
+    }
+
+    @Test
+    void shouldKeepUnsetFieldsUnset() throws IOException {
+        Trail bare = new Trail();
+        bare.setId(UUID.randomUUID());
+        bare.setName("Unnamed");
+        Path file = tempDir.resolve("trails.snapshot");
+
+        write(file, TrailSnapshot.DEFAULT_WINDOW_SIZE, bare);
+        Trail read = TrailSnapshot.open(file).trail(0);
+
+        assertNull(read.getOsmId());
+        assertNull(read.getDistance());
+        assertNull(read.getDifficulty());
+        assertNull(read.getTerrainSet());
+        assertNull(read.getMarking());
+        assertNull(read.getCoordinates());
+        assertNull(read.getWaypoints());
+    }
+
+    @Test
+    void shouldWriteLinesSelectedApartFromTrail() throws IOException {
+        Trail omu = trail("Vârful Omu", 60);
+        TrailLineLevels lines = new TrailLineLevels(
+                omu.getId(),
+                UPDATED_AT,
+                omu.getEncodedGeometry(GeometryLevel.FULL),
+                omu.getEncodedGeometry(GeometryLevel.OVERVIEW),
+                omu.getEncodedGeometry(GeometryLevel.REGIONAL),
+                omu.getEncodedGeometry(GeometryLevel.DETAIL));
+        // As the export cursor returns it: line columns not loaded
+        Trail summary = new Trail();
+        summary.setId(omu.getId());
+        summary.setName(omu.getName());
+        Path file = tempDir.resolve("trails.snapshot");
+
+        try (TrailSnapshotWriter writer = TrailSnapshotWriter.open(file)) {
+            writer.writeTrail(summary, lines);
+            writer.finish();
+        }
+        Trail read = TrailSnapshot.open(file).trail(0);
+
+        for (GeometryLevel level : GeometryLevel.values()) {
+            assertArrayEquals(omu.getEncodedGeometry(level), read.getEncodedGeometry(level), level.name());
+        }
+    }
+
+    @Test
+    void shouldShareMarkingsAndKeepUnreferencedOnes() throws IOException {
+        TrailMarking red = marking(1L, "red:white:red_bar");
+        TrailMarking unused = marking(2L, "blue:white:blue_cross");
+        Trail first = trail("A", 5);
+        Trail second = trail("B", 5);
+        first.setMarking(red);
+        second.setMarking(red);
+        Path file = tempDir.resolve("trails.snapshot");
+
+        try (TrailSnapshotWriter writer = TrailSnapshotWriter.open(file)) {
+            writer.writeMarking(unused);
+            writer.writeTrail(first);
+            writer.writeTrail(second);
+            writer.finish();
+        }
+        TrailSnapshot snapshot = TrailSnapshot.open(file);
+
+        assertEquals(2, snapshot.markings().size());
+        assertSame(snapshot.trail(0).getMarking(), snapshot.trail(1).getMarking());
+    }
+
+    @Test
+    void shouldKeepRowsInWrittenOrderAndFindById() throws IOException {
+        Trail[] trails = new Trail[50];
+        for (int i = 0; i < trails.length; i++) {
+            trails[i] = trail(String.format("Trail %02d", i), 10 + i);
+            trails[i].setOsmId(1000L + i);
+        }
+        Path file = tempDir.resolve("trails.snapshot");
+
+        write(file, TrailSnapshot.DEFAULT_WINDOW_SIZE, trails);
+        TrailSnapshot snapshot = TrailSnapshot.open(file);
+
+        for (int i = 0; i < trails.length; i++) {
+            assertEquals(trails[i].getId(), snapshot.id(i));
+            assertEquals(i, snapshot.row(trails[i].getId()));
+            assertEquals(1000L + i, snapshot.osmId(i));
+            assertEquals(UPDATED_AT, snapshot.updatedAt(i));
+            assertEquals(trails[i].getName(), snapshot.labels(i).name());
+        }
+        assertEquals(-1, snapshot.row(UUID.randomUUID()));
+        assertTrue(snapshot.find(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void shouldNotSplitRecordsAcrossWindows() throws IOException {
+        Trail[] trails = new Trail[40];
+        for (int i = 0; i < trails.length; i++) {
+            trails[i] = trail("Trail " + i, 20 + i * 3);
+        }
+        Path file = tempDir.resolve("trails.snapshot");
+
+        write(file, 4096, trails); // several records per window, some pushed to the next one
+        TrailSnapshot snapshot = TrailSnapshot.open(file);
+
+        for (int i = 0; i < trails.length; i++) {
+            Trail read = snapshot.find(trails[i].getId()).orElseThrow();
+            assertEquals(trails[i].getCoordinates(), read.getCoordinates(), "trail " + i);
+        }
+    }
+
+    @Test
+    void shouldRejectTrailLargerThanWindow() throws IOException {
+        Path file = tempDir.resolve("trails.snapshot");
+
+        try (TrailSnapshotWriter writer = TrailSnapshotWriter.open(file, 256)) {
+            assertThrows(IOException.class, () -> writer.writeTrail(trail("Long", 500)));
+        }
+        assertFalse(Files.exists(file));
+        assertEquals(0, tempDir.toFile().list().length); // the partial file is removed
+    }
+
+    @Test
+    void shouldRejectFileThatIsNoSnapshot() throws IOException {
+        Path file = Files.write(tempDir.resolve("tiles.mvt"), new byte[128]);
+
+        assertThrows(IOException.class, () -> TrailSnapshot.open(file));
+    }
+
+    @Test
+    void shouldRejectOtherFormatVersion() throws IOException {
+        Path file = tempDir.resolve("trails.snapshot");
+        write(file, TrailSnapshot.DEFAULT_WINDOW_SIZE, trail("A", 5));
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(4, TrailSnapshot.FORMAT_VERSION + 1);
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> TrailSnapshot.open(file));
+    }
+
+    private static TrailSnapshot.Metadata write(Path file, int windowSize, Trail... trails) throws IOException {
+        try (TrailSnapshotWriter writer = TrailSnapshotWriter.open(file, windowSize)) {
+            for (Trail trail : trails) {
+                writer.writeTrail(trail);
+            }
+            return writer.finish();
+        }
+    }
+
+    private static Trail trail(String name, int vertices) {
+        QuantizedCoordinates.Builder line = QuantizedCoordinates.builder(vertices);
+        for (int i = 0; i < vertices; i++) {
+            line.add(25.40 + i * 0.001, 45.40 + Math.sin(i / 3.0) * 0.002, 1500 + i);
+        }
+        Trail trail = new Trail();
+        trail.setId(UUID.randomUUID());
+        trail.setName(name);
+        trail.setCoordinates(line.build());
+        trail.setCreatedAt(CREATED_AT);
+        trail.setUpdatedAt(UPDATED_AT);
+        return trail;
+    }
+
+    private static TrailMarking marking(Long id, String osmcSymbol) {
+        TrailMarking marking = TrailMarking.fromOsmcSymbol(osmcSymbol);
+        marking.setId(id);
+        return marking;
+    }
+
+    private static Waypoint waypoint(String name, Waypoint.WaypointType type) {
+        Waypoint waypoint = new Waypoint(45.4, 25.45, 2206, name, type);
+        waypoint.setId(UUID.randomUUID());
+        waypoint.setSequenceOrder(1);
+        return waypoint;
+    }
+}
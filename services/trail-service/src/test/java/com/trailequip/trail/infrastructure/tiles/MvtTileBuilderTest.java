@@ -0,0 +1,187 @@
+package com.trailequip.trail.infrastructure.tiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.trailequip.trail.domain.model.QuantizedCoordinates;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for MvtTileBuilder.
+ * Tests the protobuf layout, geometry command encoding and clipping to the tile buffer.
+ */
+class MvtTileBuilderTest {
+
+    private static final TileKey WORLD = new TileKey(0, 0, 0);
+
+    @Test
+    void shouldEncodeEmptyTileAsZeroBytes() {
+        MvtTileBuilder builder = new MvtTileBuilder(WORLD, "trails");
+
+        assertTrue(builder.isEmpty());
+        assertEquals(0, builder.build().length);
+    }
+
+    @Test
+    void shouldEncodeLayerFeatureAndAttributes() {
+        MvtTileBuilder builder = new MvtTileBuilder(WORLD, "trails");
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("name", "Omu Peak Loop");
+        attributes.put("distance", 12.5);
+        attributes.put("ref", null);
+
+        assertTrue(builder.addLine(line(0, 0, 90, 0), attributes));
+
+        Layer layer = Layer.decode(builder.build());
+        assertEquals("trails", layer.name);
+        assertEquals(2, layer.version);
+        assertEquals(MvtTileBuilder.EXTENT, layer.extent);
+        assertEquals(List.of("name", "distance"), layer.keys);
+        assertEquals(1, layer.geometries.size());
+
+        // MoveTo(1) to the tile centre, LineTo(1) a quarter of the world to the east
+        assertArrayEquals(new int[] {9, 4096, 4096, 10, 2048, 0}, layer.geometries.get(0));
+    }
+
+    @Test
+    void shouldSkipLinesOutsideTile() {
+        MvtTileBuilder builder = new MvtTileBuilder(new TileKey(10, 0, 0), "trails");
+
+        assertFalse(builder.addLine(line(25.5, 45.4, 25.6, 45.5), Map.of()));
+        assertTrue(builder.isEmpty());
+    }
+
+    @Test
+    void shouldClipToBufferAndSplitLinesThatLeaveTheTile() {
+        TileKey tile = new TileKey(1, 1, 0); // north-east quadrant
+        MvtTileBuilder builder = new MvtTileBuilder(tile, "trails");
+
+        // Crosses into the tile, out through the south edge and back in
+        QuantizedCoordinates line = QuantizedCoordinates.builder(4)
+                .add(-90, 40, Double.NaN)
+                .add(90, 40, Double.NaN)
+                .add(90, -40, Double.NaN)
+                .add(120, 40, Double.NaN)
+                .build();
+        assertTrue(builder.addLine(line, Map.of()));
+
+        int[] geometry = Layer.decode(builder.build()).geometries.get(0);
+        int moveTos = 0;
+        int i = 0;
+        while (i < geometry.length) {
+            int command = geometry[i] & 0x7;
+            int count = geometry[i] >>> 3;
+            if (command == 1) {
+                moveTos++;
+            }
+            i += 1 + 2 * count;
+        }
+        assertEquals(2, moveTos);
+
+        // First vertex is clipped to the western buffer edge
+        assertEquals(-MvtTileBuilder.BUFFER, unzigzag(geometry[1]));
+    }
+
+    private static QuantizedCoordinates line(double lon0, double lat0, double lon1, double lat1) {
+        return QuantizedCoordinates.builder(2)
+                .add(lon0, lat0, Double.NaN)
+                .add(lon1, lat1, Double.NaN)
+                .build();
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Just enough of a protobuf reader to inspect the single layer the builder writes.
+     */
+    private static final class Layer {
+        String name;
+        long version;
+        long extent;
+        final List<String> keys = new ArrayList<>();
+        final List<int[]> geometries = new ArrayList<>();
+
+        static Layer decode(byte[] tile) {
+            Reader tileReader = new Reader(tile);
+            assertEquals(3, tileReader.readTag() >>> 3);
+            Reader layerReader = new Reader(tileReader.readBytes());
+
+            Layer layer = new Layer();
+            while (layerReader.hasMore()) {
+                int tag = layerReader.readTag();
+                switch (tag >>> 3) {
+                    case 1 -> layer.name = new String(layerReader.readBytes(), StandardCharsets.UTF_8);
+                    case 2 -> layer.geometries.add(geometryOf(layerReader.readBytes()));
+                    case 3 -> layer.keys.add(new String(layerReader.readBytes(), StandardCharsets.UTF_8));
+                    case 4 -> layerReader.readBytes();
+                    case 5 -> layer.extent = layerReader.readVarint();
+                    case 15 -> layer.version = layerReader.readVarint();
+                    default -> fail("Unexpected layer field " + (tag >>> 3));
+                }
+            }
+            return layer;
+        }
+
+        private static int[] geometryOf(byte[] feature) {
+            Reader reader = new Reader(feature);
+            while (reader.hasMore()) {
+                int tag = reader.readTag();
+                if ((tag & 0x7) == 0) {
+                    reader.readVarint();
+                } else if (tag >>> 3 == 4) {
+                    Reader geometry = new Reader(reader.readBytes());
+                    List<Integer> values = new ArrayList<>();
+                    while (geometry.hasMore()) {
+                        values.add((int) geometry.readVarint());
+                    }
+                    return values.stream().mapToInt(Integer::intValue).toArray();
+                } else {
+                    reader.readBytes();
+                }
+            }
+            return fail("Feature without geometry");
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        boolean hasMore() {
+            return position < buffer.length;
+        }
+
+        int readTag() {
+            return (int) readVarint();
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = buffer[position++] & 0xFF;
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        byte[] readBytes() {
+            int length = (int) readVarint();
+            byte[] bytes = new byte[length];
+            System.arraycopy(buffer, position, bytes, 0, length);
+            position += length;
+            return bytes;
+        }
+    }
+}
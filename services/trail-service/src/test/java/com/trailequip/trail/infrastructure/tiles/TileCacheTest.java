@@ -0,0 +1,92 @@
+package com.trailequip.trail.infrastructure.tiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for TileCache.
+ * Tests LRU eviction, the disk tier and per-region invalidation.
+ */
+class TileCacheTest {
+
+    private static final GeoBounds BUCEGI = new GeoBounds(25.40, 45.35, 25.55, 45.50);
+
+    // z10 tiles over the Bucegi mountains and over Paris
+    private static final TileKey BUCEGI_TILE = new TileKey(10, 584, 366);
+    private static final TileKey PARIS_TILE = new TileKey(10, 518, 352);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldEvictLeastRecentlyUsedTilesFromMemory() {
+        TileCache cache = new TileCache(2, "");
+        TileKey a = new TileKey(1, 0, 0);
+        TileKey b = new TileKey(1, 1, 0);
+        TileKey c = new TileKey(1, 0, 1);
+
+        cache.put(a, new byte[] {1}, cache.generation());
+        cache.put(b, new byte[] {2}, cache.generation());
+        cache.get(a);
+        cache.put(c, new byte[] {3}, cache.generation());
+
+        assertEquals(2, cache.memorySize());
+        assertNotNull(cache.get(a));
+        assertNull(cache.get(b));
+        assertNotNull(cache.get(c));
+    }
+
+    @Test
+    void shouldServeTilesEvictedFromMemoryFromDisk() {
+        TileCache cache = new TileCache(1, tempDir.toString());
+
+        cache.put(BUCEGI_TILE, new byte[] {1, 2, 3}, cache.generation());
+        cache.put(PARIS_TILE, new byte[] {4}, cache.generation());
+
+        assertTrue(Files.exists(tempDir.resolve("10/584/366.mvt")));
+        assertArrayEquals(new byte[] {1, 2, 3}, cache.get(BUCEGI_TILE));
+    }
+
+    @Test
+    void shouldInvalidateOnlyTilesTouchingTheChangedBounds() {
+        TileCache cache = new TileCache(16, tempDir.toString());
+        TileKey world = new TileKey(0, 0, 0);
+        cache.put(world, new byte[] {0}, cache.generation());
+        cache.put(BUCEGI_TILE, new byte[] {1}, cache.generation());
+        cache.put(PARIS_TILE, new byte[] {2}, cache.generation());
+
+        cache.invalidate(BUCEGI);
+
+        assertNull(cache.get(world));
+        assertNull(cache.get(BUCEGI_TILE));
+        assertFalse(Files.exists(tempDir.resolve("10/584/366.mvt")));
+        assertArrayEquals(new byte[] {2}, cache.get(PARIS_TILE));
+    }
+
+    @Test
+    void shouldRejectTilesRenderedBeforeAnInvalidation() {
+        TileCache cache = new TileCache(16, tempDir.toString());
+        long renderedAt = cache.generation();
+
+        cache.invalidate(BUCEGI);
+        cache.put(BUCEGI_TILE, new byte[] {1}, renderedAt);
+
+        assertNull(cache.get(BUCEGI_TILE));
+        assertFalse(Files.exists(tempDir.resolve("10/584/366.mvt")));
+    }
+
+    @Test
+    void shouldClearMemoryAndDisk() {
+        TileCache cache = new TileCache(16, tempDir.toString());
+        cache.put(PARIS_TILE, new byte[] {2}, cache.generation());
+
+        cache.clear();
+
+        assertEquals(0, cache.memorySize());
+        assertNull(cache.get(PARIS_TILE));
+    }
+}